@@ -23,8 +23,10 @@
  */
 package net.sf.jasperreports.components.table.fill;
 
+import java.util.HashMap;
 import java.util.Map;
 
+import net.sf.jasperreports.engine.JRCloneable;
 import net.sf.jasperreports.engine.JRException;
 import net.sf.jasperreports.engine.JRExpression;
 import net.sf.jasperreports.engine.fill.DatasetExpressionEvaluator;
@@ -49,7 +51,30 @@ public class BuiltinExpressionEvaluatorDecorator implements DatasetExpressionEva
 			Map<JRExpression, BuiltinExpressionEvaluator> builtinEvaluators)
 	{
 		this.decorated = decorated;
-		this.builtinEvaluators = builtinEvaluators;
+		this.builtinEvaluators = instantiateEvaluators(builtinEvaluators);
+	}
+	
+	/**
+	 * Clones the evaluators that keep fill state, so that each decorated evaluator
+	 * uses its own instances.
+	 */
+	protected static Map<JRExpression, BuiltinExpressionEvaluator> instantiateEvaluators(
+			Map<JRExpression, BuiltinExpressionEvaluator> builtinEvaluators)
+	{
+		Map<JRExpression, BuiltinExpressionEvaluator> instances = null;
+		for (Map.Entry<JRExpression, BuiltinExpressionEvaluator> entry : builtinEvaluators.entrySet())
+		{
+			if (entry.getValue() instanceof JRCloneable)
+			{
+				if (instances == null)
+				{
+					instances = new HashMap<JRExpression, BuiltinExpressionEvaluator>(builtinEvaluators);
+				}
+				
+				instances.put(entry.getKey(), (BuiltinExpressionEvaluator) ((JRCloneable) entry.getValue()).clone());
+			}
+		}
+		return instances == null ? builtinEvaluators : instances;
 	}
 
 	@Override
@@ -38,6 +38,7 @@ import net.sf.jasperreports.components.table.Column;
 import net.sf.jasperreports.components.table.ColumnGroup;
 import net.sf.jasperreports.components.table.ColumnVisitor;
 import net.sf.jasperreports.components.table.TableComponent;
+import net.sf.jasperreports.engine.JRComponentElement;
 import net.sf.jasperreports.engine.JRDataset;
 import net.sf.jasperreports.engine.JRException;
 import net.sf.jasperreports.engine.JRExpression;
@@ -45,10 +46,12 @@ import net.sf.jasperreports.engine.JRLineBox;
 import net.sf.jasperreports.engine.JROrigin;
 import net.sf.jasperreports.engine.JRPrintElement;
 import net.sf.jasperreports.engine.JRPropertiesMap;
+import net.sf.jasperreports.engine.JRPropertiesUtil;
 import net.sf.jasperreports.engine.JRPropertyExpression;
 import net.sf.jasperreports.engine.JRRuntimeException;
 import net.sf.jasperreports.engine.JRStyle;
 import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.JasperReportsContext;
 import net.sf.jasperreports.engine.component.BaseFillComponent;
 import net.sf.jasperreports.engine.component.FillPrepareResult;
 import net.sf.jasperreports.engine.design.JRAbstractCompiler;
@@ -316,6 +319,92 @@ public class FillTable extends BaseFillComponent
 	protected FillTableSubreportFactory createFillTableSubreportFactory() throws JRException
 	{
 		JasperReport parentReport = fillContext.getFiller().getJasperReport();
+		TableReportCache.Key cacheKey = createTableReportCacheKey();
+		TableReportCache.CachedTableReport tableReport = cacheKey == null ? null
+				: TableReportCache.getInstance().get(parentReport, cacheKey);
+		if (tableReport == null)
+		{
+			tableReport = createTableReport(parentReport);
+			
+			if (cacheKey != null)
+			{
+				tableReport = TableReportCache.getInstance().put(parentReport, cacheKey, tableReport);
+			}
+		}
+		else if (log.isDebugEnabled())
+		{
+			log.debug("using cached table report for " + fillContext.getComponentElement().getUUID());
+		}
+		
+		TableSubreport subreport = 
+			new TableSubreport(
+				table.getDatasetRun(), 
+				((JRFillComponentElement)fillContext.getComponentElement()).getParent()
+				);
+		return 
+			new FillTableSubreportFactory(
+				subreport, tableReport.getReport(),
+				tableReport.getBuiltinEvaluatorFactory()
+				);
+	}
+	
+	/**
+	 * Creates the key used to cache the generated table report across fills.
+	 * 
+	 * @return the cache key, or <code>null</code> if the table report is not to be cached
+	 * @see TableReportCache#PROPERTY_CACHE_TABLE_REPORTS
+	 */
+	protected TableReportCache.Key createTableReportCacheKey()
+	{
+		JRComponentElement componentElement = fillContext.getComponentElement();
+		JRPropertyExpression[] propertyExpressions = componentElement.getPropertyExpressions();
+		if (propertyExpressions != null && propertyExpressions.length > 0)
+		{
+			// the table report depends on element properties that can change between fills
+			return null;
+		}
+		
+		if (hasPropertyExpressions(table.getColumns()))
+		{
+			// evaluated column properties are copied to the table report
+			return null;
+		}
+		
+		JasperReportsContext jasperReportsContext = fillContext.getFiller().getJasperReportsContext();
+		boolean cacheReports = JRPropertiesUtil.getInstance(jasperReportsContext).getBooleanProperty(
+				TableReportCache.PROPERTY_CACHE_TABLE_REPORTS, true, 
+				componentElement, fillContext.getFiller().getJasperReport());
+		if (!cacheReports)
+		{
+			return null;
+		}
+		
+		return new TableReportCache.Key(componentElement.getUUID(), fillColumns, 
+				jasperReportsContext, fillContext.getFillDataset().getTimeZone(),
+				fillContext.getFiller().getFillContext().getMasterTimeZone());
+	}
+
+	protected boolean hasPropertyExpressions(List<BaseColumn> columns)
+	{
+		for (BaseColumn column : columns)
+		{
+			JRPropertyExpression[] propertyExpressions = column.getPropertyExpressions();
+			if (propertyExpressions != null && propertyExpressions.length > 0)
+			{
+				return true;
+			}
+			
+			if (column instanceof ColumnGroup 
+					&& hasPropertyExpressions(((ColumnGroup) column).getColumns()))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	protected TableReportCache.CachedTableReport createTableReport(JasperReport parentReport) throws JRException
+	{
 		JasperReport containingReport = containingReport(parentReport);
 		JRDataset reportSubdataset = JRReportUtils.findSubdataset(table.getDatasetRun(), 
 				containingReport);
@@ -348,16 +437,7 @@ public class FillTable extends BaseFillComponent
 				new TableReportBaseObjectFactory(reportDataset),
 				"");// no suffix as already included in the report name
 		
-		TableSubreport subreport = 
-			new TableSubreport(
-				table.getDatasetRun(), 
-				((JRFillComponentElement)fillContext.getComponentElement()).getParent()
-				);
-		return 
-			new FillTableSubreportFactory(
-				subreport, compiledTableReport,
-				builtinEvaluatorFactory
-				);
+		return new TableReportCache.CachedTableReport(compiledTableReport, builtinEvaluatorFactory);
 	}
 
 	protected JasperReport containingReport(JasperReport parentReport)
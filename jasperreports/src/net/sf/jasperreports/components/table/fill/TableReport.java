@@ -56,6 +56,7 @@ import net.sf.jasperreports.engine.DatasetFilter;
 import net.sf.jasperreports.engine.DatasetPropertyExpression;
 import net.sf.jasperreports.engine.JRBand;
 import net.sf.jasperreports.engine.JRChild;
+import net.sf.jasperreports.engine.JRCloneable;
 import net.sf.jasperreports.engine.JRComponentElement;
 import net.sf.jasperreports.engine.JRDataset;
 import net.sf.jasperreports.engine.JRElement;
@@ -334,7 +335,7 @@ public class TableReport implements JRReport
 	public static final String TABLE_HEADER_LABEL_MATCHER_EXPORT_KEY = "net.sf.jasperreports.components.table.header.label";
 	public static final String TABLE_HEADER_ICON_LABEL_MATCHER_EXPORT_KEY = "net.sf.jasperreports.components.table.header.icon.label";
 
-	private final FillContext fillContext;
+	private FillContext fillContext;
 	private final TableComponent table;
 	private final JasperReport parentReport;
 	private final TableReportDataset mainDataset;
@@ -354,6 +355,8 @@ public class TableReport implements JRReport
 	private boolean hasFloatingHeader;
 	private boolean isGeneratePdfTags;
 	private Map<Column, Pair<Boolean, String>> columnInteractivityMapping;
+	private final int componentWidth;
+	private final WhenNoDataTypeEnum whenNoDataType;
 	
 	public TableReport(
 		FillContext fillContext, 
@@ -403,6 +406,9 @@ public class TableReport implements JRReport
 		
 		this.isGeneratePdfTags  = Boolean.valueOf(propertiesUtil.getProperty(PROPERTY_GENERATE_TABLE_PDF_TAGS, fillContext.getComponentElement(), this.parentReport));
 		
+		this.componentWidth = fillContext.getComponentElement().getWidth();
+		this.whenNoDataType = resolveWhenNoDataType();
+		
 		this.columnHeader = createColumnHeader(fillColumns);
 		this.detail = wrapBand(createDetailBand(fillColumns), new JROrigin(BandTypeEnum.DETAIL));
 		this.title = createTitle(fillColumns);
@@ -428,6 +434,10 @@ public class TableReport implements JRReport
 			// use the regular page footer
 			this.lastPageFooter = null;
 		}
+		
+		// the report structure is cached and reused by later fills, 
+		// releasing the fill context that was only needed to create it
+		this.fillContext = null;
 	}
 	
 	protected class ReportBandInfo
@@ -1574,7 +1584,11 @@ public class TableReport implements JRReport
 	
 	protected static final String TABLE_SCRIPTLET_NAME = "__Table";
 	
-	protected class SummaryGroupFooterPrintWhenEvaluator implements BuiltinExpressionEvaluator
+	/**
+	 * Keeps the table scriptlet of the fill, cloned for each table subreport fill
+	 * since the table report is shared by fills.
+	 */
+	protected class SummaryGroupFooterPrintWhenEvaluator implements BuiltinExpressionEvaluator, JRCloneable
 	{
 
 		private JRValueParameter tableScriptletParam;
@@ -1619,6 +1633,12 @@ public class TableReport implements JRReport
 			ensureValue();
 			return tableScriptlet.hasDetailOnPage();
 		}
+		
+		@Override
+		public Object clone()
+		{
+			return new SummaryGroupFooterPrintWhenEvaluator();
+		}
 	}
 	
 	protected int computeTableWidth(List<FillColumn> fillColumns)
@@ -1896,7 +1916,7 @@ public class TableReport implements JRReport
 	@Override
 	public int getColumnWidth()
 	{
-		return fillContext.getComponentElement().getWidth();
+		return componentWidth;
 	}
 
 	@Override
@@ -2019,7 +2039,7 @@ public class TableReport implements JRReport
 	@Override
 	public int getPageWidth()
 	{
-		return fillContext.getComponentElement().getWidth();
+		return componentWidth;
 	}
 
 	@Override
@@ -2141,6 +2161,11 @@ public class TableReport implements JRReport
 	
 	@Override
 	public WhenNoDataTypeEnum getWhenNoDataTypeValue()
+	{
+		return whenNoDataType;
+	}
+	
+	protected WhenNoDataTypeEnum resolveWhenNoDataType()
 	{
 		WhenNoDataTypeTableEnum whenNoDataType = table.getWhenNoDataType(); 
 		if (whenNoDataType == null)
@@ -0,0 +1,253 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.components.table.fill;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.UUID;
+
+import org.apache.commons.collections.map.ReferenceMap;
+
+import net.sf.jasperreports.annotations.properties.Property;
+import net.sf.jasperreports.annotations.properties.PropertyScope;
+import net.sf.jasperreports.engine.JRPropertiesUtil;
+import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.JasperReportsContext;
+import net.sf.jasperreports.engine.util.LocalJasperReportsContext;
+import net.sf.jasperreports.properties.PropertyConstants;
+
+/**
+ * Cache of the reports generated for table components, shared by report fills.
+ * <p>
+ * Generated table reports are cached per containing report, and are keyed by the UUID
+ * of the table component element, the list of columns printed by the table, 
+ * the context and the time zones of the fill.
+ * The local contexts created for fills that only set a class loader, an URL handler factory
+ * or a file resolver are replaced in the key by their parent context, as these do not change
+ * the generated table report.
+ * The containing reports are weakly referenced and the cached table reports are softly
+ * referenced, so that cached table reports are released when memory is needed.
+ * </p>
+ * 
+ * @see #PROPERTY_CACHE_TABLE_REPORTS
+ */
+public final class TableReportCache
+{
+	
+	/**
+	 * Property that determines whether the reports generated for a table component are
+	 * cached and reused by later fills of the same report.
+	 * <p>
+	 * Reports are not cached for table component elements that have property expressions.
+	 * </p>
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_TABLE,
+			defaultValue = PropertyConstants.BOOLEAN_TRUE,
+			scopes = {PropertyScope.CONTEXT, PropertyScope.REPORT, PropertyScope.ELEMENT},
+			sinceVersion = PropertyConstants.VERSION_6_4_2,
+			valueType = Boolean.class
+			)
+	public static final String PROPERTY_CACHE_TABLE_REPORTS = JRPropertiesUtil.PROPERTY_PREFIX + "components.table.cache.reports";
+	
+	private static final int MAX_ENTRIES_PER_REPORT = 64;
+	
+	private static final TableReportCache INSTANCE = new TableReportCache();
+	
+	public static TableReportCache getInstance()
+	{
+		return INSTANCE;
+	}
+	
+	private final ReferenceMap reportEntries;
+	
+	private TableReportCache()
+	{
+		reportEntries = new ReferenceMap(ReferenceMap.WEAK, ReferenceMap.SOFT);
+	}
+	
+	/**
+	 * Looks up a cached table report.
+	 * 
+	 * @param containingReport the report that contains the table
+	 * @param key the table key
+	 * @return the cached table report, or <code>null</code> if not found
+	 */
+	public synchronized CachedTableReport get(JasperReport containingReport, Key key)
+	{
+		@SuppressWarnings("unchecked")
+		Map<Key, CachedTableReport> entries = (Map<Key, CachedTableReport>) reportEntries.get(containingReport);
+		return entries == null ? null : entries.get(key);
+	}
+	
+	/**
+	 * Adds a table report to the cache, unless another thread has already added one
+	 * for the same key.
+	 * 
+	 * @param containingReport the report that contains the table
+	 * @param key the table key
+	 * @param tableReport the table report
+	 * @return the table report cached for the key
+	 */
+	public synchronized CachedTableReport put(JasperReport containingReport, Key key, CachedTableReport tableReport)
+	{
+		@SuppressWarnings("unchecked")
+		Map<Key, CachedTableReport> entries = (Map<Key, CachedTableReport>) reportEntries.get(containingReport);
+		if (entries == null)
+		{
+			entries = new LinkedHashMap<Key, CachedTableReport>(16, 0.75f, true)
+			{
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<Key, CachedTableReport> eldest)
+				{
+					return size() > MAX_ENTRIES_PER_REPORT;
+				}
+			};
+			reportEntries.put(containingReport, entries);
+		}
+		
+		CachedTableReport existing = entries.get(key);
+		if (existing != null)
+		{
+			return existing;
+		}
+		
+		entries.put(key, tableReport);
+		return tableReport;
+	}
+	
+	/**
+	 * Removes all the cached table reports.
+	 */
+	public synchronized void clear()
+	{
+		reportEntries.clear();
+	}
+	
+	/**
+	 * A table report cached along with the objects needed to fill it.
+	 */
+	public static class CachedTableReport
+	{
+		private final TableJasperReport report;
+		private final BuiltinExpressionEvaluatorFactory builtinEvaluatorFactory;
+		
+		public CachedTableReport(TableJasperReport report, 
+				BuiltinExpressionEvaluatorFactory builtinEvaluatorFactory)
+		{
+			this.report = report;
+			this.builtinEvaluatorFactory = builtinEvaluatorFactory;
+		}
+
+		public TableJasperReport getReport()
+		{
+			return report;
+		}
+
+		public BuiltinExpressionEvaluatorFactory getBuiltinEvaluatorFactory()
+		{
+			return builtinEvaluatorFactory;
+		}
+	}
+	
+	/**
+	 * Identifies a table report within the containing report.
+	 */
+	public static class Key
+	{
+		private final UUID elementUUID;
+		private final List<FillColumn> columns;
+		private final JasperReportsContext jasperReportsContext;
+		private final TimeZone timeZone;
+		private final TimeZone masterTimeZone;
+		private final int hash;
+		
+		public Key(UUID elementUUID, List<FillColumn> columns, 
+				JasperReportsContext jasperReportsContext, 
+				TimeZone timeZone, TimeZone masterTimeZone)
+		{
+			this.elementUUID = elementUUID;
+			this.columns = new ArrayList<FillColumn>(columns);
+			this.jasperReportsContext = keyContext(jasperReportsContext);
+			this.timeZone = timeZone;
+			this.masterTimeZone = masterTimeZone;
+			
+			int h = elementUUID.hashCode();
+			h = h * 31 + this.columns.hashCode();
+			h = h * 31 + System.identityHashCode(this.jasperReportsContext);
+			h = h * 31 + (timeZone == null ? 0 : timeZone.hashCode());
+			h = h * 31 + (masterTimeZone == null ? 0 : masterTimeZone.hashCode());
+			this.hash = h;
+		}
+
+		protected static JasperReportsContext keyContext(JasperReportsContext jasperReportsContext)
+		{
+			JasperReportsContext context = jasperReportsContext;
+			while (context instanceof LocalJasperReportsContext)
+			{
+				Map<String, String> localProperties = ((LocalJasperReportsContext) context).getPropertiesMap();
+				if (localProperties != null && !localProperties.isEmpty())
+				{
+					// properties set for the fill can change the table report
+					break;
+				}
+				context = ((LocalJasperReportsContext) context).getParent();
+			}
+			return context;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (obj == this)
+			{
+				return true;
+			}
+			
+			if (!(obj instanceof Key))
+			{
+				return false;
+			}
+			
+			Key key = (Key) obj;
+			return hash == key.hash
+					&& elementUUID.equals(key.elementUUID)
+					&& jasperReportsContext == key.jasperReportsContext
+					&& (timeZone == null ? key.timeZone == null : timeZone.equals(key.timeZone))
+					&& (masterTimeZone == null ? key.masterTimeZone == null : masterTimeZone.equals(key.masterTimeZone))
+					&& columns.equals(key.columns);
+		}
+	}
+}
@@ -26,6 +26,7 @@ package net.sf.jasperreports.crosstabs.fill.calculation;
 import net.sf.jasperreports.engine.JRException;
 import net.sf.jasperreports.engine.fill.AbstractValueProvider;
 import net.sf.jasperreports.engine.fill.JRCalculable;
+import net.sf.jasperreports.engine.fill.JRApproximateDistinctCountIncrementerFactory;
 import net.sf.jasperreports.engine.fill.JRDistinctCountExtendedIncrementerFactory;
 import net.sf.jasperreports.engine.fill.JRExtendedIncrementer;
 import net.sf.jasperreports.engine.fill.JRExtendedIncrementerFactory;
@@ -93,7 +94,10 @@ public class MeasureDefinition
 	 */
 	public static MeasureDefinition createDistinctCountHelperMeasure(MeasureDefinition measure)
 	{
-		return new MeasureDefinition(measure.valueClass, CalculationEnum.NOTHING, JRDistinctCountExtendedIncrementerFactory.getInstance(), true);
+		JRExtendedIncrementerFactory helperFactory = 
+			measure.incrementerFactory instanceof JRApproximateDistinctCountIncrementerFactory
+			? measure.incrementerFactory : JRDistinctCountExtendedIncrementerFactory.getInstance();
+		return new MeasureDefinition(measure.valueClass, CalculationEnum.NOTHING, helperFactory, true);
 	}
 
 	
@@ -235,6 +239,16 @@ public class MeasureDefinition
 		{
 			return String.valueOf(getValue());
 		}
+		
+		/**
+		 * Returns the value class of the measure.
+		 * 
+		 * @return the measure value class
+		 */
+		public Class<?> getValueClass()
+		{
+			return valueClass;
+		}
 
 		
 		/**
@@ -77,6 +77,8 @@ public class DefaultJasperReportsContext implements JasperReportsContext
 	// FIXME remove volatile after we get rid of restoreProperties()
 	protected volatile ConcurrentHashMap<String, String> properties;
 	
+	private final ResolvedPropertiesCache resolvedPropertiesCache = new ResolvedPropertiesCache(this);
+	
 	/**
 	 *
 	 */
@@ -133,6 +135,8 @@ public class DefaultJasperReportsContext implements JasperReportsContext
 			}
 			
 			loadSystemProperties();
+			
+			resolvedPropertiesCache.propertiesChanged();
 		}
 		catch (JRException e)
 		{
@@ -293,12 +297,14 @@ public class DefaultJasperReportsContext implements JasperReportsContext
 	public void setProperty(String key, String value)
 	{
 		properties.put(key, value);
+		resolvedPropertiesCache.propertiesChanged();
 	}
 	
 	@Override
 	public void removeProperty(String key)
 	{
 		properties.remove(key);
+		resolvedPropertiesCache.propertiesChanged();
 	}
 	
 	@Override
@@ -306,4 +312,42 @@ public class DefaultJasperReportsContext implements JasperReportsContext
 	{
 		return properties;
 	}
+
+	/**
+	 * Specifies whether the property values resolved via this context are cached by {@link JRPropertiesUtil},
+	 * along with their parsed boolean and integer values.
+	 * 
+	 * <p>
+	 * The cached values are discarded when properties are set or removed via the methods of this context
+	 * or of its parents, but not when the maps returned by {@link #getProperties()} of this context
+	 * or of its parents are modified directly.
+	 * The cache should only be enabled when the context properties are not changed via such maps.
+	 * Values resolved via parent contexts other than {@link SimpleJasperReportsContext} and 
+	 * {@link DefaultJasperReportsContext} are not cached.
+	 * The flag is inherited by child {@link SimpleJasperReportsContext} instances that do not set it.
+	 * The cache is disabled by default.
+	 * </p>
+	 * <p>
+	 * Values resolved via properties holders are also cached, see {@link JRPropertiesUtil}.
+	 * </p>
+	 */
+	public void setPropertiesCacheEnabled(boolean enabled)
+	{
+		resolvedPropertiesCache.setEnabled(enabled);
+	}
+
+	/**
+	 * Determines whether the property values resolved via this context are cached.
+	 * 
+	 * @see #setPropertiesCacheEnabled(boolean)
+	 */
+	public boolean isPropertiesCacheEnabled()
+	{
+		return resolvedPropertiesCache.isEnabled();
+	}
+
+	ResolvedPropertiesCache getResolvedPropertiesCache()
+	{
+		return resolvedPropertiesCache;
+	}
 }
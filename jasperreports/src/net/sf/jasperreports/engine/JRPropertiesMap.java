@@ -35,8 +35,13 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import net.sf.jasperreports.engine.design.events.JRPropertyChangeSupport;
+import net.sf.jasperreports.engine.virtualization.VirtualizationInput;
+import net.sf.jasperreports.engine.virtualization.VirtualizationOutput;
+import net.sf.jasperreports.engine.virtualization.VirtualizationSerializable;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -49,12 +54,17 @@ import org.apache.commons.logging.LogFactory;
  * 
  * @author Lucian Chirita (lucianc@users.sourceforge.net)
  */
-public class JRPropertiesMap implements Serializable, Cloneable
+public class JRPropertiesMap implements Serializable, Cloneable, VirtualizationSerializable
 {
 	private static final long serialVersionUID = JRConstants.SERIAL_VERSION_UID;
 	
+	private static final int SERIALIZATION_FLAG_HAS_BASE = 1;
+	private static final int SERIALIZATION_FLAG_BASE_REFERENCE = 1 << 1;
+	
 	private static final Log log = LogFactory.getLog(JRPropertiesMap.class);
 	
+	private static final int MAX_RESOLVED_ENTRIES = 64;
+	
 	/**
 	 * @deprecated no longer used, {@link #setProperty(String, String)} now uses 
 	 * the actual property name for the change event
@@ -67,6 +77,9 @@ public class JRPropertiesMap implements Serializable, Cloneable
 	
 	private JRPropertiesMap base;
 	
+	private transient int modificationCount;
+	private transient volatile ConcurrentMap<String, ResolvedPropertiesCache.HolderEntry> resolvedEntries;
+	
 	/**
 	 * Creates a properties map.
 	 */
@@ -243,6 +256,7 @@ public class JRPropertiesMap implements Serializable, Cloneable
 			propertiesList.add(propName);
 		}
 		propertiesMap.put(propName, value);
+		++modificationCount;
 
 		if (hasEventSupport())
 		{
@@ -264,6 +278,7 @@ public class JRPropertiesMap implements Serializable, Cloneable
 			String old = getOwnProperty(propName);
 			propertiesList.remove(propName);
 			propertiesMap.remove(propName);
+			++modificationCount;
 
 			if (hasEventSupport())
 			{
@@ -311,6 +326,67 @@ public class JRPropertiesMap implements Serializable, Cloneable
 	}
 	
 	
+	@Override
+	public void writeVirtualized(VirtualizationOutput out) throws IOException
+	{
+		// base maps are usually shared by many elements, keeping references to them.
+		// references are only kept for maps that do not have a base of their own
+		// because nested objects of the same type would be indexed in different orders on write and read
+		boolean baseReference = base != null && base.base == null;
+		
+		int flags = 0;
+		if (base != null)
+		{
+			flags |= SERIALIZATION_FLAG_HAS_BASE;
+		}
+		if (baseReference)
+		{
+			flags |= SERIALIZATION_FLAG_BASE_REFERENCE;
+		}
+		
+		out.writeByte(flags);
+		
+		if (base != null)
+		{
+			out.writeJRObject(base, baseReference, baseReference);
+		}
+		
+		int size = propertiesList == null ? 0 : propertiesList.size();
+		out.writeIntCompressed(size);
+		for (int i = 0; i < size; i++)
+		{
+			String propName = propertiesList.get(i);
+			out.writeJRObject(propName);
+			out.writeJRObject(propertiesMap.get(propName));
+		}
+	}
+
+	@Override
+	public void readVirtualized(VirtualizationInput in) throws IOException
+	{
+		int flags = in.readUnsignedByte();
+		if ((flags & SERIALIZATION_FLAG_HAS_BASE) != 0)
+		{
+			base = (JRPropertiesMap) in.readJRObject((flags & SERIALIZATION_FLAG_BASE_REFERENCE) != 0);
+		}
+		
+		int size = in.readIntCompressed();
+		if (size > 0)
+		{
+			propertiesMap = new HashMap<String, String>(size * 4 / 3 + 1, 0.75f);
+			propertiesList = new ArrayList<String>(size);
+			for (int i = 0; i < size; i++)
+			{
+				String propName = (String) in.readJRObject();
+				String value = (String) in.readJRObject();
+				propertiesList.add(propName);
+				propertiesMap.put(propName, value);
+			}
+		}
+		++modificationCount;
+	}
+	
+	
 	/**
 	 * Checks whether there are any properties.
 	 * 
@@ -391,6 +467,45 @@ public class JRPropertiesMap implements Serializable, Cloneable
 	public void setBaseProperties(JRPropertiesMap base)
 	{
 		this.base = base;
+		++modificationCount;
+	}
+	
+	/**
+	 * Returns a count that is incremented when a property is set or removed in this map, 
+	 * or when the base properties map is set.
+	 */
+	int getModificationCount()
+	{
+		return modificationCount;
+	}
+	
+	ResolvedPropertiesCache.HolderEntry getResolvedEntry(String propName)
+	{
+		ConcurrentMap<String, ResolvedPropertiesCache.HolderEntry> entries = resolvedEntries;
+		return entries == null ? null : entries.get(propName);
+	}
+	
+	void putResolvedEntry(String propName, ResolvedPropertiesCache.HolderEntry entry)
+	{
+		ConcurrentMap<String, ResolvedPropertiesCache.HolderEntry> entries = resolvedEntries;
+		if (entries == null)
+		{
+			synchronized (this)
+			{
+				entries = resolvedEntries;
+				if (entries == null)
+				{
+					entries = new ConcurrentHashMap<String, ResolvedPropertiesCache.HolderEntry>(8, 0.75f, 1);
+					resolvedEntries = entries;
+				}
+			}
+		}
+		
+		// the limit guards against dynamically created property names
+		if (entries.size() < MAX_RESOLVED_ENTRIES || entries.containsKey(propName))
+		{
+			entries.put(propName, entry);
+		}
 	}
 	
 	/**
@@ -50,7 +50,15 @@ import net.sf.jasperreports.engine.util.JRLoader;
  * are checked and their values are used.  This way of specifying properties is deprecated.</li>
  * </ul>
  * </p> 
+ * <p>
+ * Values read from {@link SimpleJasperReportsContext} and {@link DefaultJasperReportsContext}
+ * instances that have the properties cache enabled are cached along with their parsed boolean and integer values, 
+ * the cached values are discarded when a property is set or removed in the context or in one of its parents.
+ * Values read from properties holders via such contexts are also cached, and are discarded when
+ * a property is set or removed in one of the properties maps of the holders.
+ * </p>
  * 
+ * @see SimpleJasperReportsContext#setPropertiesCacheEnabled(boolean)
  * @author Lucian Chirita (lucianc@users.sourceforge.net)
  */
 public final class JRPropertiesUtil
@@ -147,6 +155,12 @@ public final class JRPropertiesUtil
 	 */
 	public String getProperty(String key)
 	{
+		ResolvedPropertiesCache resolvedPropertiesCache = ResolvedPropertiesCache.forContext(jasperReportsContext);
+		if (resolvedPropertiesCache != null)
+		{
+			return resolvedPropertiesCache.get(key).getValue();
+		}
+		
 		return jasperReportsContext.getProperty(key);
 	}
 	
@@ -174,6 +188,12 @@ public final class JRPropertiesUtil
 	 */
 	public boolean getBooleanProperty(String key)
 	{
+		ResolvedPropertiesCache resolvedPropertiesCache = ResolvedPropertiesCache.forContext(jasperReportsContext);
+		if (resolvedPropertiesCache != null)
+		{
+			return resolvedPropertiesCache.get(key).asBoolean();
+		}
+		
 		return asBoolean(getProperty(key));
 	}
 	
@@ -186,6 +206,12 @@ public final class JRPropertiesUtil
 	 */
 	public boolean getBooleanProperty(String key, boolean defaultValue)
 	{
+		ResolvedPropertiesCache resolvedPropertiesCache = ResolvedPropertiesCache.forContext(jasperReportsContext);
+		if (resolvedPropertiesCache != null)
+		{
+			return resolvedPropertiesCache.get(key).asBoolean(defaultValue);
+		}
+		
 		return asBoolean(getProperty(key), defaultValue);
 	}
 	
@@ -197,6 +223,12 @@ public final class JRPropertiesUtil
 	 */
 	public int getIntegerProperty (String key)
 	{
+		ResolvedPropertiesCache resolvedPropertiesCache = ResolvedPropertiesCache.forContext(jasperReportsContext);
+		if (resolvedPropertiesCache != null)
+		{
+			return resolvedPropertiesCache.get(key).asInteger();
+		}
+		
 		return asInteger(getProperty(key));
 	}
 
@@ -434,6 +466,27 @@ public final class JRPropertiesUtil
 	 * @return the property value
 	 */
 	public String getProperty(JRPropertiesHolder propertiesHolder, String key)
+	{
+		ResolvedPropertiesCache resolvedPropertiesCache = ResolvedPropertiesCache.forContext(jasperReportsContext);
+		if (resolvedPropertiesCache != null)
+		{
+			return resolvedPropertiesCache.get(propertiesHolder, key).getValue();
+		}
+		
+		String value = getHolderProperty(propertiesHolder, key);
+		
+		if (value == null)
+		{
+			value = getProperty(key);
+		}
+		
+		return value;
+	}
+
+	/**
+	 * Looks for a property in a properties holder and its parents, without falling back to the context properties.
+	 */
+	private static String getHolderProperty(JRPropertiesHolder propertiesHolder, String key)
 	{
 		String value = null;
 		while (propertiesHolder != null && value == null)
@@ -444,12 +497,6 @@ public final class JRPropertiesUtil
 			}
 			propertiesHolder = propertiesHolder.getParentProperties();
 		}
-		
-		if (value == null)
-		{
-			value = getProperty(key);
-		}
-		
 		return value;
 	}
 
@@ -463,6 +510,12 @@ public final class JRPropertiesUtil
 	 */
 	public String getProperty(String key, JRPropertiesHolder ... propertiesHolders)
 	{
+		ResolvedPropertiesCache resolvedPropertiesCache = ResolvedPropertiesCache.forContext(jasperReportsContext);
+		if (resolvedPropertiesCache != null)
+		{
+			return resolvedPropertiesCache.get(key, propertiesHolders).getValue();
+		}
+		
 		String value = null;
 		main: for (JRPropertiesHolder propertiesHolder : propertiesHolders)
 		{
@@ -524,9 +577,15 @@ public final class JRPropertiesUtil
 	 */
 	public boolean getBooleanProperty(JRPropertiesHolder propertiesHolder, String key, boolean defaultValue)
 	{
-		String value = getProperty(propertiesHolder, key);
+		ResolvedPropertiesCache resolvedPropertiesCache = ResolvedPropertiesCache.forContext(jasperReportsContext);
+		if (resolvedPropertiesCache != null)
+		{
+			return resolvedPropertiesCache.get(propertiesHolder, key).asBoolean(defaultValue);
+		}
 		
-		return value == null ? defaultValue : asBoolean(value);
+		String value = getHolderProperty(propertiesHolder, key);
+		
+		return value == null ? getBooleanProperty(key, defaultValue) : asBoolean(value);
 	}
 
 	/**
@@ -540,6 +599,12 @@ public final class JRPropertiesUtil
 	 */
 	public boolean getBooleanProperty(String key, boolean defaultValue, JRPropertiesHolder ... propertiesHolders)
 	{
+		ResolvedPropertiesCache resolvedPropertiesCache = ResolvedPropertiesCache.forContext(jasperReportsContext);
+		if (resolvedPropertiesCache != null)
+		{
+			return resolvedPropertiesCache.get(key, propertiesHolders).asBoolean(defaultValue);
+		}
+		
 		String value = getProperty(key, propertiesHolders);
 		
 		return value == null ? defaultValue : asBoolean(value);
@@ -556,9 +621,9 @@ public final class JRPropertiesUtil
 	 */
 	public boolean getBooleanProperty(JRPropertiesMap propertiesMap, String key, boolean defaultValue)
 	{
-		String value = getProperty(propertiesMap, key);
+		String value = propertiesMap == null ? null : propertiesMap.getProperty(key);
 		
-		return value == null ? defaultValue : asBoolean(value);
+		return value == null ? getBooleanProperty(key, defaultValue) : asBoolean(value);
 	}
 
 	/**
@@ -586,6 +651,13 @@ public final class JRPropertiesUtil
 	 */
 	public Boolean getBooleanProperty(JRPropertiesHolder propertiesHolder, String key)
 	{
+		ResolvedPropertiesCache resolvedPropertiesCache = ResolvedPropertiesCache.forContext(jasperReportsContext);
+		if (resolvedPropertiesCache != null)
+		{
+			ResolvedPropertiesCache.ResolvedProperty property = resolvedPropertiesCache.get(propertiesHolder, key);
+			return property.getValue() == null ? null : property.asBoolean();
+		}
+		
 		String value = getProperty(propertiesHolder, key);
 		
 		return value == null ? null : asBoolean(value);
@@ -601,6 +673,13 @@ public final class JRPropertiesUtil
 	 */
 	public Integer getIntegerProperty(JRPropertiesHolder propertiesHolder, String key)
 	{
+		ResolvedPropertiesCache resolvedPropertiesCache = ResolvedPropertiesCache.forContext(jasperReportsContext);
+		if (resolvedPropertiesCache != null)
+		{
+			ResolvedPropertiesCache.ResolvedProperty property = resolvedPropertiesCache.get(propertiesHolder, key);
+			return property.getValue() == null ? null : property.asInteger();
+		}
+		
 		String value = getProperty(propertiesHolder, key);
 		
 		return value == null ? null : asInteger(value);
@@ -617,9 +696,15 @@ public final class JRPropertiesUtil
 	 */
 	public int getIntegerProperty(JRPropertiesHolder propertiesHolder, String key, int defaultValue)
 	{
-		String value = getProperty(propertiesHolder, key);
+		ResolvedPropertiesCache resolvedPropertiesCache = ResolvedPropertiesCache.forContext(jasperReportsContext);
+		if (resolvedPropertiesCache != null)
+		{
+			return resolvedPropertiesCache.get(propertiesHolder, key).asInteger(defaultValue);
+		}
 		
-		return value == null ? defaultValue : asInteger(value);
+		String value = getHolderProperty(propertiesHolder, key);
+		
+		return value == null ? getIntegerProperty(key, defaultValue) : asInteger(value);
 	}
 	
 	/**
@@ -633,9 +718,9 @@ public final class JRPropertiesUtil
 	 */
 	public int getIntegerProperty(JRPropertiesMap propertiesMap, String key, int defaultValue)
 	{
-		String value = getProperty(propertiesMap, key);
+		String value = propertiesMap == null ? null : propertiesMap.getProperty(key);
 		
-		return value == null ? defaultValue : asInteger(value);
+		return value == null ? getIntegerProperty(key, defaultValue) : asInteger(value);
 	}
 
 	/**
@@ -647,6 +732,12 @@ public final class JRPropertiesUtil
 	 */
 	public int getIntegerProperty(String key, int defaultValue)
 	{
+		ResolvedPropertiesCache resolvedPropertiesCache = ResolvedPropertiesCache.forContext(jasperReportsContext);
+		if (resolvedPropertiesCache != null)
+		{
+			return resolvedPropertiesCache.get(key).asInteger(defaultValue);
+		}
+		
 		String value = getProperty(key);
 		
 		return value == null ? defaultValue : asInteger(value);
@@ -133,6 +133,7 @@ public class JRResultSetDataSource implements JRDataSource
 	private boolean timeZoneOverride;
 	private TimeZone reportTimeZone;
 	private Map<JRField, Calendar> fieldCalendars = new HashMap<JRField, Calendar>();
+	private Map<JRField, ColumnReader> columnReaders = new HashMap<JRField, ColumnReader>();
 
 
 	/**
@@ -186,208 +187,336 @@ public class JRResultSetDataSource implements JRDataSource
 
 		if (field != null && resultSet != null)
 		{
-			Integer columnIndex = getColumnIndex(field);
-			Class<?> clazz = field.getValueClass();
+			ColumnReader columnReader = getColumnReader(field);
 
 			try
 			{
-				if (clazz.equals(java.lang.Boolean.class))
+				objValue = columnReader.read();
+			}
+			catch (Exception e)
+			{
+				throw 
+					new JRException(
+						EXCEPTION_MESSAGE_KEY_RESULT_SET_FIELD_VALUE_NOT_RETRIEVED,
+						new Object[]{field.getName(), field.getValueClass().getName()}, 
+						e);
+			}
+		}
+		
+		return objValue;
+	}
+
+
+	/**
+	 * Returns the reader for a field, resolving it on first access.
+	 */
+	protected ColumnReader getColumnReader(JRField field) throws JRException
+	{
+		ColumnReader columnReader = columnReaders.get(field);
+		if (columnReader == null)
+		{
+			Integer columnIndex = getColumnIndex(field);
+			try
+			{
+				columnReader = createColumnReader(field, columnIndex);
+			}
+			catch (SQLException e)
+			{
+				throw 
+					new JRException(
+						EXCEPTION_MESSAGE_KEY_RESULT_SET_METADATA_NOT_RETRIEVED, 
+						null, 
+						e);
+			}
+			columnReaders.put(field, columnReader);
+		}
+		return columnReader;
+	}
+
+
+	/**
+	 * Creates the reader used to retrieve the values of a field from the result set,
+	 * based on the field value class and on the column type.
+	 */
+	protected ColumnReader createColumnReader(final JRField field, final Integer columnIndex) throws SQLException
+	{
+		final int index = columnIndex.intValue();
+		Class<?> clazz = field.getValueClass();
+		
+		if (clazz.equals(java.lang.Boolean.class))
+		{
+			return new ColumnReader()
+			{
+				@Override
+				public Object read() throws SQLException
 				{
-					objValue = resultSet.getBoolean(columnIndex.intValue()) ? Boolean.TRUE : Boolean.FALSE;
-					if(resultSet.wasNull())
-					{
-						objValue = null;
-					}
+					boolean value = resultSet.getBoolean(index);
+					return resultSet.wasNull() ? null : (value ? Boolean.TRUE : Boolean.FALSE);
 				}
-				else if (clazz.equals(java.lang.Byte.class))
+			};
+		}
+		
+		if (clazz.equals(java.lang.Byte.class))
+		{
+			return new ColumnReader()
+			{
+				@Override
+				public Object read() throws SQLException
 				{
-					objValue = new Byte(resultSet.getByte(columnIndex.intValue()));
-					if(resultSet.wasNull())
-					{
-						objValue = null;
-					}
+					byte value = resultSet.getByte(index);
+					return resultSet.wasNull() ? null : Byte.valueOf(value);
 				}
-				else if (
-					clazz.equals(java.util.Date.class)
-					|| clazz.equals(java.sql.Date.class)
-					)
+			};
+		}
+		
+		if (
+			clazz.equals(java.util.Date.class)
+			|| clazz.equals(java.sql.Date.class)
+			)
+		{
+			return new ColumnReader()
+			{
+				@Override
+				public Object read() throws SQLException
 				{
-					objValue = readDate(columnIndex, field);
+					return readDate(columnIndex, field);
 				}
-				else if (clazz.equals(java.sql.Timestamp.class))
+			};
+		}
+		
+		if (clazz.equals(java.sql.Timestamp.class))
+		{
+			return new ColumnReader()
+			{
+				@Override
+				public Object read() throws SQLException
 				{
-					objValue = readTimestamp(columnIndex, field);
+					return readTimestamp(columnIndex, field);
 				}
-				else if (clazz.equals(java.sql.Time.class))
+			};
+		}
+		
+		if (clazz.equals(java.sql.Time.class))
+		{
+			return new ColumnReader()
+			{
+				@Override
+				public Object read() throws SQLException
 				{
-					objValue = readTime(columnIndex, field);
+					return readTime(columnIndex, field);
 				}
-				else if (clazz.equals(java.lang.Double.class))
+			};
+		}
+		
+		if (clazz.equals(java.lang.Double.class))
+		{
+			return new ColumnReader()
+			{
+				@Override
+				public Object read() throws SQLException
 				{
-					objValue = new Double(resultSet.getDouble(columnIndex.intValue()));
-					if(resultSet.wasNull())
-					{
-						objValue = null;
-					}
+					double value = resultSet.getDouble(index);
+					return resultSet.wasNull() ? null : Double.valueOf(value);
 				}
-				else if (clazz.equals(java.lang.Float.class))
+			};
+		}
+		
+		if (clazz.equals(java.lang.Float.class))
+		{
+			return new ColumnReader()
+			{
+				@Override
+				public Object read() throws SQLException
 				{
-					objValue = new Float(resultSet.getFloat(columnIndex.intValue()));
-					if(resultSet.wasNull())
-					{
-						objValue = null;
-					}
+					float value = resultSet.getFloat(index);
+					return resultSet.wasNull() ? null : Float.valueOf(value);
 				}
-				else if (clazz.equals(java.lang.Integer.class))
+			};
+		}
+		
+		if (clazz.equals(java.lang.Integer.class))
+		{
+			return new ColumnReader()
+			{
+				@Override
+				public Object read() throws SQLException
 				{
-					objValue = Integer.valueOf(resultSet.getInt(columnIndex.intValue()));
-					if(resultSet.wasNull())
-					{
-						objValue = null;
-					}
+					int value = resultSet.getInt(index);
+					return resultSet.wasNull() ? null : Integer.valueOf(value);
 				}
-				else if (clazz.equals(java.io.InputStream.class))
+			};
+		}
+		
+		if (clazz.equals(java.io.InputStream.class))
+		{
+			final int columnType = resultSet.getMetaData().getColumnType(index);
+			return new ColumnReader()
+			{
+				@Override
+				public Object read() throws SQLException, IOException
 				{
-					byte[] bytes = readBytes(columnIndex);
-					
-					if(bytes == null)
-					{
-						objValue = null;
-					}
-					else
-					{
-						objValue = new ByteArrayInputStream(bytes);
-					}					
+					byte[] bytes = readBytes(columnIndex, columnType);
+					return bytes == null ? null : new ByteArrayInputStream(bytes);
 				}
-				else if (clazz.equals(java.lang.Long.class))
+			};
+		}
+		
+		if (clazz.equals(java.lang.Long.class))
+		{
+			return new ColumnReader()
+			{
+				@Override
+				public Object read() throws SQLException
 				{
-					objValue = new Long(resultSet.getLong(columnIndex.intValue()));
-					if(resultSet.wasNull())
-					{
-						objValue = null;
-					}
+					long value = resultSet.getLong(index);
+					return resultSet.wasNull() ? null : Long.valueOf(value);
 				}
-				else if (clazz.equals(java.lang.Short.class))
+			};
+		}
+		
+		if (clazz.equals(java.lang.Short.class))
+		{
+			return new ColumnReader()
+			{
+				@Override
+				public Object read() throws SQLException
 				{
-					objValue = new Short(resultSet.getShort(columnIndex.intValue()));
-					if(resultSet.wasNull())
-					{
-						objValue = null;
-					}
+					short value = resultSet.getShort(index);
+					return resultSet.wasNull() ? null : Short.valueOf(value);
 				}
-				else if (clazz.equals(java.math.BigDecimal.class))
+			};
+		}
+		
+		if (clazz.equals(java.math.BigDecimal.class))
+		{
+			return new ColumnReader()
+			{
+				@Override
+				public Object read() throws SQLException
 				{
-					objValue = resultSet.getBigDecimal(columnIndex.intValue());
-					if(resultSet.wasNull())
-					{
-						objValue = null;
-					}
+					Object value = resultSet.getBigDecimal(index);
+					return resultSet.wasNull() ? null : value;
 				}
-				else if (clazz.equals(java.lang.String.class))
+			};
+		}
+		
+		if (clazz.equals(java.lang.String.class))
+		{
+			int columnType = resultSet.getMetaData().getColumnType(index);
+			if (columnType == Types.CLOB)
+			{
+				return new ColumnReader()
 				{
-					int columnType = resultSet.getMetaData().getColumnType(columnIndex.intValue());
-					switch (columnType)
+					@Override
+					public Object read() throws SQLException, JRException
 					{
-						case Types.CLOB:
-							Clob clob = resultSet.getClob(columnIndex.intValue());
-							if (resultSet.wasNull())
-							{
-								objValue = null;
-							}
-							else
-							{
-								objValue = clobToString(clob);
-							}
-							break;
-							
-						default:
-							objValue = resultSet.getString(columnIndex.intValue());
-							if(resultSet.wasNull())
-							{
-								objValue = null;
-							}
-							break;
+						Clob clob = resultSet.getClob(index);
+						return resultSet.wasNull() ? null : clobToString(clob);
 					}
-				}
-				else if (clazz.equals(Clob.class))
+				};
+			}
+			
+			return new ColumnReader()
+			{
+				@Override
+				public Object read() throws SQLException
 				{
-					objValue = resultSet.getClob(columnIndex.intValue());
-					if(resultSet.wasNull())
-					{
-						objValue = null;
-					}
+					String value = resultSet.getString(index);
+					return resultSet.wasNull() ? null : value;
 				}
-				else if (clazz.equals(Reader.class))
+			};
+		}
+		
+		if (clazz.equals(Clob.class))
+		{
+			return new ColumnReader()
+			{
+				@Override
+				public Object read() throws SQLException
 				{
-					Reader reader = null;
-					long size = -1;
-					
-					int columnType = resultSet.getMetaData().getColumnType(columnIndex.intValue());
-					switch (columnType)
-					{
-						case Types.CLOB:
-							Clob clob = resultSet.getClob(columnIndex.intValue());
-							if (!resultSet.wasNull())
-							{
-								reader = clob.getCharacterStream();
-								size = clob.length();
-							}
-							break;
-							
-						default:
-							reader = resultSet.getCharacterStream(columnIndex.intValue());
-							if (resultSet.wasNull())
-							{
-								reader = null; 
-							}
-					}
-					
-					if (reader == null)
-					{
-						objValue = null;
-					}
-					else
-					{
-						objValue = getArrayReader(reader, size);
-					}
+					Object value = resultSet.getClob(index);
+					return resultSet.wasNull() ? null : value;
 				}
-				else if (clazz.equals(Blob.class))
+			};
+		}
+		
+		if (clazz.equals(Reader.class))
+		{
+			final int columnType = resultSet.getMetaData().getColumnType(index);
+			return new ColumnReader()
+			{
+				@Override
+				public Object read() throws SQLException, IOException
 				{
-					objValue = resultSet.getBlob(columnIndex.intValue());
-					if(resultSet.wasNull())
-					{
-						objValue = null;
-					}
+					return readReader(index, columnType);
 				}
-				else if (clazz.equals(Image.class))
+			};
+		}
+		
+		if (clazz.equals(Blob.class))
+		{
+			return new ColumnReader()
+			{
+				@Override
+				public Object read() throws SQLException
 				{
-					byte[] bytes = readBytes(columnIndex);
-					
-					if(bytes == null)
-					{
-						objValue = null;
-					}
-					else
-					{
-						objValue = JRImageLoader.getInstance(jasperReportsContext).loadAwtImageFromBytes(bytes);
-					}					
+					Object value = resultSet.getBlob(index);
+					return resultSet.wasNull() ? null : value;
 				}
-				else
+			};
+		}
+		
+		if (clazz.equals(Image.class))
+		{
+			final int columnType = resultSet.getMetaData().getColumnType(index);
+			return new ColumnReader()
+			{
+				@Override
+				public Object read() throws SQLException, IOException, JRException
 				{
-					objValue = resultSet.getObject(columnIndex.intValue());
+					byte[] bytes = readBytes(columnIndex, columnType);
+					return bytes == null ? null 
+							: JRImageLoader.getInstance(jasperReportsContext).loadAwtImageFromBytes(bytes);
 				}
-			}
-			catch (Exception e)
+			};
+		}
+		
+		return new ColumnReader()
+		{
+			@Override
+			public Object read() throws SQLException
 			{
-				throw 
-					new JRException(
-						EXCEPTION_MESSAGE_KEY_RESULT_SET_FIELD_VALUE_NOT_RETRIEVED,
-						new Object[]{field.getName(), clazz.getName()}, 
-						e);
+				return resultSet.getObject(index);
 			}
+		};
+	}
+
+
+	protected Object readReader(int columnIndex, int columnType) throws SQLException, IOException
+	{
+		Reader reader = null;
+		long size = -1;
+		
+		switch (columnType)
+		{
+			case Types.CLOB:
+				Clob clob = resultSet.getClob(columnIndex);
+				if (!resultSet.wasNull())
+				{
+					reader = clob.getCharacterStream();
+					size = clob.length();
+				}
+				break;
+				
+			default:
+				reader = resultSet.getCharacterStream(columnIndex);
+				if (resultSet.wasNull())
+				{
+					reader = null; 
+				}
 		}
 		
-		return objValue;
+		return reader == null ? null : getArrayReader(reader, size);
 	}
 
 
@@ -692,11 +821,16 @@ public class JRResultSetDataSource implements JRDataSource
 	}
 
 	protected byte[] readBytes(Integer columnIndex) throws SQLException, IOException
+	{
+		int columnType = resultSet.getMetaData().getColumnType(columnIndex.intValue());
+		return readBytes(columnIndex, columnType);
+	}
+
+	protected byte[] readBytes(Integer columnIndex, int columnType) throws SQLException, IOException
 	{
 		InputStream is = null;
 		long size = -1;
 		
-		int columnType = resultSet.getMetaData().getColumnType(columnIndex.intValue());
 		switch (columnType)
 		{
 			case Types.BLOB:
@@ -848,5 +982,20 @@ public class JRResultSetDataSource implements JRDataSource
 		}
 		return tz;
 	}
+	
+	
+	/**
+	 * Reads the value of a field from the current row of the result set.
+	 * <p>
+	 * Readers are created once per field, so that the value class and the column type
+	 * are not looked up for each row.
+	 * </p>
+	 * 
+	 * @see JRResultSetDataSource#createColumnReader(JRField, Integer)
+	 */
+	protected static abstract class ColumnReader
+	{
+		public abstract Object read() throws SQLException, IOException, JRException;
+	}
 
 }
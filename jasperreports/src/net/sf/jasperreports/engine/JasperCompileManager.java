@@ -28,8 +28,10 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.reflect.Constructor;
 import java.util.Collection;
+import java.util.List;
 
 import net.sf.jasperreports.crosstabs.JRCrosstab;
+import net.sf.jasperreports.engine.design.BatchCompiler;
 import net.sf.jasperreports.engine.design.JRCompiler;
 import net.sf.jasperreports.engine.design.JRJavacCompiler;
 import net.sf.jasperreports.engine.design.JRJdk13Compiler;
@@ -358,6 +360,23 @@ public final class JasperCompileManager
 	}
 
 
+	/**
+	 * Compiles all the JRXML files found in a directory and its subdirectories,
+	 * using a pool of worker threads.
+	 * The compiled reports are saved as <code>*.jasper</code> files having the same names as the source files.
+	 * 
+	 * @param sourceDir the directory that contains the JRXML files
+	 * @param destDir the directory in which the compiled files are placed, following the structure of
+	 * the source directory; if <code>null</code>, the compiled files are placed next to the source files
+	 * @return the compilation result for each report, including errors and compilation times
+	 * @see BatchCompiler
+	 */
+	public List<BatchCompiler.ReportResult> compileDirectory(File sourceDir, File destDir) throws JRException
+	{
+		return new BatchCompiler(jasperReportsContext).compileDirectory(sourceDir, destDir);
+	}
+
+
 	/**
 	 * Verifies the validity and consistency of the report design object.
 	 * Returns a collection of {@link JRValidationFault errors}, if problems are found in the report design.
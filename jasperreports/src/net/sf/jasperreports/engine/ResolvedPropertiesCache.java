@@ -0,0 +1,447 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of property values resolved through a {@link JasperReportsContext} and its parents.
+ *
+ * <p>
+ * Resolved values are kept as immutable {@link ResolvedProperty} objects which also hold
+ * the parsed boolean and integer values, so that repeated typed lookups of the same property
+ * do not walk the context chain and parse the value again.
+ * </p>
+ * <p>
+ * The cache is only used when enabled for the context via
+ * {@link SimpleJasperReportsContext#setPropertiesCacheEnabled(boolean)} or
+ * {@link DefaultJasperReportsContext#setPropertiesCacheEnabled(boolean)},
+ * or when the context does not specify whether the cache is enabled and the flag is inherited from a parent,
+ * and when the context chain is made of these context implementations,
+ * other implementations are not known to signal property changes.
+ * Each context keeps a version that is incremented when a property is set or removed in the context,
+ * and the cached values are discarded when the version of the context or of one of its parents changes.
+ * Changes made directly to the maps returned by the contexts are not detected.
+ * </p>
+ * <p>
+ * Values resolved through a {@link JRPropertiesHolder} and its parents are kept by the properties map
+ * of the first holder that has properties, along with the properties maps that were looked up
+ * and their modification counts, and are resolved again when one of these maps is modified
+ * or when the holder chain changes.
+ * </p>
+ *
+ * @see JRPropertiesUtil#getProperty(String)
+ */
+final class ResolvedPropertiesCache
+{
+
+	private static final int MAX_ENTRIES = 2000;
+
+	private static final ResolvedProperty NULL_PROPERTY = new ResolvedProperty(null);
+
+	/**
+	 * Returns the resolved properties cache of a context.
+	 *
+	 * @param jasperReportsContext the context
+	 * @return the context cache, or <code>null</code> if properties resolved via the context are not cached
+	 */
+	static ResolvedPropertiesCache forContext(JasperReportsContext jasperReportsContext)
+	{
+		ResolvedPropertiesCache cache = contextCache(jasperReportsContext);
+		if (cache == null)
+		{
+			return null;
+		}
+
+		Boolean enabled = cache.enabled;
+		for (JasperReportsContext parent = parentContext(jasperReportsContext); parent != null; 
+				parent = parentContext(parent))
+		{
+			ResolvedPropertiesCache parentCache = contextCache(parent);
+			if (parentCache == null)
+			{
+				// the parent does not signal property changes
+				return null;
+			}
+
+			if (enabled == null)
+			{
+				enabled = parentCache.enabled;
+			}
+		}
+		return enabled != null && enabled ? cache : null;
+	}
+
+	private static ResolvedPropertiesCache contextCache(JasperReportsContext jasperReportsContext)
+	{
+		if (jasperReportsContext instanceof SimpleJasperReportsContext)
+		{
+			return ((SimpleJasperReportsContext) jasperReportsContext).getResolvedPropertiesCache();
+		}
+
+		if (jasperReportsContext instanceof DefaultJasperReportsContext)
+		{
+			return ((DefaultJasperReportsContext) jasperReportsContext).getResolvedPropertiesCache();
+		}
+
+		return null;
+	}
+
+	private static JasperReportsContext parentContext(JasperReportsContext jasperReportsContext)
+	{
+		return jasperReportsContext instanceof SimpleJasperReportsContext
+				? ((SimpleJasperReportsContext) jasperReportsContext).getParentContext() : null;
+	}
+
+	private final JasperReportsContext jasperReportsContext;
+	private final AtomicLong version = new AtomicLong();
+	// null when the flag is inherited from the parent context
+	private volatile Boolean enabled;
+	private volatile Entries entries;
+
+	ResolvedPropertiesCache(JasperReportsContext jasperReportsContext)
+	{
+		this.jasperReportsContext = jasperReportsContext;
+	}
+
+	/**
+	 * Signals that a property has changed in the context.
+	 *
+	 * <p>
+	 * This needs to be called after the property value has been changed.
+	 * </p>
+	 */
+	void propertiesChanged()
+	{
+		version.incrementAndGet();
+	}
+
+	boolean isEnabled()
+	{
+		for (JasperReportsContext context = jasperReportsContext; context != null; context = parentContext(context))
+		{
+			ResolvedPropertiesCache cache = contextCache(context);
+			if (cache == null)
+			{
+				break;
+			}
+
+			Boolean contextEnabled = cache.enabled;
+			if (contextEnabled != null)
+			{
+				return contextEnabled;
+			}
+		}
+		return false;
+	}
+
+	void setEnabled(boolean enabled)
+	{
+		// the properties might have been changed directly while the cache was not used
+		propertiesChanged();
+		this.enabled = enabled;
+	}
+
+	ResolvedProperty get(String key)
+	{
+		Entries currentEntries = entries;
+		if (currentEntries == null || !isCurrent(currentEntries.versions))
+		{
+			// reading the versions before the values
+			currentEntries = new Entries(currentVersions());
+			entries = currentEntries;
+		}
+
+		ResolvedProperty property = currentEntries.properties.get(key);
+		if (property == null)
+		{
+			String value = jasperReportsContext.getProperty(key);
+			property = value == null ? NULL_PROPERTY : new ResolvedProperty(value);
+
+			// property names are from a limited set, the limit guards against dynamically created names
+			if (currentEntries.size.get() < MAX_ENTRIES)
+			{
+				ResolvedProperty existing = currentEntries.properties.putIfAbsent(key, property);
+				if (existing == null)
+				{
+					currentEntries.size.incrementAndGet();
+				}
+			}
+		}
+		return property;
+	}
+
+	/**
+	 * Resolves a property through a properties holder and its parents, and then through the context.
+	 */
+	ResolvedProperty get(JRPropertiesHolder propertiesHolder, String key)
+	{
+		ResolvedProperty property = getHolderProperty(propertiesHolder, key);
+		return property == null ? get(key) : property;
+	}
+
+	/**
+	 * Resolves a property through several properties holders and their parents, and then through the context.
+	 */
+	ResolvedProperty get(String key, JRPropertiesHolder ... propertiesHolders)
+	{
+		for (JRPropertiesHolder propertiesHolder : propertiesHolders)
+		{
+			ResolvedProperty property = getHolderProperty(propertiesHolder, key);
+			if (property != null)
+			{
+				return property;
+			}
+		}
+		return get(key);
+	}
+
+	/**
+	 * Resolves a property through a properties holder and its parents.
+	 *
+	 * @param propertiesHolder the properties holder, can be <code>null</code>
+	 * @param key the property key
+	 * @return the resolved property, or <code>null</code> if the property is not set in the holders
+	 */
+	static ResolvedProperty getHolderProperty(JRPropertiesHolder propertiesHolder, String key)
+	{
+		JRPropertiesMap ownerMap = null;
+		for (JRPropertiesHolder holder = propertiesHolder; holder != null; holder = holder.getParentProperties())
+		{
+			if (holder.hasProperties())
+			{
+				ownerMap = holder.getPropertiesMap();
+				break;
+			}
+		}
+
+		if (ownerMap == null)
+		{
+			// none of the holders has properties
+			return null;
+		}
+
+		HolderEntry entry = ownerMap.getResolvedEntry(key);
+		if (entry == null || !entry.isCurrent(propertiesHolder))
+		{
+			entry = HolderEntry.resolve(propertiesHolder, key);
+			if (entry.cacheable)
+			{
+				ownerMap.putResolvedEntry(key, entry);
+			}
+		}
+		return entry.property;
+	}
+
+	private boolean isCurrent(long[] versions)
+	{
+		int index = 0;
+		for (JasperReportsContext context = jasperReportsContext; context != null; context = parentContext(context))
+		{
+			ResolvedPropertiesCache cache = contextCache(context);
+			if (cache == null || index >= versions.length || versions[index] != cache.version.get())
+			{
+				return false;
+			}
+			++index;
+		}
+		return index == versions.length;
+	}
+
+	private long[] currentVersions()
+	{
+		int count = 0;
+		for (JasperReportsContext context = jasperReportsContext; context != null; context = parentContext(context))
+		{
+			++count;
+		}
+
+		long[] versions = new long[count];
+		int index = 0;
+		for (JasperReportsContext context = jasperReportsContext; context != null && index < count; 
+				context = parentContext(context))
+		{
+			ResolvedPropertiesCache cache = contextCache(context);
+			// a context that is not cached never matches
+			versions[index++] = cache == null ? -1 : cache.version.get();
+		}
+		return versions;
+	}
+
+	private static class Entries
+	{
+		final long[] versions;
+		final ConcurrentMap<String, ResolvedProperty> properties =
+				new ConcurrentHashMap<String, ResolvedProperty>(64, 0.75f, 4);
+		final AtomicInteger size = new AtomicInteger();
+
+		Entries(long[] versions)
+		{
+			this.versions = versions;
+		}
+	}
+
+	/**
+	 * A property resolved through a holder chain, along with the properties maps that were looked up.
+	 */
+	static final class HolderEntry
+	{
+		// the properties map and its base maps for each holder that has properties, 
+		// followed by null as separator between holders
+		private final JRPropertiesMap[] maps;
+		private final int[] modificationCounts;
+		private final ResolvedProperty property;
+		private final boolean cacheable;
+
+		private HolderEntry(JRPropertiesMap[] maps, int[] modificationCounts, 
+				ResolvedProperty property, boolean cacheable)
+		{
+			this.maps = maps;
+			this.modificationCounts = modificationCounts;
+			this.property = property;
+			this.cacheable = cacheable;
+		}
+
+		static HolderEntry resolve(JRPropertiesHolder propertiesHolder, String key)
+		{
+			List<JRPropertiesMap> maps = new ArrayList<JRPropertiesMap>();
+			boolean cacheable = true;
+			String value = null;
+			for (JRPropertiesHolder holder = propertiesHolder; holder != null && value == null; 
+					holder = holder.getParentProperties())
+			{
+				if (holder.hasProperties())
+				{
+					JRPropertiesMap propertiesMap = holder.getPropertiesMap();
+					value = propertiesMap.getProperty(key);
+					for (JRPropertiesMap map = propertiesMap; map != null; map = map.getBaseProperties())
+					{
+						// subclasses might not resolve the values from the properties that are set in the map
+						cacheable &= map.getClass() == JRPropertiesMap.class;
+						maps.add(map);
+					}
+				}
+				maps.add(null);
+			}
+
+			int[] modificationCounts = new int[maps.size()];
+			for (int i = 0; i < modificationCounts.length; i++)
+			{
+				JRPropertiesMap map = maps.get(i);
+				modificationCounts[i] = map == null ? 0 : map.getModificationCount();
+			}
+			return new HolderEntry(maps.toArray(new JRPropertiesMap[maps.size()]), modificationCounts, 
+					value == null ? null : new ResolvedProperty(value), cacheable);
+		}
+
+		boolean isCurrent(JRPropertiesHolder propertiesHolder)
+		{
+			JRPropertiesHolder holder = propertiesHolder;
+			int index = 0;
+			while (index < maps.length)
+			{
+				if (holder == null)
+				{
+					return false;
+				}
+
+				if (holder.hasProperties())
+				{
+					for (JRPropertiesMap map = holder.getPropertiesMap(); map != null; map = map.getBaseProperties())
+					{
+						if (index >= maps.length || maps[index] != map 
+								|| modificationCounts[index] != map.getModificationCount())
+						{
+							return false;
+						}
+						++index;
+					}
+				}
+
+				if (index >= maps.length || maps[index] != null)
+				{
+					return false;
+				}
+				++index;
+				holder = holder.getParentProperties();
+			}
+
+			// if the property was not found, the holder chain needs to end at the same place
+			return property != null || holder == null;
+		}
+	}
+
+	/**
+	 * A resolved property value along with its parsed forms.
+	 */
+	static final class ResolvedProperty
+	{
+		private final String value;
+		private final boolean booleanValue;
+		private volatile Integer integerValue;
+
+		ResolvedProperty(String value)
+		{
+			this.value = value;
+			this.booleanValue = JRPropertiesUtil.asBoolean(value);
+		}
+
+		String getValue()
+		{
+			return value;
+		}
+
+		boolean asBoolean()
+		{
+			return booleanValue;
+		}
+
+		boolean asBoolean(boolean defaultValue)
+		{
+			return value == null ? defaultValue : booleanValue;
+		}
+
+		int asInteger()
+		{
+			Integer integer = integerValue;
+			if (integer == null)
+			{
+				// throws NumberFormatException for null and invalid values, as JRPropertiesUtil.asInteger
+				integer = JRPropertiesUtil.asInteger(value);
+				integerValue = integer;
+			}
+			return integer;
+		}
+
+		int asInteger(int defaultValue)
+		{
+			return value == null ? defaultValue : asInteger();
+		}
+	}
+}
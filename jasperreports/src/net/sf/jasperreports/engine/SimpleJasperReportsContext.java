@@ -43,6 +43,7 @@ public class SimpleJasperReportsContext implements JasperReportsContext
 	private Map<String, Object> values = new ConcurrentHashMap<String, Object>(16, .75f, 1);// assume low update concurrency
 	private Map<String, String> properties;
 	private Map<Class<?>, List<?>> extensionsMap;
+	private final ResolvedPropertiesCache resolvedPropertiesCache = new ResolvedPropertiesCache(this);
 
 	/**
 	 * Constructs a SimpleJasperReportsContext instance that has the DefaultJasperReportsContext.getInstance() as parent.
@@ -66,6 +67,15 @@ public class SimpleJasperReportsContext implements JasperReportsContext
 	public void setParent(JasperReportsContext parent)
 	{
 		this.parent = parent;
+		resolvedPropertiesCache.propertiesChanged();
+	}
+
+	/**
+	 *
+	 */
+	public JasperReportsContext getParent()
+	{
+		return parent;
 	}
 
 	@Override
@@ -218,6 +228,7 @@ public class SimpleJasperReportsContext implements JasperReportsContext
 		}
 		
 		properties.put(key, value);
+		resolvedPropertiesCache.propertiesChanged();
 	}
 	
 	@Override
@@ -226,6 +237,7 @@ public class SimpleJasperReportsContext implements JasperReportsContext
 		if (properties != null)
 		{
 			properties.remove(key);
+			resolvedPropertiesCache.propertiesChanged();
 		}
 	}
 	
@@ -289,5 +301,52 @@ public class SimpleJasperReportsContext implements JasperReportsContext
 	public void setPropertiesMap(Map<String, String> propertiesMap)
 	{
 		this.properties = propertiesMap;
+		resolvedPropertiesCache.propertiesChanged();
+	}
+
+	/**
+	 * Specifies whether the property values resolved via this context are cached by {@link JRPropertiesUtil},
+	 * along with their parsed boolean and integer values.
+	 * 
+	 * <p>
+	 * The cached values are discarded when properties are set or removed via the methods of this context
+	 * or of its parents, but not when the maps returned by {@link #getProperties()} and {@link #getPropertiesMap()} of this context
+	 * or of its parents are modified directly.
+	 * The cache should only be enabled when the context properties are not changed via such maps.
+	 * Values resolved via parent contexts other than {@link SimpleJasperReportsContext} and 
+	 * {@link DefaultJasperReportsContext} are not cached.
+	 * When the flag is not set for this context, it is inherited from the parent context,
+	 * so that contexts created for a report fill, such as {@link net.sf.jasperreports.engine.util.LocalJasperReportsContext},
+	 * use the cache when it is enabled for the context they are created from.
+	 * The cache is disabled by default.
+	 * </p>
+	 * <p>
+	 * Values resolved via properties holders are also cached, see {@link JRPropertiesUtil}.
+	 * </p>
+	 */
+	public void setPropertiesCacheEnabled(boolean enabled)
+	{
+		resolvedPropertiesCache.setEnabled(enabled);
+	}
+
+	/**
+	 * Determines whether the property values resolved via this context are cached,
+	 * taking into account the flag inherited from the parent contexts.
+	 * 
+	 * @see #setPropertiesCacheEnabled(boolean)
+	 */
+	public boolean isPropertiesCacheEnabled()
+	{
+		return resolvedPropertiesCache.isEnabled();
+	}
+
+	ResolvedPropertiesCache getResolvedPropertiesCache()
+	{
+		return resolvedPropertiesCache;
+	}
+
+	JasperReportsContext getParentContext()
+	{
+		return parent;
 	}
 }
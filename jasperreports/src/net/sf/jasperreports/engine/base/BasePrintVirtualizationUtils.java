@@ -0,0 +1,242 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.base;
+
+import java.awt.Color;
+import java.io.IOException;
+
+import net.sf.jasperreports.engine.JRLineBox;
+import net.sf.jasperreports.engine.JRParagraph;
+import net.sf.jasperreports.engine.JRPen;
+import net.sf.jasperreports.engine.TabStop;
+import net.sf.jasperreports.engine.type.LineSpacingEnum;
+import net.sf.jasperreports.engine.type.LineStyleEnum;
+import net.sf.jasperreports.engine.type.TabStopAlignEnum;
+import net.sf.jasperreports.engine.virtualization.VirtualizationInput;
+import net.sf.jasperreports.engine.virtualization.VirtualizationOutput;
+
+/**
+ * Helper methods used to write the attributes of base print elements as virtualization data.
+ * 
+ * <p>
+ * Nullable attributes are written after a bit mask that flags the attributes that have values.
+ * Enum values are written as a byte containing the ordinal plus one, zero being used for <code>null</code>;
+ * the data is only read back in the same JVM, so the ordinals do not change.
+ * </p>
+ */
+final class BasePrintVirtualizationUtils
+{
+
+	private BasePrintVirtualizationUtils()
+	{
+	}
+	
+	static void writeEnum(VirtualizationOutput out, Enum<?> value) throws IOException
+	{
+		out.writeByte(value == null ? 0 : value.ordinal() + 1);
+	}
+	
+	static <T extends Enum<T>> T readEnum(VirtualizationInput in, Class<T> type) throws IOException
+	{
+		int value = in.readUnsignedByte();
+		return value == 0 ? null : type.getEnumConstants()[value - 1];
+	}
+	
+	static void writePen(VirtualizationOutput out, JRPen pen) throws IOException
+	{
+		Float lineWidth = pen.getOwnLineWidth();
+		LineStyleEnum lineStyle = pen.getOwnLineStyleValue();
+		Color lineColor = pen.getOwnLineColor();
+		
+		int flags = 0;
+		if (lineWidth != null)
+		{
+			flags |= 1;
+		}
+		if (lineStyle != null)
+		{
+			flags |= 1 << 1;
+		}
+		if (lineColor != null)
+		{
+			flags |= 1 << 2;
+		}
+		out.writeByte(flags);
+		
+		if (lineWidth != null)
+		{
+			out.writeFloat(lineWidth);
+		}
+		if (lineStyle != null)
+		{
+			writeEnum(out, lineStyle);
+		}
+		if (lineColor != null)
+		{
+			out.writeJRObject(lineColor);
+		}
+	}
+	
+	static void readPen(VirtualizationInput in, JRPen pen) throws IOException
+	{
+		int flags = in.readUnsignedByte();
+		if ((flags & 1) != 0)
+		{
+			pen.setLineWidth(in.readFloat());
+		}
+		if ((flags & (1 << 1)) != 0)
+		{
+			pen.setLineStyle(readEnum(in, LineStyleEnum.class));
+		}
+		if ((flags & (1 << 2)) != 0)
+		{
+			pen.setLineColor((Color) in.readJRObject());
+		}
+	}
+	
+	static void writeLineBox(VirtualizationOutput out, JRLineBox lineBox) throws IOException
+	{
+		Integer[] paddings = new Integer[]{
+				lineBox.getOwnPadding(), 
+				lineBox.getOwnTopPadding(), 
+				lineBox.getOwnLeftPadding(),
+				lineBox.getOwnBottomPadding(), 
+				lineBox.getOwnRightPadding()};
+		writeIntegers(out, paddings);
+		
+		writePen(out, lineBox.getPen());
+		writePen(out, lineBox.getTopPen());
+		writePen(out, lineBox.getLeftPen());
+		writePen(out, lineBox.getBottomPen());
+		writePen(out, lineBox.getRightPen());
+	}
+	
+	static void readLineBox(VirtualizationInput in, JRLineBox lineBox) throws IOException
+	{
+		Integer[] paddings = readIntegers(in, 5);
+		lineBox.setPadding(paddings[0]);
+		lineBox.setTopPadding(paddings[1]);
+		lineBox.setLeftPadding(paddings[2]);
+		lineBox.setBottomPadding(paddings[3]);
+		lineBox.setRightPadding(paddings[4]);
+		
+		readPen(in, lineBox.getPen());
+		readPen(in, lineBox.getTopPen());
+		readPen(in, lineBox.getLeftPen());
+		readPen(in, lineBox.getBottomPen());
+		readPen(in, lineBox.getRightPen());
+	}
+	
+	static void writeParagraph(VirtualizationOutput out, JRParagraph paragraph) throws IOException
+	{
+		writeEnum(out, paragraph.getOwnLineSpacing());
+		
+		Float lineSpacingSize = paragraph.getOwnLineSpacingSize();
+		out.writeBoolean(lineSpacingSize != null);
+		if (lineSpacingSize != null)
+		{
+			out.writeFloat(lineSpacingSize);
+		}
+		
+		Integer[] indents = new Integer[]{
+				paragraph.getOwnFirstLineIndent(),
+				paragraph.getOwnLeftIndent(),
+				paragraph.getOwnRightIndent(),
+				paragraph.getOwnSpacingBefore(),
+				paragraph.getOwnSpacingAfter(),
+				paragraph.getOwnTabStopWidth()};
+		writeIntegers(out, indents);
+		
+		TabStop[] tabStops = paragraph.getOwnTabStops();
+		int tabStopCount = tabStops == null ? 0 : tabStops.length;
+		out.writeIntCompressed(tabStopCount);
+		for (int i = 0; i < tabStopCount; i++)
+		{
+			out.writeIntCompressed(tabStops[i].getPosition());
+			writeEnum(out, tabStops[i].getAlignment());
+		}
+	}
+	
+	static void readParagraph(VirtualizationInput in, JRParagraph paragraph) throws IOException
+	{
+		paragraph.setLineSpacing(readEnum(in, LineSpacingEnum.class));
+		
+		if (in.readBoolean())
+		{
+			paragraph.setLineSpacingSize(in.readFloat());
+		}
+		
+		Integer[] indents = readIntegers(in, 6);
+		paragraph.setFirstLineIndent(indents[0]);
+		paragraph.setLeftIndent(indents[1]);
+		paragraph.setRightIndent(indents[2]);
+		paragraph.setSpacingBefore(indents[3]);
+		paragraph.setSpacingAfter(indents[4]);
+		paragraph.setTabStopWidth(indents[5]);
+		
+		int tabStopCount = in.readIntCompressed();
+		for (int i = 0; i < tabStopCount; i++)
+		{
+			int position = in.readIntCompressed();
+			TabStopAlignEnum alignment = readEnum(in, TabStopAlignEnum.class);
+			paragraph.addTabStop(new TabStop(position, alignment));
+		}
+	}
+	
+	private static void writeIntegers(VirtualizationOutput out, Integer[] values) throws IOException
+	{
+		int flags = 0;
+		for (int i = 0; i < values.length; i++)
+		{
+			if (values[i] != null)
+			{
+				flags |= 1 << i;
+			}
+		}
+		out.writeByte(flags);
+		
+		for (int i = 0; i < values.length; i++)
+		{
+			if (values[i] != null)
+			{
+				out.writeIntCompressed(values[i]);
+			}
+		}
+	}
+	
+	private static Integer[] readIntegers(VirtualizationInput in, int count) throws IOException
+	{
+		int flags = in.readUnsignedByte();
+		Integer[] values = new Integer[count];
+		for (int i = 0; i < count; i++)
+		{
+			if ((flags & (1 << i)) != 0)
+			{
+				values[i] = in.readIntCompressed();
+			}
+		}
+		return values;
+	}
+	
+}
@@ -23,6 +23,7 @@
  */
 package net.sf.jasperreports.engine.base;
 
+import java.io.IOException;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
@@ -33,6 +34,8 @@ import net.sf.jasperreports.engine.JRGenericElementType;
 import net.sf.jasperreports.engine.JRGenericPrintElement;
 import net.sf.jasperreports.engine.JasperPrint;
 import net.sf.jasperreports.engine.PrintElementVisitor;
+import net.sf.jasperreports.engine.virtualization.VirtualizationInput;
+import net.sf.jasperreports.engine.virtualization.VirtualizationOutput;
 
 /**
  * A basic implementation of {@link JRGenericPrintElement}.
@@ -48,6 +51,11 @@ public class JRBaseGenericPrintElement extends JRBasePrintElement
 	private JRGenericElementType genericType;
 	private Map<String,Object> parameters = new LinkedHashMap<String,Object>();
 
+	public JRBaseGenericPrintElement()
+	{
+		this(null);
+	}
+
 	/**
 	 * Creates a generic print element.
 	 * 
@@ -106,4 +114,46 @@ public class JRBaseGenericPrintElement extends JRBasePrintElement
 		visitor.visit(this, arg);
 	}
 
+	@Override
+	public void writeVirtualized(VirtualizationOutput out) throws IOException
+	{
+		super.writeVirtualized(out);
+		
+		out.writeBoolean(genericType != null);
+		if (genericType != null)
+		{
+			out.writeJRObject(genericType.getNamespace());
+			out.writeJRObject(genericType.getName());
+		}
+		
+		out.writeIntCompressed(parameters.size());
+		for (Map.Entry<String, Object> entry : parameters.entrySet())
+		{
+			out.writeJRObject(entry.getKey());
+			out.writeJRObject(entry.getValue());
+		}
+	}
+
+	@Override
+	public void readVirtualized(VirtualizationInput in) throws IOException
+	{
+		super.readVirtualized(in);
+		
+		if (in.readBoolean())
+		{
+			String namespace = (String) in.readJRObject();
+			String name = (String) in.readJRObject();
+			genericType = new JRGenericElementType(namespace, name);
+		}
+		
+		int size = in.readIntCompressed();
+		parameters = new LinkedHashMap<String, Object>(size * 4 / 3 + 1, 0.75f);
+		for (int i = 0; i < size; i++)
+		{
+			String name = (String) in.readJRObject();
+			Object value = in.readJRObject();
+			parameters.put(name, value);
+		}
+	}
+
 }
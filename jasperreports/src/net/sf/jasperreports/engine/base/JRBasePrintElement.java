@@ -35,16 +35,21 @@ import net.sf.jasperreports.engine.JROrigin;
 import net.sf.jasperreports.engine.JRPrintElement;
 import net.sf.jasperreports.engine.JRPropertiesHolder;
 import net.sf.jasperreports.engine.JRPropertiesMap;
+import net.sf.jasperreports.engine.JRRuntimeException;
 import net.sf.jasperreports.engine.JRStyle;
 import net.sf.jasperreports.engine.PrintElementVisitor;
+import net.sf.jasperreports.engine.fill.JRVirtualizationContext;
 import net.sf.jasperreports.engine.type.ModeEnum;
 import net.sf.jasperreports.engine.util.StyleResolver;
+import net.sf.jasperreports.engine.virtualization.VirtualizationInput;
+import net.sf.jasperreports.engine.virtualization.VirtualizationOutput;
+import net.sf.jasperreports.engine.virtualization.VirtualizationSerializable;
 
 
 /**
  * @author Teodor Danciu (teodord@users.sourceforge.net)
  */
-public class JRBasePrintElement implements JRPrintElement, Serializable
+public class JRBasePrintElement implements JRPrintElement, Serializable, VirtualizationSerializable
 {
 
 
@@ -52,6 +57,18 @@ public class JRBasePrintElement implements JRPrintElement, Serializable
 	 *
 	 */
 	private static final long serialVersionUID = JRConstants.SERIAL_VERSION_UID;
+	
+	public static final String EXCEPTION_MESSAGE_KEY_STYLE_NOT_FOUND = "fill.virtualizer.style.not.found";
+	
+	private static final int SERIALIZATION_FLAG_HAS_UUID = 1;
+	private static final int SERIALIZATION_FLAG_HAS_ORIGIN = 1 << 1;
+	private static final int SERIALIZATION_FLAG_HAS_KEY = 1 << 2;
+	private static final int SERIALIZATION_FLAG_HAS_FORECOLOR = 1 << 3;
+	private static final int SERIALIZATION_FLAG_HAS_BACKCOLOR = 1 << 4;
+	private static final int SERIALIZATION_FLAG_HAS_STYLE_PROVIDER = 1 << 5;
+	private static final int SERIALIZATION_FLAG_CACHED_STYLE = 1 << 6;
+	private static final int SERIALIZATION_FLAG_HAS_STYLE = 1 << 7;
+	private static final int SERIALIZATION_FLAG_HAS_PROPERTIES = 1 << 8;
 
 	protected UUID uuid;
 	protected JROrigin origin;
@@ -76,6 +93,11 @@ public class JRBasePrintElement implements JRPrintElement, Serializable
 	private int printElementId;
 
 	
+	public JRBasePrintElement()
+	{
+		// used internally
+	}
+	
 	/**
 	 *
 	 */
@@ -359,4 +381,165 @@ public class JRBasePrintElement implements JRPrintElement, Serializable
 		this.printElementId = printElementId;
 	}
 
+	@Override
+	public void writeVirtualized(VirtualizationOutput out) throws IOException
+	{
+		boolean hasProperties = propertiesMap != null && propertiesMap.hasProperties();
+		boolean cachedStyle = false;
+		if (style != null && style.getName() != null)
+		{
+			// styles are usually shared by many elements, writing the name of the cached style
+			JRVirtualizationContext virtualizationContext = out.getVirtualizationContext();
+			cachedStyle = virtualizationContext.cacheStyle(style) == style;
+		}
+		
+		int flags = 0;
+		if (uuid != null)
+		{
+			flags |= SERIALIZATION_FLAG_HAS_UUID;
+		}
+		if (origin != null)
+		{
+			flags |= SERIALIZATION_FLAG_HAS_ORIGIN;
+		}
+		if (key != null)
+		{
+			flags |= SERIALIZATION_FLAG_HAS_KEY;
+		}
+		if (forecolor != null)
+		{
+			flags |= SERIALIZATION_FLAG_HAS_FORECOLOR;
+		}
+		if (backcolor != null)
+		{
+			flags |= SERIALIZATION_FLAG_HAS_BACKCOLOR;
+		}
+		if (defaultStyleProvider != null)
+		{
+			flags |= SERIALIZATION_FLAG_HAS_STYLE_PROVIDER;
+		}
+		if (cachedStyle)
+		{
+			flags |= SERIALIZATION_FLAG_CACHED_STYLE;
+		}
+		else if (style != null)
+		{
+			flags |= SERIALIZATION_FLAG_HAS_STYLE;
+		}
+		if (hasProperties)
+		{
+			flags |= SERIALIZATION_FLAG_HAS_PROPERTIES;
+		}
+		
+		out.writeIntCompressed(flags);
+		
+		if (uuid != null)
+		{
+			out.writeJRObject(uuid);
+		}
+		if (origin != null)
+		{
+			out.writeJRObject(origin);
+		}
+		if (key != null)
+		{
+			out.writeJRObject(key);
+		}
+		
+		BasePrintVirtualizationUtils.writeEnum(out, modeValue);
+		out.writeIntCompressed(x);
+		out.writeIntCompressed(y);
+		out.writeIntCompressed(width);
+		out.writeIntCompressed(height);
+		
+		if (forecolor != null)
+		{
+			out.writeJRObject(forecolor);
+		}
+		if (backcolor != null)
+		{
+			out.writeJRObject(backcolor);
+		}
+		if (defaultStyleProvider != null)
+		{
+			out.writeJRObject(defaultStyleProvider);
+		}
+		if (cachedStyle)
+		{
+			out.writeJRObject(style.getName());
+		}
+		else if (style != null)
+		{
+			out.writeJRObject(style);
+		}
+		if (hasProperties)
+		{
+			out.writeJRObject(propertiesMap);
+		}
+		
+		out.writeIntCompressed(sourceElementId);
+		out.writeIntCompressed(printElementId);
+	}
+
+	@Override
+	public void readVirtualized(VirtualizationInput in) throws IOException
+	{
+		int flags = in.readIntCompressed();
+		
+		if ((flags & SERIALIZATION_FLAG_HAS_UUID) != 0)
+		{
+			uuid = (UUID) in.readJRObject();
+		}
+		if ((flags & SERIALIZATION_FLAG_HAS_ORIGIN) != 0)
+		{
+			origin = (JROrigin) in.readJRObject();
+		}
+		if ((flags & SERIALIZATION_FLAG_HAS_KEY) != 0)
+		{
+			key = (String) in.readJRObject();
+		}
+		
+		modeValue = BasePrintVirtualizationUtils.readEnum(in, ModeEnum.class);
+		x = in.readIntCompressed();
+		y = in.readIntCompressed();
+		width = in.readIntCompressed();
+		height = in.readIntCompressed();
+		
+		if ((flags & SERIALIZATION_FLAG_HAS_FORECOLOR) != 0)
+		{
+			forecolor = (Color) in.readJRObject();
+		}
+		if ((flags & SERIALIZATION_FLAG_HAS_BACKCOLOR) != 0)
+		{
+			backcolor = (Color) in.readJRObject();
+		}
+		if ((flags & SERIALIZATION_FLAG_HAS_STYLE_PROVIDER) != 0)
+		{
+			defaultStyleProvider = (JRDefaultStyleProvider) in.readJRObject();
+		}
+		if ((flags & SERIALIZATION_FLAG_CACHED_STYLE) != 0)
+		{
+			String styleName = (String) in.readJRObject();
+			style = in.getVirtualizationContext().getCachedStyle(styleName);
+			if (style == null)
+			{
+				throw 
+					new JRRuntimeException(
+						EXCEPTION_MESSAGE_KEY_STYLE_NOT_FOUND,
+						new Object[]{styleName});
+			}
+		}
+		else if ((flags & SERIALIZATION_FLAG_HAS_STYLE) != 0)
+		{
+			style = (JRStyle) in.readJRObject();
+		}
+		if ((flags & SERIALIZATION_FLAG_HAS_PROPERTIES) != 0)
+		{
+			propertiesMap = (JRPropertiesMap) in.readJRObject();
+		}
+		
+		sourceElementId = in.readIntCompressed();
+		printElementId = in.readIntCompressed();
+	}
+
 }
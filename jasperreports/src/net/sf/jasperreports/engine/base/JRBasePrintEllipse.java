@@ -40,6 +40,11 @@ public class JRBasePrintEllipse extends JRBasePrintGraphicElement implements JRP
 	 */
 	private static final long serialVersionUID = JRConstants.SERIAL_VERSION_UID;
 
+	public JRBasePrintEllipse()
+	{
+		this(null);
+	}
+
 	/**
 	 *
 	 */
@@ -24,6 +24,7 @@
 package net.sf.jasperreports.engine.base;
 
 import java.awt.Color;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -35,6 +36,8 @@ import net.sf.jasperreports.engine.JRPrintElementContainer;
 import net.sf.jasperreports.engine.JRPrintFrame;
 import net.sf.jasperreports.engine.PrintElementVisitor;
 import net.sf.jasperreports.engine.type.ModeEnum;
+import net.sf.jasperreports.engine.virtualization.VirtualizationInput;
+import net.sf.jasperreports.engine.virtualization.VirtualizationOutput;
 
 /**
  * Base implementation of {@link net.sf.jasperreports.engine.JRPrintFrame JRPrintFrame}.
@@ -48,6 +51,11 @@ public class JRBasePrintFrame extends JRBasePrintElement implements JRPrintFrame
 	private List<JRPrintElement> elements;
 	private JRLineBox lineBox;
 	
+	public JRBasePrintFrame()
+	{
+		this(null);
+	}
+	
 	public JRBasePrintFrame(JRDefaultStyleProvider defaultStyleProvider)
 	{
 		super(defaultStyleProvider);
@@ -102,4 +110,34 @@ public class JRBasePrintFrame extends JRBasePrintElement implements JRPrintFrame
 	{
 		visitor.visit(this, arg);
 	}
+
+	@Override
+	public void writeVirtualized(VirtualizationOutput out) throws IOException
+	{
+		super.writeVirtualized(out);
+		
+		BasePrintVirtualizationUtils.writeLineBox(out, lineBox);
+		
+		out.writeIntCompressed(elements.size());
+		for (JRPrintElement element : elements)
+		{
+			out.writeJRObject(element, true, false);
+		}
+	}
+
+	@Override
+	public void readVirtualized(VirtualizationInput in) throws IOException
+	{
+		super.readVirtualized(in);
+		
+		BasePrintVirtualizationUtils.readLineBox(in, lineBox);
+		
+		int size = in.readIntCompressed();
+		elements = new ArrayList<JRPrintElement>(size);
+		for (int i = 0; i < size; i++)
+		{
+			JRPrintElement element = (JRPrintElement) in.readJRObject();
+			elements.add(element);
+		}
+	}
 }
@@ -32,6 +32,8 @@ import net.sf.jasperreports.engine.JRDefaultStyleProvider;
 import net.sf.jasperreports.engine.JRPen;
 import net.sf.jasperreports.engine.JRPrintGraphicElement;
 import net.sf.jasperreports.engine.type.FillEnum;
+import net.sf.jasperreports.engine.virtualization.VirtualizationInput;
+import net.sf.jasperreports.engine.virtualization.VirtualizationOutput;
 
 
 /**
@@ -53,6 +55,11 @@ public abstract class JRBasePrintGraphicElement extends JRBasePrintElement imple
 	protected FillEnum fillValue;
 
 
+	public JRBasePrintGraphicElement()
+	{
+		this(null);
+	}
+
 	/**
 	 *
 	 */
@@ -110,6 +117,24 @@ public abstract class JRBasePrintGraphicElement extends JRBasePrintElement imple
 		return getForecolor();
 	}
 
+	@Override
+	public void writeVirtualized(VirtualizationOutput out) throws IOException
+	{
+		super.writeVirtualized(out);
+		
+		BasePrintVirtualizationUtils.writePen(out, linePen);
+		BasePrintVirtualizationUtils.writeEnum(out, fillValue);
+	}
+
+	@Override
+	public void readVirtualized(VirtualizationInput in) throws IOException
+	{
+		super.readVirtualized(in);
+		
+		BasePrintVirtualizationUtils.readPen(in, linePen);
+		fillValue = BasePrintVirtualizationUtils.readEnum(in, FillEnum.class);
+	}
+
 	
 	/*
 	 * These fields are only for serialization backward compatibility.
@@ -35,7 +35,9 @@ import net.sf.jasperreports.engine.JRPen;
 import net.sf.jasperreports.engine.JRPrintHyperlinkParameter;
 import net.sf.jasperreports.engine.JRPrintHyperlinkParameters;
 import net.sf.jasperreports.engine.JRPrintImage;
+import net.sf.jasperreports.engine.JRRuntimeException;
 import net.sf.jasperreports.engine.PrintElementVisitor;
+import net.sf.jasperreports.engine.fill.JRVirtualizationContext;
 import net.sf.jasperreports.engine.type.HorizontalImageAlignEnum;
 import net.sf.jasperreports.engine.type.HyperlinkTargetEnum;
 import net.sf.jasperreports.engine.type.HyperlinkTypeEnum;
@@ -43,6 +45,8 @@ import net.sf.jasperreports.engine.type.ModeEnum;
 import net.sf.jasperreports.engine.type.OnErrorTypeEnum;
 import net.sf.jasperreports.engine.type.ScaleImageEnum;
 import net.sf.jasperreports.engine.type.VerticalImageAlignEnum;
+import net.sf.jasperreports.engine.virtualization.VirtualizationInput;
+import net.sf.jasperreports.engine.virtualization.VirtualizationOutput;
 import net.sf.jasperreports.renderers.Renderable;
 import net.sf.jasperreports.renderers.ResourceRenderer;
 
@@ -58,6 +62,10 @@ public class JRBasePrintImage extends JRBasePrintGraphicElement implements JRPri
 	 *
 	 */
 	private static final long serialVersionUID = JRConstants.SERIAL_VERSION_UID;
+	
+	private static final int SERIALIZATION_FLAG_CACHED_RENDERER = 1;
+	private static final int SERIALIZATION_FLAG_ANCHOR = 1 << 1;
+	private static final int SERIALIZATION_FLAG_HYPERLINK = 1 << 2;
 
 	/**
 	 *
@@ -85,6 +93,11 @@ public class JRBasePrintImage extends JRBasePrintGraphicElement implements JRPri
 	protected int bookmarkLevel = JRAnchor.NO_BOOKMARK;
 
 	
+	public JRBasePrintImage()
+	{
+		this(null);
+	}
+
 	/**
 	 *
 	 */
@@ -561,4 +574,121 @@ public class JRBasePrintImage extends JRBasePrintGraphicElement implements JRPri
 	{
 		visitor.visit(this, arg);
 	}
+
+	@Override
+	public void writeVirtualized(VirtualizationOutput out) throws IOException
+	{
+		super.writeVirtualized(out);
+		
+		JRVirtualizationContext context = out.getVirtualizationContext();
+		
+		int flags = 0;
+		boolean cachedRenderer = renderable != null && context.hasCachedRenderer(renderable.getId());
+		boolean hasAnchor = anchorName != null || bookmarkLevel != JRAnchor.NO_BOOKMARK;
+		boolean hasHyperlink = linkType != null || linkTarget != null 
+				|| hyperlinkReference != null || hyperlinkAnchor != null
+				|| hyperlinkPage != null || hyperlinkTooltip != null || hyperlinkParameters != null;
+		
+		if (cachedRenderer)
+		{
+			flags |= SERIALIZATION_FLAG_CACHED_RENDERER;
+		}
+		if (hasAnchor)
+		{
+			flags |= SERIALIZATION_FLAG_ANCHOR;
+		}
+		if (hasHyperlink)
+		{
+			flags |= SERIALIZATION_FLAG_HYPERLINK;
+		}
+		
+		out.writeByte(flags);
+		
+		if (cachedRenderer)
+		{
+			out.writeJRObject(renderable.getId());
+		}
+		else
+		{
+			out.writeJRObject(renderable);
+		}
+		
+		BasePrintVirtualizationUtils.writeEnum(out, scaleImageValue);
+		out.writeJRObject(isUsingCache);
+		BasePrintVirtualizationUtils.writeEnum(out, horizontalImageAlign);
+		BasePrintVirtualizationUtils.writeEnum(out, verticalImageAlign);
+		BasePrintVirtualizationUtils.writeEnum(out, onErrorTypeValue);
+		BasePrintVirtualizationUtils.writeLineBox(out, lineBox);
+		
+		if (hasAnchor)
+		{
+			out.writeJRObject(anchorName);
+			out.writeIntCompressed(bookmarkLevel);
+		}
+
+		if (hasHyperlink)
+		{
+			out.writeJRObject(linkType);
+			out.writeJRObject(linkTarget);
+			out.writeJRObject(hyperlinkReference);
+			out.writeJRObject(hyperlinkAnchor);
+			out.writeJRObject(hyperlinkPage);
+			out.writeJRObject(hyperlinkTooltip);
+			out.writeJRObject(hyperlinkParameters);
+		}
+	}
+
+	@Override
+	public void readVirtualized(VirtualizationInput in) throws IOException
+	{
+		super.readVirtualized(in);
+		
+		JRVirtualizationContext context = in.getVirtualizationContext();
+		int flags = in.readUnsignedByte();
+		
+		if ((flags & SERIALIZATION_FLAG_CACHED_RENDERER) != 0)
+		{
+			String rendererId = (String) in.readJRObject();
+			renderable = context.getCachedRenderer(rendererId);
+			if (renderable == null)
+			{
+				throw 
+					new JRRuntimeException(
+						JRVirtualizationContext.EXCEPTION_MESSAGE_KEY_RENDERER_NOT_FOUND_IN_CONTEXT,
+						new Object[]{rendererId});
+			}
+		}
+		else
+		{
+			renderable = (Renderable) in.readJRObject();
+		}
+		
+		scaleImageValue = BasePrintVirtualizationUtils.readEnum(in, ScaleImageEnum.class);
+		isUsingCache = (Boolean) in.readJRObject();
+		horizontalImageAlign = BasePrintVirtualizationUtils.readEnum(in, HorizontalImageAlignEnum.class);
+		verticalImageAlign = BasePrintVirtualizationUtils.readEnum(in, VerticalImageAlignEnum.class);
+		onErrorTypeValue = BasePrintVirtualizationUtils.readEnum(in, OnErrorTypeEnum.class);
+		BasePrintVirtualizationUtils.readLineBox(in, lineBox);
+		
+		if ((flags & SERIALIZATION_FLAG_ANCHOR) != 0)
+		{
+			anchorName = (String) in.readJRObject();
+			bookmarkLevel = in.readIntCompressed();
+		}
+		else
+		{
+			bookmarkLevel = JRAnchor.NO_BOOKMARK;
+		}
+
+		if ((flags & SERIALIZATION_FLAG_HYPERLINK) != 0)
+		{
+			linkType = (String) in.readJRObject();
+			linkTarget = (String) in.readJRObject();
+			hyperlinkReference = (String) in.readJRObject();
+			hyperlinkAnchor = (String) in.readJRObject();
+			hyperlinkPage = (Integer) in.readJRObject();
+			hyperlinkTooltip = (String) in.readJRObject();
+			hyperlinkParameters = (JRPrintHyperlinkParameters) in.readJRObject();
+		}
+	}
 }
@@ -31,6 +31,8 @@ import net.sf.jasperreports.engine.JRDefaultStyleProvider;
 import net.sf.jasperreports.engine.JRPrintLine;
 import net.sf.jasperreports.engine.PrintElementVisitor;
 import net.sf.jasperreports.engine.type.LineDirectionEnum;
+import net.sf.jasperreports.engine.virtualization.VirtualizationInput;
+import net.sf.jasperreports.engine.virtualization.VirtualizationOutput;
 
 
 /**
@@ -51,6 +53,11 @@ public class JRBasePrintLine extends JRBasePrintGraphicElement implements JRPrin
 	protected LineDirectionEnum directionValue = LineDirectionEnum.TOP_DOWN;
 
 
+	public JRBasePrintLine()
+	{
+		this(null);
+	}
+
 	/**
 	 *
 	 */
@@ -121,5 +128,21 @@ public class JRBasePrintLine extends JRBasePrintGraphicElement implements JRPrin
 		visitor.visit(this, arg);
 	}
 
+	@Override
+	public void writeVirtualized(VirtualizationOutput out) throws IOException
+	{
+		super.writeVirtualized(out);
+		
+		BasePrintVirtualizationUtils.writeEnum(out, directionValue);
+	}
+
+	@Override
+	public void readVirtualized(VirtualizationInput in) throws IOException
+	{
+		super.readVirtualized(in);
+		
+		directionValue = BasePrintVirtualizationUtils.readEnum(in, LineDirectionEnum.class);
+	}
+
 
 }
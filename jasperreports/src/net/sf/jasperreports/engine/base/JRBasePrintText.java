@@ -51,6 +51,8 @@ import net.sf.jasperreports.engine.type.RunDirectionEnum;
 import net.sf.jasperreports.engine.type.VerticalTextAlignEnum;
 import net.sf.jasperreports.engine.util.JRStyledText;
 import net.sf.jasperreports.engine.util.JRStyledTextParser;
+import net.sf.jasperreports.engine.virtualization.VirtualizationInput;
+import net.sf.jasperreports.engine.virtualization.VirtualizationOutput;
 
 
 /**
@@ -64,6 +66,15 @@ public class JRBasePrintText extends JRBasePrintElement implements JRPrintText
 	 *
 	 */
 	private static final long serialVersionUID = JRConstants.SERIAL_VERSION_UID;
+	
+	private static final int SERIALIZATION_FLAG_HAS_VALUE = 1;
+	private static final int SERIALIZATION_FLAG_TRUNCATION = 1 << 1;
+	private static final int SERIALIZATION_FLAG_LINE_BREAK_OFFSETS = 1 << 2;
+	private static final int SERIALIZATION_FLAG_ZERO_LINE_BREAK_OFFSETS = 1 << 3;
+	private static final int SERIALIZATION_FLAG_ANCHOR = 1 << 4;
+	private static final int SERIALIZATION_FLAG_HYPERLINK = 1 << 5;
+	private static final int SERIALIZATION_FLAG_FONT = 1 << 6;
+	private static final int SERIALIZATION_FLAG_FORMAT = 1 << 7;
 
 	/**
 	 *
@@ -120,6 +131,11 @@ public class JRBasePrintText extends JRBasePrintElement implements JRPrintText
 	protected String localeCode;
 	protected String timeZoneId;
 	
+	public JRBasePrintText()
+	{
+		this(null);
+	}
+
 	/**
 	 *
 	 */
@@ -1092,4 +1108,231 @@ public class JRBasePrintText extends JRBasePrintElement implements JRPrintText
 	{
 		visitor.visit(this, arg);
 	}
+
+	@Override
+	public void writeVirtualized(VirtualizationOutput out) throws IOException
+	{
+		super.writeVirtualized(out);
+		
+		boolean hasValue = !(text == null ? value == null : (value instanceof String && text.equals(value)));
+		boolean hasTrunc = textTruncateIndex != null || textTruncateSuffix != null;
+		boolean hasLineBreakOffsets = lineBreakOffsets != null;
+		boolean zeroLineBreakOffsets = lineBreakOffsets != null && lineBreakOffsets.length == 0;
+		boolean hasAnchor = anchorName != null || bookmarkLevel != JRAnchor.NO_BOOKMARK;
+		boolean hasHyperlink = linkType != null || linkTarget != null 
+				|| hyperlinkReference != null || hyperlinkAnchor != null
+				|| hyperlinkPage != null || hyperlinkTooltip != null || hyperlinkParameters != null;
+		boolean hasFont = fontName != null || isBold != null || isItalic != null 
+				|| isUnderline != null || isStrikeThrough != null || fontsize != null 
+				|| pdfFontName != null || pdfEncoding != null || isPdfEmbedded != null;
+		boolean hasFormat = valueClassName != null || pattern != null || formatFactoryClass != null 
+				|| localeCode != null || timeZoneId != null;
+		
+		int flags = 0;
+		if (hasValue)
+		{
+			flags |= SERIALIZATION_FLAG_HAS_VALUE;
+		}
+		if (hasTrunc)
+		{
+			flags |= SERIALIZATION_FLAG_TRUNCATION;
+		}
+		if (hasLineBreakOffsets)
+		{
+			flags |= SERIALIZATION_FLAG_LINE_BREAK_OFFSETS;
+		}
+		if (zeroLineBreakOffsets)
+		{
+			flags |= SERIALIZATION_FLAG_ZERO_LINE_BREAK_OFFSETS;
+		}
+		if (hasAnchor)
+		{
+			flags |= SERIALIZATION_FLAG_ANCHOR;
+		}
+		if (hasHyperlink)
+		{
+			flags |= SERIALIZATION_FLAG_HYPERLINK;
+		}
+		if (hasFont)
+		{
+			flags |= SERIALIZATION_FLAG_FONT;
+		}
+		if (hasFormat)
+		{
+			flags |= SERIALIZATION_FLAG_FORMAT;
+		}
+		
+		out.writeIntCompressed(flags);
+		
+		out.writeJRObject(text);
+		if (hasValue)
+		{
+			out.writeJRObject(value);
+		}
+		
+		out.writeFloat(lineSpacingFactor);
+		out.writeFloat(leadingOffset);
+		out.writeFloat(textHeight);
+		
+		if (hasTrunc)
+		{
+			out.writeJRObject(textTruncateIndex);
+			out.writeJRObject(textTruncateSuffix);
+		}
+		
+		if (hasLineBreakOffsets && !zeroLineBreakOffsets)
+		{
+			out.writeIntCompressed(lineBreakOffsets.length);
+			for (short offset : lineBreakOffsets)
+			{
+				out.writeIntCompressed(offset);
+			}
+		}
+		
+		BasePrintVirtualizationUtils.writeEnum(out, horizontalTextAlign);
+		BasePrintVirtualizationUtils.writeEnum(out, verticalTextAlign);
+		BasePrintVirtualizationUtils.writeEnum(out, rotationValue);
+		BasePrintVirtualizationUtils.writeEnum(out, runDirectionValue);
+		out.writeJRObject(markup);
+		out.writeJRObject(textFormat);
+		
+		BasePrintVirtualizationUtils.writeLineBox(out, lineBox);
+		BasePrintVirtualizationUtils.writeParagraph(out, paragraph);
+		
+		if (hasFont)
+		{
+			out.writeJRObject(fontName);
+			out.writeJRObject(isBold);
+			out.writeJRObject(isItalic);
+			out.writeJRObject(isUnderline);
+			out.writeJRObject(isStrikeThrough);
+			out.writeJRObject(fontsize);
+			out.writeJRObject(pdfFontName);
+			out.writeJRObject(pdfEncoding);
+			out.writeJRObject(isPdfEmbedded);
+		}
+		
+		if (hasFormat)
+		{
+			out.writeJRObject(valueClassName);
+			out.writeJRObject(pattern);
+			out.writeJRObject(formatFactoryClass);
+			out.writeJRObject(localeCode);
+			out.writeJRObject(timeZoneId);
+		}
+		
+		if (hasAnchor)
+		{
+			out.writeJRObject(anchorName);
+			out.writeIntCompressed(bookmarkLevel);
+		}
+
+		if (hasHyperlink)
+		{
+			out.writeJRObject(linkType);
+			out.writeJRObject(linkTarget);
+			out.writeJRObject(hyperlinkReference);
+			out.writeJRObject(hyperlinkAnchor);
+			out.writeJRObject(hyperlinkPage);
+			out.writeJRObject(hyperlinkTooltip);
+			out.writeJRObject(hyperlinkParameters);
+		}
+	}
+
+	@Override
+	public void readVirtualized(VirtualizationInput in) throws IOException
+	{
+		super.readVirtualized(in);
+		
+		int flags = in.readIntCompressed();
+		text = (String) in.readJRObject();
+		if ((flags & SERIALIZATION_FLAG_HAS_VALUE) != 0)
+		{
+			value = in.readJRObject();
+		}
+		else
+		{
+			value = text;
+		}
+		
+		lineSpacingFactor = in.readFloat();
+		leadingOffset = in.readFloat();
+		textHeight = in.readFloat();
+		
+		if ((flags & SERIALIZATION_FLAG_TRUNCATION) != 0)
+		{
+			textTruncateIndex = (Integer) in.readJRObject();
+			textTruncateSuffix = (String) in.readJRObject();
+		}
+		
+		if ((flags & SERIALIZATION_FLAG_LINE_BREAK_OFFSETS) != 0)
+		{
+			if ((flags & SERIALIZATION_FLAG_ZERO_LINE_BREAK_OFFSETS) != 0)
+			{
+				lineBreakOffsets = JRPrintText.ZERO_LINE_BREAK_OFFSETS;
+			}
+			else
+			{
+				int offsetCount = in.readIntCompressed();
+				lineBreakOffsets = new short[offsetCount];
+				for (int i = 0; i < offsetCount; i++)
+				{
+					lineBreakOffsets[i] = (short) in.readIntCompressed();
+				}
+			}
+		}
+		
+		horizontalTextAlign = BasePrintVirtualizationUtils.readEnum(in, HorizontalTextAlignEnum.class);
+		verticalTextAlign = BasePrintVirtualizationUtils.readEnum(in, VerticalTextAlignEnum.class);
+		rotationValue = BasePrintVirtualizationUtils.readEnum(in, RotationEnum.class);
+		runDirectionValue = BasePrintVirtualizationUtils.readEnum(in, RunDirectionEnum.class);
+		markup = (String) in.readJRObject();
+		textFormat = (TextFormat) in.readJRObject();
+		
+		BasePrintVirtualizationUtils.readLineBox(in, lineBox);
+		BasePrintVirtualizationUtils.readParagraph(in, paragraph);
+		
+		if ((flags & SERIALIZATION_FLAG_FONT) != 0)
+		{
+			fontName = (String) in.readJRObject();
+			isBold = (Boolean) in.readJRObject();
+			isItalic = (Boolean) in.readJRObject();
+			isUnderline = (Boolean) in.readJRObject();
+			isStrikeThrough = (Boolean) in.readJRObject();
+			fontsize = (Float) in.readJRObject();
+			pdfFontName = (String) in.readJRObject();
+			pdfEncoding = (String) in.readJRObject();
+			isPdfEmbedded = (Boolean) in.readJRObject();
+		}
+		
+		if ((flags & SERIALIZATION_FLAG_FORMAT) != 0)
+		{
+			valueClassName = (String) in.readJRObject();
+			pattern = (String) in.readJRObject();
+			formatFactoryClass = (String) in.readJRObject();
+			localeCode = (String) in.readJRObject();
+			timeZoneId = (String) in.readJRObject();
+		}
+		
+		if ((flags & SERIALIZATION_FLAG_ANCHOR) != 0)
+		{
+			anchorName = (String) in.readJRObject();
+			bookmarkLevel = in.readIntCompressed();
+		}
+		else
+		{
+			bookmarkLevel = JRAnchor.NO_BOOKMARK;
+		}
+
+		if ((flags & SERIALIZATION_FLAG_HYPERLINK) != 0)
+		{
+			linkType = (String) in.readJRObject();
+			linkTarget = (String) in.readJRObject();
+			hyperlinkReference = (String) in.readJRObject();
+			hyperlinkAnchor = (String) in.readJRObject();
+			hyperlinkPage = (Integer) in.readJRObject();
+			hyperlinkTooltip = (String) in.readJRObject();
+			hyperlinkParameters = (JRPrintHyperlinkParameters) in.readJRObject();
+		}
+	}
 }
@@ -245,6 +245,16 @@ public class JRVirtualPrintPage implements JRPrintPage, Serializable
 		elements.dispose();
 	}
 	
+	/**
+	 * Makes sure that the page elements are loaded in memory, paging them in if needed.
+	 * 
+	 * @see net.sf.jasperreports.engine.fill.VirtualizationReadAhead
+	 */
+	public void ensureVirtualData()
+	{
+		elements.ensureVirtualData();
+	}
+	
 	public JRVirtualizationContext getVirtualizationContext()
 	{
 		return elements.getVirtualizationContext();
@@ -169,6 +169,14 @@ public class VirtualizableElementList extends AbstractList<JRPrintElement> imple
 		store.dispose();
 	}
 
+	/**
+	 * Makes sure that the elements of the list are loaded in memory.
+	 */
+	public synchronized void ensureVirtualData()
+	{
+		store.ensureVirtualData();
+	}
+
 	public JRVirtualizationContext getVirtualizationContext()
 	{
 		return virtualizationContext;
@@ -191,6 +199,8 @@ interface ElementStore extends VirtualizablePageElements
 
 	JRPrintElement remove(int index);
 	
+	void ensureVirtualData();
+	
 	void dispose();
 }
 
@@ -840,6 +850,15 @@ class ElementsBlockList implements ElementStore, Serializable
 		return element;
 	}
 
+	@Override
+	public void ensureVirtualData()
+	{
+		for (int idx = 0; idx < blockCount; ++idx)
+		{
+			blocks[idx].ensureVirtualData();
+		}
+	}
+
 	@Override
 	public void dispose()
 	{
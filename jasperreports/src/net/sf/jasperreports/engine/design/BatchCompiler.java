@@ -0,0 +1,334 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.design;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import net.sf.jasperreports.annotations.properties.Property;
+import net.sf.jasperreports.annotations.properties.PropertyScope;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRPropertiesUtil;
+import net.sf.jasperreports.engine.JasperCompileManager;
+import net.sf.jasperreports.engine.JasperReportsContext;
+import net.sf.jasperreports.engine.xml.JRXmlLoader;
+import net.sf.jasperreports.properties.PropertyConstants;
+
+/**
+ * Compiles sets of JRXML report designs concurrently.
+ * <p>
+ * The reports are compiled on a pool of worker threads whose size is given by
+ * {@link #PROPERTY_THREADS}, each report being loaded and compiled independently
+ * via {@link JasperCompileManager}.
+ * A compilation failure does not stop the batch, the outcome and the duration of each 
+ * compilation are returned as {@link ReportResult} objects.
+ * </p>
+ * 
+ * @see JasperCompileManager#compileDirectory(File, File)
+ * @see JRJdtCompiler#PROPERTY_PARALLEL_UNITS
+ */
+public class BatchCompiler
+{
+	private static final Log log = LogFactory.getLog(BatchCompiler.class);
+	
+	public static final String EXCEPTION_MESSAGE_KEY_SOURCE_DIR_NOT_FOUND = "compilers.batch.source.dir.not.found";
+	
+	/**
+	 * Property that specifies the number of threads used to compile a batch of reports.
+	 * 
+	 * <p>
+	 * A zero or negative value means that the number of available processors is used.
+	 * </p>
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_COMPILE,
+			defaultValue = "0",
+			scopes = {PropertyScope.CONTEXT},
+			sinceVersion = PropertyConstants.VERSION_6_4_2,
+			valueType = Integer.class
+			)
+	public static final String PROPERTY_THREADS = JRPropertiesUtil.PROPERTY_PREFIX + "compiler.batch.threads";
+	
+	public static final String SOURCE_FILE_EXTENSION = ".jrxml";
+	public static final String COMPILED_FILE_EXTENSION = ".jasper";
+	
+	private final JasperReportsContext jasperReportsContext;
+	
+	public BatchCompiler(JasperReportsContext jasperReportsContext)
+	{
+		this.jasperReportsContext = jasperReportsContext;
+	}
+	
+	/**
+	 * Compiles all the <code>*.jrxml</code> files found in a directory and in its subdirectories.
+	 * 
+	 * @param sourceDirectory the directory that contains the report designs
+	 * @param destinationDirectory the directory in which the compiled <code>*.jasper</code> files are
+	 * written, following the same directory structure as the source directory.
+	 * If <code>null</code>, the compiled files are written next to the source files.
+	 * @return the compilation results, in the order of the source file paths
+	 * @throws JRException if the source directory does not exist
+	 */
+	public List<ReportResult> compileDirectory(File sourceDirectory, File destinationDirectory) throws JRException
+	{
+		if (!sourceDirectory.isDirectory())
+		{
+			throw 
+				new JRException(
+					EXCEPTION_MESSAGE_KEY_SOURCE_DIR_NOT_FOUND,
+					new Object[]{sourceDirectory});
+		}
+		
+		List<File> sourceFiles = new ArrayList<File>();
+		List<File> destinationFiles = new ArrayList<File>();
+		collectSourceFiles(sourceDirectory, 
+				destinationDirectory == null ? sourceDirectory : destinationDirectory, 
+				sourceFiles, destinationFiles);
+		
+		return compile(sourceFiles, destinationFiles);
+	}
+	
+	protected void collectSourceFiles(File sourceDirectory, File destinationDirectory, 
+			List<File> sourceFiles, List<File> destinationFiles)
+	{
+		File[] files = sourceDirectory.listFiles();
+		if (files == null)
+		{
+			return;
+		}
+		
+		Arrays.sort(files);
+		for (File file : files)
+		{
+			String name = file.getName();
+			if (file.isDirectory())
+			{
+				collectSourceFiles(file, new File(destinationDirectory, name), sourceFiles, destinationFiles);
+			}
+			else if (name.endsWith(SOURCE_FILE_EXTENSION))
+			{
+				sourceFiles.add(file);
+				destinationFiles.add(new File(destinationDirectory, 
+						name.substring(0, name.length() - SOURCE_FILE_EXTENSION.length()) + COMPILED_FILE_EXTENSION));
+			}
+		}
+	}
+	
+	/**
+	 * Compiles a list of report design files.
+	 * 
+	 * @param sourceFiles the JRXML files
+	 * @param destinationFiles the files to which the compiled reports are written, 
+	 * the list having the same size as the list of source files
+	 * @return the compilation results, in the order of the source files
+	 */
+	public List<ReportResult> compile(List<File> sourceFiles, List<File> destinationFiles) throws JRException
+	{
+		if (sourceFiles.size() != destinationFiles.size())
+		{
+			throw new IllegalArgumentException("Source and destination file lists have different sizes");
+		}
+		
+		List<ReportResult> results = new ArrayList<ReportResult>(sourceFiles.size());
+		if (sourceFiles.isEmpty())
+		{
+			return results;
+		}
+		
+		final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+		int threads = Math.min(getThreadCount(), sourceFiles.size());
+		ExecutorService executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.SECONDS, 
+				new LinkedBlockingQueue<Runnable>(), new BatchThreadFactory());
+		try
+		{
+			List<Future<ReportResult>> futures = new ArrayList<Future<ReportResult>>(sourceFiles.size());
+			for (int i = 0; i < sourceFiles.size(); i++)
+			{
+				final File sourceFile = sourceFiles.get(i);
+				final File destinationFile = destinationFiles.get(i);
+				futures.add(executor.submit(new Callable<ReportResult>()
+				{
+					@Override
+					public ReportResult call()
+					{
+						Thread.currentThread().setContextClassLoader(contextClassLoader);
+						return compileReport(sourceFile, destinationFile);
+					}
+				}));
+			}
+			
+			for (Future<ReportResult> future : futures)
+			{
+				results.add(future.get());
+			}
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new JRException(e);
+		}
+		catch (ExecutionException e)
+		{
+			// compileReport catches exceptions, this would be an Error
+			throw new JRException(e.getCause());
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+		
+		if (log.isDebugEnabled())
+		{
+			long totalTime = 0;
+			for (ReportResult result : results)
+			{
+				totalTime += result.getCompileTime();
+			}
+			log.debug("compiled " + results.size() + " reports on " + threads + " threads, total compile time " + totalTime + "ms");
+		}
+		
+		return results;
+	}
+	
+	protected int getThreadCount()
+	{
+		int threads = JRPropertiesUtil.getInstance(jasperReportsContext).getIntegerProperty(PROPERTY_THREADS, 0);
+		return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+	}
+	
+	protected ReportResult compileReport(File sourceFile, File destinationFile)
+	{
+		long start = System.nanoTime();
+		Exception error = null;
+		try
+		{
+			File destinationDirectory = destinationFile.getParentFile();
+			if (destinationDirectory != null)
+			{
+				destinationDirectory.mkdirs();
+			}
+			
+			JasperDesign jasperDesign = JRXmlLoader.load(jasperReportsContext, sourceFile);
+			JasperCompileManager.getInstance(jasperReportsContext).compileToFile(jasperDesign, destinationFile.getPath());
+		}
+		catch (JRException | RuntimeException e)
+		{
+			log.error("Error compiling report " + sourceFile, e);
+			error = e;
+		}
+		long compileTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		
+		if (log.isDebugEnabled())
+		{
+			log.debug("compiled " + sourceFile + " in " + compileTime + "ms");
+		}
+		
+		return new ReportResult(sourceFile, destinationFile, compileTime, error);
+	}
+	
+	/**
+	 * The outcome of the compilation of a report in a batch.
+	 */
+	public static class ReportResult
+	{
+		private final File sourceFile;
+		private final File destinationFile;
+		private final long compileTime;
+		private final Exception error;
+		
+		public ReportResult(File sourceFile, File destinationFile, long compileTime, Exception error)
+		{
+			this.sourceFile = sourceFile;
+			this.destinationFile = destinationFile;
+			this.compileTime = compileTime;
+			this.error = error;
+		}
+
+		public File getSourceFile()
+		{
+			return sourceFile;
+		}
+
+		public File getDestinationFile()
+		{
+			return destinationFile;
+		}
+
+		/**
+		 * Returns the time spent loading and compiling the report, in milliseconds.
+		 */
+		public long getCompileTime()
+		{
+			return compileTime;
+		}
+
+		/**
+		 * Returns the exception that caused the compilation to fail.
+		 * 
+		 * @return the compilation error, or <code>null</code> if the report was compiled successfully
+		 */
+		public Exception getError()
+		{
+			return error;
+		}
+		
+		public boolean isSuccessful()
+		{
+			return error == null;
+		}
+		
+		@Override
+		public String toString()
+		{
+			return sourceFile + (error == null ? " compiled" : " failed") + " in " + compileTime + "ms";
+		}
+	}
+	
+	protected static class BatchThreadFactory implements ThreadFactory
+	{
+		private final AtomicInteger threadCount = new AtomicInteger();
+		
+		@Override
+		public Thread newThread(Runnable r)
+		{
+			Thread thread = new Thread(r, "JasperReports batch compiler #" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
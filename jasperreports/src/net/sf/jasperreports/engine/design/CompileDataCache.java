@@ -0,0 +1,331 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.design;
+
+import java.io.File;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import net.sf.jasperreports.annotations.properties.Property;
+import net.sf.jasperreports.annotations.properties.PropertyScope;
+import net.sf.jasperreports.engine.JRConstants;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRPropertiesUtil;
+import net.sf.jasperreports.engine.JRRuntimeException;
+import net.sf.jasperreports.engine.JasperReportsContext;
+import net.sf.jasperreports.engine.util.JRLoader;
+import net.sf.jasperreports.engine.util.JRSaver;
+import net.sf.jasperreports.properties.PropertyConstants;
+
+/**
+ * Directory based cache of report compile data.
+ * <p>
+ * Entries are keyed by a digest of the compiler class, the compiler settings and the
+ * source code generated for the report compilation units, and contain the compile data
+ * produced for the units along with the name suffix that was used for the unit names.
+ * Reports whose generated source code did not change since a previous compilation 
+ * can therefore reuse the compile data instead of invoking the compiler again.
+ * </p>
+ * <p>
+ * Note that the cache keys do not include the classes present on the compilation 
+ * classpath, same as precompiled <code>*.jasper</code> files the cached compile data
+ * would need to be discarded if classes referenced by report expressions change
+ * in an incompatible manner.
+ * </p>
+ * 
+ * @see #PROPERTY_CACHE_DIRECTORY
+ */
+public class CompileDataCache
+{
+	private static final Log log = LogFactory.getLog(CompileDataCache.class);
+	
+	/**
+	 * Property that specifies the directory in which report compile data is cached.
+	 * 
+	 * <p>
+	 * If the property is set, the compilers that extend {@link JRAbstractCompiler} look
+	 * for the compile data of a report in the directory before compiling the report, and
+	 * save the compile data in the directory after compiling a report.
+	 * The directory is created if it does not exist.
+	 * </p>
+	 * 
+	 * <p>
+	 * The property is not set by default, in which case compile data is not cached.
+	 * </p>
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_COMPILE,
+			scopes = {PropertyScope.CONTEXT},
+			sinceVersion = PropertyConstants.VERSION_6_4_2
+			)
+	public static final String PROPERTY_CACHE_DIRECTORY = JRPropertiesUtil.PROPERTY_PREFIX + "compiler.cache.dir";
+	
+	private static final String ENTRY_FILE_SUFFIX = ".data";
+	private static final String GENERATED_HEADER = "Generated by JasperReports - ";
+	
+	private final JasperReportsContext jasperReportsContext;
+	private final File directory;
+	
+	public CompileDataCache(JasperReportsContext jasperReportsContext, File directory)
+	{
+		this.jasperReportsContext = jasperReportsContext;
+		this.directory = directory;
+	}
+	
+	/**
+	 * Returns the compile data cache configured via {@link #PROPERTY_CACHE_DIRECTORY}.
+	 * 
+	 * @param jasperReportsContext the context
+	 * @return the compile data cache, or <code>null</code> if caching is not configured
+	 */
+	public static CompileDataCache getInstance(JasperReportsContext jasperReportsContext)
+	{
+		String directoryName = JRPropertiesUtil.getInstance(jasperReportsContext).getProperty(PROPERTY_CACHE_DIRECTORY);
+		if (directoryName == null || directoryName.trim().length() == 0)
+		{
+			return null;
+		}
+		return new CompileDataCache(jasperReportsContext, new File(directoryName.trim()));
+	}
+	
+	public File getDirectory()
+	{
+		return directory;
+	}
+
+	/**
+	 * Computes the cache key for a set of compilation units.
+	 * 
+	 * <p>
+	 * The name suffix that is part of the unit names, and the generation timestamp
+	 * that is part of the source code header, are excluded from the key.
+	 * </p>
+	 * 
+	 * @param compilerClass the compiler class name
+	 * @param compilerSettings the compiler settings, can be <code>null</code>
+	 * @param units the compilation units
+	 * @param nameSuffix the name suffix used for the unit names
+	 * @return the cache key, or <code>null</code> if the units cannot be cached
+	 * because they don't have source code
+	 */
+	public String getKey(String compilerClass, String compilerSettings, JRCompilationUnit[] units, String nameSuffix)
+	{
+		MessageDigest digest = createDigest();
+		update(digest, compilerClass);
+		update(digest, compilerSettings);
+		for (JRCompilationUnit unit : units)
+		{
+			String sourceCode = unit.getSourceCode();
+			if (sourceCode == null)
+			{
+				return null;
+			}
+			
+			update(digest, unit.getName().replace(nameSuffix, ""));
+			update(digest, normalizeSource(sourceCode, nameSuffix));
+		}
+		return toHex(digest.digest());
+	}
+
+	/**
+	 * Looks up a cache entry.
+	 * 
+	 * @param key the cache key
+	 * @param unitCount the number of compilation units for which compile data is required
+	 * @return the cache entry, or <code>null</code> if no valid entry was found
+	 */
+	public Entry get(String key, int unitCount)
+	{
+		File entryFile = getEntryFile(key);
+		if (!entryFile.isFile())
+		{
+			return null;
+		}
+		
+		try
+		{
+			Object entry = JRLoader.loadObject(jasperReportsContext, entryFile);
+			if (entry instanceof Entry && ((Entry) entry).getCompileData().length == unitCount)
+			{
+				if (log.isDebugEnabled())
+				{
+					log.debug("found compile data for " + key + " in " + entryFile);
+				}
+				return (Entry) entry;
+			}
+			
+			log.warn("Ignoring invalid compile data cache entry " + entryFile);
+		}
+		catch (JRException | JRRuntimeException e)
+		{
+			log.warn("Failed to read compile data cache entry " + entryFile, e);
+		}
+		return null;
+	}
+	
+	/**
+	 * Saves the compile data of a set of compilation units.
+	 * 
+	 * <p>
+	 * Failures to write the entry are logged and do not cause the compilation to fail. 
+	 * </p>
+	 * 
+	 * @param key the cache key
+	 * @param nameSuffix the name suffix used for the unit names
+	 * @param units the compiled units
+	 */
+	public void put(String key, String nameSuffix, JRCompilationUnit[] units)
+	{
+		Serializable[] compileData = new Serializable[units.length];
+		for (int i = 0; i < units.length; i++)
+		{
+			compileData[i] = units[i].getCompileData();
+		}
+		
+		File entryFile = getEntryFile(key);
+		File tempFile = null;
+		try
+		{
+			if (!directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory())
+			{
+				log.warn("Could not create compile data cache directory " + directory);
+				return;
+			}
+			
+			// writing to a temporary file first so that concurrent readers never see partial entries
+			tempFile = File.createTempFile(key, ".tmp", directory);
+			JRSaver.saveObject(new Entry(nameSuffix, compileData), tempFile);
+			if (!tempFile.renameTo(entryFile))
+			{
+				// the target might exist on some platforms
+				entryFile.delete();
+				if (!tempFile.renameTo(entryFile))
+				{
+					log.warn("Could not create compile data cache entry " + entryFile);
+				}
+			}
+		}
+		catch (Exception e)
+		{
+			log.warn("Failed to write compile data cache entry " + entryFile, e);
+		}
+		finally
+		{
+			if (tempFile != null && tempFile.exists())
+			{
+				tempFile.delete();
+			}
+		}
+	}
+	
+	protected File getEntryFile(String key)
+	{
+		return new File(directory, key + ENTRY_FILE_SUFFIX);
+	}
+	
+	protected String normalizeSource(String sourceCode, String nameSuffix)
+	{
+		String source = sourceCode;
+		int headerIndex = source.indexOf(GENERATED_HEADER);
+		if (headerIndex >= 0)
+		{
+			int lineEnd = source.indexOf('\n', headerIndex);
+			source = source.substring(0, headerIndex) 
+					+ (lineEnd < 0 ? "" : source.substring(lineEnd));
+		}
+		return source.replace(nameSuffix, "");
+	}
+	
+	private static MessageDigest createDigest()
+	{
+		try
+		{
+			return MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException e)
+		{
+			throw new JRRuntimeException(e);
+		}
+	}
+	
+	private static void update(MessageDigest digest, String value)
+	{
+		if (value != null)
+		{
+			digest.update(value.getBytes(StandardCharsets.UTF_8));
+		}
+		// separator
+		digest.update((byte) 0);
+	}
+	
+	private static String toHex(byte[] bytes)
+	{
+		StringBuilder sb = new StringBuilder(bytes.length * 2);
+		for (byte b : bytes)
+		{
+			sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+			sb.append(Character.forDigit(b & 0xF, 16));
+		}
+		return sb.toString();
+	}
+	
+	/**
+	 * Compile data cache entry.
+	 */
+	public static class Entry implements Serializable
+	{
+		private static final long serialVersionUID = JRConstants.SERIAL_VERSION_UID;
+		
+		private final String nameSuffix;
+		private final Serializable[] compileData;
+		
+		public Entry(String nameSuffix, Serializable[] compileData)
+		{
+			this.nameSuffix = nameSuffix;
+			this.compileData = compileData;
+		}
+
+		/**
+		 * Returns the name suffix that was used for the compilation unit names.
+		 */
+		public String getNameSuffix()
+		{
+			return nameSuffix;
+		}
+
+		/**
+		 * Returns the compile data of the units, in the order in which the units were passed
+		 * to {@link CompileDataCache#put(String, String, JRCompilationUnit[])}.
+		 */
+		public Serializable[] getCompileData()
+		{
+			return compileData;
+		}
+	}
+}
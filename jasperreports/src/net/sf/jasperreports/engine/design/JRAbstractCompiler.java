@@ -197,16 +197,40 @@ public abstract class JRAbstractCompiler implements JRCompiler
 
 		String classpath = JRPropertiesUtil.getInstance(jasperReportsContext).getProperty(JRCompiler.COMPILER_CLASSPATH);
 		
+		// looking for previously compiled data for the same generated sources
+		CompileDataCache compileDataCache = CompileDataCache.getInstance(jasperReportsContext);
+		String cacheKey = compileDataCache == null ? null
+				: compileDataCache.getKey(getCompilerClass(), getCompileSettings(), units, nameSuffix);
+		CompileDataCache.Entry cacheEntry = cacheKey == null ? null 
+				: compileDataCache.get(cacheKey, units.length);
+		
 		try
 		{
-			// compiling generated sources
-			String compileErrors = compileUnits(units, classpath, tempDirFile);
-			if (compileErrors != null)
+			if (cacheEntry != null)
 			{
-				throw 
-					new JRException(
-						EXCEPTION_MESSAGE_KEY_REPORT_EXPRESSIONS_COMPILE_ERROR,
-						new Object[]{compileErrors});
+				// the cached compile data refers to the units by the original names
+				nameSuffix = cacheEntry.getNameSuffix();
+				for (int i = 0; i < units.length; i++)
+				{
+					units[i].setCompileData(cacheEntry.getCompileData()[i]);
+				}
+			}
+			else
+			{
+				// compiling generated sources
+				String compileErrors = compileUnits(units, classpath, tempDirFile);
+				if (compileErrors != null)
+				{
+					throw 
+						new JRException(
+							EXCEPTION_MESSAGE_KEY_REPORT_EXPRESSIONS_COMPILE_ERROR,
+							new Object[]{compileErrors});
+				}
+				
+				if (cacheKey != null)
+				{
+					compileDataCache.put(cacheKey, nameSuffix, units);
+				}
 			}
 
 			// creating the report compile data
@@ -272,6 +296,23 @@ public abstract class JRAbstractCompiler implements JRCompiler
 	}
 
 	
+	/**
+	 * Returns a textual representation of the compiler settings that influence the compile data
+	 * produced for a report.
+	 * 
+	 * <p>
+	 * The settings are part of the {@link CompileDataCache} keys, so that compile data 
+	 * is not reused after the settings change.
+	 * </p>
+	 * 
+	 * @return the compiler settings
+	 */
+	protected String getCompileSettings()
+	{
+		return JRPropertiesUtil.getInstance(jasperReportsContext).getProperty(JRCompiler.COMPILER_CLASSPATH);
+	}
+
+	
 	private void verifyDesign(JasperDesign jasperDesign, JRExpressionCollector expressionCollector) throws JRException
 	{
 		Collection<JRValidationFault> brokenRules = JRVerifier.verifyDesign(jasperReportsContext, jasperDesign, expressionCollector);
@@ -42,7 +42,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.TreeMap;
 
+import net.sf.jasperreports.annotations.properties.Property;
+import net.sf.jasperreports.annotations.properties.PropertyScope;
 import net.sf.jasperreports.engine.JRException;
 import net.sf.jasperreports.engine.JRExpression;
 import net.sf.jasperreports.engine.JRExpressionChunk;
@@ -52,6 +55,7 @@ import net.sf.jasperreports.engine.JRPropertiesUtil;
 import net.sf.jasperreports.engine.JRVariable;
 import net.sf.jasperreports.engine.util.JRStringUtil;
 import net.sf.jasperreports.functions.FunctionSupport;
+import net.sf.jasperreports.properties.PropertyConstants;
 
 
 /**
@@ -62,11 +66,39 @@ public class JRClassGenerator
 	
 	public static final String PROPERTY_MAX_METHOD_SIZE = JRPropertiesUtil.PROPERTY_PREFIX + "compiler.max.java.method.size";
 	
+	/**
+	 * Property that determines whether each expression is generated as a separate method of the
+	 * expression evaluator class.
+	 * 
+	 * <p>
+	 * By default, the expressions are generated as cases of switch statements spanning methods of
+	 * up to 100 expressions, which for reports with many or complex expressions can exceed the size
+	 * limit above which the JIT compiler no longer compiles methods.
+	 * When this property is set, each expression gets its own method, and the expression ID is
+	 * dispatched to these methods through small switch methods that cover groups of 32 expressions.
+	 * All the generated methods are then small enough to be compiled and inlined by the JIT compiler.
+	 * </p>
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_COMPILE,
+			defaultValue = PropertyConstants.BOOLEAN_FALSE,
+			scopes = {PropertyScope.CONTEXT},
+			sinceVersion = PropertyConstants.VERSION_6_4_2,
+			valueType = Boolean.class
+			)
+	public static final String PROPERTY_EXPRESSION_METHODS = JRPropertiesUtil.PROPERTY_PREFIX + "compiler.java.expression.methods";
+	
 	
 	/**
 	 *
 	 */
 	private static final int EXPR_MAX_COUNT_PER_METHOD = 100;
+	
+	/**
+	 * The number of bits of expression IDs that are dispatched by a group method 
+	 * when generating a method per expression.
+	 */
+	private static final int EXPR_GROUP_BITS = 5;
 
 	protected static final String SOURCE_EXPRESSION_ID_START = "$JR_EXPR_ID=";
 	protected static final int SOURCE_EXPRESSION_ID_START_LENGTH = SOURCE_EXPRESSION_ID_START.length();
@@ -97,6 +129,7 @@ public class JRClassGenerator
 	protected final JRSourceCompileTask sourceTask;
 
 	private final int maxMethodSize;
+	private final boolean expressionMethods;
 	
 	protected Map<String, ? extends JRParameter> parametersMap;
 	protected Map<String,JRField> fieldsMap;
@@ -114,6 +147,7 @@ public class JRClassGenerator
 		
 		JRPropertiesUtil properties = JRPropertiesUtil.getInstance(sourceTask.getJasperReportsContext());
 		maxMethodSize = properties.getIntegerProperty(PROPERTY_MAX_METHOD_SIZE, Integer.MAX_VALUE);
+		expressionMethods = properties.getBooleanProperty(PROPERTY_EXPRESSION_METHODS);
 	}
 
 	
@@ -464,7 +498,14 @@ public class JRClassGenerator
 
 		if (expressionsList.size() > 0)
 		{
-			sb.append(generateMethod(expressionsList.listIterator(), evaluationType));
+			if (expressionMethods)
+			{
+				generateExpressionMethods(sb, evaluationType, expressionsList);
+			}
+			else
+			{
+				sb.append(generateMethod(expressionsList.listIterator(), evaluationType));
+			}
 		}
 		else
 		{
@@ -528,6 +569,110 @@ public class JRClassGenerator
 		return sb.toString();
 	}
 
+	/**
+	 * Generates a method for each expression, and switch methods that dispatch the
+	 * expression IDs in groups to the expression methods.
+	 */
+	protected void generateExpressionMethods(StringBuilder sb, byte evaluationType, 
+			List<JRExpression> expressionsList)
+	{
+		String methodSuffix = methodSuffixMap.get(new Byte(evaluationType));
+		
+		Map<Integer, List<JRExpression>> groups = new TreeMap<Integer, List<JRExpression>>();
+		for (JRExpression expression : expressionsList)
+		{
+			Integer group = sourceTask.getExpressionId(expression) >>> EXPR_GROUP_BITS;
+			List<JRExpression> groupExpressions = groups.get(group);
+			if (groupExpressions == null)
+			{
+				groupExpressions = new ArrayList<JRExpression>();
+				groups.put(group, groupExpressions);
+			}
+			groupExpressions.add(expression);
+		}
+		
+		sb.append("    /**\n");
+		sb.append("     *\n");
+		sb.append("     */\n");
+		sb.append("    public Object evaluate");
+		sb.append(methodSuffix);
+		sb.append("(int id) throws Throwable\n");
+		sb.append("    {\n");
+		sb.append("        switch (id >>> ");
+		sb.append(EXPR_GROUP_BITS);
+		sb.append(")\n");
+		sb.append("        {\n");
+		for (Integer group : groups.keySet())
+		{
+			sb.append("            case ");
+			sb.append(group);
+			sb.append(" :\n");
+			sb.append("                return evaluate");
+			sb.append(methodSuffix);
+			sb.append("Group");
+			sb.append(group);
+			sb.append("(id);\n");
+		}
+		sb.append("            default :\n");
+		sb.append("                return null;\n");
+		sb.append("        }\n");
+		sb.append("    }\n");
+		sb.append("\n");
+		sb.append("\n");
+		
+		for (Map.Entry<Integer, List<JRExpression>> groupEntry : groups.entrySet())
+		{
+			sb.append("    /**\n");
+			sb.append("     *\n");
+			sb.append("     */\n");
+			sb.append("    private Object evaluate");
+			sb.append(methodSuffix);
+			sb.append("Group");
+			sb.append(groupEntry.getKey());
+			sb.append("(int id) throws Throwable\n");
+			sb.append("    {\n");
+			sb.append("        switch (id)\n");
+			sb.append("        {\n");
+			for (JRExpression expression : groupEntry.getValue())
+			{
+				Integer expressionId = sourceTask.getExpressionId(expression);
+				sb.append("            case ");
+				sb.append(expressionId);
+				sb.append(" :\n");
+				sb.append("                return expression");
+				sb.append(methodSuffix);
+				sb.append(expressionId);
+				sb.append("();\n");
+			}
+			sb.append("            default :\n");
+			sb.append("                return null;\n");
+			sb.append("        }\n");
+			sb.append("    }\n");
+			sb.append("\n");
+			sb.append("\n");
+		}
+		
+		for (JRExpression expression : expressionsList)
+		{
+			sb.append("    /**\n");
+			sb.append("     *\n");
+			sb.append("     */\n");
+			sb.append("    private Object expression");
+			sb.append(methodSuffix);
+			sb.append(sourceTask.getExpressionId(expression));
+			sb.append("() throws Throwable\n");
+			sb.append("    {\n");
+			sb.append("        return ");
+			sb.append(generateExpression(expression, evaluationType));
+			sb.append(";");
+			appendExpressionComment(sb, expression);
+			sb.append("\n");
+			sb.append("    }\n");
+			sb.append("\n");
+			sb.append("\n");
+		}
+	}
+
 	protected void writeMethodStart(StringBuilder sb, byte evaluationType, int methodIndex)
 	{
 		sb.append("    /**\n");
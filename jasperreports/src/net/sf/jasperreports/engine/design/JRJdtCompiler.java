@@ -29,6 +29,7 @@ import java.io.InputStream;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -38,6 +39,16 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -57,6 +68,8 @@ import org.eclipse.jdt.internal.compiler.env.NameEnvironmentAnswer;
 import org.eclipse.jdt.internal.compiler.impl.CompilerOptions;
 import org.eclipse.jdt.internal.compiler.problem.DefaultProblemFactory;
 
+import net.sf.jasperreports.annotations.properties.Property;
+import net.sf.jasperreports.annotations.properties.PropertyScope;
 import net.sf.jasperreports.engine.JRException;
 import net.sf.jasperreports.engine.JRPropertiesUtil;
 import net.sf.jasperreports.engine.JRReport;
@@ -65,6 +78,7 @@ import net.sf.jasperreports.engine.JasperReportsContext;
 import net.sf.jasperreports.engine.util.JRClassLoader;
 import net.sf.jasperreports.engine.util.JRLoader;
 import net.sf.jasperreports.functions.FunctionsUtil;
+import net.sf.jasperreports.properties.PropertyConstants;
 
 /**
  * @author Teodor Danciu (teodord@users.sourceforge.net)
@@ -73,6 +87,25 @@ public class JRJdtCompiler extends JRAbstractJavaCompiler
 {
 	private static final String JDT_PROPERTIES_PREFIX = "org.eclipse.jdt.core.";
 	
+	/**
+	 * Property that determines whether the units of a report (the main dataset, subdatasets 
+	 * and crosstabs) are compiled in parallel.
+	 * 
+	 * <p>
+	 * When set, the units are compiled separately on a pool of shared compiler threads
+	 * bounded by the number of available processors. 
+	 * This speeds up the compilation of reports that have several large units.
+	 * </p>
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_COMPILE,
+			defaultValue = PropertyConstants.BOOLEAN_FALSE,
+			scopes = {PropertyScope.CONTEXT},
+			sinceVersion = PropertyConstants.VERSION_6_4_2,
+			valueType = Boolean.class
+			)
+	public static final String PROPERTY_PARALLEL_UNITS = JRPropertiesUtil.PROPERTY_PREFIX + "compiler.parallel.units";
+	
 	public static final String EXCEPTION_MESSAGE_KEY_CLASS_LOADING_ERROR = "compilers.jdt.class.loading.error";
 	public static final String EXCEPTION_MESSAGE_KEY_NAME_ENVIRONMENT_ANSWER_INSTANCE_ERROR = "compilers.jdt.name.environment.answer.instance.error";
 	
@@ -81,6 +114,18 @@ public class JRJdtCompiler extends JRAbstractJavaCompiler
 	 */
 	static final Log log = LogFactory.getLog(JRJdtCompiler.class);
 	
+	private static final ExecutorService executor = createExecutor();
+	
+	private static ExecutorService createExecutor()
+	{
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(
+				Runtime.getRuntime().availableProcessors(), Runtime.getRuntime().availableProcessors(), 
+				30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), 
+				new CompilerThreadFactory());
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+	
 	private final ClassLoader classLoader;
 
 	Constructor<?> constrNameEnvAnsBin;
@@ -138,7 +183,112 @@ public class JRJdtCompiler extends JRAbstractJavaCompiler
 	
 
 	@Override
-	protected String compileUnits(final JRCompilationUnit[] units, String classpath, File tempDirFile)
+	protected String compileUnits(final JRCompilationUnit[] units, String classpath, File tempDirFile) throws JRException
+	{
+		if (units.length > 1 
+				&& JRPropertiesUtil.getInstance(jasperReportsContext).getBooleanProperty(PROPERTY_PARALLEL_UNITS))
+		{
+			return compileUnitsInParallel(units);
+		}
+		
+		return compileUnits(units);
+	}
+
+	/**
+	 * Compiles each unit separately, the first unit on the current thread and the rest
+	 * on the shared compiler threads.
+	 * 
+	 * <p>
+	 * The units are independent classes, each compilation uses its own JDT compiler, 
+	 * name environment and requestor. 
+	 * Units that are recreated due to missing functions are replaced in the array.
+	 * </p>
+	 * 
+	 * @see #PROPERTY_PARALLEL_UNITS
+	 */
+	protected String compileUnitsInParallel(final JRCompilationUnit[] units) throws JRException
+	{
+		final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+		
+		final JRCompilationUnit[][] unitArrays = new JRCompilationUnit[units.length][];
+		List<Future<String>> futures = new ArrayList<Future<String>>(units.length - 1);
+		for (int i = 1; i < units.length; i++)
+		{
+			final JRCompilationUnit[] unitArray = new JRCompilationUnit[]{units[i]};
+			unitArrays[i] = unitArray;
+			futures.add(executor.submit(new Callable<String>()
+			{
+				@Override
+				public String call()
+				{
+					Thread thread = Thread.currentThread();
+					ClassLoader threadClassLoader = thread.getContextClassLoader();
+					thread.setContextClassLoader(contextClassLoader);
+					try
+					{
+						return compileUnits(unitArray);
+					}
+					finally
+					{
+						thread.setContextClassLoader(threadClassLoader);
+					}
+				}
+			}));
+		}
+		
+		unitArrays[0] = new JRCompilationUnit[]{units[0]};
+		String mainErrors = compileUnits(unitArrays[0]);
+		
+		StringBuilder errors = new StringBuilder();
+		if (mainErrors != null)
+		{
+			errors.append(mainErrors);
+		}
+		
+		for (int i = 1; i < units.length; i++)
+		{
+			String unitErrors;
+			try
+			{
+				unitErrors = futures.get(i - 1).get();
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				throw new JRRuntimeException(e);
+			}
+			catch (ExecutionException e)
+			{
+				Throwable cause = e.getCause();
+				if (cause instanceof RuntimeException)
+				{
+					throw (RuntimeException) cause;
+				}
+				if (cause instanceof Error)
+				{
+					throw (Error) cause;
+				}
+				throw new JRRuntimeException(cause);
+			}
+			
+			if (unitErrors != null)
+			{
+				errors.append(unitErrors);
+			}
+		}
+		
+		for (int i = 0; i < units.length; i++)
+		{
+			units[i] = unitArrays[i][0];
+		}
+		
+		return errors.length() == 0 ? null : errors.toString();
+	}
+
+	/**
+	 * Compiles a set of units in a single JDT compilation.
+	 */
+	protected String compileUnits(final JRCompilationUnit[] units)
 	{
 		final INameEnvironment env = getNameEnvironment(units);
 
@@ -398,6 +548,12 @@ public class JRJdtCompiler extends JRAbstractJavaCompiler
 		return new CompilerRequestor(jasperReportsContext, this, units);
 	}
 
+	@Override
+	protected String getCompileSettings()
+	{
+		return super.getCompileSettings() + "\n" + new TreeMap<String,String>(getJdtSettings());
+	}
+
 	protected Map<String,String> getJdtSettings()
 	{
 		final Map<String,String> settings = new HashMap<String,String>();
@@ -908,4 +1064,17 @@ public class JRJdtCompiler extends JRAbstractJavaCompiler
 			problems = null;
 		}
 	}
+	
+	protected static class CompilerThreadFactory implements ThreadFactory
+	{
+		private final AtomicInteger threadCount = new AtomicInteger();
+		
+		@Override
+		public Thread newThread(Runnable r)
+		{
+			Thread thread = new Thread(r, "JasperReports compiler #" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
 }
@@ -0,0 +1,315 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.export;
+
+import java.util.Arrays;
+import java.util.List;
+
+import net.sf.jasperreports.engine.JRPrintElement;
+import net.sf.jasperreports.engine.JRPrintFrame;
+
+
+/**
+ * Arranges the elements of a page in rows and columns for the CSV exporter 
+ * without creating a {@link JRGridLayout}.
+ * <p/>
+ * The exported elements are sorted by their vertical and horizontal positions,
+ * each distinct vertical position producing a row and each distinct horizontal position 
+ * producing a column, which is what the grid layout produces for the 
+ * {@link JRCsvExporterNature CSV exporter nature} that does not span cells.
+ * Pages where the grid layout would discard elements or would create 
+ * rows and columns that do not start with an element, or where elements that are not part
+ * of a frame start inside the frame area, are not handled, 
+ * {@link #layout(List, int, int)} returns <code>false</code> for such pages.
+ * 
+ * @see net.sf.jasperreports.export.CsvReportConfiguration#isFlatLayout()
+ */
+public class CsvFlatPageLayout
+{
+	private static final long X_SIGN_FLIP = 0x80000000L;
+	
+	private final ExporterNature nature;
+	
+	private int elementCount;
+	private JRPrintElement[] elements = new JRPrintElement[64];
+	private long[] positions = new long[64];
+	private long[] sortedPositions = new long[64];
+	private JRPrintElement[] sortedElements = new JRPrintElement[64];
+	private int[] elementIndexes = new int[64];
+	private int[] xs = new int[64];
+	private int columnCount;
+	
+	private int frameCount;
+	private long[] framePositions = new long[8];
+	private int[] frameWidths = new int[8];
+	private int[] frameHeights = new int[8];
+	private int[] frameStarts = new int[8];
+	private int[] frameEnds = new int[8];
+	
+	public CsvFlatPageLayout(ExporterNature nature)
+	{
+		this.nature = nature;
+	}
+
+	/**
+	 * Arranges a list of page elements in rows and columns.
+	 * 
+	 * @param pageElements the page elements
+	 * @param offsetX the horizontal offset of the elements
+	 * @param offsetY the vertical offset of the elements
+	 * @return whether the elements could be arranged, if <code>false</code> the grid layout should be used instead
+	 */
+	public boolean layout(List<JRPrintElement> pageElements, int offsetX, int offsetY)
+	{
+		clear();
+		
+		if (!collect(pageElements, offsetX, offsetY))
+		{
+			clear();
+			return false;
+		}
+		
+		System.arraycopy(positions, 0, sortedPositions, 0, elementCount);
+		Arrays.sort(sortedPositions, 0, elementCount);
+		for (int i = 1; i < elementCount; i++)
+		{
+			if (sortedPositions[i] == sortedPositions[i - 1])
+			{
+				// elements starting at the same position, only one of them is exported by the grid layout
+				clear();
+				return false;
+			}
+		}
+		
+		for (int i = 0; i < elementCount; i++)
+		{
+			int sortedIndex = Arrays.binarySearch(sortedPositions, 0, elementCount, positions[i]);
+			sortedElements[sortedIndex] = elements[i];
+			elementIndexes[sortedIndex] = i;
+			xs[i] = getX(positions[i]);
+		}
+		
+		for (int i = 0; i < frameCount; i++)
+		{
+			if (overlapsFrame(i))
+			{
+				// an element that is not part of the frame starts inside the frame, 
+				// the grid layout might skip either the frame or the element
+				clear();
+				return false;
+			}
+		}
+		
+		Arrays.sort(xs, 0, elementCount);
+		columnCount = 0;
+		for (int i = 0; i < elementCount; i++)
+		{
+			if (columnCount == 0 || xs[columnCount - 1] != xs[i])
+			{
+				xs[columnCount++] = xs[i];
+			}
+		}
+		
+		return true;
+	}
+	
+	protected boolean overlapsFrame(int frameIndex)
+	{
+		int frameX = getX(framePositions[frameIndex]);
+		int frameY = getY(framePositions[frameIndex]);
+		int frameEndX = frameX + frameWidths[frameIndex];
+		
+		// the elements that start in the rows of the frame are contiguous in the sorted positions
+		int start = insertionIndex(Arrays.binarySearch(sortedPositions, 0, elementCount, 
+				position(Integer.MIN_VALUE, frameY)));
+		int end = insertionIndex(Arrays.binarySearch(sortedPositions, 0, elementCount, 
+				position(Integer.MIN_VALUE, frameY + frameHeights[frameIndex])));
+		for (int sortedIndex = start; sortedIndex < end; sortedIndex++)
+		{
+			int x = getX(sortedPositions[sortedIndex]);
+			int elementIndex = elementIndexes[sortedIndex];
+			if (x >= frameX && x < frameEndX
+					&& (elementIndex < frameStarts[frameIndex] || elementIndex >= frameEnds[frameIndex]))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	protected static int insertionIndex(int searchIndex)
+	{
+		return searchIndex >= 0 ? searchIndex : -searchIndex - 1;
+	}
+	
+	protected boolean collect(List<JRPrintElement> pageElements, int offsetX, int offsetY)
+	{
+		for (JRPrintElement element : pageElements)
+		{
+			if (nature.isToExport(element))
+			{
+				int x = element.getX() + offsetX;
+				int y = element.getY() + offsetY;
+				
+				JRPrintFrame frame = element instanceof JRPrintFrame ? (JRPrintFrame) element : null;
+				if (frame != null && nature.isDeep(frame))
+				{
+					int frameIndex = addFrame(position(x, y), frame.getWidth(), frame.getHeight());
+					if (!collect(frame.getElements(),
+							x + frame.getLineBox().getLeftPadding().intValue(),
+							y + frame.getLineBox().getTopPadding().intValue()))
+					{
+						return false;
+					}
+					frameEnds[frameIndex] = elementCount;
+				}
+				else
+				{
+					if (element.getWidth() <= 0 || element.getHeight() <= 0)
+					{
+						// the grid layout marks the row and column as used without placing the element
+						return false;
+					}
+					
+					addElement(element, position(x, y));
+				}
+			}
+		}
+		return true;
+	}
+	
+	protected void addElement(JRPrintElement element, long position)
+	{
+		if (elementCount == elements.length)
+		{
+			int size = elementCount * 2;
+			elements = Arrays.copyOf(elements, size);
+			positions = Arrays.copyOf(positions, size);
+			sortedPositions = new long[size];
+			sortedElements = new JRPrintElement[size];
+			elementIndexes = new int[size];
+			xs = new int[size];
+		}
+		
+		elements[elementCount] = element;
+		positions[elementCount] = position;
+		++elementCount;
+	}
+	
+	protected int addFrame(long position, int width, int height)
+	{
+		if (frameCount == framePositions.length)
+		{
+			int size = frameCount * 2;
+			framePositions = Arrays.copyOf(framePositions, size);
+			frameWidths = Arrays.copyOf(frameWidths, size);
+			frameHeights = Arrays.copyOf(frameHeights, size);
+			frameStarts = Arrays.copyOf(frameStarts, size);
+			frameEnds = Arrays.copyOf(frameEnds, size);
+		}
+		
+		framePositions[frameCount] = position;
+		frameWidths[frameCount] = width;
+		frameHeights[frameCount] = height;
+		frameStarts[frameCount] = elementCount;
+		frameEnds[frameCount] = elementCount;
+		return frameCount++;
+	}
+	
+	/**
+	 * Releases the references to the elements of the last page.
+	 */
+	public void clear()
+	{
+		Arrays.fill(elements, 0, elementCount, null);
+		Arrays.fill(sortedElements, 0, elementCount, null);
+		elementCount = 0;
+		frameCount = 0;
+		columnCount = 0;
+	}
+	
+	/**
+	 * Returns the number of elements, each element being placed in a distinct cell.
+	 */
+	public int getElementCount()
+	{
+		return elementCount;
+	}
+	
+	/**
+	 * Returns an element, the elements being sorted by their vertical and horizontal positions.
+	 * 
+	 * @param index the element index, between 0 and {@link #getElementCount()} - 1
+	 */
+	public JRPrintElement getElement(int index)
+	{
+		return sortedElements[index];
+	}
+	
+	/**
+	 * Returns the vertical position of an element, elements having the same vertical position are on the same row.
+	 * 
+	 * @param index the element index in the sorted order
+	 */
+	public int getElementY(int index)
+	{
+		return getY(sortedPositions[index]);
+	}
+	
+	/**
+	 * Returns the column of an element.
+	 * 
+	 * @param index the element index in the sorted order
+	 */
+	public int getElementColumn(int index)
+	{
+		return Arrays.binarySearch(xs, 0, columnCount, getX(sortedPositions[index]));
+	}
+	
+	/**
+	 * Returns the number of columns, i.e. the number of distinct horizontal element positions.
+	 */
+	public int getColumnCount()
+	{
+		return columnCount;
+	}
+	
+	/**
+	 * Encodes a position as a long that sorts by the vertical coordinate and then by the horizontal coordinate.
+	 */
+	protected static long position(int x, int y)
+	{
+		return ((long) y << 32) | ((x & 0xFFFFFFFFL) ^ X_SIGN_FLIP);
+	}
+	
+	protected static int getX(long position)
+	{
+		return (int) ((position & 0xFFFFFFFFL) ^ X_SIGN_FLIP);
+	}
+	
+	protected static int getY(long position)
+	{
+		return (int) (position >> 32);
+	}
+}
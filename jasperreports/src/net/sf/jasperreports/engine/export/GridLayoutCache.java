@@ -0,0 +1,142 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.export;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import net.sf.jasperreports.engine.util.Pair;
+
+
+/**
+ * Cell objects shared by the grid layouts created for the pages of a report.
+ * <p/>
+ * Grid cell sizes, cell styles and empty cells are immutable and are shared by all the layouts
+ * that use the same cache instance.
+ * The cache also keeps the rows of empty cells used to initialize the grids, 
+ * grids having the same column widths and rows of the same height start from the same row of empty cells.
+ * For reports whose pages have the same columns, this avoids allocating a cell size, 
+ * a key and a cell for each grid position on each page.
+ * <p/>
+ * A cache instance is meant to be used by a single exporter and is not thread safe.
+ * The cached objects are discarded when their number exceeds a fixed limit.
+ * 
+ * @see JRGridLayout#JRGridLayout(ExporterNature, java.util.List, int, int, int, int, CutsInfo, GridLayoutCache)
+ */
+public class GridLayoutCache
+{
+	private static final int MAX_ENTRIES = 10000;
+	
+	final Map<GridCellSize, GridCellSize> cellSizes = new HashMap<GridCellSize, GridCellSize>();
+	final Map<GridCellStyle, GridCellStyle> cellStyles = new HashMap<GridCellStyle, GridCellStyle>();
+	final Map<Pair<GridCellSize, GridCellStyle>, EmptyGridCell> emptyCells = new HashMap<Pair<GridCellSize, GridCellStyle>, EmptyGridCell>();
+	
+	private final Map<ColumnWidths, Map<Integer, EmptyGridCell[]>> rowSkeletons = new HashMap<ColumnWidths, Map<Integer, EmptyGridCell[]>>();
+	private int rowSkeletonCount;
+	
+	/**
+	 * Returns the rows of empty cells cached for a set of column widths, indexed by row height.
+	 */
+	protected Map<Integer, EmptyGridCell[]> getRowSkeletons(int[] columnWidths)
+	{
+		ColumnWidths key = new ColumnWidths(columnWidths);
+		Map<Integer, EmptyGridCell[]> skeletons = rowSkeletons.get(key);
+		if (skeletons == null)
+		{
+			skeletons = new HashMap<Integer, EmptyGridCell[]>();
+			rowSkeletons.put(key, skeletons);
+			++rowSkeletonCount;
+		}
+		return skeletons;
+	}
+	
+	protected void addedRowSkeleton()
+	{
+		++rowSkeletonCount;
+	}
+	
+	/**
+	 * Discards the cached objects if their number exceeds the limit.
+	 * 
+	 * <p>
+	 * This is called when the layout of a page starts, so that the objects of a page
+	 * are not discarded while the page layout is created.
+	 * </p>
+	 */
+	protected void checkSize()
+	{
+		if (cellSizes.size() + cellStyles.size() + emptyCells.size() + rowSkeletonCount > MAX_ENTRIES)
+		{
+			clear();
+		}
+	}
+	
+	/**
+	 * Discards all cached objects.
+	 */
+	public void clear()
+	{
+		cellSizes.clear();
+		cellStyles.clear();
+		emptyCells.clear();
+		rowSkeletons.clear();
+		rowSkeletonCount = 0;
+	}
+	
+	protected static final class ColumnWidths
+	{
+		private final int[] widths;
+		private final int hash;
+		
+		ColumnWidths(int[] widths)
+		{
+			this.widths = widths;
+			this.hash = Arrays.hashCode(widths);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (obj == this)
+			{
+				return true;
+			}
+			
+			if (!(obj instanceof ColumnWidths))
+			{
+				return false;
+			}
+			
+			ColumnWidths other = (ColumnWidths) obj;
+			return hash == other.hash && Arrays.equals(widths, other.widths);
+		}
+	}
+}
@@ -0,0 +1,355 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.export;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import net.sf.jasperreports.engine.JRPrintElement;
+import net.sf.jasperreports.engine.JRPrintPage;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.PrintPageFormat;
+import net.sf.jasperreports.engine.base.JRVirtualPrintPage;
+
+/**
+ * Creates the grid layouts of the next pages on worker threads while a grid exporter
+ * writes the current page.
+ * <p>
+ * The document writers and the style caches of the exporters are not thread safe, so pages
+ * are still written one at a time and in order.
+ * What the workers do ahead of the writer is building the page grids, which only reads the
+ * page elements.
+ * Only pages that have their own X cuts can be laid out ahead, the layout of pages that share
+ * the X cuts of a sheet depends on the layout of the previous pages.
+ * Virtualized pages are not laid out ahead, the virtualizer is not meant to be accessed concurrently.
+ * The layouts are created without an exporter filter, so the exporters do not use this class
+ * when a filter is set.
+ * </p>
+ * <p>
+ * The layouts are created by a thread pool shared by all exports, sized after the number
+ * of available processors.
+ * Each prefetcher uses at most the configured number of pool threads at a time,
+ * and layouts that have not been picked up by a pool thread when the exporter needs them
+ * are created by the exporter thread.
+ * </p>
+ * <p>
+ * Each layout uses a {@link GridLayoutCache} that is not used by other threads until the exporter
+ * has moved to the next page, as nested frame layouts are created while the page is exported.
+ * </p>
+ * <p>
+ * All methods are meant to be called by the exporter thread.
+ * </p>
+ *
+ * @see net.sf.jasperreports.export.DocxExporterConfiguration#getLayoutThreads()
+ * @see net.sf.jasperreports.export.OdsExporterConfiguration#getLayoutThreads()
+ */
+public class GridLayoutPrefetcher
+{
+	private static final Log log = LogFactory.getLog(GridLayoutPrefetcher.class);
+
+	private static final ExecutorService executor = createExecutor();
+
+	private static ExecutorService createExecutor()
+	{
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(
+				Runtime.getRuntime().availableProcessors(), Runtime.getRuntime().availableProcessors(),
+				30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+				new PrefetchThreadFactory());
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	private final int threads;
+	private final int pageCount;
+
+	private final ConcurrentLinkedQueue<FutureTask<PrefetchedLayout>> pendingTasks;
+	private final AtomicInteger runningWorkers;
+
+	private final Map<Integer, FutureTask<PrefetchedLayout>> layouts;
+	private final ConcurrentLinkedQueue<GridLayoutCache> caches;
+	private GridLayoutCache currentCache;
+	private JasperPrint jasperPrint;
+	private int scheduledIndex;
+
+	private int hitCount;
+	private int scheduledCount;
+
+	/**
+	 *
+	 * @param threads the maximum number of shared pool threads used at a time
+	 * @param pageCount the number of pages to lay out ahead of the current page
+	 */
+	public GridLayoutPrefetcher(int threads, int pageCount)
+	{
+		this.threads = threads;
+		this.pageCount = pageCount;
+		this.pendingTasks = new ConcurrentLinkedQueue<FutureTask<PrefetchedLayout>>();
+		this.runningWorkers = new AtomicInteger();
+		this.layouts = new HashMap<Integer, FutureTask<PrefetchedLayout>>();
+		this.caches = new ConcurrentLinkedQueue<GridLayoutCache>();
+		this.scheduledIndex = -1;
+	}
+
+	/**
+	 * Called before a page is exported, schedules the layouts of the next pages.
+	 *
+	 * @param nature the exporter nature
+	 * @param jasperPrint the document being exported
+	 * @param pageIndex the index of the page about to be exported
+	 * @param endPageIndex the index of the last page to be exported
+	 * @param offsetX horizontal element position offset
+	 * @param offsetY vertical element position offset
+	 */
+	public void pageStarted(ExporterNature nature, JasperPrint jasperPrint, int pageIndex, int endPageIndex,
+			int offsetX, int offsetY)
+	{
+		if (this.jasperPrint != jasperPrint)
+		{
+			// new document
+			cancel();
+			this.jasperPrint = jasperPrint;
+			this.scheduledIndex = pageIndex - 1;
+		}
+
+		discardPreviousPages(pageIndex);
+
+		List<JRPrintPage> pages = jasperPrint.getPages();
+		int lastIndex = Math.min(pageIndex + pageCount, endPageIndex);
+		for (int index = Math.max(pageIndex, scheduledIndex + 1); index <= lastIndex; index++)
+		{
+			JRPrintPage page = pages.get(index);
+			if (!(page instanceof JRVirtualPrintPage))
+			{
+				schedule(nature, index, page.getElements(), jasperPrint.getPageFormat(index), offsetX, offsetY);
+			}
+		}
+		scheduledIndex = Math.max(scheduledIndex, lastIndex);
+	}
+
+	protected void schedule(final ExporterNature nature, int pageIndex, final List<JRPrintElement> elements,
+			final PrintPageFormat pageFormat, final int offsetX, final int offsetY)
+	{
+		FutureTask<PrefetchedLayout> task = new FutureTask<PrefetchedLayout>(new Callable<PrefetchedLayout>()
+		{
+			@Override
+			public PrefetchedLayout call() throws Exception
+			{
+				GridLayoutCache cache = caches.poll();
+				if (cache == null)
+				{
+					cache = new GridLayoutCache();
+				}
+
+				JRGridLayout layout = new JRGridLayout(nature, elements,
+						pageFormat.getPageWidth(), pageFormat.getPageHeight(),
+						offsetX, offsetY, null, cache);
+				return new PrefetchedLayout(layout, cache);
+			}
+		});
+		layouts.put(pageIndex, task);
+		++scheduledCount;
+
+		pendingTasks.add(task);
+		if (runningWorkers.incrementAndGet() <= threads)
+		{
+			executor.execute(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					runPendingTasks();
+				}
+			});
+		}
+		else
+		{
+			// enough workers already running for this export
+			runningWorkers.decrementAndGet();
+		}
+	}
+
+	protected void runPendingTasks()
+	{
+		try
+		{
+			FutureTask<PrefetchedLayout> task;
+			while ((task = pendingTasks.poll()) != null)
+			{
+				// does nothing for cancelled tasks and for tasks taken over by the exporter thread
+				task.run();
+			}
+		}
+		finally
+		{
+			runningWorkers.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Returns the layout of a page.
+	 * <p>
+	 * Calling this method also signals that the previous page has been exported.
+	 * </p>
+	 *
+	 * @param pageIndex the page index
+	 * @return the page layout, or <code>null</code> if the page was not laid out ahead or
+	 * if its layout failed, in which case the caller should create the layout
+	 */
+	public JRGridLayout getLayout(int pageIndex)
+	{
+		releaseCurrentCache();
+
+		FutureTask<PrefetchedLayout> task = layouts.remove(pageIndex);
+		if (task == null)
+		{
+			return null;
+		}
+
+		// creating the layout here if no worker has picked it up yet
+		task.run();
+
+		PrefetchedLayout prefetched = null;
+		try
+		{
+			prefetched = task.get();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		catch (ExecutionException e)
+		{
+			// the exporter will create the layout again and report the error
+			if (log.isDebugEnabled())
+			{
+				log.debug("Failed to lay out page " + pageIndex, e.getCause());
+			}
+		}
+
+		if (prefetched == null)
+		{
+			return null;
+		}
+
+		++hitCount;
+		currentCache = prefetched.cache;
+		return prefetched.layout;
+	}
+
+	protected void releaseCurrentCache()
+	{
+		if (currentCache != null)
+		{
+			caches.add(currentCache);
+			currentCache = null;
+		}
+	}
+
+	protected void discardPreviousPages(int pageIndex)
+	{
+		for (Iterator<Map.Entry<Integer, FutureTask<PrefetchedLayout>>> it = layouts.entrySet().iterator(); it.hasNext();)
+		{
+			Map.Entry<Integer, FutureTask<PrefetchedLayout>> entry = it.next();
+			if (entry.getKey() < pageIndex)
+			{
+				// not used
+				entry.getValue().cancel(false);
+				it.remove();
+			}
+		}
+	}
+
+	protected void cancel()
+	{
+		for (FutureTask<PrefetchedLayout> task : layouts.values())
+		{
+			task.cancel(false);
+		}
+		layouts.clear();
+		pendingTasks.clear();
+		releaseCurrentCache();
+	}
+
+	/**
+	 * Cancels the layouts that have not been created yet.
+	 */
+	public void dispose()
+	{
+		cancel();
+		caches.clear();
+
+		if (log.isDebugEnabled())
+		{
+			log.debug("used " + hitCount + " out of " + scheduledCount + " scheduled page layouts");
+		}
+	}
+
+	/**
+	 * Returns the number of page layouts that were created ahead and used by the exporter.
+	 */
+	public int getHitCount()
+	{
+		return hitCount;
+	}
+
+	protected static class PrefetchedLayout
+	{
+		private final JRGridLayout layout;
+		private final GridLayoutCache cache;
+
+		public PrefetchedLayout(JRGridLayout layout, GridLayoutCache cache)
+		{
+			this.layout = layout;
+			this.cache = cache;
+		}
+	}
+
+	protected static class PrefetchThreadFactory implements ThreadFactory
+	{
+		private static final AtomicInteger threadCount = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable r)
+		{
+			Thread thread = new Thread(r, "JasperReports grid layout prefetch #" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -112,9 +112,11 @@ import net.sf.jasperreports.engine.util.JRStyledText;
 import net.sf.jasperreports.engine.util.JRTextAttribute;
 import net.sf.jasperreports.engine.util.JRTypeSniffer;
 import net.sf.jasperreports.engine.util.Pair;
+import net.sf.jasperreports.export.ChunkedHtmlExporterOutput;
 import net.sf.jasperreports.export.ExportInterruptedException;
 import net.sf.jasperreports.export.ExporterInputItem;
 import net.sf.jasperreports.export.HtmlExporterConfiguration;
+import net.sf.jasperreports.export.HtmlExporterOutput;
 import net.sf.jasperreports.export.HtmlReportConfiguration;
 import net.sf.jasperreports.properties.PropertyConstants;
 import net.sf.jasperreports.renderers.AreaHyperlinksRenderable;
@@ -193,6 +195,7 @@ public class HtmlExporter extends AbstractHtmlExporter<HtmlReportConfiguration,
 	protected Writer writer;
 	protected int reportIndex;
 	protected int pageIndex;
+	protected int flushRowInterval;
 	
 	protected LinkedList<Color> backcolorStack = new LinkedList<Color>();
 	
@@ -337,6 +340,8 @@ public class HtmlExporter extends AbstractHtmlExporter<HtmlReportConfiguration,
 		String betweenPagesHtml = configuration.getBetweenPagesHtml();
 		String htmlFooter = configuration.getHtmlFooter();
 		boolean flushOutput = configuration.isFlushOutput();//FIXMEEXPORT maybe move flush flag to output
+		Integer flushRowIntervalValue = configuration.getFlushRowInterval();
+		flushRowInterval = flushRowIntervalValue == null ? 0 : flushRowIntervalValue;
 
 		if (htmlHeader == null)
 		{
@@ -562,6 +567,9 @@ public class HtmlExporter extends AbstractHtmlExporter<HtmlReportConfiguration,
 		}
 		writer.write("</tr>\n");
 		
+		// only flushing the rows of the page table, nested tables are written at once
+		int rowFlushInterval = isMainReportTable ? flushRowInterval : 0;
+		int rowCount = 0;
 		for (Row row : rows)
 		{
 			writer.write("<tr valign=\"top\" style=\"height:");
@@ -594,11 +602,28 @@ public class HtmlExporter extends AbstractHtmlExporter<HtmlReportConfiguration,
 			}
 			
 			writer.write("</tr>\n");
+			
+			++rowCount;
+			if (rowFlushInterval > 0 && rowCount % rowFlushInterval == 0)
+			{
+				flushRows(rowCount);
+			}
 		}
 		
 		writer.write("</table>\n");
 	}
 
+	protected void flushRows(int rowCount) throws IOException
+	{
+		writer.flush();
+		
+		HtmlExporterOutput output = getExporterOutput();
+		if (output instanceof ChunkedHtmlExporterOutput)
+		{
+			((ChunkedHtmlExporterOutput) output).blockFlushed(pageIndex, rowCount);
+		}
+	}
+
 	protected void writeText(JRPrintText text, TableCell cell)
 			throws IOException
 	{
@@ -33,7 +33,6 @@ import java.io.Writer;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetEncoder;
 import java.util.List;
-import java.util.StringTokenizer;
 
 import net.sf.jasperreports.engine.DefaultJasperReportsContext;
 import net.sf.jasperreports.engine.JRAbstractExporter;
@@ -76,6 +75,8 @@ public abstract class JRAbstractCsvExporter<RC extends CsvReportConfiguration, C
 	protected ExporterNature nature;
 
 	protected int pageIndex;
+	
+	private StringBuilder textBuffer;
 
 	
 	/**
@@ -214,36 +215,41 @@ public abstract class JRAbstractCsvExporter<RC extends CsvReportConfiguration, C
 			if (
 				source.indexOf(fieldDelimiter) >= 0
 				|| source.indexOf(recordDelimiter) >= 0
+				|| source.indexOf('\n') >= 0
 				)
 			{
 				putQuotes = true;
 			}
 			
-			StringBuilder sb = new StringBuilder();
-			StringTokenizer tkzer = new StringTokenizer(source, quotes+"\n", true);
-			String token = null;
-			while(tkzer.hasMoreTokens())
+			char quote = quotes.charAt(0);
+			int quoteIndex = source.indexOf(quote);
+			if (quoteIndex < 0)
 			{
-				token = tkzer.nextToken();
-				if (quotes.equals(token))
-				{
-					putQuotes = true;
-					sb.append(quotes+quotes);
-				}
-				else if ("\n".equals(token))
+				str = source;
+			}
+			else
+			{
+				putQuotes = true;
+				
+				// reusing the buffer, the exporter is not used by several threads
+				StringBuilder sb = textBuffer;
+				if (sb == null)
 				{
-					//sbuffer.append(" ");
-					putQuotes = true;
-					sb.append("\n");
+					sb = textBuffer = new StringBuilder(source.length() + 8);
 				}
-				else
+				sb.setLength(0);
+				
+				int start = 0;
+				while (quoteIndex >= 0)
 				{
-					sb.append(token);
+					sb.append(source, start, quoteIndex + 1).append(quote);
+					start = quoteIndex + 1;
+					quoteIndex = source.indexOf(quote, start);
 				}
+				sb.append(source, start, source.length());
+				str = sb.toString();
 			}
 			
-			str = sb.toString();
-			
 			if (putQuotes)
 			{
 				str = quotes + str + quotes;
@@ -75,6 +75,10 @@ import org.apache.commons.logging.LogFactory;
 public class JRCsvExporter extends JRAbstractCsvExporter<CsvReportConfiguration, CsvExporterConfiguration, JRCsvExporterContext>
 {
 	private static final Log log = LogFactory.getLog(JRCsvExporter.class);
+	
+	private CsvFlatPageLayout flatLayout;
+	private StringBuilder rowBuilder;
+	private GridLayoutCache gridLayoutCache;
 
 	protected class ExporterContext extends BaseExporterContext implements JRCsvExporterContext
 	{
@@ -132,6 +136,26 @@ public class JRCsvExporter extends JRAbstractCsvExporter<CsvReportConfiguration,
 
 	@Override
 	protected void exportPage(JRPrintPage page) throws IOException
+	{
+		CsvReportConfiguration lcItemConfiguration = getCurrentItemConfiguration();
+		
+		if (!(lcItemConfiguration.isFlatLayout() && exportFlatPage(page)))
+		{
+			exportGridPage(page);
+		}
+		
+		JRExportProgressMonitor progressMonitor  = lcItemConfiguration.getProgressMonitor();
+		if (progressMonitor != null)
+		{
+			progressMonitor.afterPageExport();
+		}
+	}
+
+	
+	/**
+	 * Exports a page by arranging its elements in a {@link JRGridLayout}.
+	 */
+	protected void exportGridPage(JRPrintPage page) throws IOException
 	{
 		CsvExporterConfiguration configuration = getCurrentConfiguration();
 		
@@ -150,7 +174,8 @@ public class JRCsvExporter extends JRAbstractCsvExporter<CsvReportConfiguration,
 				pageFormat.getPageHeight(), 
 				lcItemConfiguration.getOffsetX() == null ? 0 : lcItemConfiguration.getOffsetX(), 
 				lcItemConfiguration.getOffsetY() == null ? 0 : lcItemConfiguration.getOffsetY(),
-				null //address
+				null, //xCuts
+				gridLayoutCache
 				);
 		
 		Grid grid = layout.getGrid();
@@ -158,7 +183,7 @@ public class JRCsvExporter extends JRAbstractCsvExporter<CsvReportConfiguration,
 		CutsInfo xCuts = layout.getXCuts();
 		CutsInfo yCuts = layout.getYCuts();
 
-		StringBuilder rowBuilder = null;
+		StringBuilder rowBuilder = getRowBuilder();
 		
 		boolean isFirstColumn = true;
 		int rowCount = grid.getRowCount();
@@ -166,7 +191,7 @@ public class JRCsvExporter extends JRAbstractCsvExporter<CsvReportConfiguration,
 		{
 			Cut yCut = yCuts.getCut(y);
 
-			rowBuilder = new StringBuilder();
+			rowBuilder.setLength(0);
 
 			if (yCut.isCutNotEmpty())
 			{
@@ -178,42 +203,7 @@ public class JRCsvExporter extends JRAbstractCsvExporter<CsvReportConfiguration,
 					JRPrintElement element = row.get(x).getElement();
 					if(element != null)
 					{
-						String text = null;
-						if (element instanceof JRPrintText)
-						{
-							JRStyledText styledText = getStyledText((JRPrintText)element);
-							if (styledText == null)
-							{
-								text = "";
-							}
-							else
-							{
-								text = styledText.getText();
-							}
-						}
-						else if (element instanceof JRGenericPrintElement)
-						{
-							JRGenericPrintElement genericPrintElement = (JRGenericPrintElement)element;
-							GenericElementCsvHandler handler = (GenericElementCsvHandler) 
-								GenericElementHandlerEnviroment.getInstance(getJasperReportsContext()).getElementHandler(
-										genericPrintElement.getGenericType(), CSV_EXPORTER_KEY);
-							
-							if (handler == null)
-							{
-								if (log.isDebugEnabled())
-								{
-									log.debug("No CSV generic element handler for " 
-											+ genericPrintElement.getGenericType());
-								}
-								
-								// it shouldn't get to this due to JRCsvExporterNature.isToExport, but let's be safe
-								text = "";
-							}
-							else
-							{
-								text = handler.getTextValue(exporterContext, genericPrintElement);
-							}
-						}
+						String text = getText(element);
 
 						if (text != null)
 						{
@@ -242,16 +232,167 @@ public class JRCsvExporter extends JRAbstractCsvExporter<CsvReportConfiguration,
 				
 				if (rowBuilder.length() > 0)
 				{
-					writer.write(rowBuilder.toString());
+					writer.append(rowBuilder);
 					writer.write(recordDelimiter);
 				}
 			}
 		}
+	}
+
+	
+	/**
+	 * Exports a page by sorting its elements by position, without creating a grid layout.
+	 * 
+	 * @return <code>false</code> if the page needs to be exported using the grid layout
+	 * @see CsvReportConfiguration#isFlatLayout()
+	 */
+	protected boolean exportFlatPage(JRPrintPage page) throws IOException
+	{
+		CsvReportConfiguration lcItemConfiguration = getCurrentItemConfiguration();
 		
-		JRExportProgressMonitor progressMonitor  = lcItemConfiguration.getProgressMonitor();
-		if (progressMonitor != null)
+		if (flatLayout == null)
 		{
-			progressMonitor.afterPageExport();
+			flatLayout = new CsvFlatPageLayout(nature);
+		}
+		
+		if (!flatLayout.layout(
+				page.getElements(), 
+				lcItemConfiguration.getOffsetX() == null ? 0 : lcItemConfiguration.getOffsetX(), 
+				lcItemConfiguration.getOffsetY() == null ? 0 : lcItemConfiguration.getOffsetY()))
+		{
+			if (log.isDebugEnabled())
+			{
+				log.debug("page " + pageIndex + " exported using the grid layout");
+			}
+			return false;
 		}
+		
+		CsvExporterConfiguration configuration = getCurrentConfiguration();
+		String fieldDelimiter = configuration.getFieldDelimiter();
+		String recordDelimiter = configuration.getRecordDelimiter();
+		
+		StringBuilder rowBuilder = getRowBuilder();
+		
+		int columnCount = flatLayout.getColumnCount();
+		int elementCount = flatLayout.getElementCount();
+		int index = 0;
+		while (index < elementCount)
+		{
+			rowBuilder.setLength(0);
+			boolean isFirstColumn = true;
+			int column = 0;
+			
+			int rowY = flatLayout.getElementY(index);
+			for (; index < elementCount && flatLayout.getElementY(index) == rowY; index++)
+			{
+				int elementColumn = flatLayout.getElementColumn(index);
+				for (; column < elementColumn; column++)
+				{
+					if (!isFirstColumn)
+					{
+						rowBuilder.append(fieldDelimiter);
+					}
+					isFirstColumn = false;
+				}
+				
+				String text = getText(flatLayout.getElement(index));
+				if (text != null)
+				{
+					if (!isFirstColumn)
+					{
+						rowBuilder.append(fieldDelimiter);
+					}
+					rowBuilder.append(prepareText(text));
+					isFirstColumn = false;
+				}
+				column = elementColumn + 1;
+			}
+			
+			for (; column < columnCount; column++)
+			{
+				if (!isFirstColumn)
+				{
+					rowBuilder.append(fieldDelimiter);
+				}
+				isFirstColumn = false;
+			}
+			
+			if (rowBuilder.length() > 0)
+			{
+				writer.append(rowBuilder);
+				writer.write(recordDelimiter);
+			}
+		}
+		
+		flatLayout.clear();
+		return true;
+	}
+
+	
+	/**
+	 * Returns the text to be exported for an element.
+	 * 
+	 * @return the element text, or <code>null</code> if no value is to be exported for the element
+	 */
+	protected String getText(JRPrintElement element)
+	{
+		String text = null;
+		if (element instanceof JRPrintText)
+		{
+			JRStyledText styledText = getStyledText((JRPrintText)element);
+			if (styledText == null)
+			{
+				text = "";
+			}
+			else
+			{
+				text = styledText.getText();
+			}
+		}
+		else if (element instanceof JRGenericPrintElement)
+		{
+			JRGenericPrintElement genericPrintElement = (JRGenericPrintElement)element;
+			GenericElementCsvHandler handler = (GenericElementCsvHandler) 
+				GenericElementHandlerEnviroment.getInstance(getJasperReportsContext()).getElementHandler(
+						genericPrintElement.getGenericType(), CSV_EXPORTER_KEY);
+			
+			if (handler == null)
+			{
+				if (log.isDebugEnabled())
+				{
+					log.debug("No CSV generic element handler for " 
+							+ genericPrintElement.getGenericType());
+				}
+				
+				// it shouldn't get to this due to JRCsvExporterNature.isToExport, but let's be safe
+				text = "";
+			}
+			else
+			{
+				text = handler.getTextValue(exporterContext, genericPrintElement);
+			}
+		}
+		return text;
+	}
+	
+	
+	protected StringBuilder getRowBuilder()
+	{
+		if (rowBuilder == null)
+		{
+			rowBuilder = new StringBuilder(256);
+		}
+		return rowBuilder;
+	}
+
+	
+	@Override
+	protected void initReport()
+	{
+		super.initReport();
+		
+		// the layout holds the nature, which is created for each report
+		flatLayout = null;
+		gridLayoutCache = new GridLayoutCache();
 	}
 }
\ No newline at end of file
@@ -61,6 +61,7 @@ public class JRGridLayout
 	private final ExporterNature nature;
 	private final List<JRPrintElement> elementList;
 	
+	private final GridLayoutCache cache;
 	private final Map<GridCellSize, GridCellSize> cellSizes;
 	private final Map<GridCellStyle, GridCellStyle> cellStyles;
 	private final Map<Pair<GridCellSize, GridCellStyle>, EmptyGridCell> emptyCells;
@@ -130,14 +131,49 @@ public class JRGridLayout
 		int offsetY,
 		CutsInfo xCuts
 		)
+	{
+		this(
+			nature,
+			elements,
+			width,
+			height,
+			offsetX,
+			offsetY,
+			xCuts,
+			new GridLayoutCache()
+			);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param elements the elements that should arranged in a grid
+	 * @param width the width available for the grid
+	 * @param height the height available for the grid
+	 * @param offsetX horizontal element position offset
+	 * @param offsetY vertical element position offset
+	 * @param xCuts An optional list of pre-calculated X cuts.
+	 * @param cache the cache of grid cells shared with the layouts of other pages
+	 */
+	public JRGridLayout(
+		ExporterNature nature,
+		List<JRPrintElement> elements,
+		int width,
+		int height,
+		int offsetX,
+		int offsetY,
+		CutsInfo xCuts,
+		GridLayoutCache cache
+		)
 	{
 		this.nature = nature;
 		this.elementList = elements;
 		
-		// TODO lucianc cache these across report pages?
-		this.cellSizes = new HashMap<GridCellSize, GridCellSize>();
-		this.cellStyles = new HashMap<GridCellStyle, GridCellStyle>();
-		this.emptyCells = new HashMap<Pair<GridCellSize,GridCellStyle>, EmptyGridCell>();
+		cache.checkSize();
+		this.cache = cache;
+		this.cellSizes = cache.cellSizes;
+		this.cellStyles = cache.cellStyles;
+		this.emptyCells = cache.emptyCells;
 		
 		this.height = height;
 		this.width = width;
@@ -171,6 +207,7 @@ public class JRGridLayout
 		this.nature = parent.nature;
 		this.elementList = parent.elementList;
 		
+		this.cache = parent.cache;
 		this.cellSizes = parent.cellSizes;
 		this.cellStyles = parent.cellStyles;
 		this.emptyCells = parent.emptyCells;
@@ -258,17 +295,38 @@ public class JRGridLayout
 
 		grid = new Grid(rowCount, colCount);
 
+		int[] columnWidths = new int[colCount];
+		for(int col = 0; col < colCount; col++)
+		{
+			columnWidths[col] = xCuts.getCutOffset(col + 1) - xCuts.getCutOffset(col);
+		}
+		
+		// rows of the same height start with the same empty cells
+		Map<Integer, EmptyGridCell[]> rowSkeletons = cache.getRowSkeletons(columnWidths);
 		for(int row = 0; row < rowCount; row++)
 		{
+			int rowHeight = yCuts.getCutOffset(row + 1) - yCuts.getCutOffset(row);
+			EmptyGridCell[] rowSkeleton = rowSkeletons.get(rowHeight);
+			if (rowSkeleton == null)
+			{
+				rowSkeleton = new EmptyGridCell[colCount];
+				for(int col = 0; col < colCount; col++)
+				{
+					GridCellSize size = cellSize(
+						columnWidths[col],
+						rowHeight,
+						1,
+						1
+						);
+					rowSkeleton[col] = emptyCell(size, null);
+				}
+				rowSkeletons.put(rowHeight, rowSkeleton);
+				cache.addedRowSkeleton();
+			}
+			
 			for(int col = 0; col < colCount; col++)
 			{
-				GridCellSize size = cellSize(
-					xCuts.getCutOffset(col + 1) - xCuts.getCutOffset(col),
-					yCuts.getCutOffset(row + 1) - yCuts.getCutOffset(row),
-					1,
-					1
-					);
-				grid.set(row, col, emptyCell(size, null));
+				grid.set(row, col, rowSkeleton[col]);
 			}
 		}
 
@@ -442,6 +442,7 @@ public class JRPdfExporter extends JRAbstractExporter<PdfReportConfiguration, Pd
 	protected RenderersCache renderersCache;
 	protected Map<String,Image> loadedImagesMap;
 	protected Image pxImage;
+	protected PdfImagePrefetcher imagePrefetcher;
 
 	private BookmarkStack bookmarkStack;
 
@@ -867,6 +868,12 @@ public class JRPdfExporter extends JRAbstractExporter<PdfReportConfiguration, Pd
 			initBookmarks(items);
 			
 			boolean isCreatingBatchModeBookmarks = configuration.isCreatingBatchModeBookmarks();
+			
+			int imagePrefetchThreads = configuration.getImagePrefetchThreads();
+			if (imagePrefetchThreads > 0)
+			{
+				imagePrefetcher = new PdfImagePrefetcher(jasperReportsContext, imagePrefetchThreads, 2 * imagePrefetchThreads);
+			}
 
 			for (reportIndex = 0; reportIndex < items.size(); reportIndex++)
 			{
@@ -909,6 +916,11 @@ public class JRPdfExporter extends JRAbstractExporter<PdfReportConfiguration, Pd
 							throw new ExportInterruptedException();
 						}
 
+						if (imagePrefetcher != null)
+						{
+							imagePrefetcher.pageStarted(pages, pageIndex, endPageIndex);
+						}
+
 						JRPrintPage page = pages.get(pageIndex);
 
 						pageFormat = jasperPrint.getPageFormat(pageIndex);
@@ -964,6 +976,12 @@ public class JRPdfExporter extends JRAbstractExporter<PdfReportConfiguration, Pd
 		}
 		finally
 		{
+			if (imagePrefetcher != null)
+			{
+				imagePrefetcher.dispose();
+				imagePrefetcher = null;
+			}
+			
 			if (closeDocuments) //only on exception
 			{
 				try
@@ -1716,7 +1734,7 @@ public class JRPdfExporter extends JRAbstractExporter<PdfReportConfiguration, Pd
 			{
 				try
 				{
-					image = Image.getInstance(renderer.getData(jasperReportsContext));
+					image = loadImage(rendererId, renderer);
 					imageTesterPdfContentByte.addImage(image, 10, 0, 0, 10, 0, 0);
 				}
 				catch (Exception e)
@@ -1754,7 +1772,7 @@ public class JRPdfExporter extends JRAbstractExporter<PdfReportConfiguration, Pd
 			{
 				try
 				{
-					image = Image.getInstance(renderer.getData(jasperReportsContext));
+					image = loadImage(rendererId, renderer);
 					imageTesterPdfContentByte.addImage(image, 10, 0, 0, 10, 0, 0);
 				}
 				catch (Exception e)
@@ -1908,6 +1926,19 @@ public class JRPdfExporter extends JRAbstractExporter<PdfReportConfiguration, Pd
 		}
 	}
 
+	/**
+	 * Loads the image for a data renderer, using the image decoded by the prefetch workers if available.
+	 */
+	protected Image loadImage(String rendererId, DataRenderable renderer) throws JRException, BadElementException, IOException
+	{
+		Image image = imagePrefetcher == null ? null : imagePrefetcher.getImage(rendererId);
+		if (image == null)
+		{
+			image = Image.getInstance(renderer.getData(jasperReportsContext));
+		}
+		return image;
+	}
+
 	private class InternalImageProcessorResult
 	{
 		private final Chunk chunk;
@@ -705,6 +705,8 @@ public abstract class JRXlsAbstractExporter<RC extends XlsReportConfiguration, C
 	
 	protected SheetInfo sheetInfo;
 	
+	protected GridLayoutCache gridLayoutCache;
+	
 	protected Map<NameScope, String> definedNamesMap;
 	
 	public static class SheetInfo
@@ -1035,6 +1037,8 @@ public abstract class JRXlsAbstractExporter<RC extends XlsReportConfiguration, C
 		}
 
 		renderersCache = new RenderersCache(getJasperReportsContext());
+		
+		gridLayoutCache = new GridLayoutCache();
 	}
 	
 	protected void exportReportToStream(OutputStream os) throws JRException, IOException
@@ -1129,6 +1133,29 @@ public abstract class JRXlsAbstractExporter<RC extends XlsReportConfiguration, C
 		closeWorkbook(os);
 	}
 
+	/**
+	 * Creates the grid layout of the current page.
+	 * 
+	 * @param page the page
+	 * @param xCuts the X cuts of the sheet, or <code>null</code> if the page has its own X cuts
+	 * @return the page layout
+	 */
+	protected JRGridLayout layoutPage(JRPrintPage page, CutsInfo xCuts)
+	{
+		XlsReportConfiguration configuration = getCurrentItemConfiguration();
+		return 
+			new JRGridLayout(
+				getNature(),
+				page.getElements(),
+				pageFormat.getPageWidth(),
+				pageFormat.getPageHeight(),
+				configuration.getOffsetX() == null ? 0 : configuration.getOffsetX(), 
+				configuration.getOffsetY() == null ? 0 : configuration.getOffsetY(),
+				xCuts,
+				gridLayoutCache
+				);
+	}
+
 	/**
 	 *
 	 * @return the number of rows added.
@@ -1142,16 +1169,7 @@ public abstract class JRXlsAbstractExporter<RC extends XlsReportConfiguration, C
 		boolean isRemoveEmptySpaceBetweenColumns = configuration.isRemoveEmptySpaceBetweenColumns();
 		boolean isCollapseRowSpan = configuration.isCollapseRowSpan();
 		
-		JRGridLayout layout =
-			new JRGridLayout(
-				getNature(),
-				page.getElements(),
-				pageFormat.getPageWidth(),
-				pageFormat.getPageHeight(),
-				configuration.getOffsetX() == null ? 0 : configuration.getOffsetX(), 
-				configuration.getOffsetY() == null ? 0 : configuration.getOffsetY(),
-				xCuts
-				);
+		JRGridLayout layout = layoutPage(page, xCuts);
 
 		Grid grid = layout.getGrid();
 
@@ -0,0 +1,373 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.export;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.lowagie.text.Image;
+
+import net.sf.jasperreports.engine.JRPrintElement;
+import net.sf.jasperreports.engine.JRPrintFrame;
+import net.sf.jasperreports.engine.JRPrintImage;
+import net.sf.jasperreports.engine.JRPrintPage;
+import net.sf.jasperreports.engine.JasperReportsContext;
+import net.sf.jasperreports.engine.type.ImageTypeEnum;
+import net.sf.jasperreports.engine.type.ScaleImageEnum;
+import net.sf.jasperreports.engine.util.JRTypeSniffer;
+import net.sf.jasperreports.renderers.DataRenderable;
+import net.sf.jasperreports.renderers.Graphics2DRenderable;
+import net.sf.jasperreports.renderers.Renderable;
+
+/**
+ * Decodes the images of the next pages on worker threads while the PDF exporter 
+ * writes the current page.
+ * <p>
+ * The PDF writer is not thread safe, so pages are still written one at a time and in order,
+ * which keeps bookmarks, tags and font subsets consistent.
+ * What the workers do ahead of the writer is decoding the raster image data of the following
+ * pages, which is the part of the page rendering that does not depend on the writer.
+ * Only images with data renderers that are drawn using the fill frame or retain shape
+ * scale types are prefetched; other images are processed by the writer thread as usual.
+ * </p>
+ * <p>
+ * The images are decoded by a thread pool shared by all exports, sized after the number
+ * of available processors.
+ * Each prefetcher uses at most the configured number of pool threads at a time,
+ * and images that have not been picked up by a pool thread when the exporter needs them
+ * are decoded by the exporter thread.
+ * </p>
+ * <p>
+ * All methods are meant to be called by the exporter thread.
+ * </p>
+ * 
+ * @see net.sf.jasperreports.export.PdfExporterConfiguration#getImagePrefetchThreads()
+ */
+public class PdfImagePrefetcher
+{
+	private static final Log log = LogFactory.getLog(PdfImagePrefetcher.class);
+	
+	private static final ExecutorService executor = createExecutor();
+	
+	private static ExecutorService createExecutor()
+	{
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(
+				Runtime.getRuntime().availableProcessors(), Runtime.getRuntime().availableProcessors(), 
+				30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), 
+				new PrefetchThreadFactory());
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+	
+	private final JasperReportsContext jasperReportsContext;
+	private final int threads;
+	private final int pageCount;
+	
+	private final ConcurrentLinkedQueue<FutureTask<Image>> pendingTasks;
+	private final AtomicInteger runningWorkers;
+	
+	private final Map<String, PrefetchedImage> images;
+	private final Set<String> scheduledRenderers;
+	private List<JRPrintPage> pages;
+	private int scheduledIndex;
+	
+	private int hitCount;
+	private int scheduledCount;
+	
+	/**
+	 * 
+	 * @param jasperReportsContext the context
+	 * @param threads the maximum number of shared pool threads used at a time
+	 * @param pageCount the number of pages to prefetch ahead of the current page
+	 */
+	public PdfImagePrefetcher(JasperReportsContext jasperReportsContext, int threads, int pageCount)
+	{
+		this.jasperReportsContext = jasperReportsContext;
+		this.threads = threads;
+		this.pageCount = pageCount;
+		this.pendingTasks = new ConcurrentLinkedQueue<FutureTask<Image>>();
+		this.runningWorkers = new AtomicInteger();
+		this.images = new HashMap<String, PrefetchedImage>();
+		this.scheduledRenderers = new HashSet<String>();
+		this.scheduledIndex = -1;
+	}
+	
+	/**
+	 * Called before a page is exported, schedules the images of the next pages for decoding.
+	 * 
+	 * @param pages the pages of the document being exported
+	 * @param pageIndex the index of the page about to be exported
+	 * @param endPageIndex the index of the last page to be exported
+	 */
+	public void pageStarted(List<JRPrintPage> pages, int pageIndex, int endPageIndex)
+	{
+		if (this.pages != pages)
+		{
+			// new document
+			cancel();
+			this.pages = pages;
+			this.scheduledIndex = pageIndex - 1;
+		}
+		
+		discardPreviousPages(pageIndex);
+		
+		int lastIndex = Math.min(pageIndex + pageCount, endPageIndex);
+		for (int index = Math.max(pageIndex, scheduledIndex + 1); index <= lastIndex; index++)
+		{
+			schedule(index, pages.get(index).getElements());
+		}
+		scheduledIndex = Math.max(scheduledIndex, lastIndex);
+	}
+	
+	protected void schedule(int pageIndex, List<JRPrintElement> elements)
+	{
+		for (JRPrintElement element : elements)
+		{
+			if (element instanceof JRPrintFrame)
+			{
+				schedule(pageIndex, ((JRPrintFrame) element).getElements());
+			}
+			else if (element instanceof JRPrintImage)
+			{
+				schedule(pageIndex, (JRPrintImage) element);
+			}
+		}
+	}
+	
+	protected void schedule(int pageIndex, JRPrintImage image)
+	{
+		ScaleImageEnum scaleImage = image.getScaleImageValue();
+		if (scaleImage != ScaleImageEnum.FILL_FRAME && scaleImage != ScaleImageEnum.RETAIN_SHAPE)
+		{
+			return;
+		}
+		
+		Renderable renderer = image.getRenderer();
+		if (!(renderer instanceof DataRenderable) || renderer instanceof Graphics2DRenderable)
+		{
+			// resource renderers are loaded by the exporter
+			return;
+		}
+		
+		// only decoding each renderer once, the exporter caches the images it has loaded
+		String rendererId = renderer.getId();
+		if (!scheduledRenderers.add(rendererId))
+		{
+			return;
+		}
+		
+		final DataRenderable dataRenderer = (DataRenderable) renderer;
+		FutureTask<Image> task = new FutureTask<Image>(new Callable<Image>()
+		{
+			@Override
+			public Image call() throws Exception
+			{
+				return decode(dataRenderer);
+			}
+		});
+		images.put(rendererId, new PrefetchedImage(pageIndex, task));
+		++scheduledCount;
+		
+		pendingTasks.add(task);
+		if (runningWorkers.incrementAndGet() <= threads)
+		{
+			executor.execute(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					runPendingTasks();
+				}
+			});
+		}
+		else
+		{
+			// enough workers already running for this export
+			runningWorkers.decrementAndGet();
+		}
+	}
+	
+	protected void runPendingTasks()
+	{
+		try
+		{
+			FutureTask<Image> task;
+			while ((task = pendingTasks.poll()) != null)
+			{
+				// does nothing for cancelled tasks and for tasks taken over by the exporter thread
+				task.run();
+			}
+		}
+		finally
+		{
+			runningWorkers.decrementAndGet();
+		}
+	}
+	
+	protected Image decode(DataRenderable renderer) throws Exception
+	{
+		byte[] data = renderer.getData(jasperReportsContext);
+		if (JRTypeSniffer.getImageTypeValue(data) == ImageTypeEnum.UNKNOWN)
+		{
+			// SVG and other data handled by the exporter
+			return null;
+		}
+		
+		return Image.getInstance(data);
+	}
+	
+	/**
+	 * Returns the prefetched image for a renderer.
+	 * <p>
+	 * Each prefetched image is returned only once.
+	 * </p>
+	 * 
+	 * @param rendererId the renderer ID
+	 * @return the decoded image, or <code>null</code> if the image was not prefetched or
+	 * could not be decoded, in which case the caller should load the image
+	 */
+	public Image getImage(String rendererId)
+	{
+		PrefetchedImage prefetched = images.remove(rendererId);
+		if (prefetched == null)
+		{
+			return null;
+		}
+		
+		// decoding the image here if no worker has picked it up yet
+		prefetched.task.run();
+		
+		Image image = null;
+		try
+		{
+			image = prefetched.task.get();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		catch (ExecutionException e)
+		{
+			// the exporter will load the image again and report the error
+			if (log.isDebugEnabled())
+			{
+				log.debug("Failed to prefetch image " + rendererId, e.getCause());
+			}
+		}
+		
+		if (image != null)
+		{
+			++hitCount;
+		}
+		return image;
+	}
+	
+	protected void discardPreviousPages(int pageIndex)
+	{
+		for (Iterator<PrefetchedImage> it = images.values().iterator(); it.hasNext();)
+		{
+			PrefetchedImage prefetched = it.next();
+			if (prefetched.pageIndex < pageIndex)
+			{
+				// not used, probably filtered out
+				prefetched.task.cancel(false);
+				it.remove();
+			}
+		}
+	}
+	
+	protected void cancel()
+	{
+		for (PrefetchedImage prefetched : images.values())
+		{
+			prefetched.task.cancel(false);
+		}
+		images.clear();
+		pendingTasks.clear();
+		scheduledRenderers.clear();
+	}
+	
+	/**
+	 * Cancels the images that have not been decoded yet.
+	 */
+	public void dispose()
+	{
+		cancel();
+		
+		if (log.isDebugEnabled())
+		{
+			log.debug("prefetched " + hitCount + " out of " + scheduledCount + " scheduled images");
+		}
+	}
+	
+	/**
+	 * Returns the number of images that were prefetched and used by the exporter.
+	 */
+	public int getHitCount()
+	{
+		return hitCount;
+	}
+	
+	protected static class PrefetchedImage
+	{
+		private final int pageIndex;
+		private final FutureTask<Image> task;
+		
+		public PrefetchedImage(int pageIndex, FutureTask<Image> task)
+		{
+			this.pageIndex = pageIndex;
+			this.task = task;
+		}
+	}
+	
+	protected static class PrefetchThreadFactory implements ThreadFactory
+	{
+		private static final AtomicInteger threadCount = new AtomicInteger();
+		
+		@Override
+		public Thread newThread(Runnable r)
+		{
+			Thread thread = new Thread(r, "JasperReports PDF image prefetch #" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
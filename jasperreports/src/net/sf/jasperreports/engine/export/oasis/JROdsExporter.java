@@ -64,6 +64,7 @@ import net.sf.jasperreports.engine.export.Cut;
 import net.sf.jasperreports.engine.export.CutsInfo;
 import net.sf.jasperreports.engine.export.ElementGridCell;
 import net.sf.jasperreports.engine.export.GenericElementHandlerEnviroment;
+import net.sf.jasperreports.engine.export.GridLayoutPrefetcher;
 import net.sf.jasperreports.engine.export.HyperlinkUtil;
 import net.sf.jasperreports.engine.export.JRExporterGridCell;
 import net.sf.jasperreports.engine.export.JRGridLayout;
@@ -137,6 +138,31 @@ public class JROdsExporter extends JRXlsAbstractExporter<OdsReportConfiguration,
 
 	protected Map<Integer, String> rowStyles = new HashMap<Integer, String>();
 	protected Map<Integer, String> columnStyles = new HashMap<Integer, String>();
+	
+	protected GridLayoutPrefetcher layoutPrefetcher;
+
+	@Override
+	protected void exportReportToStream(OutputStream os) throws JRException, IOException
+	{
+		int layoutThreads = getCurrentConfiguration().getLayoutThreads();
+		if (layoutThreads > 0)
+		{
+			layoutPrefetcher = new GridLayoutPrefetcher(layoutThreads, 2 * layoutThreads);
+		}
+		
+		try
+		{
+			super.exportReportToStream(os);
+		}
+		finally
+		{
+			if (layoutPrefetcher != null)
+			{
+				layoutPrefetcher.dispose();
+				layoutPrefetcher = null;
+			}
+		}
+	}
 
 	@Override
 	protected void openWorkbook(OutputStream os) throws JRException, IOException
@@ -179,6 +205,30 @@ public class JROdsExporter extends JRXlsAbstractExporter<OdsReportConfiguration,
 		return super.exportPage(page, xCuts, startRow, defaultSheetName);
 	}
 	
+	@Override
+	protected JRGridLayout layoutPage(JRPrintPage page, CutsInfo xCuts)
+	{
+		// pages sharing the sheet X cuts are laid out in order, and the filter would be called from the layout threads
+		if (layoutPrefetcher != null && xCuts == null && filter == null)
+		{
+			XlsReportConfiguration configuration = getCurrentItemConfiguration();
+			PageRange pageRange = getPageRange();
+			int endPageIndex = (pageRange == null || pageRange.getEndPageIndex() == null) 
+					? (jasperPrint.getPages().size() - 1) : pageRange.getEndPageIndex();
+			layoutPrefetcher.pageStarted(getNature(), jasperPrint, pageIndex, endPageIndex, 
+					configuration.getOffsetX() == null ? 0 : configuration.getOffsetX(), 
+					configuration.getOffsetY() == null ? 0 : configuration.getOffsetY());
+			
+			JRGridLayout layout = layoutPrefetcher.getLayout(pageIndex);
+			if (layout != null)
+			{
+				return layout;
+			}
+		}
+		
+		return super.layoutPage(page, xCuts);
+	}
+	
 	@Override
 	protected void createSheet(CutsInfo xCuts, SheetInfo sheetInfo)
 	{
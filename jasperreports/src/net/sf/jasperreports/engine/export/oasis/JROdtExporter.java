@@ -67,6 +67,7 @@ import net.sf.jasperreports.engine.export.ElementGridCell;
 import net.sf.jasperreports.engine.export.ExporterNature;
 import net.sf.jasperreports.engine.export.GenericElementHandlerEnviroment;
 import net.sf.jasperreports.engine.export.Grid;
+import net.sf.jasperreports.engine.export.GridLayoutCache;
 import net.sf.jasperreports.engine.export.GridRow;
 import net.sf.jasperreports.engine.export.JRExportProgressMonitor;
 import net.sf.jasperreports.engine.export.JRExporterGridCell;
@@ -226,6 +227,8 @@ public class JROdtExporter extends JRAbstractExporter<OdtReportConfiguration, Od
 	protected boolean startPage;
 	
 	protected String invalidCharReplacement;
+	
+	protected GridLayoutCache gridLayoutCache;
 
 	protected LinkedList<Color> backcolorStack = new LinkedList<Color>();
 	protected Color backcolor;
@@ -330,6 +333,8 @@ public class JROdtExporter extends JRAbstractExporter<OdtReportConfiguration, Od
 	{
 		super.initReport();
 		
+		gridLayoutCache = new GridLayoutCache();
+		
 		if(jasperPrint.hasProperties() && jasperPrint.getPropertiesMap().containsProperty(JRXmlExporter.PROPERTY_REPLACE_INVALID_CHARS))
 		{
 			// allows null values for the property
@@ -462,7 +467,8 @@ public class JROdtExporter extends JRAbstractExporter<OdtReportConfiguration, Od
 				pageFormat.getPageHeight(),
 				configuration.getOffsetX() == null ? 0 : configuration.getOffsetX(), 
 				configuration.getOffsetY() == null ? 0 : configuration.getOffsetY(),
-				null //address
+				null, //xCuts
+				gridLayoutCache
 				);
 
 		exportGrid(layout, null);
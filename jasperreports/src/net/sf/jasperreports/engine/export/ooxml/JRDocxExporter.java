@@ -71,6 +71,8 @@ import net.sf.jasperreports.engine.export.ElementGridCell;
 import net.sf.jasperreports.engine.export.ExporterNature;
 import net.sf.jasperreports.engine.export.GenericElementHandlerEnviroment;
 import net.sf.jasperreports.engine.export.Grid;
+import net.sf.jasperreports.engine.export.GridLayoutCache;
+import net.sf.jasperreports.engine.export.GridLayoutPrefetcher;
 import net.sf.jasperreports.engine.export.GridRow;
 import net.sf.jasperreports.engine.export.HyperlinkUtil;
 import net.sf.jasperreports.engine.export.JRExportProgressMonitor;
@@ -197,6 +199,8 @@ public class JRDocxExporter extends JRAbstractExporter<DocxReportConfiguration,
 	protected String invalidCharReplacement;
 	protected PrintPageFormat pageFormat;
 	protected JRGridLayout pageGridLayout;
+	protected GridLayoutCache gridLayoutCache;
+	protected GridLayoutPrefetcher layoutPrefetcher;
 
 	protected LinkedList<Color> backcolorStack = new LinkedList<Color>();
 	protected Color backcolor;
@@ -328,6 +332,8 @@ public class JRDocxExporter extends JRAbstractExporter<DocxReportConfiguration,
 	{
 		super.initReport();
 		
+		gridLayoutCache = new GridLayoutCache();
+		
 		if (jasperPrint.hasProperties() && jasperPrint.getPropertiesMap().containsProperty(JRXmlExporter.PROPERTY_REPLACE_INVALID_CHARS))
 		{
 			// allows null values for the property
@@ -426,45 +432,62 @@ public class JRDocxExporter extends JRAbstractExporter<DocxReportConfiguration,
 		pageFormat = null;
 		PrintPageFormat oldPageFormat = null;
 
-		for(reportIndex = 0; reportIndex < items.size(); reportIndex++)
+		int layoutThreads = configuration.getLayoutThreads();
+		if (layoutThreads > 0)
 		{
-			ExporterInputItem item = items.get(reportIndex);
-
-			setCurrentExporterInputItem(item);
+			layoutPrefetcher = new GridLayoutPrefetcher(layoutThreads, 2 * layoutThreads);
+		}
 
-			bookmarkIndex = 0;
-			emptyPageState = false;
-			
-			List<JRPrintPage> pages = jasperPrint.getPages();
-			if (pages != null && pages.size() > 0)
+		try
+		{
+			for(reportIndex = 0; reportIndex < items.size(); reportIndex++)
 			{
-				PageRange pageRange = getPageRange();
-				startPageIndex = (pageRange == null || pageRange.getStartPageIndex() == null) ? 0 : pageRange.getStartPageIndex();
-				endPageIndex = (pageRange == null || pageRange.getEndPageIndex() == null) ? (pages.size() - 1) : pageRange.getEndPageIndex();
+				ExporterInputItem item = items.get(reportIndex);
+
+				setCurrentExporterInputItem(item);
 
-				JRPrintPage page = null;
-				for(pageIndex = startPageIndex; pageIndex <= endPageIndex; pageIndex++)
+				bookmarkIndex = 0;
+				emptyPageState = false;
+				
+				List<JRPrintPage> pages = jasperPrint.getPages();
+				if (pages != null && pages.size() > 0)
 				{
-					if (Thread.interrupted())
+					PageRange pageRange = getPageRange();
+					startPageIndex = (pageRange == null || pageRange.getStartPageIndex() == null) ? 0 : pageRange.getStartPageIndex();
+					endPageIndex = (pageRange == null || pageRange.getEndPageIndex() == null) ? (pages.size() - 1) : pageRange.getEndPageIndex();
+
+					JRPrintPage page = null;
+					for(pageIndex = startPageIndex; pageIndex <= endPageIndex; pageIndex++)
 					{
-						throw new ExportInterruptedException();
-					}
+						if (Thread.interrupted())
+						{
+							throw new ExportInterruptedException();
+						}
 
-					page = pages.get(pageIndex);
+						page = pages.get(pageIndex);
 
-					pageFormat = jasperPrint.getPageFormat(pageIndex);
-					
-					if (oldPageFormat != null && oldPageFormat != pageFormat)
-					{
-						docHelper.exportSection(oldPageFormat, pageGridLayout, false);
-					}
-					
-					exportPage(page);
+						pageFormat = jasperPrint.getPageFormat(pageIndex);
+						
+						if (oldPageFormat != null && oldPageFormat != pageFormat)
+						{
+							docHelper.exportSection(oldPageFormat, pageGridLayout, false);
+						}
+						
+						exportPage(page);
 
-					oldPageFormat = pageFormat;
+						oldPageFormat = pageFormat;
+					}
 				}
 			}
 		}
+		finally
+		{
+			if (layoutPrefetcher != null)
+			{
+				layoutPrefetcher.dispose();
+				layoutPrefetcher = null;
+			}
+		}
 		
 		if (oldPageFormat != null)
 		{
@@ -509,17 +532,31 @@ public class JRDocxExporter extends JRAbstractExporter<DocxReportConfiguration,
 		pageAnchor = JR_PAGE_ANCHOR_PREFIX + reportIndex + "_" + (pageIndex + 1);
 		
 		ReportExportConfiguration configuration = getCurrentItemConfiguration();
+		int offsetX = configuration.getOffsetX() == null ? 0 : configuration.getOffsetX();
+		int offsetY = configuration.getOffsetY() == null ? 0 : configuration.getOffsetY();
 
-		pageGridLayout =
-			new JRGridLayout(
-				nature,
-				page.getElements(),
-				pageFormat.getPageWidth(),
-				pageFormat.getPageHeight(),
-				configuration.getOffsetX() == null ? 0 : configuration.getOffsetX(), 
-				configuration.getOffsetY() == null ? 0 : configuration.getOffsetY(),
-				null //address
-				);
+		pageGridLayout = null;
+		// the filter would be called from the layout threads
+		if (layoutPrefetcher != null && filter == null)
+		{
+			layoutPrefetcher.pageStarted(nature, jasperPrint, pageIndex, endPageIndex, offsetX, offsetY);
+			pageGridLayout = layoutPrefetcher.getLayout(pageIndex);
+		}
+		
+		if (pageGridLayout == null)
+		{
+			pageGridLayout =
+				new JRGridLayout(
+					nature,
+					page.getElements(),
+					pageFormat.getPageWidth(),
+					pageFormat.getPageHeight(),
+					offsetX, 
+					offsetY,
+					null, //xCuts
+					gridLayoutCache
+					);
+		}
 
 		exportGrid(pageGridLayout, null);
 		
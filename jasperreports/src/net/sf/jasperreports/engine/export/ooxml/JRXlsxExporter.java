@@ -841,6 +841,8 @@ public class JRXlsxExporter extends JRXlsAbstractExporter<XlsxReportConfiguratio
 
 			drawingRelsHelper.exportFooter();
 			drawingRelsHelper.close();
+			
+			xlsxZip.zipCompletedEntries();
 		}
 	}
 
@@ -1609,6 +1611,12 @@ public class JRXlsxExporter extends JRXlsAbstractExporter<XlsxReportConfiguratio
 		{
 			String memoryThreshold = jasperPrint.getPropertiesMap().getProperty(FileBufferedOutputStream.PROPERTY_MEMORY_THRESHOLD);
 			xlsxZip = new XlsxZip(jasperReportsContext, memoryThreshold == null ? null : JRPropertiesUtil.asInteger(memoryThreshold));
+			
+			XlsxExporterConfiguration configuration = getCurrentConfiguration();
+			if (configuration.isStreaming())
+			{
+				xlsxZip.startStreaming(os);
+			}
 
 			wbHelper = new XlsxWorkbookHelper(jasperReportsContext, xlsxZip.getWorkbookEntry().getWriter(), definedNames);
 			wbHelper.exportHeader();
@@ -1619,8 +1627,6 @@ public class JRXlsxExporter extends JRXlsAbstractExporter<XlsxReportConfiguratio
 			appHelper = new PropsAppHelper(jasperReportsContext, xlsxZip.getAppEntry().getWriter());
 			coreHelper = new PropsCoreHelper(jasperReportsContext, xlsxZip.getCoreEntry().getWriter());
 			
-			XlsxExporterConfiguration configuration = getCurrentConfiguration();
-			
 			String macro = macroTemplate == null ? configuration.getMacroTemplate() : macroTemplate;
 			if(macro != null)
 			{
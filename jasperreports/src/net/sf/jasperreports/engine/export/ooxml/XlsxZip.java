@@ -26,6 +26,8 @@ package net.sf.jasperreports.engine.export.ooxml;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
@@ -57,6 +59,7 @@ public class XlsxZip extends FileBufferedZip
 	private ExportZipEntry contentTypesEntry;
 	private ExportZipEntry appEntry;
 	private ExportZipEntry coreEntry;
+	private List<ExportZipEntry> documentEntries;
 	
 	/**
 	 * 
@@ -94,6 +97,8 @@ public class XlsxZip extends FileBufferedZip
 		addEntry(coreEntry);
 
 		addEntry("_rels/.rels", "net/sf/jasperreports/engine/export/ooxml/xlsx/_rels/xml.rels");
+		
+		documentEntries = new ArrayList<ExportZipEntry>(exportZipEntries);
 	}
 	
 	/**
@@ -149,11 +154,14 @@ public class XlsxZip extends FileBufferedZip
 	 */
 	public ExportZipEntry addSheet(int index)
 	{
-		ExportZipEntry sheetEntry = createEntry("xl/worksheets/sheet" + index + ".xml");
-
-		exportZipEntries.add(sheetEntry);
-
-		return sheetEntry;
+		try
+		{
+			return createStreamingEntry("xl/worksheets/sheet" + index + ".xml");
+		}
+		catch (IOException e)
+		{
+			throw new JRRuntimeException(e);
+		}
 	}
 	
 	/**
@@ -192,6 +200,36 @@ public class XlsxZip extends FileBufferedZip
 		return drawingRelsEntry;
 	}
 
+	/**
+	 * Writes the parts of the closed sheets and their images to the output when streaming,
+	 * leaving the document wide parts to be written at the end.
+	 */
+	public void zipCompletedEntries()
+	{
+		if (!isStreaming())
+		{
+			return;
+		}
+		
+		List<ExportZipEntry> completedEntries = new ArrayList<ExportZipEntry>();
+		for (ExportZipEntry entry : exportZipEntries)
+		{
+			if (!documentEntries.contains(entry))
+			{
+				completedEntries.add(entry);
+			}
+		}
+		
+		try
+		{
+			zipEntries(completedEntries);
+		}
+		catch (IOException e)
+		{
+			throw new JRRuntimeException(e);
+		}
+	}
+
 	/**
 	 * 
 	 */
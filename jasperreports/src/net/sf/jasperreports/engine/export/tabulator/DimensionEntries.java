@@ -23,6 +23,8 @@
  */
 package net.sf.jasperreports.engine.export.tabulator;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.NavigableSet;
 import java.util.SortedSet;
 import java.util.TreeSet;
@@ -108,6 +110,65 @@ public class DimensionEntries<T extends DimensionEntry>
 		return new DimensionRange<T>(start, end, floor, ceiling, rangeSet);
 	}
 	
+	/**
+	 * Creates entries starting at a list of coordinates in a single pass.
+	 *
+	 * <p>
+	 * This can only be called while the only entry is the initial one,
+	 * no split notifications are sent for the created entries.
+	 * </p>
+	 *
+	 * @param coords the coordinates, sorted and without duplicates
+	 * @param count the number of coordinates in the array
+	 * @return the created entries, in the order of the coordinates
+	 */
+	public List<T> initEntries(int[] coords, int count)
+	{
+		if (entries.size() != 1)
+		{
+			throw new IllegalStateException("Entries already created");
+		}
+
+		List<T> created = new ArrayList<T>(count);
+		if (count == 0)
+		{
+			return created;
+		}
+
+		if (coords[0] <= DimensionEntry.MINUS_INF)
+		{
+			throw
+				new JRRuntimeException(
+					EXCEPTION_MESSAGE_KEY_START_OUT_OF_RANGE,
+					new Object[]{coords[0]});
+		}
+		if (coords[count - 1] >= DimensionEntry.PLUS_INF)
+		{
+			throw
+			new JRRuntimeException(
+				EXCEPTION_MESSAGE_KEY_END_OUT_OF_RANGE,
+				new Object[]{coords[count - 1]});
+		}
+
+		T univEntry = entries.first();
+		univEntry.endCoord = coords[0];
+		for (int i = 0; i < count; ++i)
+		{
+			assert i == 0 || coords[i - 1] < coords[i];
+			int endCoord = i + 1 < count ? coords[i + 1] : DimensionEntry.PLUS_INF;
+			T entry = control.createEntry(coords[i], endCoord);
+			created.add(entry);
+			entries.add(entry);
+		}
+
+		if (log.isTraceEnabled())
+		{
+			log.trace(logId() + ": created " + count + " entries");
+		}
+
+		return created;
+	}
+
 	public DimensionRange<T> addEntries(DimensionRange<T> range)
 	{
 		T resultStart = addStartEntry(range);
@@ -0,0 +1,262 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.export.tabulator;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.ListIterator;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import net.sf.jasperreports.engine.JRLineBox;
+import net.sf.jasperreports.engine.JRPrintElement;
+import net.sf.jasperreports.engine.JRPrintFrame;
+import net.sf.jasperreports.engine.export.PrintElementIndex;
+import net.sf.jasperreports.engine.util.Bounds;
+
+/**
+ * Single pass table layout for elements that do not overlap.
+ *
+ * <p>
+ * The element coordinates are collected and sorted in a first pass, and the table columns
+ * and rows are created at once from the sorted coordinates.
+ * Elements are then placed by looking up their column and row indexes in the coordinate arrays,
+ * which avoids splitting table entries and moving cells for each element.
+ * </p>
+ * <p>
+ * The result is the same as the one produced by {@link Tabulator#layoutElements(List, Table, FrameCell,
+ * PrintElementIndex, int, int, Bounds)}.
+ * The layout gives up when elements overlap, in which case the table needs to be discarded
+ * and the generic layout used instead.
+ * </p>
+ *
+ * @see Tabulator#tabulate()
+ */
+class GridTableLayout
+{
+	private static final Log log = LogFactory.getLog(GridTableLayout.class);
+
+	private static final int INITIAL_SIZE = 64;
+
+	private final Tabulator tabulator;
+
+	private int[] xCoords = new int[INITIAL_SIZE];
+	private int xCount;
+	private int[] yCoords = new int[INITIAL_SIZE];
+	private int yCount;
+
+	private List<Column> columns;
+	private List<Row> rows;
+
+	GridTableLayout(Tabulator tabulator)
+	{
+		this.tabulator = tabulator;
+	}
+
+	/**
+	 * Lays out elements in an empty table.
+	 *
+	 * @param elements the elements
+	 * @param table the table
+	 * @return <code>false</code> if the elements could not be placed in a single layer
+	 */
+	boolean layout(List<? extends JRPrintElement> elements, Table table)
+	{
+		if (!collectCoordinates(elements, true, 0, 0, null))
+		{
+			return false;
+		}
+
+		xCount = sortDistinct(xCoords, xCount);
+		yCount = sortDistinct(yCoords, yCount);
+
+		if (log.isDebugEnabled())
+		{
+			log.debug("laying out " + elements.size() + " elements in "
+					+ xCount + " columns and " + yCount + " rows");
+		}
+
+		columns = table.columns.initEntries(xCoords, xCount);
+		rows = table.rows.initEntries(yCoords, yCount);
+
+		return placeElements(elements, null, null, 0, 0, null);
+	}
+
+	protected boolean collectCoordinates(List<? extends JRPrintElement> elementList,
+			boolean topLevel, int xOffset, int yOffset, Bounds elementBounds)
+	{
+		for (JRPrintElement element : elementList)
+		{
+			if (!tabulator.isToLayout(element, elementBounds))
+			{
+				continue;
+			}
+
+			if (topLevel && tabulator.isMasterBackground(element, null))
+			{
+				// background elements are placed on a separate layer
+				return false;
+			}
+
+			int x = element.getX() + xOffset;
+			int y = element.getY() + yOffset;
+			addXCoord(x);
+			addXCoord(x + element.getWidth());
+			addYCoord(y);
+			addYCoord(y + element.getHeight());
+
+			if (element instanceof JRPrintFrame)
+			{
+				JRPrintFrame frame = (JRPrintFrame) element;
+				JRLineBox box = frame.getLineBox();
+				if (!collectCoordinates(frame.getElements(), false,
+						xOffset + frame.getX() + box.getLeftPadding(),
+						yOffset + frame.getY() + box.getTopPadding(),
+						frameBounds(frame, box)))
+				{
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	protected boolean placeElements(List<? extends JRPrintElement> elementList,
+			FrameCell parentCell, PrintElementIndex parentIndex,
+			int xOffset, int yOffset, Bounds elementBounds)
+	{
+		// same order as the generic layout
+		for (ListIterator<? extends JRPrintElement> it = elementList.listIterator(elementList.size()); it.hasPrevious();)
+		{
+			JRPrintElement element = it.previous();
+			if (tabulator.isToLayout(element, elementBounds)
+					&& !placeElement(parentCell, xOffset, yOffset, element, parentIndex, it.nextIndex()))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	protected boolean placeElement(FrameCell parentCell, int xOffset, int yOffset,
+			JRPrintElement element, PrintElementIndex parentIndex, int elementIndex)
+	{
+		int x = element.getX() + xOffset;
+		int y = element.getY() + yOffset;
+		int startCol = Arrays.binarySearch(xCoords, 0, xCount, x);
+		int endCol = Arrays.binarySearch(xCoords, startCol, xCount, x + element.getWidth());
+		int startRow = Arrays.binarySearch(yCoords, 0, yCount, y);
+		int endRow = Arrays.binarySearch(yCoords, startRow, yCount, y + element.getHeight());
+		assert startCol >= 0 && endCol > startCol && startRow >= 0 && endRow > startRow;
+
+		for (int rowIdx = startRow; rowIdx < endRow; ++rowIdx)
+		{
+			Row row = rows.get(rowIdx);
+			for (int colIdx = startCol; colIdx < endCol; ++colIdx)
+			{
+				if (!tabulator.canOverwrite(row.getCell(columns.get(colIdx)), parentCell))
+				{
+					if (log.isDebugEnabled())
+					{
+						log.debug("element " + element.getUUID() + " overlaps cell at "
+								+ columns.get(colIdx) + ", " + row);
+					}
+					return false;
+				}
+			}
+		}
+
+		if (element instanceof JRPrintFrame)
+		{
+			JRPrintFrame frame = (JRPrintFrame) element;
+			FrameCell frameCell = new FrameCell(parentCell, parentIndex, elementIndex);
+			setElementCells(startCol, endCol, startRow, endRow, frameCell);
+
+			// go deep in the frame
+			PrintElementIndex frameIndex = new PrintElementIndex(parentIndex, elementIndex);
+			JRLineBox box = frame.getLineBox();
+			return placeElements(frame.getElements(), frameCell, frameIndex,
+					xOffset + frame.getX() + box.getLeftPadding(),
+					yOffset + frame.getY() + box.getTopPadding(),
+					frameBounds(frame, box));
+		}
+
+		ElementCell elementCell = new ElementCell(parentCell, parentIndex, elementIndex);
+		setElementCells(startCol, endCol, startRow, endRow, elementCell);
+		return true;
+	}
+
+	protected void setElementCells(int startCol, int endCol, int startRow, int endRow, Cell elementCell)
+	{
+		// same as Tabulator.setElementCells
+		for (int rowIdx = startRow; rowIdx < endRow; ++rowIdx)
+		{
+			Row row = rows.get(rowIdx);
+			for (int colIdx = startCol; colIdx < endCol; ++colIdx)
+			{
+				Cell cell = rowIdx == startRow && colIdx == startCol ? elementCell : elementCell.split();
+				row.setCell(columns.get(colIdx), cell);
+			}
+		}
+	}
+
+	protected static Bounds frameBounds(JRPrintFrame frame, JRLineBox box)
+	{
+		return new Bounds(0, frame.getWidth()  - box.getLeftPadding() - box.getRightPadding(),
+				0, frame.getHeight() - box.getTopPadding() - box.getBottomPadding());
+	}
+
+	protected void addXCoord(int x)
+	{
+		if (xCount == xCoords.length)
+		{
+			xCoords = Arrays.copyOf(xCoords, xCount * 2);
+		}
+		xCoords[xCount++] = x;
+	}
+
+	protected void addYCoord(int y)
+	{
+		if (yCount == yCoords.length)
+		{
+			yCoords = Arrays.copyOf(yCoords, yCount * 2);
+		}
+		yCoords[yCount++] = y;
+	}
+
+	protected static int sortDistinct(int[] coords, int count)
+	{
+		Arrays.sort(coords, 0, count);
+		int distinctCount = 0;
+		for (int i = 0; i < count; ++i)
+		{
+			if (distinctCount == 0 || coords[distinctCount - 1] != coords[i])
+			{
+				coords[distinctCount++] = coords[i];
+			}
+		}
+		return distinctCount;
+	}
+}
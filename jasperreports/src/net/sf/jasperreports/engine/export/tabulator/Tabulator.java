@@ -81,7 +81,18 @@ public class Tabulator
 	public void tabulate()
 	{
 		// TODO lucianc force background as different layer
-		layoutElements(elements, mainTable, null, null, 0, 0, null);
+		GridTableLayout gridLayout = new GridTableLayout(this);
+		if (!gridLayout.layout(elements, mainTable))
+		{
+			if (log.isDebugEnabled())
+			{
+				log.debug("elements overlap, using the generic layout");
+			}
+			
+			// starting over on a new table
+			mainTable = new Table(this);
+			layoutElements(elements, mainTable, null, null, 0, 0, null);
+		}
 	}
 
 	protected void layoutElements(List<? extends JRPrintElement> elementList, Table table, 
@@ -98,40 +109,58 @@ public class Tabulator
 		for (ListIterator<? extends JRPrintElement> it = elementList.listIterator(elementList.size()); it.hasPrevious();)
 		{
 			JRPrintElement element = it.previous();
-			if (filter != null && !filter.isToExport(element))
+			if (isToLayout(element, elementBounds))
 			{
-				if (log.isTraceEnabled())
-				{
-					log.trace("element " + element.getUUID() + " skipped by filter " + element);
-				}
-				continue;
+				placeElement(table, parentCell, xOffset, yOffset, element, parentIndex, it.nextIndex(), true);
 			}
-			
-			if (element.getWidth() <= 0 || element.getHeight() <= 0)
+		}
+	}
+	
+	protected boolean isToLayout(JRPrintElement element, Bounds elementBounds)
+	{
+		if (filter != null && !filter.isToExport(element))
+		{
+			if (log.isTraceEnabled())
 			{
-				if (log.isDebugEnabled())
-				{
-					log.debug("element " + element.getUUID() 
-							+ " skipped, size " + element.getWidth() + ", " + element.getHeight());
-				}
-				continue;
+				log.trace("element " + element.getUUID() + " skipped by filter " + element);
 			}
-			
-			if (elementBounds != null && !elementBounds.contains(element.getX(), element.getX() + element.getWidth(), 
-					element.getY(), element.getY() + element.getHeight()))
+			return false;
+		}
+		
+		if (element.getWidth() <= 0 || element.getHeight() <= 0)
+		{
+			if (log.isDebugEnabled())
 			{
-				if (log.isDebugEnabled())
-				{
-					log.debug("element " + element.getUUID() 
-							+ " at [" + element.getX() + "," + (element.getX() + element.getWidth())
-							+ "),[" + element.getY() + "," + (element.getY() + element.getHeight())
-							+ ") does not fit inside bounds " + elementBounds);
-				}
-				continue;
+				log.debug("element " + element.getUUID() 
+						+ " skipped, size " + element.getWidth() + ", " + element.getHeight());
 			}
-			
-			placeElement(table, parentCell, xOffset, yOffset, element, parentIndex, it.nextIndex(), true);
+			return false;
+		}
+		
+		if (elementBounds != null && !elementBounds.contains(element.getX(), element.getX() + element.getWidth(), 
+				element.getY(), element.getY() + element.getHeight()))
+		{
+			if (log.isDebugEnabled())
+			{
+				log.debug("element " + element.getUUID() 
+						+ " at [" + element.getX() + "," + (element.getX() + element.getWidth())
+						+ "),[" + element.getY() + "," + (element.getY() + element.getHeight())
+						+ ") does not fit inside bounds " + elementBounds);
+			}
+			return false;
 		}
+		
+		return true;
+	}
+	
+	protected boolean isMasterBackground(JRPrintElement element, FrameCell parentCell)
+	{
+		JROrigin elementOrigin = element.getOrigin();
+		return parentCell == null // top level element
+				&& elementOrigin != null && elementOrigin.getReportName() == null
+				// master background element
+				// TODO lucianc do something for subreport background bands as well
+				&& elementOrigin.getBandTypeValue() == BandTypeEnum.BACKGROUND;
 	}
 	
 	protected boolean placeElement(Table table, FrameCell parentCell, 
@@ -152,12 +181,7 @@ public class Tabulator
 		boolean overlap = false;
 		Bounds overlapBounds = new Bounds(colRange.start, colRange.end, rowRange.start, rowRange.end);
 		
-		JROrigin elementOrigin = element.getOrigin();
-		if (parentCell == null // top level element
-				&& elementOrigin != null && elementOrigin.getReportName() == null
-				// master background element
-				// TODO lucianc do something for subreport background bands as well
-				&& elementOrigin.getBandTypeValue() == BandTypeEnum.BACKGROUND)
+		if (isMasterBackground(element, parentCell))
 		{
 			// create a layer as big as the table for the master background band
 			SortedSet<Column> userColumns = table.columns.getUserEntries();
@@ -41,6 +41,8 @@ public abstract class AbstractZip
 	 * 
 	 */
 	protected List<ExportZipEntry> exportZipEntries = new ArrayList<ExportZipEntry>();
+	
+	private ZipOutputStream streamingOutput;
 
 	/**
 	 *
@@ -55,26 +57,100 @@ public abstract class AbstractZip
 		exportZipEntries.add(entry);
 	}
 	
+	/**
+	 * Starts writing the archive to the output stream before all the entries are complete.
+	 * <p>
+	 * Once streaming has started, entries created by {@link #createStreamingEntry(String)}
+	 * are written directly to the output stream, and completed entries can be written
+	 * by {@link #zipEntries(List)}.
+	 * The remaining entries are written when {@link #zipEntries(OutputStream)} is called
+	 * with the same output stream.
+	 * </p>
+	 */
+	public void startStreaming(OutputStream os)
+	{
+		streamingOutput = createZipOutputStream(os);
+	}
+	
+	/**
+	 *
+	 */
+	public boolean isStreaming()
+	{
+		return streamingOutput != null;
+	}
+	
+	/**
+	 * Creates and adds an entry that is written directly to the output stream when streaming.
+	 * The entry needs to be closed, by closing its writer or output stream, before other entries
+	 * are written.
+	 * If the archive is not streaming, a regular entry is created.
+	 */
+	public ExportZipEntry createStreamingEntry(String name) throws IOException
+	{
+		if (streamingOutput == null)
+		{
+			ExportZipEntry entry = createEntry(name);
+			addEntry(entry);
+			return entry;
+		}
+		
+		return new StreamingZipEntry(name, streamingOutput);
+	}
+	
+	/**
+	 * Writes completed entries to the output stream, if streaming, and releases their buffers.
+	 * Does nothing if the archive is not streaming.
+	 */
+	public void zipEntries(List<ExportZipEntry> entries) throws IOException
+	{
+		if (streamingOutput == null)
+		{
+			return;
+		}
+		
+		for (ExportZipEntry entry : entries)
+		{
+			if (exportZipEntries.remove(entry))
+			{
+				writeEntry(streamingOutput, entry);
+				entry.dispose();
+			}
+		}
+		
+		streamingOutput.flush();
+	}
+	
 	/**
 	 *
 	 */
 	public void zipEntries(OutputStream os) throws IOException
 	{
-		ZipOutputStream zipos = new ZipOutputStream(os);
-		zipos.setMethod(ZipOutputStream.DEFLATED);
+		ZipOutputStream zipos = streamingOutput == null ? createZipOutputStream(os) : streamingOutput;
 		
 		for (int i = 0; i < exportZipEntries.size(); i++) 
 		{
-			ExportZipEntry exportZipEntry = exportZipEntries.get(i);
-			ZipEntry zipEntry = new ZipEntry(exportZipEntry.getName());
-			zipos.putNextEntry(zipEntry);
-			exportZipEntry.writeData(zipos);
+			writeEntry(zipos, exportZipEntries.get(i));
 		}
 		
 		zipos.flush();
 		zipos.finish();
 	}
 	
+	protected ZipOutputStream createZipOutputStream(OutputStream os)
+	{
+		ZipOutputStream zipos = new ZipOutputStream(os);
+		zipos.setMethod(ZipOutputStream.DEFLATED);
+		return zipos;
+	}
+	
+	protected void writeEntry(ZipOutputStream zipos, ExportZipEntry exportZipEntry) throws IOException
+	{
+		ZipEntry zipEntry = new ZipEntry(exportZipEntry.getName());
+		zipos.putNextEntry(zipEntry);
+		exportZipEntry.writeData(zipos);
+	}
+	
 	/**
 	 *
 	 */
@@ -0,0 +1,131 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.export.zip;
+
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import net.sf.jasperreports.engine.JRRuntimeException;
+
+
+/**
+ * Zip entry whose content is written directly to the archive output stream.
+ * <p>
+ * The entry is started in the archive when created, and is ended when its writer
+ * or output stream is closed.
+ * </p>
+ * 
+ * @see AbstractZip#createStreamingEntry(String)
+ */
+public class StreamingZipEntry implements ExportZipEntry 
+{
+	/**
+	 * 
+	 */
+	private final String name;
+	private final OutputStream entryStream;
+	private Writer writer;
+	
+	/**
+	 * 
+	 */
+	public StreamingZipEntry(String name, final ZipOutputStream zipos) throws IOException
+	{
+		this.name = name;
+		
+		zipos.putNextEntry(new ZipEntry(name));
+		
+		entryStream = 
+			new FilterOutputStream(zipos)
+			{
+				private boolean closed;
+				
+				@Override
+				public void write(byte[] b, int off, int len) throws IOException
+				{
+					out.write(b, off, len);
+				}
+				
+				@Override
+				public void close() throws IOException
+				{
+					if (!closed)
+					{
+						closed = true;
+						zipos.closeEntry();
+					}
+				}
+			};
+	}
+	
+	@Override
+	public String getName()
+	{
+		return name;
+	}
+	
+	@Override
+	public Writer getWriter()
+	{
+		if (writer == null)
+		{
+			try
+			{
+				writer = new BufferedWriter(new OutputStreamWriter(entryStream, "UTF-8"));
+			}
+			catch (IOException e)
+			{
+				throw new JRRuntimeException(e);
+			}
+		}
+		
+		return writer;
+	}
+
+	@Override
+	public OutputStream getOutputStream()
+	{
+		return entryStream;
+	}
+
+	/**
+	 * Does nothing as the data has already been written to the archive.
+	 */
+	@Override
+	public void writeData(OutputStream os) throws IOException
+	{
+	}
+
+	@Override
+	public void dispose()
+	{
+	}
+	
+}
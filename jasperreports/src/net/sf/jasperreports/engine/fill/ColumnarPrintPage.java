@@ -0,0 +1,494 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.fill;
+
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.lang.ref.SoftReference;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import net.sf.jasperreports.annotations.properties.Property;
+import net.sf.jasperreports.annotations.properties.PropertyScope;
+import net.sf.jasperreports.engine.JRConstants;
+import net.sf.jasperreports.engine.JRPrintElement;
+import net.sf.jasperreports.engine.JRPrintPage;
+import net.sf.jasperreports.engine.JRPropertiesMap;
+import net.sf.jasperreports.engine.JRPropertiesUtil;
+import net.sf.jasperreports.engine.base.JRBasePrintPage;
+import net.sf.jasperreports.engine.type.RunDirectionEnum;
+import net.sf.jasperreports.properties.PropertyConstants;
+
+/**
+ * Print page implementation that stores text elements in parallel arrays.
+ * <p>
+ * While the page is being filled it behaves like a {@link JRBasePrintPage}.
+ * Once the filler no longer needs to modify the page, it calls {@link #compact()},
+ * which moves the attributes of {@link JRTemplatePrintText} elements into
+ * per-attribute arrays and drops the element objects.
+ * Elements that have attributes not stored in columns (e.g. anchors, hyperlinks
+ * or truncation data) and elements of other types are kept as objects.
+ * </p>
+ * <p>
+ * The list returned by {@link #getElements()} creates text element instances
+ * when they are first accessed, so exporters iterating the page work unchanged.
+ * The created instances are kept in a softly referenced cache, so repeated reads of an index
+ * return the same instance until the cache is released on memory shortage.
+ * Such instances are detached from the columns: a modified element has to be written back via
+ * {@link List#set(int, Object) getElements().set(index, element)}.
+ * Adding or removing elements expands the page back to object storage.
+ * </p>
+ * <p>
+ * When serialized, the page is replaced by a {@link JRBasePrintPage} holding
+ * the expanded elements.
+ * </p>
+ * 
+ * @see #PROPERTY_COLUMNAR_PRINT_PAGES
+ */
+public class ColumnarPrintPage implements JRPrintPage, Serializable
+{
+	private static final long serialVersionUID = JRConstants.SERIAL_VERSION_UID;
+	
+	/**
+	 * Property that determines whether the pages of filled reports use columnar storage.
+	 * <p>
+	 * The property only applies to master reports that are filled without a virtualizer.
+	 * The default value is <code>false</code>.
+	 * </p>
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_FILL,
+			defaultValue = PropertyConstants.BOOLEAN_FALSE,
+			scopes = {PropertyScope.CONTEXT, PropertyScope.REPORT},
+			sinceVersion = PropertyConstants.VERSION_6_4_2,
+			valueType = Boolean.class
+			)
+	public static final String PROPERTY_COLUMNAR_PRINT_PAGES = JRPropertiesUtil.PROPERTY_PREFIX + "columnar.print.pages";
+	
+	private List<JRPrintElement> elements;
+	private ElementColumns columns;
+	private transient SoftReference<JRPrintElement[]> materializedElements;
+	private final ElementsList elementsList;
+	
+	public ColumnarPrintPage()
+	{
+		elements = new ArrayList<JRPrintElement>();
+		elementsList = new ElementsList();
+	}
+
+	@Override
+	public List<JRPrintElement> getElements()
+	{
+		return elementsList;
+	}
+
+	@Override
+	public synchronized void setElements(List<JRPrintElement> elements)
+	{
+		this.columns = null;
+		this.materializedElements = null;
+		this.elements = elements;
+	}
+
+	@Override
+	public synchronized void addElement(JRPrintElement element)
+	{
+		expand();
+		elements.add(element);
+	}
+	
+	/**
+	 * Moves the text elements of the page to columnar storage.
+	 * <p>
+	 * Does nothing if the page is already compacted or if it does not contain
+	 * any elements that can be stored in columns.
+	 * </p>
+	 */
+	public synchronized void compact()
+	{
+		if (columns != null)
+		{
+			return;
+		}
+		
+		int size = elements.size();
+		boolean hasStorable = false;
+		for (int i = 0; i < size && !hasStorable; i++)
+		{
+			hasStorable = isStorable(elements.get(i));
+		}
+		
+		if (!hasStorable)
+		{
+			return;
+		}
+		
+		ElementColumns newColumns = new ElementColumns(size);
+		for (int i = 0; i < size; i++)
+		{
+			newColumns.set(i, elements.get(i));
+		}
+		
+		columns = newColumns;
+		materializedElements = null;
+		elements = null;
+	}
+	
+	/**
+	 * Determines whether the page currently uses columnar storage.
+	 */
+	public synchronized boolean isCompacted()
+	{
+		return columns != null;
+	}
+	
+	protected void expand()
+	{
+		if (columns != null)
+		{
+			List<JRPrintElement> expanded = new ArrayList<JRPrintElement>(columns.size + 1);
+			for (int i = 0; i < columns.size; i++)
+			{
+				expanded.add(materialize(i));
+			}
+			
+			elements = expanded;
+			columns = null;
+			materializedElements = null;
+		}
+	}
+	
+	protected JRPrintElement materialize(int index)
+	{
+		JRPrintElement[] materialized = materializedElements == null ? null : materializedElements.get();
+		if (materialized == null)
+		{
+			materialized = new JRPrintElement[columns.size];
+			materializedElements = new SoftReference<JRPrintElement[]>(materialized);
+		}
+		
+		JRPrintElement element = materialized[index];
+		if (element == null)
+		{
+			element = columns.get(index);
+			materialized[index] = element;
+		}
+		return element;
+	}
+	
+	private Object writeReplace() throws ObjectStreamException
+	{
+		JRBasePrintPage page = new JRBasePrintPage();
+		synchronized (this)
+		{
+			int size = elementsList.size();
+			for (int i = 0; i < size; i++)
+			{
+				page.addElement(elementsList.get(i));
+			}
+		}
+		return page;
+	}
+	
+	protected static boolean isStorable(JRPrintElement element)
+	{
+		return element != null
+				&& element.getClass() == JRTemplatePrintText.class
+				&& ((JRTemplatePrintText) element).isColumnarStorable();
+	}
+	
+	protected class ElementsList extends AbstractList<JRPrintElement>
+	{
+		@Override
+		public JRPrintElement get(int index)
+		{
+			synchronized (ColumnarPrintPage.this)
+			{
+				if (columns == null)
+				{
+					return elements.get(index);
+				}
+				
+				checkIndex(index);
+				return materialize(index);
+			}
+		}
+
+		@Override
+		public int size()
+		{
+			synchronized (ColumnarPrintPage.this)
+			{
+				return columns == null ? elements.size() : columns.size;
+			}
+		}
+
+		@Override
+		public JRPrintElement set(int index, JRPrintElement element)
+		{
+			synchronized (ColumnarPrintPage.this)
+			{
+				if (columns == null)
+				{
+					return elements.set(index, element);
+				}
+				
+				checkIndex(index);
+				JRPrintElement previous = materialize(index);
+				columns.set(index, element);
+				
+				JRPrintElement[] materialized = materializedElements.get();
+				if (materialized != null)
+				{
+					materialized[index] = element;
+				}
+				return previous;
+			}
+		}
+
+		@Override
+		public void add(int index, JRPrintElement element)
+		{
+			synchronized (ColumnarPrintPage.this)
+			{
+				expand();
+				elements.add(index, element);
+				++modCount;
+			}
+		}
+
+		@Override
+		public JRPrintElement remove(int index)
+		{
+			synchronized (ColumnarPrintPage.this)
+			{
+				expand();
+				JRPrintElement element = elements.remove(index);
+				++modCount;
+				return element;
+			}
+		}
+
+		@Override
+		public void clear()
+		{
+			synchronized (ColumnarPrintPage.this)
+			{
+				columns = null;
+				materializedElements = null;
+				elements = new ArrayList<JRPrintElement>();
+				++modCount;
+			}
+		}
+		
+		private void checkIndex(int index)
+		{
+			if (index < 0 || index >= columns.size)
+			{
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + columns.size);
+			}
+		}
+	}
+	
+	/**
+	 * Parallel arrays holding the attributes of the page elements.
+	 * Arrays for attributes that are rarely set are only allocated when needed.
+	 */
+	protected static class ElementColumns
+	{
+		private static final int GEOMETRY_SIZE = 4;
+		private static final int METRICS_SIZE = 3;
+		
+		private final int size;
+		private final JRTemplateText[] templates;
+		private final UUID[] uuids;
+		private final int[] geometry;
+		private final int[] sourceElementIds;
+		private final int[] printElementIds;
+		private final String[] texts;
+		private final float[] metrics;
+		private Object[] values;
+		private short[][] lineBreakOffsets;
+		private RunDirectionEnum[] runDirections;
+		private JRPropertiesMap[] properties;
+		private JRPrintElement[] objects;
+		
+		protected ElementColumns(int size)
+		{
+			this.size = size;
+			this.templates = new JRTemplateText[size];
+			this.uuids = new UUID[size];
+			this.geometry = new int[GEOMETRY_SIZE * size];
+			this.sourceElementIds = new int[size];
+			this.printElementIds = new int[size];
+			this.texts = new String[size];
+			this.metrics = new float[METRICS_SIZE * size];
+		}
+		
+		protected JRPrintElement get(int index)
+		{
+			JRTemplateText template = templates[index];
+			if (template == null)
+			{
+				return objects[index];
+			}
+			
+			JRTemplatePrintText text = new JRTemplatePrintText();
+			text.setTemplate(template);
+			text.setUUID(uuids[index]);
+			
+			int geometryIndex = GEOMETRY_SIZE * index;
+			text.setX(geometry[geometryIndex]);
+			text.setY(geometry[geometryIndex + 1]);
+			text.setWidth(geometry[geometryIndex + 2]);
+			text.setHeight(geometry[geometryIndex + 3]);
+			
+			text.setSourceElementId(sourceElementIds[index]);
+			text.setPrintElementId(printElementIds[index]);
+			text.setText(texts[index]);
+			
+			int metricsIndex = METRICS_SIZE * index;
+			text.setLineSpacingFactor(metrics[metricsIndex]);
+			text.setLeadingOffset(metrics[metricsIndex + 1]);
+			text.setTextHeight(metrics[metricsIndex + 2]);
+			
+			if (values != null)
+			{
+				text.setValue(values[index]);
+			}
+			if (lineBreakOffsets != null)
+			{
+				text.setLineBreakOffsets(lineBreakOffsets[index]);
+			}
+			if (runDirections != null)
+			{
+				text.setRunDirection(runDirections[index]);
+			}
+			if (properties != null)
+			{
+				text.setOwnProperties(properties[index]);
+			}
+			return text;
+		}
+		
+		protected void set(int index, JRPrintElement element)
+		{
+			if (!isStorable(element))
+			{
+				setObject(index, element);
+				return;
+			}
+			
+			JRTemplatePrintText text = (JRTemplatePrintText) element;
+			templates[index] = (JRTemplateText) text.getTemplate();
+			if (objects != null)
+			{
+				objects[index] = null;
+			}
+			uuids[index] = text.getUUID();
+			
+			int geometryIndex = GEOMETRY_SIZE * index;
+			geometry[geometryIndex] = text.getX();
+			geometry[geometryIndex + 1] = text.getY();
+			geometry[geometryIndex + 2] = text.getWidth();
+			geometry[geometryIndex + 3] = text.getHeight();
+			
+			sourceElementIds[index] = text.getSourceElementId();
+			printElementIds[index] = text.getPrintElementId();
+			texts[index] = text.getOriginalText();
+			
+			int metricsIndex = METRICS_SIZE * index;
+			metrics[metricsIndex] = text.getLineSpacingFactor();
+			metrics[metricsIndex + 1] = text.getLeadingOffset();
+			metrics[metricsIndex + 2] = text.getTextHeight();
+			
+			Object value = text.getValue();
+			if (value != null && values == null)
+			{
+				values = new Object[size];
+			}
+			if (values != null)
+			{
+				values[index] = value;
+			}
+			
+			short[] offsets = text.getLineBreakOffsets();
+			if (offsets != null && lineBreakOffsets == null)
+			{
+				lineBreakOffsets = new short[size][];
+			}
+			if (lineBreakOffsets != null)
+			{
+				lineBreakOffsets[index] = offsets;
+			}
+			
+			RunDirectionEnum runDirection = text.getRunDirectionValue();
+			if (runDirection != null && runDirections == null)
+			{
+				runDirections = new RunDirectionEnum[size];
+			}
+			if (runDirections != null)
+			{
+				runDirections[index] = runDirection;
+			}
+			
+			JRPropertiesMap ownProperties = text.getOwnProperties();
+			if (ownProperties != null && properties == null)
+			{
+				properties = new JRPropertiesMap[size];
+			}
+			if (properties != null)
+			{
+				properties[index] = ownProperties;
+			}
+		}
+		
+		private void setObject(int index, JRPrintElement element)
+		{
+			if (objects == null)
+			{
+				objects = new JRPrintElement[size];
+			}
+			
+			objects[index] = element;
+			templates[index] = null;
+			uuids[index] = null;
+			texts[index] = null;
+			if (values != null)
+			{
+				values[index] = null;
+			}
+			if (lineBreakOffsets != null)
+			{
+				lineBreakOffsets[index] = null;
+			}
+			if (properties != null)
+			{
+				properties[index] = null;
+			}
+		}
+	}
+}
@@ -23,6 +23,7 @@
  */
 package net.sf.jasperreports.engine.fill;
 
+import java.io.File;
 import java.text.Collator;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -32,9 +33,12 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
+import net.sf.jasperreports.annotations.properties.Property;
+import net.sf.jasperreports.annotations.properties.PropertyScope;
 import net.sf.jasperreports.engine.JRException;
 import net.sf.jasperreports.engine.JRField;
 import net.sf.jasperreports.engine.JRParameter;
+import net.sf.jasperreports.engine.JRPropertiesUtil;
 import net.sf.jasperreports.engine.JRRuntimeException;
 import net.sf.jasperreports.engine.JRScriptletException;
 import net.sf.jasperreports.engine.JRSortField;
@@ -44,6 +48,7 @@ import net.sf.jasperreports.engine.fill.DatasetSortInfo.RecordField;
 import net.sf.jasperreports.engine.fill.DatasetSortInfo.SortFieldInfo;
 import net.sf.jasperreports.engine.fill.SortedDataSource.SortRecord;
 import net.sf.jasperreports.engine.type.SortFieldTypeEnum;
+import net.sf.jasperreports.properties.PropertyConstants;
 
 
 /**
@@ -54,6 +59,52 @@ public class DatasetSortUtil
 	public static final String EXCEPTION_MESSAGE_KEY_SORT_FIELD_NOT_FOUND = "fill.dataset.sort.field.not.found";
 	public static final String EXCEPTION_MESSAGE_KEY_SORT_VARIABLE_NOT_FOUND = "fill.dataset.sort.variable.not.found";
 
+	/**
+	 * Property that specifies the maximum number of records that are sorted in memory.
+	 * 
+	 * When a sorted dataset has more records, the records are sorted in runs of this size
+	 * that are written to temporary files and merged while the sorted data is iterated.
+	 * A value of zero (the default) means that all records are sorted in memory.
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_FILL,
+			defaultValue = "0",
+			scopes = {PropertyScope.CONTEXT, PropertyScope.DATASET},
+			sinceVersion = PropertyConstants.VERSION_6_4_2,
+			valueType = Integer.class
+			)
+	public static final String PROPERTY_SPILL_THRESHOLD = JRPropertiesUtil.PROPERTY_PREFIX + "dataset.sort.spill.threshold";
+
+	/**
+	 * Property that specifies the directory where the sorted record runs are written.
+	 * 
+	 * If not set, the default temporary directory is used.
+	 * 
+	 * @see #PROPERTY_SPILL_THRESHOLD
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_FILL,
+			scopes = {PropertyScope.CONTEXT, PropertyScope.DATASET},
+			sinceVersion = PropertyConstants.VERSION_6_4_2
+			)
+	public static final String PROPERTY_SPILL_DIRECTORY = JRPropertiesUtil.PROPERTY_PREFIX + "dataset.sort.spill.directory";
+
+	/**
+	 * Property that specifies whether dataset records are sorted using multiple threads.
+	 * 
+	 * When set, the sort keys are extracted from the records and the records are sorted
+	 * by a parallel merge sort on a shared fork/join pool.
+	 * The order of the sorted records is the same as for the sequential sort.
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_FILL,
+			defaultValue = PropertyConstants.BOOLEAN_FALSE,
+			scopes = {PropertyScope.CONTEXT, PropertyScope.DATASET},
+			sinceVersion = PropertyConstants.VERSION_6_4_2,
+			valueType = Boolean.class
+			)
+	public static final String PROPERTY_PARALLEL_SORT = JRPropertiesUtil.PROPERTY_PREFIX + "dataset.sort.parallel";
+
 
 	/**
 	 * Returns all current sort field criteria, including the dynamic ones provided as report parameter.
@@ -97,7 +148,9 @@ public class DatasetSortUtil
 
 
 	/**
-	 *
+	 * Creates a sorted data source for a dataset.
+	 * 
+	 * @see #PROPERTY_SPILL_THRESHOLD
 	 */
 	public static SortedDataSource getSortedDataSource(
 		BaseReportFiller filler, 
@@ -107,9 +160,59 @@ public class DatasetSortUtil
 	{
 		DatasetSortInfo sortInfo = createSortInfo(dataset);
 		
-		SortFillDatasetRun sortDatasetRun = new SortFillDatasetRun(filler, dataset, sortInfo);
+		JRPropertiesUtil propertiesUtil = JRPropertiesUtil.getInstance(dataset.getJasperReportsContext());
+		boolean parallelSort = propertiesUtil.getBooleanProperty(dataset, PROPERTY_PARALLEL_SORT, false);
+		int spillThreshold = propertiesUtil.getIntegerProperty(dataset, PROPERTY_SPILL_THRESHOLD, 0);
+		SortRunWriter runWriter = null;
+		if (spillThreshold > 0)
+		{
+			String spillDirectory = propertiesUtil.getProperty(dataset, PROPERTY_SPILL_DIRECTORY);
+			runWriter = new SortRunWriter(spillDirectory == null ? null : new File(spillDirectory));
+		}
+		
+		SortFillDatasetRun sortDatasetRun = new SortFillDatasetRun(filler, dataset, sortInfo, 
+				locale, parallelSort, spillThreshold, runWriter);
+		
+		List<SortedDataSource.SortRecord> records;
+		try
+		{
+			records = sortDatasetRun.sort();
+			
+			if (runWriter != null && runWriter.hasRuns())
+			{
+				if (!records.isEmpty())
+				{
+					runWriter.writeRun(records, sortIndexes(sortInfo, locale, records, parallelSort));
+				}
+				
+				return new SpilledSortedDataSource(sortInfo, 
+						new DataSourceComparator(sortInfo, locale, null), runWriter);
+			}
+		}
+		catch (JRException | RuntimeException e)
+		{
+			if (runWriter != null)
+			{
+				runWriter.dispose();
+			}
+			throw e;
+		}
 		
-		List<SortedDataSource.SortRecord> records = sortDatasetRun.sort();
+		int[] indexes = sortIndexes(sortInfo, locale, records, parallelSort);
+		return new SortedDataSource(sortInfo, records, indexes);
+	}
+
+
+	/**
+	 *
+	 */
+	protected static int[] sortIndexes(DatasetSortInfo sortInfo, Locale locale, 
+			List<SortedDataSource.SortRecord> records, boolean parallel)
+	{
+		if (parallel)
+		{
+			return new ParallelRecordSorter(sortInfo, locale, records).sort();
+		}
 		
 		// using indirect sorting in order to also preserve the original record order for data caching
 		int recordCount = records.size();
@@ -129,7 +232,12 @@ public class DatasetSortUtil
 				)
 			);
 		
-		return new SortedDataSource(sortInfo, records, indexes);
+		int[] sortedIndexes = new int[recordCount];
+		for (int i = 0; i < recordCount; i++)
+		{
+			sortedIndexes[i] = indexes[i];
+		}
+		return sortedIndexes;
 	}
 
 
@@ -232,13 +340,18 @@ class DataSourceComparator implements Comparator<Integer>
 	}
 
 	@Override
-	@SuppressWarnings({ "rawtypes", "unchecked" })
 	public int compare(Integer idx1, Integer idx2)
 	{
 		// assuming random access records list
 		Object[] record1 = records.get(idx1).getValues();
 		Object[] record2 = records.get(idx2).getValues();
 		
+		return compareRecords(record1, record2);
+	}
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public int compareRecords(Object[] record1, Object[] record2)
+	{
 		int ret = 0;
 
 		for (SortFieldInfo info : sortFields)
@@ -291,11 +404,16 @@ class SortFillDatasetRun extends JRFillDatasetRun
 {
 
 	private DatasetSortInfo sortInfo;
+	private Locale locale;
+	private boolean parallelSort;
+	private int spillThreshold;
+	private SortRunWriter runWriter;
 	private int recordIndex;
 	private List<SortedDataSource.SortRecord> records;
 
 	
-	public SortFillDatasetRun(BaseReportFiller filler, JRFillDataset dataset, DatasetSortInfo sortInfo) throws JRException
+	public SortFillDatasetRun(BaseReportFiller filler, JRFillDataset dataset, DatasetSortInfo sortInfo,
+			Locale locale, boolean parallelSort, int spillThreshold, SortRunWriter runWriter) throws JRException
 	{
 		super(
 			filler, 
@@ -304,6 +422,10 @@ class SortFillDatasetRun extends JRFillDatasetRun
 			);
 
 		this.sortInfo = sortInfo;
+		this.locale = locale;
+		this.parallelSort = parallelSort;
+		this.spillThreshold = spillThreshold;
+		this.runWriter = runWriter;
 	}
 
 	
@@ -359,6 +481,13 @@ class SortFillDatasetRun extends JRFillDatasetRun
 		
 		++recordIndex;
 		
+		if (runWriter != null && records.size() == spillThreshold)
+		{
+			// the dataset has more records than the threshold, write the records collected so far as a sorted run
+			runWriter.writeRun(records, DatasetSortUtil.sortIndexes(sortInfo, locale, records, parallelSort));
+			records = new ArrayList<SortedDataSource.SortRecord>();
+		}
+		
 		records.add(sortRecord);
 	}
 
@@ -504,6 +504,12 @@ public abstract class JRAbstractLRUVirtualizer implements JRVirtualizer
 			}
 			
 			setLastObject(internalObject);
+			
+			VirtualizationReadAhead readAhead = o.getContext().getReadAhead();
+			if (readAhead != null)
+			{
+				readAhead.objectAccessed(o);
+			}
 		}
 	}
 
@@ -513,9 +519,19 @@ public abstract class JRAbstractLRUVirtualizer implements JRVirtualizer
 		String uid = o.getUID();
 		boolean evictRequired = false;
 		
+		VirtualizationReadAhead readAhead = o.getContext().getReadAhead();
+		// objects paged in by the read-ahead thread do not become the last objects of their context
+		boolean readAheadThread = readAhead != null && VirtualizationReadAhead.isReadAheadThread();
+		long lockStart = readAhead == null ? 0 : System.nanoTime();
+		
 		o.getContext().lock();
 		try
 		{
+			if (readAhead != null)
+			{
+				readAhead.lockAcquired(System.nanoTime() - lockStart);
+			}
+			
 			if (isPagedOutAndTouch(o, uid))
 			{
 				if (log.isDebugEnabled())
@@ -523,6 +539,11 @@ public abstract class JRAbstractLRUVirtualizer implements JRVirtualizer
 					log.debug("internalizing " + uid);
 				}
 				
+				if (readAhead != null)
+				{
+					readAhead.objectMissed(o);
+				}
+				
 				// unvirtualize
 				try
 				{
@@ -536,7 +557,10 @@ public abstract class JRAbstractLRUVirtualizer implements JRVirtualizer
 
 				synchronized (this)
 				{
-					setLastObject(o);
+					if (!readAheadThread)
+					{
+						setLastObject(o);
+					}
 					pagedOut.remove(uid);
 					pagedIn.put(uid, o);
 				}
@@ -555,6 +579,11 @@ public abstract class JRAbstractLRUVirtualizer implements JRVirtualizer
 		{
 			evict();
 		}
+		
+		if (readAhead != null)
+		{
+			readAhead.objectAccessed(o);
+		}
 	}
 
 	@Override
@@ -0,0 +1,367 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.fill;
+
+import net.sf.jasperreports.annotations.properties.Property;
+import net.sf.jasperreports.annotations.properties.PropertyScope;
+import net.sf.jasperreports.crosstabs.fill.calculation.MeasureDefinition.MeasureValue;
+import net.sf.jasperreports.engine.DefaultJasperReportsContext;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRPropertiesUtil;
+import net.sf.jasperreports.engine.JRVariable;
+import net.sf.jasperreports.engine.type.CalculationEnum;
+import net.sf.jasperreports.engine.type.ResetTypeEnum;
+import net.sf.jasperreports.engine.util.HyperLogLog;
+import net.sf.jasperreports.properties.PropertyConstants;
+
+
+/**
+ * Incrementer factory that computes approximate distinct counts using a
+ * {@link HyperLogLog} sketch instead of keeping all the distinct values in memory.
+ * <p>
+ * The factory is meant to be set as incrementer factory class on variables that use
+ * the <code>DistinctCount</code> calculation. The hidden helper variable created for such
+ * variables would then collect the values in a sketch of constant size, while the
+ * variable itself is computed by the default incrementers for its value class.
+ * For calculations other than distinct count, the factory behaves as the default one.
+ * <p>
+ * The precision of the sketches is read from the {@link #PROPERTY_PRECISION} property,
+ * subclasses can also pass a fixed precision to the protected constructor.
+ * 
+ * @see HyperLogLog
+ */
+public class JRApproximateDistinctCountIncrementerFactory extends JRAbstractExtendedIncrementerFactory
+{
+
+	/**
+	 * Property that specifies the precision of the sketches used for approximate distinct counts.
+	 * 
+	 * <p>
+	 * The sketches use 2<sup>precision</sup> bytes of memory and have a relative standard error
+	 * of about <code>1.04 / sqrt(2<sup>precision</sup>)</code>.
+	 * The precision needs to be between 4 and 18, the default value is 14.
+	 * </p>
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_FILL,
+			defaultValue = "14",
+			scopes = {PropertyScope.GLOBAL},
+			sinceVersion = PropertyConstants.VERSION_6_4_2,
+			valueType = Integer.class
+			)
+	public static final String PROPERTY_PRECISION = JRPropertiesUtil.PROPERTY_PREFIX + "distinct.count.approximate.precision";
+
+	private final int precision;
+
+
+	/**
+	 *
+	 */
+	public JRApproximateDistinctCountIncrementerFactory()
+	{
+		this(JRPropertiesUtil.getInstance(DefaultJasperReportsContext.getInstance()).getIntegerProperty(
+				PROPERTY_PRECISION, HyperLogLog.DEFAULT_PRECISION));
+	}
+
+
+	/**
+	 * @param precision the precision of the sketches
+	 */
+	protected JRApproximateDistinctCountIncrementerFactory(int precision)
+	{
+		// validating the precision
+		new HyperLogLog(precision);
+		
+		this.precision = precision;
+	}
+
+
+	public int getPrecision()
+	{
+		return precision;
+	}
+
+
+	@Override
+	public JRExtendedIncrementer getExtendedIncrementer(CalculationEnum calculation)
+	{
+		if (calculation == CalculationEnum.NOTHING)
+		{
+			// used by the distinct count helper variables
+			return new JRApproximateDistinctCountIncrementer(precision);
+		}
+		
+		return new JRValueClassIncrementer(calculation);
+	}
+}
+
+
+/**
+ * Incrementer that collects values in a {@link HyperLogLog} sketch.
+ */
+class JRApproximateDistinctCountIncrementer extends JRAbstractExtendedIncrementer
+{
+
+	private ApproximateDistinctCountHolder lastHolder;
+	
+	
+	/**
+	 *
+	 */
+	public JRApproximateDistinctCountIncrementer(int precision)
+	{
+		lastHolder = new ApproximateDistinctCountHolder(precision);
+	}
+
+
+	@Override
+	public Object increment(
+		JRFillVariable variable, 
+		Object expressionValue,
+		AbstractValueProvider valueProvider
+		)
+	{
+		ApproximateDistinctCountHolder holder = currentHolder(variable);
+		
+		if (variable.getResetTypeValue() == ResetTypeEnum.REPORT || variable.isInitialized())
+		{
+			holder.addLastValue();
+		}
+
+		return new ApproximateDistinctCountHolder(holder, expressionValue);
+	}
+
+
+	@Override
+	public Object increment(
+		JRCalculable variable, 
+		Object expressionValue,
+		AbstractValueProvider valueProvider
+		)
+	{
+		ApproximateDistinctCountHolder holder = currentHolder(variable);
+		
+		holder.addLastValue();
+
+		return new ApproximateDistinctCountHolder(holder, expressionValue);
+	}
+
+
+	protected ApproximateDistinctCountHolder currentHolder(JRCalculable variable)
+	{
+		ApproximateDistinctCountHolder holder = (ApproximateDistinctCountHolder) variable.getIncrementedValue();
+
+		if (holder == null)
+		{
+			holder = lastHolder;
+		}
+		else
+		{
+			lastHolder = holder;
+		}
+		
+		return holder;
+	}
+
+
+	@Override
+	public Object combine(JRCalculable calculable1, JRCalculable calculable2, AbstractValueProvider valueProvider)
+	{
+		HyperLogLog sketch = new HyperLogLog(lastHolder.getSketch().getPrecision());
+		
+		ApproximateDistinctCountHolder holder1 = (ApproximateDistinctCountHolder) calculable1.getValue();
+		if (holder1 != null)
+		{
+			holder1.mergeInto(sketch);
+		}
+		
+		ApproximateDistinctCountHolder holder2 = (ApproximateDistinctCountHolder) calculable2.getValue();
+		if (holder2 != null)
+		{
+			holder2.mergeInto(sketch);
+		}
+		
+		return new ApproximateDistinctCountHolder(sketch);
+	}
+
+
+	@Override
+	public Object initialValue()
+	{
+		return null;
+	}
+}
+
+
+/**
+ * Incrementer that delegates to the default incrementer for the value class of the variable
+ * or crosstab measure.
+ * 
+ * Other calculables are computed as <code>java.lang.Long</code> values. 
+ */
+class JRValueClassIncrementer extends JRAbstractExtendedIncrementer
+{
+
+	private final CalculationEnum calculation;
+	private JRExtendedIncrementer delegate;
+
+
+	/**
+	 *
+	 */
+	public JRValueClassIncrementer(CalculationEnum calculation)
+	{
+		this.calculation = calculation;
+	}
+
+
+	protected JRExtendedIncrementer getDelegate(JRCalculable calculable)
+	{
+		if (delegate == null)
+		{
+			Class<?> valueClass;
+			if (calculable instanceof JRVariable)
+			{
+				valueClass = ((JRVariable) calculable).getValueClass();
+			}
+			else if (calculable instanceof MeasureValue)
+			{
+				valueClass = ((MeasureValue) calculable).getValueClass();
+			}
+			else
+			{
+				valueClass = Long.class;
+			}
+			delegate = JRDefaultIncrementerFactory.getFactory(valueClass).getExtendedIncrementer(calculation);
+		}
+		return delegate;
+	}
+
+
+	@Override
+	public Object increment(
+		JRFillVariable variable, 
+		Object expressionValue,
+		AbstractValueProvider valueProvider
+		) throws JRException
+	{
+		return getDelegate(variable).increment(variable, expressionValue, valueProvider);
+	}
+
+
+	@Override
+	public Object increment(
+		JRCalculable calculable, 
+		Object expressionValue,
+		AbstractValueProvider valueProvider
+		) throws JRException
+	{
+		return getDelegate(calculable).increment(calculable, expressionValue, valueProvider);
+	}
+
+
+	@Override
+	public Object combine(JRCalculable calculable, JRCalculable calculableValue, AbstractValueProvider valueProvider) throws JRException
+	{
+		return getDelegate(calculable).combine(calculable, calculableValue, valueProvider);
+	}
+
+
+	@Override
+	public Object initialValue()
+	{
+		return delegate == null ? null : delegate.initialValue();
+	}
+}
+
+
+/**
+ * Distinct count helper value backed by a {@link HyperLogLog} sketch.
+ */
+class ApproximateDistinctCountHolder implements DistinctCounter
+{
+	private HyperLogLog sketch;
+	private Object lastValue;
+	private long lastHash;
+
+	public ApproximateDistinctCountHolder(int precision)
+	{
+		this(new HyperLogLog(precision));
+	}
+
+	public ApproximateDistinctCountHolder(HyperLogLog sketch)
+	{
+		this.sketch = sketch;
+	}
+
+	public ApproximateDistinctCountHolder(ApproximateDistinctCountHolder holder, Object lastValue)
+	{
+		this(holder.getSketch());
+		this.lastValue = lastValue;
+		if (lastValue != null)
+		{
+			this.lastHash = HyperLogLog.hash(lastValue);
+		}
+	}
+
+	@Override
+	public void init()
+	{
+		sketch = new HyperLogLog(sketch.getPrecision());
+	}
+
+	public HyperLogLog getSketch()
+	{
+		return sketch;
+	}
+
+	public Object getLastValue()
+	{
+		return lastValue;
+	}
+
+	public void addLastValue()
+	{
+		if (lastValue != null)
+		{
+			sketch.addHash(lastHash);
+		}
+		lastValue = null;
+	}
+
+	public void mergeInto(HyperLogLog target)
+	{
+		target.merge(sketch);
+		if (lastValue != null)
+		{
+			target.addHash(lastHash);
+		}
+	}
+
+	@Override
+	public long getCount()
+	{
+		return lastValue == null ? sketch.estimate() : sketch.estimateWith(lastHash);
+	}
+}
@@ -201,6 +201,8 @@ public abstract class JRBaseFiller extends BaseReportFiller implements JRDefault
 	protected Map<Integer, JRBaseFiller> subfillers;
 
 	private boolean bandOverFlowAllowed;
+	
+	private boolean columnarPages;
 
 	/**
 	 *
@@ -550,6 +552,8 @@ public abstract class JRBaseFiller extends BaseReportFiller implements JRDefault
 
 			setBookmarkHelper();
 			
+			setColumnarPages();
+			
 			loadStyles();
 
 			jasperPrint.setName(name);
@@ -616,6 +620,16 @@ public abstract class JRBaseFiller extends BaseReportFiller implements JRDefault
 			{
 				// commit the cached data
 				fillContext.cacheDone();
+				
+				if (fillContext.isUsingVirtualizer())
+				{
+					fillContext.getVirtualizationContext().configureReadAhead(jasperReport);
+				}
+				
+				if (columnarPages)
+				{
+					compactPages();
+				}
 			}
 
 			if (parent != null)
@@ -1153,6 +1167,10 @@ public abstract class JRBaseFiller extends BaseReportFiller implements JRDefault
 			JRVirtualPrintPage virtualPage = new JRVirtualPrintPage(jasperPrint, virtualizationContext);
 			page = virtualPage;
 		}
+		else if (columnarPages)
+		{
+			page = new ColumnarPrintPage();
+		}
 		else
 		{
 			page = new JRBasePrintPage();
@@ -1160,6 +1178,42 @@ public abstract class JRBaseFiller extends BaseReportFiller implements JRDefault
 
 		return page;
 	}
+	
+	protected void setColumnarPages()
+	{
+		columnarPages = parent == null && !fillContext.isUsingVirtualizer()
+				&& propertiesUtil.getBooleanProperty(mainDataset, 
+						ColumnarPrintPage.PROPERTY_COLUMNAR_PRINT_PAGES, false);
+	}
+	
+	/**
+	 * Compacts the previous page if it no longer has pending delayed evaluations.
+	 * Elements of the previous page are moved by keep together groups before the new page is added,
+	 * and evaluations delayed until a later time would update the elements after compaction.
+	 */
+	protected void compactPreviousPage()
+	{
+		List<JRPrintPage> pages = jasperPrint.getPages();
+		if (!pages.isEmpty())
+		{
+			JRPrintPage previousPage = pages.get(pages.size() - 1);
+			if (previousPage instanceof ColumnarPrintPage && isPageFinal(previousPage))
+			{
+				((ColumnarPrintPage) previousPage).compact();
+			}
+		}
+	}
+	
+	protected void compactPages()
+	{
+		for (JRPrintPage page : jasperPrint.getPages())
+		{
+			if (page instanceof ColumnarPrintPage)
+			{
+				((ColumnarPrintPage) page).compact();
+			}
+		}
+	}
 
 	/**
 	 * Resloves elements which are to be evaluated at band level.
@@ -1246,6 +1300,11 @@ public abstract class JRBaseFiller extends BaseReportFiller implements JRDefault
 			}
 
 			addLastPageBookmarks();
+			
+			if (columnarPages)
+			{
+				compactPreviousPage();
+			}
 
 			jasperPrint.addPage(page);
 			fillContext.setPrintPage(page);
@@ -269,8 +269,8 @@ final class JRBigDecimalDistinctCountIncrementer extends JRAbstractExtendedIncre
 		AbstractValueProvider valueProvider
 		)
 	{
-		DistinctCountHolder holder = 
-			(DistinctCountHolder)valueProvider.getValue(variable.getHelperVariable(JRCalculable.HELPER_COUNT));
+		DistinctCounter holder = 
+			(DistinctCounter)valueProvider.getValue(variable.getHelperVariable(JRCalculable.HELPER_COUNT));
 		
 		if (variable.isInitialized())
 		{
@@ -283,8 +283,8 @@ final class JRBigDecimalDistinctCountIncrementer extends JRAbstractExtendedIncre
 	@Override
 	public Object combine(JRCalculable calculable, JRCalculable calculableValue, AbstractValueProvider valueProvider)
 	{
-		DistinctCountHolder holder = 
-			(DistinctCountHolder)valueProvider.getValue(calculable.getHelperVariable(JRCalculable.HELPER_COUNT));
+		DistinctCounter holder = 
+			(DistinctCounter)valueProvider.getValue(calculable.getHelperVariable(JRCalculable.HELPER_COUNT));
 		
 		return new BigDecimal(holder.getCount());
 	}
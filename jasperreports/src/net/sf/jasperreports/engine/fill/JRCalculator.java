@@ -168,13 +168,22 @@ public class JRCalculator implements JRFillExpressionEvaluator
 			{
 				JRFillVariable variable = variables[i];
 				Object expressionValue = evaluate(variable.getExpression());
-				Object newValue = variable.getIncrementer().increment(variable, expressionValue, AbstractValueProvider.getCurrentValueProvider());
-				variable.setValue(newValue);
+				JRPrimitiveIncrementer primitiveIncrementer = variable.getPrimitiveIncrementer();
+				if (primitiveIncrementer == null)
+				{
+					Object newValue = variable.getIncrementer().increment(variable, expressionValue, AbstractValueProvider.getCurrentValueProvider());
+					variable.setValue(newValue);
+				}
+				else
+				{
+					// computing the value without boxing it
+					primitiveIncrementer.increment(variable, expressionValue, JRExpression.EVALUATION_DEFAULT);
+				}
 				variable.setInitialized(false);
 
 				if (variable.getIncrementTypeValue() == IncrementTypeEnum.NONE)
 				{
-					variable.setIncrementedValue(variable.getValue());
+					variable.updateIncrementedValue();
 				}
 			}
 		}
@@ -206,8 +215,16 @@ public class JRCalculator implements JRFillExpressionEvaluator
 			{
 				JRFillVariable variable = variables[i];
 				Object expressionValue = evaluateEstimated(variable.getExpression());
-				Object newValue = variable.getIncrementer().increment(variable, expressionValue,  AbstractValueProvider.getEstimatedValueProvider());
-				variable.setEstimatedValue(newValue);
+				JRPrimitiveIncrementer primitiveIncrementer = variable.getPrimitiveIncrementer();
+				if (primitiveIncrementer == null)
+				{
+					Object newValue = variable.getIncrementer().increment(variable, expressionValue,  AbstractValueProvider.getEstimatedValueProvider());
+					variable.setEstimatedValue(newValue);
+				}
+				else
+				{
+					primitiveIncrementer.increment(variable, expressionValue, JRExpression.EVALUATION_ESTIMATED);
+				}
 				//variable.setInitialized(false);
 			}
 		}
@@ -261,7 +278,7 @@ public class JRCalculator implements JRFillExpressionEvaluator
 						JRFillGroup group = (JRFillGroup)variable.getIncrementGroup();
 						if (group.hasChanged())
 						{
-							variable.setIncrementedValue(variable.getValue());
+							variable.updateIncrementedValue();
 						}
 					}
 				}
@@ -371,7 +388,7 @@ public class JRCalculator implements JRFillExpressionEvaluator
 
 			if (toIncrement)
 			{
-				variable.setIncrementedValue(variable.getValue());
+				variable.updateIncrementedValue();
 //				variable.setValue(
 //					evaluate(variable.getInitialValueExpression())
 //					);
@@ -380,7 +397,7 @@ public class JRCalculator implements JRFillExpressionEvaluator
 		}
 		else
 		{
-			variable.setIncrementedValue(variable.getValue());
+			variable.updateIncrementedValue();
 //			variable.setValue(
 //				evaluate(variable.getExpression())
 //				);
@@ -499,7 +516,7 @@ public class JRCalculator implements JRFillExpressionEvaluator
 			variable.setValue(
 				evaluate(variable.getExpression())
 				);
-			variable.setIncrementedValue(variable.getValue());
+			variable.updateIncrementedValue();
 		}
 	}
 
@@ -114,10 +114,21 @@ class JRDistinctCountIncrementer implements JRIncrementer
 }
 
 
+/**
+ * Value of the helper variables that collect the values of distinct count variables.
+ */
+interface DistinctCounter
+{
+	public void init();
+
+	public long getCount();
+}
+
+
 /**
  *
  */
-class DistinctCountHolder
+class DistinctCountHolder implements DistinctCounter
 {
 	private Set<Object> distinctValues;
 	private Object lastValue;
@@ -138,6 +149,7 @@ class DistinctCountHolder
 		this.lastValue = lastValue;
 	}
 
+	@Override
 	public void init()
 	{
 		distinctValues = new HashSet<Object>();
@@ -162,6 +174,7 @@ class DistinctCountHolder
 		lastValue = null;
 	}
 
+	@Override
 	public long getCount()
 	{
 		return distinctValues.size() + (lastValue == null || distinctValues.contains(lastValue) ? 0 : 1);
@@ -421,7 +421,11 @@ public class JRFillDataset implements JRDataset, DatasetFillContext
 		JRDesignVariable helper = new JRDesignVariable();
 		helper.setName(variable.getName() + "_DISTINCT_COUNT");
 		helper.setValueClassName(variable.getValueClassName());
-		helper.setIncrementerFactoryClassName(JRDistinctCountIncrementerFactory.class.getName());
+		helper.setIncrementerFactoryClassName(
+			isApproximateDistinctCount(variable)
+			? variable.getIncrementerFactoryClassName()
+			: JRDistinctCountIncrementerFactory.class.getName()
+			);
 		helper.setResetType(ResetTypeEnum.REPORT);
 
 		if (variable.getIncrementTypeValue() != IncrementTypeEnum.NONE)
@@ -436,6 +440,13 @@ public class JRFillDataset implements JRDataset, DatasetFillContext
 		return helper;
 	}
 
+	private boolean isApproximateDistinctCount(JRVariable variable)
+	{
+		Class<?> incrementerFactoryClass = variable.getIncrementerFactoryClass();
+		return incrementerFactoryClass != null
+				&& JRApproximateDistinctCountIncrementerFactory.class.isAssignableFrom(incrementerFactoryClass);
+	}
+
 	private void setVariables(List<JRFillVariable> variableList)
 	{
 		variables = new JRFillVariable[variableList.size()];
@@ -962,9 +973,9 @@ public class JRFillDataset implements JRDataset, DatasetFillContext
 				
 				int recordIndex = 0;
 				// ugly cast
-				List<SortedDataSource.SortRecord> sortRecords = ((SortedDataSource) dataSource).getRecords();
-				for (SortedDataSource.SortRecord sortRecord : sortRecords)
+				for (Iterator<SortedDataSource.SortRecord> it = ((SortedDataSource) dataSource).originalOrderIterator(); it.hasNext();)
 				{
+					SortedDataSource.SortRecord sortRecord = it.next();
 					if (sortRecord.isFiltered())
 					{
 						Object[] recordValues = sortRecord.getValues();
@@ -1308,6 +1319,12 @@ public class JRFillDataset implements JRDataset, DatasetFillContext
 			// if the whole data source was iterated, submit the recorded data
 			cacheEnd();
 		}
+		
+		if (dataSource instanceof SortedDataSource)
+		{
+			// release the sort temporary files, if any
+			((SortedDataSource) dataSource).dispose();
+		}
 	}
 
 	protected void closeQueryExecuter()
@@ -1451,6 +1468,13 @@ public class JRFillDataset implements JRDataset, DatasetFillContext
 		if (!hasNext)
 		{
 			ended = true;
+			
+			if (sortedDataSource && (dataRecorder == null || dataRecorder.hasEnded()))
+			{
+				// the sorted records are not needed for the data snapshot, 
+				// release the sort temporary files without waiting for the data source to be closed
+				((SortedDataSource) dataSource).dispose();
+			}
 		}
 
 		return hasNext;
@@ -1494,9 +1518,7 @@ public class JRFillDataset implements JRDataset, DatasetFillContext
 		{
 			for (int i = 0; i < variables.length; i++)
 			{
-				JRFillVariable variable = variables[i];
-				variable.setPreviousOldValue(variable.getOldValue());
-				variable.setOldValue(variable.getValue());
+				variables[i].setOldValues();
 			}
 		}
 	}
@@ -1518,9 +1540,7 @@ public class JRFillDataset implements JRDataset, DatasetFillContext
 		{
 			for (int i = 0; i < variables.length; i++)
 			{
-				JRFillVariable variable = variables[i];
-				variable.setValue(variable.getOldValue());
-				variable.setOldValue(variable.getPreviousOldValue());
+				variables[i].revertToOldValues();
 			}
 		}
 	}
@@ -23,6 +23,7 @@
  */
 package net.sf.jasperreports.engine.fill;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.InputStream;
 import java.net.URL;
@@ -32,7 +33,10 @@ import net.sf.jasperreports.engine.JRExpression;
 import net.sf.jasperreports.engine.JRReportTemplate;
 import net.sf.jasperreports.engine.JRRuntimeException;
 import net.sf.jasperreports.engine.JRTemplate;
+import net.sf.jasperreports.engine.JasperReportsContext;
 import net.sf.jasperreports.engine.xml.JRXmlTemplateLoader;
+import net.sf.jasperreports.repo.RepositoryResourceCache;
+import net.sf.jasperreports.repo.RepositoryUtil;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -108,7 +112,7 @@ public class JRFillReportTemplate implements JRReportTemplate
 			
 			if (source instanceof String)
 			{
-				template = JRXmlTemplateLoader.getInstance(filler.getJasperReportsContext()).loadTemplate((String) source);
+				template = loadTemplate((String) source, filler.getJasperReportsContext());
 			}
 			else if (source instanceof File)
 			{
@@ -136,4 +140,28 @@ public class JRFillReportTemplate implements JRReportTemplate
 		return template;
 	}
 	
+	/**
+	 * Loads a template from a repository location, using the shared {@link RepositoryResourceCache}
+	 * when enabled.
+	 */
+	protected static JRTemplate loadTemplate(String location, JasperReportsContext jasperReportsContext) throws JRException
+	{
+		JRXmlTemplateLoader templateLoader = JRXmlTemplateLoader.getInstance(jasperReportsContext);
+		if (!RepositoryResourceCache.isEnabled(jasperReportsContext))
+		{
+			return templateLoader.loadTemplate(location);
+		}
+		
+		byte[] data = RepositoryUtil.getInstance(jasperReportsContext).getBytesFromLocation(location);
+		byte[] digest = RepositoryResourceCache.digest(data);
+		RepositoryResourceCache sharedCache = RepositoryResourceCache.getInstance();
+		JRTemplate template = sharedCache.get(JRTemplate.class, location, digest);
+		if (template == null)
+		{
+			template = templateLoader.loadTemplate(new ByteArrayInputStream(data));
+			sharedCache.put(jasperReportsContext, JRTemplate.class, location, digest, template);
+		}
+		return template;
+	}
+	
 }
@@ -60,6 +60,23 @@ public class JRFillVariable implements JRVariable, JRCalculable
 	private boolean isInitialized;
 	private Object savedValue;
 	
+	/**
+	 * Values computed by a primitive incrementer are kept as primitive bits
+	 * and are only boxed when read.
+	 */
+	private JRPrimitiveIncrementer primitiveIncrementer;
+	private boolean primitiveIncrementerResolved;
+	private boolean previousOldValuePending;
+	private long previousOldValueBits;
+	private boolean oldValuePending;
+	private long oldValueBits;
+	private boolean estimatedValuePending;
+	private long estimatedValueBits;
+	private boolean incrementedValuePending;
+	private long incrementedValueBits;
+	private boolean valuePending;
+	private long valueBits;
+	
 	private JRFillVariable[] helperVariables;
 
 	/**
@@ -100,6 +117,11 @@ public class JRFillVariable implements JRVariable, JRCalculable
 		value = null;
 		isInitialized = false;
 		savedValue = null;
+		previousOldValuePending = false;
+		oldValuePending = false;
+		estimatedValuePending = false;
+		incrementedValuePending = false;
+		valuePending = false;
 	}
 
 
@@ -186,6 +208,11 @@ public class JRFillVariable implements JRVariable, JRCalculable
 	 */
 	public Object getOldValue()
 	{
+		if (oldValuePending)
+		{
+			oldValue = primitiveIncrementer.box(oldValueBits);
+			oldValuePending = false;
+		}
 		return oldValue;
 	}
 		
@@ -195,6 +222,7 @@ public class JRFillVariable implements JRVariable, JRCalculable
 	public void setOldValue(Object oldValue)
 	{
 		this.oldValue = oldValue;
+		this.oldValuePending = false;
 	}
 
 	/**
@@ -202,6 +230,11 @@ public class JRFillVariable implements JRVariable, JRCalculable
 	 */
 	public Object getEstimatedValue()
 	{
+		if (estimatedValuePending)
+		{
+			estimatedValue = primitiveIncrementer.box(estimatedValueBits);
+			estimatedValuePending = false;
+		}
 		return estimatedValue;
 	}
 		
@@ -211,11 +244,17 @@ public class JRFillVariable implements JRVariable, JRCalculable
 	public void setEstimatedValue(Object estimatedValue)
 	{
 		this.estimatedValue = estimatedValue;
+		this.estimatedValuePending = false;
 	}
 
 	@Override
 	public Object getIncrementedValue()
 	{
+		if (incrementedValuePending)
+		{
+			incrementedValue = primitiveIncrementer.box(incrementedValueBits);
+			incrementedValuePending = false;
+		}
 		return incrementedValue;
 	}
 		
@@ -225,11 +264,17 @@ public class JRFillVariable implements JRVariable, JRCalculable
 	public void setIncrementedValue(Object incrementedValue)
 	{
 		this.incrementedValue = incrementedValue;
+		this.incrementedValuePending = false;
 	}
 
 	@Override
 	public Object getValue()
 	{
+		if (valuePending)
+		{
+			value = primitiveIncrementer.box(valueBits);
+			valuePending = false;
+		}
 		return value;
 	}
 		
@@ -239,6 +284,122 @@ public class JRFillVariable implements JRVariable, JRCalculable
 	public void setValue(Object value)
 	{
 		this.value = value;
+		this.valuePending = false;
+	}
+
+	/**
+	 * Sets the incremented value to the current value of the variable.
+	 */
+	protected void updateIncrementedValue()
+	{
+		incrementedValue = value;
+		incrementedValuePending = valuePending;
+		incrementedValueBits = valueBits;
+	}
+
+	/**
+	 * Shifts the current value to the old value, and the old value to the previous old value.
+	 */
+	protected void setOldValues()
+	{
+		previousOldValue = oldValue;
+		previousOldValuePending = oldValuePending;
+		previousOldValueBits = oldValueBits;
+		oldValue = value;
+		oldValuePending = valuePending;
+		oldValueBits = valueBits;
+	}
+
+	/**
+	 * Reverts the current value to the old value, and the old value to the previous old value.
+	 */
+	protected void revertToOldValues()
+	{
+		value = oldValue;
+		valuePending = oldValuePending;
+		valueBits = oldValueBits;
+		oldValue = previousOldValue;
+		oldValuePending = previousOldValuePending;
+		oldValueBits = previousOldValueBits;
+	}
+
+	/**
+	 * Returns the incrementer that computes the values of the variable as primitives,
+	 * or <code>null</code> if the variable does not qualify for one.
+	 */
+	protected JRPrimitiveIncrementer getPrimitiveIncrementer()
+	{
+		if (!primitiveIncrementerResolved)
+		{
+			primitiveIncrementer = getIncrementerFactoryClass() == null 
+					? JRPrimitiveIncrementerFactory.getIncrementer(this) : null;
+			primitiveIncrementerResolved = true;
+		}
+		return primitiveIncrementer;
+	}
+
+	protected boolean isIncrementedValueNull()
+	{
+		return !incrementedValuePending && incrementedValue == null;
+	}
+
+	protected long getIncrementedValueBits()
+	{
+		return incrementedValuePending ? incrementedValueBits : primitiveIncrementer.unbox(incrementedValue);
+	}
+
+	protected long getValueBits(byte evaluation)
+	{
+		if (evaluation == JRExpression.EVALUATION_ESTIMATED)
+		{
+			return estimatedValuePending ? estimatedValueBits : primitiveIncrementer.unbox(estimatedValue);
+		}
+		return valuePending ? valueBits : primitiveIncrementer.unbox(value);
+	}
+
+	protected void setValueBits(long bits, byte evaluation)
+	{
+		if (evaluation == JRExpression.EVALUATION_ESTIMATED)
+		{
+			estimatedValue = null;
+			estimatedValuePending = true;
+			estimatedValueBits = bits;
+		}
+		else
+		{
+			value = null;
+			valuePending = true;
+			valueBits = bits;
+		}
+	}
+
+	/**
+	 * Sets the current or estimated value to the incremented value.
+	 */
+	protected void setValueToIncrementedValue(byte evaluation)
+	{
+		if (evaluation == JRExpression.EVALUATION_ESTIMATED)
+		{
+			estimatedValue = incrementedValue;
+			estimatedValuePending = incrementedValuePending;
+			estimatedValueBits = incrementedValueBits;
+		}
+		else
+		{
+			value = incrementedValue;
+			valuePending = incrementedValuePending;
+			valueBits = incrementedValueBits;
+		}
+	}
+
+	/**
+	 * Sets the estimated value to the current value.
+	 */
+	protected void setEstimatedValueToValue()
+	{
+		estimatedValue = value;
+		estimatedValuePending = valuePending;
+		estimatedValueBits = valueBits;
 	}
 
 	@Override
@@ -314,13 +475,13 @@ public class JRFillVariable implements JRVariable, JRCalculable
 		switch (evaluation)
 		{
 			case JRExpression.EVALUATION_OLD:
-				returnValue = oldValue;
+				returnValue = getOldValue();
 				break;
 			case JRExpression.EVALUATION_ESTIMATED:
-				returnValue = estimatedValue;
+				returnValue = getEstimatedValue();
 				break;
 			default:
-				returnValue = value;
+				returnValue = getValue();
 				break;
 		}
 		return returnValue;
@@ -331,16 +492,16 @@ public class JRFillVariable implements JRVariable, JRCalculable
 		switch (evaluation)
 		{
 			case JRExpression.EVALUATION_OLD:
-				savedValue = oldValue;
-				oldValue = newValue;
+				savedValue = getOldValue();
+				setOldValue(newValue);
 				break;
 			case JRExpression.EVALUATION_ESTIMATED:
-				savedValue = estimatedValue;
-				estimatedValue = newValue;
+				savedValue = getEstimatedValue();
+				setEstimatedValue(newValue);
 				break;
 			default:
-				savedValue = value;
-				value = newValue;
+				savedValue = getValue();
+				setValue(newValue);
 				break;
 		}
 	}
@@ -350,13 +511,13 @@ public class JRFillVariable implements JRVariable, JRCalculable
 		switch (evaluation)
 		{
 			case JRExpression.EVALUATION_OLD:
-				oldValue = savedValue;
+				setOldValue(savedValue);
 				break;
 			case JRExpression.EVALUATION_ESTIMATED:
-				estimatedValue = savedValue;
+				setEstimatedValue(savedValue);
 				break;
 			default:
-				value = savedValue;
+				setValue(savedValue);
 				break;
 		}
 		savedValue = null;
@@ -366,6 +527,11 @@ public class JRFillVariable implements JRVariable, JRCalculable
 	
 	public Object getPreviousOldValue()
 	{
+		if (previousOldValuePending)
+		{
+			previousOldValue = primitiveIncrementer.box(previousOldValueBits);
+			previousOldValuePending = false;
+		}
 		return previousOldValue;
 	}
 
@@ -374,6 +540,7 @@ public class JRFillVariable implements JRVariable, JRCalculable
 	public void setPreviousOldValue(Object previousOldValue)
 	{
 		this.previousOldValue = previousOldValue;
+		this.previousOldValuePending = false;
 	}
 
 	@Override
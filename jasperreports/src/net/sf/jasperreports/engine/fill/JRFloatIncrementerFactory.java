@@ -230,8 +230,8 @@ final class JRFloatDistinctCountIncrementer extends JRAbstractExtendedIncremente
 		AbstractValueProvider valueProvider
 		)
 	{
-		DistinctCountHolder holder = 
-			(DistinctCountHolder)valueProvider.getValue(variable.getHelperVariable(JRCalculable.HELPER_COUNT));
+		DistinctCounter holder = 
+			(DistinctCounter)valueProvider.getValue(variable.getHelperVariable(JRCalculable.HELPER_COUNT));
 		
 		if (variable.isInitialized())
 		{
@@ -244,8 +244,8 @@ final class JRFloatDistinctCountIncrementer extends JRAbstractExtendedIncremente
 	@Override
 	public Object combine(JRCalculable calculable, JRCalculable calculableValue, AbstractValueProvider valueProvider)
 	{
-		DistinctCountHolder holder = 
-			(DistinctCountHolder)valueProvider.getValue(calculable.getHelperVariable(JRCalculable.HELPER_COUNT));
+		DistinctCounter holder = 
+			(DistinctCounter)valueProvider.getValue(calculable.getHelperVariable(JRCalculable.HELPER_COUNT));
 		
 		return new Float(holder.getCount());
 	}
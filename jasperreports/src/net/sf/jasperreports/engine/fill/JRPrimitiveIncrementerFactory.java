@@ -0,0 +1,508 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.fill;
+
+import net.sf.jasperreports.engine.JRExpression;
+
+
+/**
+ * Creates incrementers that compute <code>Count</code>, <code>Sum</code> and <code>Average</code>
+ * values of primitive wrapper types without allocating a new object for each record.
+ * <p>
+ * The incrementers keep the values of the variables as primitive bits in the {@link JRFillVariable}
+ * fields, and the values are only boxed when read by an expression.
+ * The calculations are performed exactly as the corresponding {@link JRDefaultIncrementerFactory default incrementers}
+ * do, including the integer overflows for narrow types.
+ * Variables having custom incrementer factories are not affected.
+ */
+final class JRPrimitiveIncrementerFactory
+{
+
+	private JRPrimitiveIncrementerFactory()
+	{
+	}
+	
+	
+	/**
+	 * Returns a primitive incrementer for a variable, or <code>null</code> if the variable
+	 * calculation or value class is not supported.
+	 */
+	public static JRPrimitiveIncrementer getIncrementer(JRFillVariable variable)
+	{
+		JRPrimitiveNumberType type = JRPrimitiveNumberType.forValueClass(variable.getValueClass());
+		if (type == null)
+		{
+			return null;
+		}
+		
+		JRPrimitiveIncrementer incrementer;
+		switch (variable.getCalculationValue())
+		{
+			case COUNT :
+			{
+				incrementer = new JRPrimitiveCountIncrementer(type);
+				break;
+			}
+			case SUM :
+			{
+				incrementer = new JRPrimitiveSumIncrementer(type);
+				break;
+			}
+			case AVERAGE :
+			{
+				JRFillVariable countHelper = (JRFillVariable) variable.getHelperVariable(JRCalculable.HELPER_COUNT);
+				JRFillVariable sumHelper = (JRFillVariable) variable.getHelperVariable(JRCalculable.HELPER_SUM);
+				// the helpers are calculated as primitives as well
+				incrementer = countHelper != null && countHelper.getPrimitiveIncrementer() != null
+						&& sumHelper != null && sumHelper.getPrimitiveIncrementer() != null
+						? new JRPrimitiveAverageIncrementer(type, countHelper, sumHelper) : null;
+				break;
+			}
+			default :
+			{
+				incrementer = null;
+				break;
+			}
+		}
+		return incrementer;
+	}
+}
+
+
+/**
+ * Primitive wrapper types supported by primitive incrementers.
+ * 
+ * Integral values are kept as <code>long</code> bits, floating point values
+ * are kept as the raw bits of the <code>double</code> value.
+ */
+enum JRPrimitiveNumberType
+{
+	LONG
+	{
+		@Override
+		public Object box(long bits)
+		{
+			return Long.valueOf(bits);
+		}
+
+		@Override
+		public long unbox(Number value)
+		{
+			return value.longValue();
+		}
+
+		@Override
+		public long add(long bits, Number value)
+		{
+			return bits + value.longValue();
+		}
+
+		@Override
+		public long increment(long bits)
+		{
+			return bits + 1;
+		}
+
+		@Override
+		public long divide(long sumBits, long countBits)
+		{
+			return sumBits / countBits;
+		}
+	},
+	INTEGER
+	{
+		@Override
+		public Object box(long bits)
+		{
+			return Integer.valueOf((int) bits);
+		}
+
+		@Override
+		public long unbox(Number value)
+		{
+			return value.intValue();
+		}
+
+		@Override
+		public long add(long bits, Number value)
+		{
+			return (int) bits + value.intValue();
+		}
+
+		@Override
+		public long increment(long bits)
+		{
+			return (int) bits + 1;
+		}
+
+		@Override
+		public long divide(long sumBits, long countBits)
+		{
+			return (int) sumBits / (int) countBits;
+		}
+	},
+	SHORT
+	{
+		@Override
+		public Object box(long bits)
+		{
+			return Short.valueOf((short) bits);
+		}
+
+		@Override
+		public long unbox(Number value)
+		{
+			return value.shortValue();
+		}
+
+		@Override
+		public long add(long bits, Number value)
+		{
+			return (short) ((short) bits + value.shortValue());
+		}
+
+		@Override
+		public long increment(long bits)
+		{
+			return (short) ((short) bits + 1);
+		}
+
+		@Override
+		public long divide(long sumBits, long countBits)
+		{
+			return (short) ((short) sumBits / (short) countBits);
+		}
+	},
+	BYTE
+	{
+		@Override
+		public Object box(long bits)
+		{
+			return Byte.valueOf((byte) bits);
+		}
+
+		@Override
+		public long unbox(Number value)
+		{
+			return value.byteValue();
+		}
+
+		@Override
+		public long add(long bits, Number value)
+		{
+			return (byte) ((byte) bits + value.byteValue());
+		}
+
+		@Override
+		public long increment(long bits)
+		{
+			return (byte) ((byte) bits + 1);
+		}
+
+		@Override
+		public long divide(long sumBits, long countBits)
+		{
+			return (byte) ((byte) sumBits / (byte) countBits);
+		}
+	},
+	DOUBLE
+	{
+		@Override
+		public Object box(long bits)
+		{
+			return Double.valueOf(Double.longBitsToDouble(bits));
+		}
+
+		@Override
+		public long unbox(Number value)
+		{
+			return Double.doubleToRawLongBits(value.doubleValue());
+		}
+
+		@Override
+		public long add(long bits, Number value)
+		{
+			return Double.doubleToRawLongBits(Double.longBitsToDouble(bits) + value.doubleValue());
+		}
+
+		@Override
+		public long increment(long bits)
+		{
+			return Double.doubleToRawLongBits(Double.longBitsToDouble(bits) + 1);
+		}
+
+		@Override
+		public long divide(long sumBits, long countBits)
+		{
+			return Double.doubleToRawLongBits(Double.longBitsToDouble(sumBits) / Double.longBitsToDouble(countBits));
+		}
+	},
+	FLOAT
+	{
+		@Override
+		public Object box(long bits)
+		{
+			return Float.valueOf(toFloat(bits));
+		}
+
+		@Override
+		public long unbox(Number value)
+		{
+			return toBits(value.floatValue());
+		}
+
+		@Override
+		public long add(long bits, Number value)
+		{
+			return toBits(toFloat(bits) + value.floatValue());
+		}
+
+		@Override
+		public long increment(long bits)
+		{
+			return toBits(toFloat(bits) + 1);
+		}
+
+		@Override
+		public long divide(long sumBits, long countBits)
+		{
+			return toBits(toFloat(sumBits) / toFloat(countBits));
+		}
+		
+		private float toFloat(long bits)
+		{
+			return (float) Double.longBitsToDouble(bits);
+		}
+		
+		private long toBits(float value)
+		{
+			return Double.doubleToRawLongBits(value);
+		}
+	};
+	
+	public static JRPrimitiveNumberType forValueClass(Class<?> valueClass)
+	{
+		JRPrimitiveNumberType type;
+		if (Long.class.equals(valueClass))
+		{
+			type = LONG;
+		}
+		else if (Integer.class.equals(valueClass))
+		{
+			type = INTEGER;
+		}
+		else if (Short.class.equals(valueClass))
+		{
+			type = SHORT;
+		}
+		else if (Byte.class.equals(valueClass))
+		{
+			type = BYTE;
+		}
+		else if (Double.class.equals(valueClass) || Number.class.equals(valueClass))
+		{
+			// same as JRDefaultIncrementerFactory
+			type = DOUBLE;
+		}
+		else if (Float.class.equals(valueClass))
+		{
+			type = FLOAT;
+		}
+		else
+		{
+			type = null;
+		}
+		return type;
+	}
+	
+	/**
+	 * The bits of zero are 0 for all types.
+	 */
+	public static final long ZERO = 0;
+
+	public abstract Object box(long bits);
+
+	public abstract long unbox(Number value);
+
+	public abstract long add(long bits, Number value);
+
+	public abstract long increment(long bits);
+
+	public abstract long divide(long sumBits, long countBits);
+}
+
+
+/**
+ * Incrementer that computes variable values in primitive form.
+ */
+abstract class JRPrimitiveIncrementer
+{
+	protected final JRPrimitiveNumberType type;
+	
+	protected JRPrimitiveIncrementer(JRPrimitiveNumberType type)
+	{
+		this.type = type;
+	}
+	
+	/**
+	 * Increments the current or estimated value of the variable.
+	 * 
+	 * @param variable the variable
+	 * @param expressionValue the value of the variable expression
+	 * @param evaluation {@link JRExpression#EVALUATION_DEFAULT} to compute the variable value,
+	 * {@link JRExpression#EVALUATION_ESTIMATED} to compute the estimated value
+	 */
+	public abstract void increment(JRFillVariable variable, Object expressionValue, byte evaluation);
+	
+	public Object box(long bits)
+	{
+		return type.box(bits);
+	}
+	
+	public long unbox(Object value)
+	{
+		return type.unbox((Number) value);
+	}
+}
+
+
+/**
+ * Primitive version of the default <code>Count</code> incrementers.
+ */
+final class JRPrimitiveCountIncrementer extends JRPrimitiveIncrementer
+{
+	public JRPrimitiveCountIncrementer(JRPrimitiveNumberType type)
+	{
+		super(type);
+	}
+
+	@Override
+	public void increment(JRFillVariable variable, Object expressionValue, byte evaluation)
+	{
+		boolean zero = variable.isIncrementedValueNull() || variable.isInitialized();
+
+		if (expressionValue == null)
+		{
+			if (zero)
+			{
+				variable.setValueBits(JRPrimitiveNumberType.ZERO, evaluation);
+			}
+			else
+			{
+				variable.setValueToIncrementedValue(evaluation);
+			}
+			return;
+		}
+
+		long bits = zero ? JRPrimitiveNumberType.ZERO : variable.getIncrementedValueBits();
+		variable.setValueBits(type.increment(bits), evaluation);
+	}
+}
+
+
+/**
+ * Primitive version of the default <code>Sum</code> incrementers.
+ */
+final class JRPrimitiveSumIncrementer extends JRPrimitiveIncrementer
+{
+	public JRPrimitiveSumIncrementer(JRPrimitiveNumberType type)
+	{
+		super(type);
+	}
+
+	@Override
+	public void increment(JRFillVariable variable, Object expressionValue, byte evaluation)
+	{
+		if (expressionValue == null)
+		{
+			if (variable.isInitialized())
+			{
+				setNull(variable, evaluation);
+			}
+			else
+			{
+				variable.setValueToIncrementedValue(evaluation);
+			}
+			return;
+		}
+
+		long bits = variable.isIncrementedValueNull() || variable.isInitialized() 
+				? JRPrimitiveNumberType.ZERO : variable.getIncrementedValueBits();
+		variable.setValueBits(type.add(bits, (Number) expressionValue), evaluation);
+	}
+	
+	protected static void setNull(JRFillVariable variable, byte evaluation)
+	{
+		if (evaluation == JRExpression.EVALUATION_ESTIMATED)
+		{
+			variable.setEstimatedValue(null);
+		}
+		else
+		{
+			variable.setValue(null);
+		}
+	}
+}
+
+
+/**
+ * Primitive version of the default <code>Average</code> incrementers,
+ * reading the primitive values of the count and sum helper variables.
+ */
+final class JRPrimitiveAverageIncrementer extends JRPrimitiveIncrementer
+{
+	private final JRFillVariable countHelper;
+	private final JRFillVariable sumHelper;
+	
+	public JRPrimitiveAverageIncrementer(JRPrimitiveNumberType type, 
+			JRFillVariable countHelper, JRFillVariable sumHelper)
+	{
+		super(type);
+		
+		this.countHelper = countHelper;
+		this.sumHelper = sumHelper;
+	}
+
+	@Override
+	public void increment(JRFillVariable variable, Object expressionValue, byte evaluation)
+	{
+		if (expressionValue == null)
+		{
+			if (variable.isInitialized())
+			{
+				JRPrimitiveSumIncrementer.setNull(variable, evaluation);
+			}
+			else if (evaluation == JRExpression.EVALUATION_ESTIMATED)
+			{
+				// the default incrementers use the current value for estimates as well
+				variable.setEstimatedValueToValue();
+			}
+			return;
+		}
+
+		long countBits = countHelper.getValueBits(evaluation);
+		long sumBits = sumHelper.getValueBits(evaluation);
+		variable.setValueBits(type.divide(sumBits, countBits), evaluation);
+	}
+}
@@ -391,6 +391,26 @@ public class JRTemplatePrintElement implements JRPrintElement, Serializable, Vir
 		this.sourceElementId = sourceElementId;
 	}
 	
+	void setPrintElementId(int printElementId)
+	{
+		this.printElementId = printElementId;
+	}
+	
+	/**
+	 * Returns the properties set on this element, excluding the template properties.
+	 * 
+	 * @return the element properties, or <code>null</code> if there are none
+	 */
+	synchronized JRPropertiesMap getOwnProperties()
+	{
+		return properties != null && properties.hasOwnProperties() ? properties : null;
+	}
+	
+	synchronized void setOwnProperties(JRPropertiesMap properties)
+	{
+		this.properties = properties;
+	}
+	
 	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException
 	{
 		in.defaultReadObject();
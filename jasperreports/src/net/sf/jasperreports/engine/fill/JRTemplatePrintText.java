@@ -471,6 +471,20 @@ public class JRTemplatePrintText extends JRTemplatePrintElement implements JRPri
 	{
 		this.hyperlinkOmitted = hyperlinkOmitted;
 	}
+	
+	/**
+	 * Determines whether the element only carries attributes that {@link ColumnarPrintPage}
+	 * stores in columns, i.e. it has no truncation, anchor or hyperlink data.
+	 */
+	boolean isColumnarStorable()
+	{
+		return textTruncateIndex == null && textTruncateSuffix == null
+				&& textFormat == null && anchorName == null
+				&& bookmarkLevel == JRAnchor.NO_BOOKMARK && !hyperlinkOmitted
+				&& hyperlinkReference == null && hyperlinkAnchor == null
+				&& hyperlinkPage == null && hyperlinkTooltip == null
+				&& hyperlinkParameters == null;
+	}
 		
 	@Override
 	public HyperlinkTypeEnum getHyperlinkTypeValue()
@@ -37,12 +37,17 @@ import org.apache.commons.collections.map.ReferenceMap;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import net.sf.jasperreports.annotations.properties.Property;
+import net.sf.jasperreports.annotations.properties.PropertyScope;
 import net.sf.jasperreports.engine.DefaultJasperReportsContext;
 import net.sf.jasperreports.engine.JRConstants;
 import net.sf.jasperreports.engine.JRPrintElement;
 import net.sf.jasperreports.engine.JRPrintFrame;
+import net.sf.jasperreports.engine.JRPrintPage;
+import net.sf.jasperreports.engine.JRPropertiesHolder;
 import net.sf.jasperreports.engine.JRPropertiesUtil;
 import net.sf.jasperreports.engine.JRRuntimeException;
+import net.sf.jasperreports.engine.JRStyle;
 import net.sf.jasperreports.engine.JRVirtualizable;
 import net.sf.jasperreports.engine.JRVirtualizationHelper;
 import net.sf.jasperreports.engine.JRVirtualizer;
@@ -53,6 +58,7 @@ import net.sf.jasperreports.engine.base.JRVirtualPrintPage;
 import net.sf.jasperreports.engine.base.VirtualElementsData;
 import net.sf.jasperreports.engine.util.DeepPrintElementVisitor;
 import net.sf.jasperreports.engine.util.UniformPrintElementVisitor;
+import net.sf.jasperreports.properties.PropertyConstants;
 import net.sf.jasperreports.renderers.Renderable;
 
 /**
@@ -70,6 +76,24 @@ public class JRVirtualizationContext implements Serializable, VirtualizationList
 	
 	private static final Log log = LogFactory.getLog(JRVirtualizationContext.class);
 	
+	/**
+	 * Property that specifies the number of pages that are prefetched by a background thread
+	 * when the pages of a virtualized document are accessed sequentially, for instance by exporters.
+	 * <p>
+	 * The property is read when the fill of the document has completed.
+	 * The default value is 0, meaning that pages are not prefetched.
+	 * 
+	 * @see #setReadAheadPages(int)
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_FILL,
+			defaultValue = "0",
+			scopes = {PropertyScope.CONTEXT, PropertyScope.REPORT},
+			sinceVersion = PropertyConstants.VERSION_6_4_2,
+			valueType = Integer.class
+			)
+	public static final String PROPERTY_READ_AHEAD_PAGES = JRPropertiesUtil.PROPERTY_PREFIX + "virtualizer.read.ahead.pages";
+	
 	private static final ReferenceMap contexts = new ReferenceMap(ReferenceMap.WEAK, ReferenceMap.WEAK);
 
 	private transient JRVirtualizationContext parentContext;
@@ -78,6 +102,7 @@ public class JRVirtualizationContext implements Serializable, VirtualizationList
 	
 	private Map<String,Renderable> cachedRenderers;
 	private Map<String,JRTemplateElement> cachedTemplates;
+	private transient ConcurrentHashMap<String,JRStyle> cachedStyles;
 	
 	private volatile boolean readOnly;
 	private volatile boolean disposed;
@@ -90,6 +115,9 @@ public class JRVirtualizationContext implements Serializable, VirtualizationList
 	
 	private transient ReentrantLock lock;
 	
+	private transient List<JRPrintPage> pages;
+	private transient volatile VirtualizationReadAhead readAhead;
+	
 	/**
 	 * Constructs a context.
 	 */
@@ -99,6 +127,7 @@ public class JRVirtualizationContext implements Serializable, VirtualizationList
 		
 		cachedRenderers = new ConcurrentHashMap<String,Renderable>(16, 0.75f, 1);
 		cachedTemplates = new ConcurrentHashMap<String,JRTemplateElement>(16, 0.75f, 1);
+		cachedStyles = new ConcurrentHashMap<String,JRStyle>(16, 0.75f, 1);
 		
 		pageElementSize = JRPropertiesUtil.getInstance(jasperReportsContext).getIntegerProperty(JRVirtualPrintPage.PROPERTY_VIRTUAL_PAGE_ELEMENT_SIZE, 0);
 		
@@ -114,6 +143,7 @@ public class JRVirtualizationContext implements Serializable, VirtualizationList
 		// using the same caches as the parent
 		this.cachedRenderers = parentContext.cachedRenderers;
 		this.cachedTemplates = parentContext.cachedTemplates;
+		this.cachedStyles = parentContext.cachedStyles;
 
 		this.pageElementSize = parentContext.pageElementSize;
 		
@@ -258,6 +288,32 @@ public class JRVirtualizationContext implements Serializable, VirtualizationList
 		return cachedTemplates.get(templateId);
 	}
 
+	/**
+	 * Caches a style used by virtualized print elements, if no other style 
+	 * having the same name has been cached.
+	 * 
+	 * @param style the style to cache, which needs to have a name
+	 * @return the style cached for the style name
+	 */
+	public JRStyle cacheStyle(JRStyle style)
+	{
+		JRStyle cached = cachedStyles.putIfAbsent(style.getName(), style);
+		return cached == null ? style : cached;
+	}
+	
+	
+	/**
+	 * Retrieves a cached style.
+	 * 
+	 * @param name the style name
+	 * @return the cached style having the given name
+	 * @see #cacheStyle(JRStyle)
+	 */
+	public JRStyle getCachedStyle(String name)
+	{
+		return cachedStyles.get(name);
+	}
+
 	/**
 	 * Caches the template of an element.
 	 * 
@@ -312,6 +368,67 @@ public class JRVirtualizationContext implements Serializable, VirtualizationList
 		{
 			contexts.put(print, context);
 		}
+		
+		context.pages = print.getPages();
+	}
+	
+	/**
+	 * Enables page prefetching if {@link #PROPERTY_READ_AHEAD_PAGES configured}.
+	 * <p>
+	 * Called by the engine when the fill of the registered document has completed.
+	 * 
+	 * @param report the filled report, the property is read from the report and then from the context
+	 */
+	public void configureReadAhead(JRPropertiesHolder report)
+	{
+		int readAheadPages = JRPropertiesUtil.getInstance(jasperReportsContext).getIntegerProperty(
+				report, PROPERTY_READ_AHEAD_PAGES, 0);
+		if (readAheadPages > 0)
+		{
+			setReadAheadPages(readAheadPages);
+		}
+	}
+	
+	/**
+	 * Sets the number of pages to be prefetched on a background thread when the pages of 
+	 * the document registered for this context are accessed sequentially.
+	 * <p>
+	 * The virtualizer should have an in-memory cache larger than the number of prefetched pages.
+	 * 
+	 * @param pageCount the number of pages to prefetch, 0 to disable prefetching
+	 * @see #PROPERTY_READ_AHEAD_PAGES
+	 * @see #getReadAhead()
+	 */
+	public void setReadAheadPages(int pageCount)
+	{
+		JRVirtualizationContext masterContext = getMasterContext();
+		if (masterContext.readAhead != null)
+		{
+			masterContext.readAhead.dispose();
+			masterContext.readAhead = null;
+		}
+		
+		if (pageCount > 0)
+		{
+			if (masterContext.pages == null)
+			{
+				log.warn("No document registered for context " + masterContext + ", not prefetching pages");
+				return;
+			}
+			
+			masterContext.readAhead = new VirtualizationReadAhead(masterContext, masterContext.pages, pageCount);
+		}
+	}
+	
+	/**
+	 * Returns the page read-ahead used for this context.
+	 * 
+	 * @return the page read-ahead, or <code>null</code> if pages are not prefetched
+	 * @see #setReadAheadPages(int)
+	 */
+	public VirtualizationReadAhead getReadAhead()
+	{
+		return getMasterContext().readAhead;
 	}
 
 	
@@ -377,6 +494,7 @@ public class JRVirtualizationContext implements Serializable, VirtualizationList
 		GetField fields = in.readFields();
 		cachedRenderers = (Map<String, Renderable>) fields.get("cachedRenderers", null);
 		cachedTemplates = (Map<String, JRTemplateElement>) fields.get("cachedTemplates", null);
+		cachedStyles = new ConcurrentHashMap<String,JRStyle>(16, 0.75f, 1);
 		readOnly = fields.get("readOnly", false);
 		// use configured default if serialized by old version
 		pageElementSize = fields.get("pageElementSize", JRPropertiesUtil.getInstance(jasperReportsContext).getIntegerProperty(
@@ -563,6 +681,11 @@ public class JRVirtualizationContext implements Serializable, VirtualizationList
 	public void dispose()
 	{
 		disposed = true;
+		
+		if (readAhead != null)
+		{
+			readAhead.dispose();
+		}
 	}
 	
 	/**
@@ -0,0 +1,294 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.fill;
+
+import java.text.Collator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import net.sf.jasperreports.engine.fill.DatasetSortInfo.SortFieldInfo;
+import net.sf.jasperreports.engine.fill.SortedDataSource.SortRecord;
+
+/**
+ * Sorts dataset records on a fork/join pool.
+ * <p>
+ * The sort keys are extracted from the records before sorting, string keys being converted
+ * to collation keys, and the record indexes are sorted as a primitive array using a
+ * stable merge sort.
+ * The resulting order is the same as the one produced by the sequential sort.
+ * 
+ * @see DatasetSortUtil#PROPERTY_PARALLEL_SORT
+ */
+class ParallelRecordSorter
+{
+	/**
+	 * Ranges of at most this size are sorted sequentially.
+	 */
+	protected static final int SEQUENTIAL_SORT_SIZE = 8192;
+	
+	private static final int INSERTION_SORT_SIZE = 16;
+	
+	private static ForkJoinPool pool;
+	
+	protected static synchronized ForkJoinPool getPool()
+	{
+		if (pool == null)
+		{
+			// the pool threads are daemon threads
+			pool = new ForkJoinPool();
+		}
+		return pool;
+	}
+	
+	private final Locale locale;
+	private final List<SortRecord> records;
+	private final SortFieldInfo[] sortFields;
+	private final boolean[] descending;
+	@SuppressWarnings("rawtypes")
+	private final Comparable[][] keys;
+	
+	public ParallelRecordSorter(DatasetSortInfo sortInfo, Locale locale, List<SortRecord> records)
+	{
+		this.locale = locale;
+		this.records = records;
+		
+		List<SortFieldInfo> sortFieldsList = sortInfo.getSortFields();
+		this.sortFields = sortFieldsList.toArray(new SortFieldInfo[sortFieldsList.size()]);
+		this.descending = new boolean[sortFields.length];
+		for (int i = 0; i < sortFields.length; i++)
+		{
+			descending[i] = sortFields[i].isDescending();
+		}
+		
+		this.keys = new Comparable[sortFields.length][records.size()];
+	}
+	
+	/**
+	 * Returns the record indexes in sorted order.
+	 */
+	public int[] sort()
+	{
+		int recordCount = records.size();
+		int[] indexes = new int[recordCount];
+		for (int i = 0; i < recordCount; i++)
+		{
+			indexes[i] = i;
+		}
+		
+		if (recordCount <= SEQUENTIAL_SORT_SIZE)
+		{
+			extractKeys(0, recordCount);
+			mergeSort(indexes, new int[recordCount], 0, recordCount);
+		}
+		else
+		{
+			ForkJoinPool forkJoinPool = getPool();
+			forkJoinPool.invoke(new KeysTask(0, recordCount));
+			forkJoinPool.invoke(new SortTask(indexes, new int[recordCount], 0, recordCount));
+		}
+		return indexes;
+	}
+	
+	protected void extractKeys(int start, int end)
+	{
+		Collator collator = null;
+		for (int f = 0; f < sortFields.length; f++)
+		{
+			SortFieldInfo sortField = sortFields[f];
+			int recordIndex = sortField.getRecordIndex();
+			@SuppressWarnings("rawtypes")
+			Comparable[] fieldKeys = keys[f];
+			for (int i = start; i < end; i++)
+			{
+				Object value = records.get(i).getValues()[recordIndex];
+				if (value != null && sortField.useCollator())
+				{
+					if (collator == null)
+					{
+						// collators are not thread safe, each task uses its own instance
+						collator = Collator.getInstance(locale);
+					}
+					fieldKeys[i] = collator.getCollationKey((String) value);
+				}
+				else
+				{
+					fieldKeys[i] = (Comparable<?>) value;
+				}
+			}
+		}
+	}
+	
+	@SuppressWarnings("unchecked")
+	protected int compare(int index1, int index2)
+	{
+		for (int f = 0; f < keys.length; f++)
+		{
+			@SuppressWarnings("rawtypes")
+			Comparable key1 = keys[f][index1];
+			@SuppressWarnings("rawtypes")
+			Comparable key2 = keys[f][index2];
+			
+			int ret;
+			if (key1 == null)
+			{
+				ret = (key2 == null) ? 0 : -1;
+			}
+			else if (key2 == null)
+			{
+				ret = 1;
+			}
+			else
+			{
+				ret = key1.compareTo(key2);
+			}
+			
+			if (ret != 0)
+			{
+				return descending[f] ? -ret : ret;
+			}
+		}
+		return 0;
+	}
+	
+	protected void mergeSort(int[] indexes, int[] buffer, int start, int end)
+	{
+		if (end - start <= INSERTION_SORT_SIZE)
+		{
+			insertionSort(indexes, start, end);
+			return;
+		}
+		
+		int middle = (start + end) >>> 1;
+		mergeSort(indexes, buffer, start, middle);
+		mergeSort(indexes, buffer, middle, end);
+		merge(indexes, buffer, start, middle, end);
+	}
+	
+	protected void insertionSort(int[] indexes, int start, int end)
+	{
+		for (int i = start + 1; i < end; i++)
+		{
+			int index = indexes[i];
+			int j = i - 1;
+			// strict comparison keeps equal records in their original order
+			while (j >= start && compare(indexes[j], index) > 0)
+			{
+				indexes[j + 1] = indexes[j];
+				--j;
+			}
+			indexes[j + 1] = index;
+		}
+	}
+	
+	protected void merge(int[] indexes, int[] buffer, int start, int middle, int end)
+	{
+		if (compare(indexes[middle - 1], indexes[middle]) <= 0)
+		{
+			// already in order
+			return;
+		}
+		
+		System.arraycopy(indexes, start, buffer, start, end - start);
+		int left = start;
+		int right = middle;
+		int target = start;
+		while (left < middle && right < end)
+		{
+			// taking the left record on ties for a stable sort
+			indexes[target++] = compare(buffer[left], buffer[right]) <= 0 ? buffer[left++] : buffer[right++];
+		}
+		while (left < middle)
+		{
+			indexes[target++] = buffer[left++];
+		}
+		while (right < end)
+		{
+			indexes[target++] = buffer[right++];
+		}
+	}
+	
+	protected class KeysTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+		
+		private final int start;
+		private final int end;
+		
+		public KeysTask(int start, int end)
+		{
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if (end - start <= SEQUENTIAL_SORT_SIZE)
+			{
+				extractKeys(start, end);
+			}
+			else
+			{
+				int middle = (start + end) >>> 1;
+				invokeAll(new KeysTask(start, middle), new KeysTask(middle, end));
+			}
+		}
+	}
+	
+	protected class SortTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+		
+		private final int[] indexes;
+		private final int[] buffer;
+		private final int start;
+		private final int end;
+		
+		public SortTask(int[] indexes, int[] buffer, int start, int end)
+		{
+			this.indexes = indexes;
+			this.buffer = buffer;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if (end - start <= SEQUENTIAL_SORT_SIZE)
+			{
+				mergeSort(indexes, buffer, start, end);
+			}
+			else
+			{
+				int middle = (start + end) >>> 1;
+				invokeAll(new SortTask(indexes, buffer, start, middle), 
+						new SortTask(indexes, buffer, middle, end));
+				merge(indexes, buffer, start, middle, end);
+			}
+		}
+	}
+}
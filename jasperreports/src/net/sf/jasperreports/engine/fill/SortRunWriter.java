@@ -0,0 +1,145 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.fill;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import net.sf.jasperreports.engine.JRRuntimeException;
+import net.sf.jasperreports.engine.fill.SortedDataSource.SortRecord;
+import net.sf.jasperreports.engine.util.VirtualizationSerializer;
+import net.sf.jasperreports.engine.virtualization.VirtualizationOutput;
+
+/**
+ * Writes sorted runs of dataset records to temporary files.
+ * 
+ * @see SpilledSortedDataSource
+ */
+class SortRunWriter
+{
+	private static final Log log = LogFactory.getLog(SortRunWriter.class);
+	
+	private final File directory;
+	private final VirtualizationSerializer serializer;
+	private final List<SpilledSortedDataSource.SortRun> runs;
+	private int recordCount;
+	
+	public SortRunWriter(File directory)
+	{
+		this.directory = directory;
+		this.serializer = new VirtualizationSerializer();
+		this.runs = new ArrayList<SpilledSortedDataSource.SortRun>();
+	}
+	
+	/**
+	 * Writes a list of consecutive records to a run file.
+	 * 
+	 * @param records the records, in their original order
+	 * @param order the sorted indexes of the records in the list
+	 */
+	public void writeRun(List<SortRecord> records, int[] order)
+	{
+		File file = null;
+		try
+		{
+			file = File.createTempFile("jr_sort_", ".run", directory);
+			if (log.isDebugEnabled())
+			{
+				log.debug("writing " + records.size() + " sorted records to " + file);
+			}
+			
+			// registering the run before writing so that the file is deleted on failure
+			runs.add(new SpilledSortedDataSource.SortRun(file, recordCount, records.size()));
+			recordCount += records.size();
+			
+			VirtualizationOutput output = new VirtualizationOutput(
+					new BufferedOutputStream(new FileOutputStream(file)), serializer, null);
+			try
+			{
+				for (int index : order)
+				{
+					SortRecord record = records.get(index);
+					output.writeIntCompressed(record.getRecordIndex());
+					for (Object value : record.getValues())
+					{
+						output.writeJRObject(value, false, false);
+					}
+					// not keeping references to the written objects
+					output.reset();
+				}
+			}
+			finally
+			{
+				output.close();
+			}
+		}
+		catch (IOException e)
+		{
+			throw 
+				new JRRuntimeException(
+					SpilledSortedDataSource.EXCEPTION_MESSAGE_KEY_FILE_ERROR,
+					new Object[]{file},
+					e);
+		}
+	}
+	
+	public boolean hasRuns()
+	{
+		return !runs.isEmpty();
+	}
+	
+	public List<SpilledSortedDataSource.SortRun> getRuns()
+	{
+		return runs;
+	}
+	
+	public VirtualizationSerializer getSerializer()
+	{
+		return serializer;
+	}
+	
+	public int getRecordCount()
+	{
+		return recordCount;
+	}
+	
+	/**
+	 * Deletes the run files, used when the sort is not completed.
+	 */
+	public void dispose()
+	{
+		for (SpilledSortedDataSource.SortRun run : runs)
+		{
+			run.delete();
+		}
+		runs.clear();
+	}
+}
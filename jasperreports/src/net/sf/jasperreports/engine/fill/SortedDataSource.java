@@ -24,6 +24,7 @@
 package net.sf.jasperreports.engine.fill;
 
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
@@ -86,14 +87,20 @@ public class SortedDataSource implements JRRewindableDataSource, IndexedDataSour
 	}
 	
 	private final List<SortRecord> records;
-	private final Integer[] recordIndexes;
+	private final int[] recordIndexes;
 	private final Map<String, Integer> columnNamesMap = new HashMap<String, Integer>();
 	
 	private int currentIndex;
-	private SortRecord currentRecord;
+	protected SortRecord currentRecord;
 	
 	public SortedDataSource(DatasetSortInfo sortInfo, 
 			List<SortRecord> records, Integer[] recordIndexes)
+	{
+		this(sortInfo, records, toPrimitive(recordIndexes));
+	}
+	
+	public SortedDataSource(DatasetSortInfo sortInfo, 
+			List<SortRecord> records, int[] recordIndexes)
 	{
 		if (records.size() != recordIndexes.length)
 		{
@@ -104,6 +111,36 @@ public class SortedDataSource implements JRRewindableDataSource, IndexedDataSour
 		this.records = records;
 		this.recordIndexes = recordIndexes;
 		
+		initColumnNames(sortInfo);
+
+		this.currentIndex = 0;
+	}
+	
+	/**
+	 * Constructor used by subclasses that do not keep the records in memory.
+	 * 
+	 * Such subclasses need to override all the record navigation methods.
+	 */
+	protected SortedDataSource(DatasetSortInfo sortInfo)
+	{
+		this.records = null;
+		this.recordIndexes = null;
+		
+		initColumnNames(sortInfo);
+	}
+	
+	private static int[] toPrimitive(Integer[] indexes)
+	{
+		int[] primitiveIndexes = new int[indexes.length];
+		for (int i = 0; i < indexes.length; i++)
+		{
+			primitiveIndexes[i] = indexes[i];
+		}
+		return primitiveIndexes;
+	}
+	
+	private void initColumnNames(DatasetSortInfo sortInfo)
+	{
 		for (ListIterator<RecordField> it = sortInfo.getRecordFields().listIterator(); it.hasNext();)
 		{
 			RecordField recordField = it.next();
@@ -112,8 +149,6 @@ public class SortedDataSource implements JRRewindableDataSource, IndexedDataSour
 				columnNamesMap.put(recordField.getName(), it.previousIndex());
 			}
 		}
-
-		this.currentIndex = 0;
 	}
 
 	@Override
@@ -167,4 +202,23 @@ public class SortedDataSource implements JRRewindableDataSource, IndexedDataSour
 	{
 		return records;
 	}
+
+	/**
+	 * Returns an iterator on the records in their original, unsorted order.
+	 * 
+	 * @return an iterator on the unsorted records
+	 * @see #getRecords()
+	 */
+	public Iterator<SortRecord> originalOrderIterator()
+	{
+		return records.iterator();
+	}
+
+	/**
+	 * Releases the resources held by the data source, if any.
+	 */
+	public void dispose()
+	{
+		//NOP
+	}
 }
\ No newline at end of file
@@ -0,0 +1,380 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.fill;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import net.sf.jasperreports.engine.JRRuntimeException;
+import net.sf.jasperreports.engine.util.VirtualizationSerializer;
+import net.sf.jasperreports.engine.virtualization.VirtualizationInput;
+
+/**
+ * Sorted data source that reads the records from sorted runs written to temporary files.
+ * <p>
+ * The runs are merged while the data source is iterated, therefore only one record
+ * per run is kept in memory.
+ * Each run holds a range of consecutive records from the original data, and records that
+ * compare as equal are returned in their original order, just as the in-memory sort does.
+ * 
+ * @see DatasetSortUtil#PROPERTY_SPILL_THRESHOLD
+ */
+public class SpilledSortedDataSource extends SortedDataSource
+{
+	private static final Log log = LogFactory.getLog(SpilledSortedDataSource.class);
+	
+	public static final String EXCEPTION_MESSAGE_KEY_DISPOSED = "data.sorted.spill.disposed";
+	public static final String EXCEPTION_MESSAGE_KEY_FILE_ERROR = "data.sorted.spill.file.error";
+	
+	private final int fieldCount;
+	private final DataSourceComparator comparator;
+	private final VirtualizationSerializer serializer;
+	private final List<SortRun> runs;
+	private final int[] filteredIndexes;
+	
+	private PriorityQueue<SortRunReader> mergeQueue;
+	private int currentOriginalIndex;
+	private boolean disposed;
+	
+	SpilledSortedDataSource(DatasetSortInfo sortInfo, DataSourceComparator comparator, 
+			SortRunWriter runWriter)
+	{
+		super(sortInfo);
+		
+		this.fieldCount = sortInfo.getRecordFields().size();
+		this.comparator = comparator;
+		this.serializer = runWriter.getSerializer();
+		this.runs = new ArrayList<SortRun>(runWriter.getRuns());
+		
+		this.filteredIndexes = new int[runWriter.getRecordCount()];
+		Arrays.fill(filteredIndexes, -1);
+	}
+
+	@Override
+	public boolean next()
+	{
+		if (disposed)
+		{
+			// released after all the records were read
+			return false;
+		}
+		
+		if (mergeQueue == null)
+		{
+			startMerge();
+		}
+		
+		SortRunReader reader = mergeQueue.poll();
+		if (reader == null)
+		{
+			return false;
+		}
+		
+		currentOriginalIndex = reader.recordIndex;
+		currentRecord = new SortRecord(reader.values, reader.recordIndex);
+		
+		if (reader.advance())
+		{
+			mergeQueue.add(reader);
+		}
+		return true;
+	}
+	
+	protected void startMerge()
+	{
+		checkDisposed();
+		
+		if (log.isDebugEnabled())
+		{
+			log.debug("merging " + runs.size() + " sorted runs");
+		}
+		
+		mergeQueue = new PriorityQueue<SortRunReader>(runs.size(), new Comparator<SortRunReader>()
+		{
+			@Override
+			public int compare(SortRunReader reader1, SortRunReader reader2)
+			{
+				int ret = comparator.compareRecords(reader1.values, reader2.values);
+				if (ret == 0)
+				{
+					// the runs are in the original record order
+					ret = reader1.run.startIndex - reader2.run.startIndex;
+				}
+				return ret;
+			}
+		});
+		
+		for (SortRun run : runs)
+		{
+			SortRunReader reader = new SortRunReader(run);
+			if (reader.advance())
+			{
+				mergeQueue.add(reader);
+			}
+		}
+	}
+
+	@Override
+	public void setRecordFilteredIndex(int index)
+	{
+		super.setRecordFilteredIndex(index);
+		filteredIndexes[currentOriginalIndex] = index;
+	}
+
+	@Override
+	public void moveFirst()
+	{
+		checkDisposed();
+		closeReaders();
+		currentRecord = null;
+	}
+
+	/**
+	 * Loads all the records in memory, in their original order.
+	 * 
+	 * @see #originalOrderIterator()
+	 */
+	@Override
+	public List<SortRecord> getRecords()
+	{
+		List<SortRecord> records = new ArrayList<SortRecord>(filteredIndexes.length);
+		for (Iterator<SortRecord> it = originalOrderIterator(); it.hasNext();)
+		{
+			records.add(it.next());
+		}
+		return records;
+	}
+
+	/**
+	 * Returns an iterator that loads the records one run at a time.
+	 */
+	@Override
+	public Iterator<SortRecord> originalOrderIterator()
+	{
+		checkDisposed();
+		
+		return new Iterator<SortRecord>()
+		{
+			private int runIndex;
+			private SortRecord[] runRecords = new SortRecord[0];
+			private int runRecordIndex;
+
+			@Override
+			public boolean hasNext()
+			{
+				return runRecordIndex < runRecords.length || runIndex < runs.size();
+			}
+
+			@Override
+			public SortRecord next()
+			{
+				if (runRecordIndex >= runRecords.length)
+				{
+					if (runIndex >= runs.size())
+					{
+						throw new NoSuchElementException();
+					}
+					
+					runRecords = readRun(runs.get(runIndex));
+					++runIndex;
+					runRecordIndex = 0;
+				}
+				
+				return runRecords[runRecordIndex++];
+			}
+
+			@Override
+			public void remove()
+			{
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+	
+	protected SortRecord[] readRun(SortRun run)
+	{
+		SortRecord[] records = new SortRecord[run.size];
+		SortRunReader reader = new SortRunReader(run);
+		while (reader.advance())
+		{
+			SortRecord record = new SortRecord(reader.values, reader.recordIndex);
+			int filteredIndex = filteredIndexes[reader.recordIndex];
+			if (filteredIndex >= 0)
+			{
+				record.markFiltered();
+				record.setRecordIndex(filteredIndex);
+			}
+			records[reader.recordIndex - run.startIndex] = record;
+		}
+		return records;
+	}
+
+	@Override
+	public void dispose()
+	{
+		if (disposed)
+		{
+			return;
+		}
+		
+		closeReaders();
+		for (SortRun run : runs)
+		{
+			run.delete();
+		}
+		disposed = true;
+	}
+	
+	protected void closeReaders()
+	{
+		if (mergeQueue != null)
+		{
+			for (SortRunReader reader : mergeQueue)
+			{
+				reader.close();
+			}
+			mergeQueue = null;
+		}
+	}
+	
+	protected void checkDisposed()
+	{
+		if (disposed)
+		{
+			throw 
+				new JRRuntimeException(
+					EXCEPTION_MESSAGE_KEY_DISPOSED,
+					(Object[]) null);
+		}
+	}
+
+	protected static class SortRun
+	{
+		protected final File file;
+		protected final int startIndex;
+		protected final int size;
+		
+		public SortRun(File file, int startIndex, int size)
+		{
+			this.file = file;
+			this.startIndex = startIndex;
+			this.size = size;
+		}
+		
+		protected void delete()
+		{
+			if (file.exists() && !file.delete())
+			{
+				log.warn("Not able to delete sort file " + file.getPath());
+			}
+		}
+	}
+	
+	protected class SortRunReader
+	{
+		protected final SortRun run;
+		private VirtualizationInput input;
+		private int remaining;
+		protected Object[] values;
+		protected int recordIndex;
+		
+		public SortRunReader(SortRun run)
+		{
+			this.run = run;
+			this.remaining = run.size;
+			try
+			{
+				this.input = new VirtualizationInput(
+						new BufferedInputStream(new FileInputStream(run.file)), serializer, null);
+			}
+			catch (IOException e)
+			{
+				throw 
+					new JRRuntimeException(
+						EXCEPTION_MESSAGE_KEY_FILE_ERROR,
+						new Object[]{run.file},
+						e);
+			}
+		}
+		
+		public boolean advance()
+		{
+			if (remaining == 0)
+			{
+				close();
+				return false;
+			}
+			
+			try
+			{
+				recordIndex = input.readIntCompressed();
+				values = new Object[fieldCount];
+				for (int i = 0; i < fieldCount; i++)
+				{
+					values[i] = input.readJRObject(false);
+				}
+			}
+			catch (IOException e)
+			{
+				close();
+				throw 
+					new JRRuntimeException(
+						EXCEPTION_MESSAGE_KEY_FILE_ERROR,
+						new Object[]{run.file},
+						e);
+			}
+			
+			--remaining;
+			return true;
+		}
+		
+		public void close()
+		{
+			if (input != null)
+			{
+				try
+				{
+					input.close();
+				}
+				catch (IOException e)
+				{
+					log.warn("Error closing sort file " + run.file.getPath(), e);
+				}
+				input = null;
+			}
+		}
+	}
+}
@@ -0,0 +1,275 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.fill;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.collections.map.ReferenceMap;
+
+import net.sf.jasperreports.annotations.properties.Property;
+import net.sf.jasperreports.annotations.properties.PropertyScope;
+import net.sf.jasperreports.engine.JRPropertiesUtil;
+import net.sf.jasperreports.engine.JasperReportsContext;
+import net.sf.jasperreports.properties.PropertyConstants;
+
+/**
+ * Cache of text measurement results, shared by the fills that use the same 
+ * {@link JasperReportsContext}.
+ * <p>
+ * Text fields that repeatedly print the same values (such as status codes, currency labels
+ * or names) with the same font, width and paragraph settings are measured only once,
+ * later measurements reuse the line breaks and the text height of the first one.
+ * Only measurements of complete texts are cached, and a cached measurement is only reused
+ * if it fits in the height available to the text element.
+ * </p>
+ * <p>
+ * The cache is used by {@link TextMeasurer} when {@link #PROPERTY_MAX_ENTRIES} is set to
+ * a positive value.
+ * </p>
+ */
+public final class TextMeasurementCache
+{
+
+	/**
+	 * Property that specifies the maximum number of text measurements cached for a 
+	 * {@link JasperReportsContext}.
+	 * <p>
+	 * When the cache is full, the least recently used measurements are discarded.
+	 * The default value is 0, which disables the cache.
+	 * </p>
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_FILL,
+			defaultValue = "0",
+			scopes = {PropertyScope.CONTEXT},
+			sinceVersion = PropertyConstants.VERSION_6_4_2,
+			valueType = Integer.class
+			)
+	public static final String PROPERTY_MAX_ENTRIES = JRPropertiesUtil.PROPERTY_PREFIX + "text.measurement.cache.max.entries";
+	
+	/**
+	 * Longer texts are not cached, as they are unlikely to be repeated.
+	 */
+	protected static final int MAX_TEXT_LENGTH = 1000;
+	
+	private static final ReferenceMap caches = new ReferenceMap(ReferenceMap.WEAK, ReferenceMap.HARD);
+	
+	/**
+	 * Returns the cache for a context.
+	 * 
+	 * @param jasperReportsContext the context
+	 * @return the cache, or <code>null</code> if caching text measurements is not enabled
+	 * @see #PROPERTY_MAX_ENTRIES
+	 */
+	public static TextMeasurementCache getInstance(JasperReportsContext jasperReportsContext)
+	{
+		int maxEntries = JRPropertiesUtil.getInstance(jasperReportsContext).getIntegerProperty(PROPERTY_MAX_ENTRIES, 0);
+		if (maxEntries <= 0)
+		{
+			return null;
+		}
+		
+		synchronized (caches)
+		{
+			TextMeasurementCache cache = (TextMeasurementCache) caches.get(jasperReportsContext);
+			if (cache == null || cache.maxEntries != maxEntries)
+			{
+				cache = new TextMeasurementCache(maxEntries);
+				caches.put(jasperReportsContext, cache);
+			}
+			return cache;
+		}
+	}
+	
+	private final int maxEntries;
+	private final Map<Key, CachedMeasurement> entries;
+	
+	private final AtomicLong hitCount = new AtomicLong();
+	private final AtomicLong missCount = new AtomicLong();
+
+	private TextMeasurementCache(final int maxEntries)
+	{
+		this.maxEntries = maxEntries;
+		this.entries = new LinkedHashMap<Key, CachedMeasurement>(16, 0.75f, true)
+		{
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, CachedMeasurement> eldest)
+			{
+				return size() > maxEntries;
+			}
+		};
+	}
+	
+	/**
+	 * Looks up a measurement that fits in a height.
+	 * 
+	 * @param key the measurement key
+	 * @param maxHeight the height available to the text
+	 * @return a copy of the cached measured state, or <code>null</code> if not found
+	 */
+	TextMeasurer.TextMeasuredState get(Key key, float maxHeight)
+	{
+		CachedMeasurement measurement;
+		synchronized (entries)
+		{
+			measurement = entries.get(key);
+		}
+		
+		if (measurement == null || measurement.requiredHeight > maxHeight)
+		{
+			missCount.incrementAndGet();
+			return null;
+		}
+		
+		hitCount.incrementAndGet();
+		return measurement.state.cloneState();
+	}
+	
+	/**
+	 * Adds a measurement to the cache.
+	 * 
+	 * @param key the measurement key
+	 * @param state the measured state, which is copied
+	 * @param requiredHeight the minimum available height in which the text measures the same
+	 */
+	void put(Key key, TextMeasurer.TextMeasuredState state, float requiredHeight)
+	{
+		CachedMeasurement measurement = new CachedMeasurement(state.cloneState(), requiredHeight);
+		synchronized (entries)
+		{
+			entries.put(key, measurement);
+		}
+	}
+	
+	/**
+	 * Returns the number of cached measurements.
+	 */
+	public int size()
+	{
+		synchronized (entries)
+		{
+			return entries.size();
+		}
+	}
+	
+	/**
+	 * Removes all the cached measurements.
+	 */
+	public void clear()
+	{
+		synchronized (entries)
+		{
+			entries.clear();
+		}
+	}
+	
+	/**
+	 * Returns the number of measurements that were found in the cache.
+	 */
+	public long getHitCount()
+	{
+		return hitCount.get();
+	}
+	
+	/**
+	 * Returns the number of measurements that were not found in the cache.
+	 */
+	public long getMissCount()
+	{
+		return missCount.get();
+	}
+	
+	/**
+	 * Returns the ratio of measurements that were found in the cache, 
+	 * or 0 if the cache was not used.
+	 */
+	public double getHitRatio()
+	{
+		long hits = hitCount.get();
+		long total = hits + missCount.get();
+		return total == 0 ? 0d : (double) hits / total;
+	}
+	
+	@Override
+	public String toString()
+	{
+		return "text measurement cache of " + size() + " entries, hits " + hitCount + ", misses " + missCount;
+	}
+	
+	protected static class CachedMeasurement
+	{
+		private final TextMeasurer.TextMeasuredState state;
+		private final float requiredHeight;
+		
+		public CachedMeasurement(TextMeasurer.TextMeasuredState state, float requiredHeight)
+		{
+			this.state = state;
+			this.requiredHeight = requiredHeight;
+		}
+	}
+	
+	/**
+	 * Key of a text measurement, consisting of the text, its attributes and the text element
+	 * settings that affect the measurement.
+	 */
+	protected static class Key
+	{
+		private final List<Object> components;
+		private final int hash;
+		
+		public Key(List<Object> components)
+		{
+			this.components = components;
+			this.hash = components.hashCode();
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (obj == this)
+			{
+				return true;
+			}
+			
+			if (!(obj instanceof Key))
+			{
+				return false;
+			}
+			
+			Key key = (Key) obj;
+			return hash == key.hash && components.equals(key.components);
+		}
+	}
+}
@@ -217,6 +217,12 @@ public class TextMeasurer implements JRTextMeasurer
 	protected TextMeasuredState measuredState;
 	protected TextMeasuredState prevMeasuredState;
 	
+	private TextMeasurementCache measurementCache;
+	private String measureSimpleTextsProp;
+	private String measureExactProp;
+	private boolean saveLineBreakOffsets;
+	private float requiredHeight;
+	
 	protected static class TextMeasuredState implements JRMeasuredText, Cloneable
 	{
 		private final boolean saveLineBreakOffsets;
@@ -420,6 +426,14 @@ public class TextMeasurer implements JRTextMeasurer
 		
 		complextLineWrapper = new ComplexTextLineWrapper();
 		complextLineWrapper.init(measureContext);
+		
+		measurementCache = TextMeasurementCache.getInstance(jasperReportsContext);
+		if (measurementCache != null)
+		{
+			// properties that select the line wrapper
+			measureSimpleTextsProp = propertiesUtil.getProperty(propertiesHolder, PROPERTY_MEASURE_SIMPLE_TEXTS);
+			measureExactProp = propertiesUtil.getProperty(propertiesHolder, SimpleTextLineWrapper.PROPERTY_MEASURE_EXACT);
+		}
 	}
 
 	/**
@@ -500,7 +514,7 @@ public class TextMeasurer implements JRTextMeasurer
 			}
 		}
 		
-		boolean saveLineBreakOffsets = defaultSaveLineBreakOffsets;
+		saveLineBreakOffsets = defaultSaveLineBreakOffsets;
 		if (hasDynamicSaveLineBreakOffsetsProp)
 		{
 			String dynamicSaveLineBreakOffsetsProp = dynamicPropertiesHolder.getDynamicProperties().getProperty(
@@ -514,7 +528,7 @@ public class TextMeasurer implements JRTextMeasurer
 		measuredState = new TextMeasuredState(saveLineBreakOffsets);
 		measuredState.lastOffset = remainingTextStart;
 		prevMeasuredState = null;
-		
+		requiredHeight = 0;
 	}
 
 	@Override
@@ -528,6 +542,22 @@ public class TextMeasurer implements JRTextMeasurer
 		/*   */
 		initialize(styledText, remainingTextStart, availableStretchHeight, canOverflow);
 
+		TextMeasurementCache.Key cacheKey = null;
+		if (
+			measurementCache != null
+			&& remainingTextStart == 0 
+			&& styledText.length() <= TextMeasurementCache.MAX_TEXT_LENGTH
+			)
+		{
+			cacheKey = createMeasurementCacheKey(styledText);
+			TextMeasuredState cachedState = measurementCache.get(cacheKey, maxHeight);
+			if (cachedState != null)
+			{
+				measuredState = cachedState;
+				return measuredState;
+			}
+		}
+		
 		TextLineWrapper lineWrapper = simpleLineWrapper;
 		// check if the simple wrapper would handle the text
 		if (!lineWrapper.start(styledText))
@@ -570,9 +600,67 @@ public class TextMeasurer implements JRTextMeasurer
 			renderParagraph(lineWrapper, lastParagraphStart, lastParagraphText);
 		}
 		
+		if (
+			cacheKey != null 
+			&& measuredState.textOffset == styledText.length()
+			&& measuredState.textSuffix == null
+			)
+		{
+			// the complete text was measured, the result is the same for any height that fits the text
+			measurementCache.put(cacheKey, measuredState, requiredHeight);
+		}
+		
 		return measuredState;
 	}
 	
+	/**
+	 * Creates the key of a text measurement in the measurement cache, 
+	 * from the text and from the element settings that affect the measurement.
+	 */
+	protected TextMeasurementCache.Key createMeasurementCacheKey(JRStyledText styledText)
+	{
+		List<Object> components = new ArrayList<Object>();
+		components.add(styledText.getText());
+		components.add(styledText.getLocale());
+		components.add(styledText.getGlobalAttributes());
+		for (JRStyledText.Run run : styledText.getRuns())
+		{
+			components.add(run.startIndex);
+			components.add(run.endIndex);
+			components.add(run.attributes);
+		}
+		
+		components.add(width);
+		components.add(leftPadding);
+		components.add(rightPadding);
+		components.add(textElement.getMarkup());
+		components.add(textElement.getFontsize());
+		
+		components.add(jrParagraph.getLineSpacing());
+		components.add(jrParagraph.getLineSpacingSize());
+		components.add(jrParagraph.getFirstLineIndent());
+		components.add(jrParagraph.getLeftIndent());
+		components.add(jrParagraph.getRightIndent());
+		components.add(jrParagraph.getSpacingBefore());
+		components.add(jrParagraph.getTabStopWidth());
+		TabStop[] tabStops = jrParagraph.getTabStops();
+		if (tabStops != null)
+		{
+			for (TabStop tabStop : tabStops)
+			{
+				components.add(tabStop.getPosition());
+				components.add(tabStop.getAlignment());
+			}
+		}
+		
+		components.add(ignoreMissingFont);
+		components.add(saveLineBreakOffsets);
+		components.add(measureSimpleTextsProp);
+		components.add(measureExactProp);
+		
+		return new TextMeasurementCache.Key(components);
+	}
+	
 	protected boolean hasParagraphIndents()
 	{
 		Integer firstLineIndent = jrParagraph.getFirstLineIndent();
@@ -942,6 +1030,8 @@ public class TextMeasurer implements JRTextMeasurer
 		boolean fits = newTextHeight + maxDescent <= maxHeight;
 		if (fits)
 		{
+			requiredHeight = Math.max(requiredHeight, newTextHeight + maxDescent);
+			
 			prevMeasuredState = measuredState.cloneState();
 			
 			measuredState.isLeftToRight = isLeftToRight;//run direction is per layout; but this is the best we can do for now
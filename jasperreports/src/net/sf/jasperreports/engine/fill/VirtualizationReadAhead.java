@@ -0,0 +1,367 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.fill;
+
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import net.sf.jasperreports.engine.JRPrintPage;
+import net.sf.jasperreports.engine.JRVirtualizable;
+import net.sf.jasperreports.engine.base.JRVirtualPrintPage;
+import net.sf.jasperreports.engine.base.VirtualizablePageElements;
+
+/**
+ * Prefetches virtualized pages on a background thread while the pages of a document
+ * are accessed sequentially, for instance by an exporter.
+ * <p>
+ * When a page of the document is accessed, the next pages (up to the configured page count)
+ * are paged in by a background thread, so that the exporter does not wait for the virtualizer
+ * when it moves to the next page.
+ * The virtualizer should have an in-memory cache size larger than the read-ahead page count,
+ * otherwise prefetched pages would be evicted before being used.
+ * <p>
+ * Instances are created via {@link JRVirtualizationContext#setReadAheadPages(int)}.
+ * 
+ * @see JRVirtualizationContext#PROPERTY_READ_AHEAD_PAGES
+ */
+public class VirtualizationReadAhead
+{
+	private static final Log log = LogFactory.getLog(VirtualizationReadAhead.class);
+
+	private static final ExecutorService executor = createExecutor();
+	
+	private static ExecutorService createExecutor()
+	{
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(
+				Runtime.getRuntime().availableProcessors(), Runtime.getRuntime().availableProcessors(), 
+				30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), 
+				new ReadAheadThreadFactory());
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+	
+	private final JRVirtualizationContext context;
+	private final List<JRPrintPage> pages;
+	private final int pageCount;
+	
+	private final BitSet prefetchedPages;
+	private final Map<JRPrintPage, Integer> pageIndexes;
+	private int indexedPageCount;
+	private int lastPageIndex;
+	private int scheduledIndex;
+	private final AtomicInteger runningTasks = new AtomicInteger();
+	private volatile boolean disposed;
+
+	private final AtomicLong hitCount = new AtomicLong();
+	private final AtomicLong missCount = new AtomicLong();
+	private final AtomicLong prefetchCount = new AtomicLong();
+	private final AtomicLong stallTime = new AtomicLong();
+	
+	protected VirtualizationReadAhead(JRVirtualizationContext context, List<JRPrintPage> pages, int pageCount)
+	{
+		this.context = context;
+		this.pages = pages;
+		this.pageCount = pageCount;
+		this.prefetchedPages = new BitSet();
+		this.pageIndexes = new IdentityHashMap<JRPrintPage, Integer>();
+		this.lastPageIndex = -1;
+		this.scheduledIndex = -1;
+	}
+
+	/**
+	 * Returns the number of pages prefetched ahead of the current page.
+	 */
+	public int getPageCount()
+	{
+		return pageCount;
+	}
+	
+	/**
+	 * Determines whether the current thread is a read-ahead thread.
+	 */
+	public static boolean isReadAheadThread()
+	{
+		return Thread.currentThread() instanceof ReadAheadThread;
+	}
+	
+	/**
+	 * Called by the virtualizer when a virtualized object is accessed.
+	 * 
+	 * @param object the accessed object
+	 */
+	public void objectAccessed(JRVirtualizable<?> object)
+	{
+		if (disposed || isReadAheadThread() || !(object instanceof VirtualizablePageElements))
+		{
+			return;
+		}
+		
+		JRVirtualPrintPage page = ((VirtualizablePageElements) object).getPage();
+		int from;
+		int to;
+		synchronized (this)
+		{
+			int pageIndex = pageIndex(page);
+			if (pageIndex < 0 || pageIndex == lastPageIndex)
+			{
+				return;
+			}
+			
+			lastPageIndex = pageIndex;
+			if (prefetchedPages.get(pageIndex))
+			{
+				hitCount.incrementAndGet();
+				prefetchedPages.clear(pageIndex);
+			}
+			
+			from = Math.max(pageIndex, scheduledIndex) + 1;
+			to = Math.min(pageIndex + pageCount, pages.size() - 1);
+			if (from > to)
+			{
+				return;
+			}
+			
+			scheduledIndex = to;
+		}
+		
+		schedule(from, to);
+	}
+
+	/**
+	 * Called by the virtualizer when an object had to be synchronously paged in.
+	 * 
+	 * @param object the object
+	 */
+	public void objectMissed(JRVirtualizable<?> object)
+	{
+		if (isReadAheadThread())
+		{
+			return;
+		}
+		
+		missCount.incrementAndGet();
+		
+		if (object instanceof VirtualizablePageElements)
+		{
+			JRVirtualPrintPage page = ((VirtualizablePageElements) object).getPage();
+			synchronized (this)
+			{
+				int pageIndex = pageIndex(page);
+				if (pageIndex >= 0)
+				{
+					// prefetched but evicted in the meantime
+					prefetchedPages.clear(pageIndex);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Called by the virtualizer after waiting to lock the context for a page-in.
+	 * 
+	 * @param waitTime the time, in nanoseconds, spent waiting for the context lock
+	 */
+	public void lockAcquired(long waitTime)
+	{
+		if (runningTasks.get() > 0 && !isReadAheadThread())
+		{
+			stallTime.addAndGet(waitTime);
+		}
+	}
+	
+	protected int pageIndex(JRVirtualPrintPage page)
+	{
+		// sequential access
+		int nextIndex = lastPageIndex + 1;
+		if (nextIndex < pages.size() && pages.get(nextIndex) == page)
+		{
+			return nextIndex;
+		}
+		
+		if (lastPageIndex >= 0 && lastPageIndex < pages.size() && pages.get(lastPageIndex) == page)
+		{
+			return lastPageIndex;
+		}
+		
+		Integer index = pageIndexes.get(page);
+		if (index != null)
+		{
+			if (index < pages.size() && pages.get(index) == page)
+			{
+				return index;
+			}
+			
+			// the page list has changed, indexing it again
+			pageIndexes.clear();
+			indexedPageCount = 0;
+		}
+		
+		// indexing the pages added since the last lookup
+		int size = pages.size();
+		for (int i = indexedPageCount; i < size; i++)
+		{
+			pageIndexes.put(pages.get(i), i);
+		}
+		indexedPageCount = size;
+		
+		index = pageIndexes.get(page);
+		return index == null ? -1 : index;
+	}
+	
+	protected void schedule(final int from, final int to)
+	{
+		if (log.isDebugEnabled())
+		{
+			log.debug("scheduling read-ahead of pages " + from + " to " + to + " for " + context);
+		}
+		
+		executor.execute(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				prefetch(from, to);
+			}
+		});
+	}
+
+	protected void prefetch(int from, int to)
+	{
+		runningTasks.incrementAndGet();
+		try
+		{
+			for (int pageIndex = from; pageIndex <= to; pageIndex++)
+			{
+				if (disposed || context.isDisposed())
+				{
+					return;
+				}
+				
+				JRPrintPage page = pages.get(pageIndex);
+				if (page instanceof JRVirtualPrintPage)
+				{
+					((JRVirtualPrintPage) page).ensureVirtualData();
+					
+					prefetchCount.incrementAndGet();
+					synchronized (this)
+					{
+						if (pageIndex > lastPageIndex)
+						{
+							prefetchedPages.set(pageIndex);
+						}
+					}
+				}
+			}
+		}
+		catch (RuntimeException e)
+		{
+			// not failing the export, the page will be paged in when accessed
+			log.warn("Error prefetching virtualized pages for " + context, e);
+		}
+		finally
+		{
+			runningTasks.decrementAndGet();
+		}
+	}
+	
+	/**
+	 * Stops prefetching pages.
+	 */
+	public void dispose()
+	{
+		disposed = true;
+	}
+
+	/**
+	 * Returns the number of accessed pages which had been prefetched by the read-ahead.
+	 */
+	public long getHitCount()
+	{
+		return hitCount.get();
+	}
+
+	/**
+	 * Returns the number of objects which had to be paged in synchronously when accessed.
+	 */
+	public long getMissCount()
+	{
+		return missCount.get();
+	}
+
+	/**
+	 * Returns the number of pages paged in by the read-ahead.
+	 */
+	public long getPrefetchCount()
+	{
+		return prefetchCount.get();
+	}
+
+	/**
+	 * Returns the total time, in nanoseconds, that page accesses waited for the read-ahead.
+	 */
+	public long getStallTime()
+	{
+		return stallTime.get();
+	}
+	
+	@Override
+	public String toString()
+	{
+		return "read-ahead " + pageCount + " pages, hits " + hitCount + ", misses " + missCount 
+				+ ", prefetched " + prefetchCount + ", stall " + TimeUnit.NANOSECONDS.toMillis(stallTime.get()) + "ms";
+	}
+	
+	protected static class ReadAheadThread extends Thread
+	{
+		public ReadAheadThread(Runnable target, String name)
+		{
+			super(target, name);
+		}
+	}
+	
+	protected static class ReadAheadThreadFactory implements ThreadFactory
+	{
+		private final AtomicInteger threadCount = new AtomicInteger();
+		
+		@Override
+		public Thread newThread(Runnable r)
+		{
+			Thread thread = new ReadAheadThread(r, "JasperReports virtualizer read-ahead #" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -239,7 +239,29 @@
  * represents an enhanced implementation of the JRSwapFile that only works with JRE 
  * version 1.4 or later, because it uses a <code>java.nio.channels.FileChannel</code> to perform 
  * concurrent I/O on the swap file. 
+ * </p><p>
+ * When many report-filling processes share the same virtualizer, the 
+ * {@link net.sf.jasperreports.engine.fill.JRMappedSwapFileVirtualizer} can be used instead. 
+ * It works with a {@link net.sf.jasperreports.engine.util.JRMappedSwapFile} that stores the 
+ * virtualized pages in memory-mapped segment files and keeps its free blocks in several 
+ * independently locked lists, so that concurrent page-outs and page-ins do not wait for each other. 
  * </p>
+ * <h3>Off-Heap Virtualizer Store</h3>
+ * A {@link net.sf.jasperreports.engine.fill.StoreFactoryVirtualizer} created with an 
+ * {@link net.sf.jasperreports.engine.util.OffHeapVirtualizerStoreFactory} keeps the virtualized 
+ * pages in a bounded area of direct memory, outside the Java heap, and only writes them to a swap 
+ * file when that area is full. This way, large documents do not increase the heap usage while most 
+ * of the page-ins performed by exporters do not need to read from disk. 
+ * <h3>Read-Ahead Paging</h3>
+ * Exporters usually go through the pages of a virtualized document sequentially, each page-in 
+ * waiting for its data to be read from the virtualizer store. When the 
+ * {@link net.sf.jasperreports.engine.fill.JRVirtualizationContext#PROPERTY_READ_AHEAD_PAGES net.sf.jasperreports.virtualizer.read.ahead.pages} 
+ * property is set, or when {@link net.sf.jasperreports.engine.fill.JRVirtualizationContext#setReadAheadPages(int)} 
+ * is called on the virtualization context of a filled document, the pages following the one being 
+ * accessed are paged in by a background thread, so that they are already in memory when the exporter 
+ * reaches them. The number of pages found already paged in, the number of synchronous page-ins and the 
+ * time spent waiting for the background thread are available via 
+ * {@link net.sf.jasperreports.engine.fill.VirtualizationReadAhead}. 
  * <h3>In-Memory GZIP Virtualizer</h3>
  * The {@link net.sf.jasperreports.engine.fill.JRGzipVirtualizer} is a convenient 
  * report virtualizer implementation that does not rely on the file system to temporarily 
@@ -257,6 +279,7 @@
  * @see net.sf.jasperreports.engine.JRVirtualizer
  * @see net.sf.jasperreports.engine.util.JRConcurrentSwapFile
  * @see net.sf.jasperreports.engine.util.JRLoader
+ * @see net.sf.jasperreports.engine.util.JRMappedSwapFile
  * @see net.sf.jasperreports.engine.util.JRSwapFile
  */
 package net.sf.jasperreports.engine.fill;
@@ -0,0 +1,293 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.util;
+
+import java.util.Arrays;
+import java.util.Date;
+
+import net.sf.jasperreports.engine.JRRuntimeException;
+
+
+/**
+ * HyperLogLog sketch used to estimate the number of distinct values in a stream
+ * using a fixed amount of memory.
+ * <p>
+ * The sketch keeps <code>2<sup>precision</sup></code> one byte registers, the relative
+ * standard error of the estimate being about <code>1.04 / sqrt(2<sup>precision</sup>)</code>
+ * (0.81% for the default precision of 14, which uses 16KB per sketch).
+ * <p>
+ * The harmonic sum of the registers and the number of empty registers are maintained
+ * incrementally, so that the estimate can be computed in constant time after each value.
+ */
+public class HyperLogLog
+{
+	public static final String EXCEPTION_MESSAGE_KEY_INVALID_PRECISION = "util.hyperloglog.invalid.precision";
+	
+	public static final int MIN_PRECISION = 4;
+	public static final int MAX_PRECISION = 18;
+	public static final int DEFAULT_PRECISION = 14;
+	
+	private static final double[] INVERSE_POWERS = new double[Long.SIZE + 2];
+	static
+	{
+		for (int i = 0; i < INVERSE_POWERS.length; i++)
+		{
+			INVERSE_POWERS[i] = Math.pow(2, -i);
+		}
+	}
+	
+	private final int precision;
+	private final byte[] registers;
+	private final double alphaMM;
+	private double inverseSum;
+	private int zeroCount;
+	
+	/**
+	 * Creates an empty sketch.
+	 * 
+	 * @param precision the number of bits used for the register index, between
+	 * {@link #MIN_PRECISION} and {@link #MAX_PRECISION}
+	 */
+	public HyperLogLog(int precision)
+	{
+		if (precision < MIN_PRECISION || precision > MAX_PRECISION)
+		{
+			throw 
+				new JRRuntimeException(
+					EXCEPTION_MESSAGE_KEY_INVALID_PRECISION,
+					new Object[]{precision, MIN_PRECISION, MAX_PRECISION});
+		}
+		
+		this.precision = precision;
+		int count = 1 << precision;
+		this.registers = new byte[count];
+		this.alphaMM = alpha(count) * count * count;
+		this.inverseSum = count;
+		this.zeroCount = count;
+	}
+	
+	/**
+	 * Creates a copy of a sketch.
+	 * 
+	 * @param sketch the sketch to copy
+	 */
+	public HyperLogLog(HyperLogLog sketch)
+	{
+		this.precision = sketch.precision;
+		this.registers = Arrays.copyOf(sketch.registers, sketch.registers.length);
+		this.alphaMM = sketch.alphaMM;
+		this.inverseSum = sketch.inverseSum;
+		this.zeroCount = sketch.zeroCount;
+	}
+	
+	private static double alpha(int count)
+	{
+		switch (count)
+		{
+			case 16:
+				return 0.673;
+			case 32:
+				return 0.697;
+			case 64:
+				return 0.709;
+			default:
+				return 0.7213 / (1 + 1.079 / count);
+		}
+	}
+
+	public int getPrecision()
+	{
+		return precision;
+	}
+	
+	/**
+	 * Adds a value to the sketch.
+	 * 
+	 * @param value the value, <code>null</code> values are ignored
+	 */
+	public void add(Object value)
+	{
+		if (value != null)
+		{
+			addHash(hash(value));
+		}
+	}
+	
+	/**
+	 * Adds a value hash, as computed by {@link #hash(Object)}, to the sketch.
+	 * 
+	 * @param hash the value hash
+	 */
+	public void addHash(long hash)
+	{
+		int index = registerIndex(hash);
+		int rank = rank(hash);
+		int current = registers[index];
+		if (rank > current)
+		{
+			registers[index] = (byte) rank;
+			inverseSum += INVERSE_POWERS[rank] - INVERSE_POWERS[current];
+			if (current == 0)
+			{
+				--zeroCount;
+			}
+		}
+	}
+	
+	/**
+	 * Merges another sketch of the same precision into this sketch.
+	 * 
+	 * After the merge, this sketch estimates the number of distinct values
+	 * in the union of the two value streams.
+	 * 
+	 * @param sketch the sketch to merge
+	 */
+	public void merge(HyperLogLog sketch)
+	{
+		if (sketch.precision != precision)
+		{
+			throw 
+				new JRRuntimeException(
+					EXCEPTION_MESSAGE_KEY_INVALID_PRECISION,
+					new Object[]{sketch.precision, precision, precision});
+		}
+		
+		for (int i = 0; i < registers.length; i++)
+		{
+			int rank = sketch.registers[i];
+			int current = registers[i];
+			if (rank > current)
+			{
+				registers[i] = (byte) rank;
+				inverseSum += INVERSE_POWERS[rank] - INVERSE_POWERS[current];
+				if (current == 0)
+				{
+					--zeroCount;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Returns the estimated number of distinct values added to the sketch.
+	 * 
+	 * @return the estimated number of distinct values
+	 */
+	public long estimate()
+	{
+		return estimate(inverseSum, zeroCount);
+	}
+	
+	/**
+	 * Returns the number of distinct values that the sketch would estimate
+	 * if a value hash would be added to it, without modifying the sketch.
+	 * 
+	 * @param hash the value hash, as computed by {@link #hash(Object)}
+	 * @return the estimated number of distinct values
+	 */
+	public long estimateWith(long hash)
+	{
+		int index = registerIndex(hash);
+		int rank = rank(hash);
+		int current = registers[index];
+		if (rank <= current)
+		{
+			return estimate(inverseSum, zeroCount);
+		}
+		
+		return estimate(inverseSum + INVERSE_POWERS[rank] - INVERSE_POWERS[current], 
+				current == 0 ? zeroCount - 1 : zeroCount);
+	}
+	
+	protected long estimate(double sum, int zeros)
+	{
+		int count = registers.length;
+		double estimate = alphaMM / sum;
+		if (zeros > 0 && estimate <= 2.5 * count)
+		{
+			// linear counting for small cardinalities
+			estimate = count * Math.log((double) count / zeros);
+		}
+		return Math.round(estimate);
+	}
+	
+	protected int registerIndex(long hash)
+	{
+		return (int) (hash >>> (Long.SIZE - precision));
+	}
+	
+	protected int rank(long hash)
+	{
+		// the bit set at precision - 1 caps the rank for hashes with all remaining bits zero
+		return Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+	}
+	
+	/**
+	 * Computes the 64 bit hash of a value.
+	 * 
+	 * Strings, integral numbers and dates are hashed based on their contents,
+	 * other values are hashed based on their <code>hashCode()</code>.
+	 * 
+	 * @param value the value
+	 * @return the value hash
+	 */
+	public static long hash(Object value)
+	{
+		long hash;
+		if (value instanceof String)
+		{
+			String text = (String) value;
+			hash = 0xcbf29ce484222325L ^ text.length();
+			for (int i = 0; i < text.length(); i++)
+			{
+				hash = (hash ^ text.charAt(i)) * 0x100000001b3L;
+			}
+		}
+		else if (value instanceof Long || value instanceof Integer 
+				|| value instanceof Short || value instanceof Byte)
+		{
+			hash = ((Number) value).longValue();
+		}
+		else if (value instanceof Date)
+		{
+			hash = ((Date) value).getTime();
+		}
+		else
+		{
+			hash = value.hashCode();
+		}
+		return mix(hash);
+	}
+	
+	private static long mix(long value)
+	{
+		long hash = value;
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+}
@@ -0,0 +1,249 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.util;
+
+import java.nio.ByteBuffer;
+
+import net.sf.jasperreports.engine.JRRuntimeException;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+
+/**
+ * Bounded memory area for arbitrary binary data, allocated outside of the Java heap
+ * using direct {@link ByteBuffer byte buffers}.
+ * <p>
+ * As for {@link JRSwapFile}, fixed-size blocks are allocated when a caller wants to write data
+ * and the caller receives a {@link JRSwapFile.SwapHandle handle} to the allocated area.
+ * The direct buffers are allocated lazily in chunks, until the maximum arena size is reached;
+ * when there are not enough free blocks for some data, {@link #write(byte[])} returns <code>null</code>
+ * and the caller is expected to store the data elsewhere.
+ * <p>
+ * The implementation is thread-safe. Only the block allocation is synchronized,
+ * data is copied to and from the direct buffers outside the lock.
+ * 
+ * @see OffHeapVirtualizerStore
+ */
+public class JRDirectMemoryArena
+{
+	private static final Log log = LogFactory.getLog(JRDirectMemoryArena.class);
+
+	private final int blockSize;
+	private final int chunkBlockCount;
+	private final int chunkSize;
+	private final int maxChunkCount;
+	private final JRSwapFile.LongQueue freeBlocks;
+	
+	private volatile ByteBuffer[] chunks;
+	private volatile boolean disposed;
+
+	/**
+	 * Creates a direct memory arena.
+	 * 
+	 * @param maxSize the maximum number of bytes to allocate
+	 * @param blockSize the size of the blocks allocated by the arena
+	 * @param chunkBlockCount the number of blocks in a direct buffer.
+	 * If the maximum size is smaller than a chunk, the chunk is reduced to the maximum size.
+	 */
+	public JRDirectMemoryArena(long maxSize, int blockSize, int chunkBlockCount)
+	{
+		this.blockSize = blockSize;
+		// not allocating more than the maximum size
+		this.chunkBlockCount = (int) Math.max(1, Math.min(chunkBlockCount, maxSize / blockSize));
+		this.chunkSize = blockSize * this.chunkBlockCount;
+		this.maxChunkCount = (int) Math.min(Integer.MAX_VALUE, Math.max(1, maxSize / chunkSize));
+		this.freeBlocks = new JRSwapFile.LongQueue(this.chunkBlockCount);
+		this.chunks = new ByteBuffer[0];
+	}
+
+	@Override
+	public String toString()
+	{
+		return "JRDirectMemoryArena@" + System.identityHashCode(this);
+	}
+
+	/**
+	 * Allocates an area in the arena and writes data in it.
+	 * 
+	 * @param data the data for which to allocate an area
+	 * @return a handle to the allocated area, or <code>null</code> if the arena does not
+	 * have enough free space for the data 
+	 */
+	public JRSwapFile.SwapHandle write(byte[] data)
+	{
+		int blockCount = (data.length - 1) / blockSize + 1;
+		long[] offsets = reserveFreeBlocks(blockCount);
+		if (offsets == null)
+		{
+			return null;
+		}
+		
+		int lastBlockSize = (data.length - 1) % blockSize + 1;
+		for (int i = 0; i < blockCount; ++i)
+		{
+			int dataSize = i < blockCount - 1 ? blockSize : lastBlockSize;
+			int dataOffset = i * blockSize;
+			blockBuffer(offsets[i]).put(data, dataOffset, dataSize);
+		}
+		return new JRSwapFile.SwapHandle(offsets, lastBlockSize);
+	}
+
+	/**
+	 * Reads all the data from an allocated area.
+	 * 
+	 * @param handle the allocated area handle
+	 * @param free whether to free the area after reading
+	 * @return the whole data saved in an allocated area
+	 */
+	public byte[] read(JRSwapFile.SwapHandle handle, boolean free)
+	{
+		long[] offsets = handle.getOffsets();
+		int totalLength = (offsets.length - 1) * blockSize + handle.getLastSize();
+		byte[] data = new byte[totalLength];
+		
+		for (int i = 0; i < offsets.length; ++i)
+		{
+			int dataOffset = i * blockSize;
+			int dataLength = i < offsets.length - 1 ? blockSize : handle.getLastSize();
+			blockBuffer(offsets[i]).get(data, dataOffset, dataLength);
+		}
+		
+		if (free)
+		{
+			freeBlocks(offsets);
+		}
+		return data;
+	}
+
+	/**
+	 * Frees an allocated area.
+	 * 
+	 * @param handle the allocated area handle
+	 */
+	public void free(JRSwapFile.SwapHandle handle)
+	{
+		freeBlocks(handle.getOffsets());
+	}
+
+	/**
+	 * Determines whether the arena has any free block left, 
+	 * either already allocated or that can still be allocated.
+	 * 
+	 * @return whether the arena is completely used
+	 */
+	public synchronized boolean isFull()
+	{
+		return freeBlocks.size() == 0 && chunks.length >= maxChunkCount;
+	}
+
+	protected ByteBuffer blockBuffer(long offset)
+	{
+		ByteBuffer[] currentChunks = chunks;
+		int chunkIndex = (int) (offset / chunkSize);
+		if (disposed || chunkIndex >= currentChunks.length)
+		{
+			throw 
+				new JRRuntimeException(
+					JRMappedSwapFile.EXCEPTION_MESSAGE_KEY_DISPOSED,
+					new Object[]{toString()});
+		}
+		
+		// the chunk buffers are never repositioned, duplicates are safe to create concurrently
+		ByteBuffer buffer = currentChunks[chunkIndex].duplicate();
+		buffer.position((int) (offset % chunkSize));
+		return buffer;
+	}
+
+	protected synchronized long[] reserveFreeBlocks(int blockCount)
+	{
+		while (freeBlocks.size() < blockCount)
+		{
+			if (disposed || chunks.length >= maxChunkCount)
+			{
+				return null;
+			}
+			
+			addChunk();
+		}
+		
+		long[] offsets = new long[blockCount];
+		for (int i = 0; i < blockCount; i++)
+		{
+			offsets[i] = freeBlocks.popFirst();
+		}
+		return offsets;
+	}
+
+	protected void addChunk()
+	{
+		int chunkIndex = chunks.length;
+		if (log.isDebugEnabled())
+		{
+			log.debug("Allocating direct chunk " + chunkIndex + " of " + maxChunkCount 
+					+ " with " + chunkBlockCount + " blocks x " + blockSize + " bytes");
+		}
+		
+		ByteBuffer chunk = ByteBuffer.allocateDirect(chunkSize);
+		ByteBuffer[] newChunks = new ByteBuffer[chunkIndex + 1];
+		System.arraycopy(chunks, 0, newChunks, 0, chunkIndex);
+		newChunks[chunkIndex] = chunk;
+		chunks = newChunks;
+		
+		long chunkOffset = (long) chunkIndex * chunkSize;
+		for (int i = 0; i < chunkBlockCount; i++)
+		{
+			freeBlocks.addLast(chunkOffset + (long) i * blockSize);
+		}
+	}
+
+	protected synchronized void freeBlocks(long[] offsets)
+	{
+		if (disposed)
+		{
+			return;
+		}
+		
+		for (int i = offsets.length - 1; i >= 0; --i)
+		{
+			freeBlocks.addFirst(offsets[i]);
+		}
+	}
+
+	/**
+	 * Releases the direct buffers.
+	 * <p>
+	 * The memory is actually freed when the buffers are garbage collected.
+	 */
+	public synchronized void dispose()
+	{
+		if (log.isDebugEnabled())
+		{
+			log.debug("Disposing " + this);
+		}
+		
+		disposed = true;
+		chunks = new ByteBuffer[0];
+	}
+}
@@ -0,0 +1,411 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import net.sf.jasperreports.engine.DefaultJasperReportsContext;
+import net.sf.jasperreports.engine.JRPropertiesUtil;
+import net.sf.jasperreports.engine.JRRuntimeException;
+import net.sf.jasperreports.engine.JasperReportsContext;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+
+/**
+ * Swap file implementation backed by a set of memory-mapped segment files.
+ * <p>
+ * Similarly to {@link JRSwapFile}, fixed-size blocks are allocated when a caller wants to write data,
+ * and the caller receives a {@link JRSwapFile.SwapHandle handle} to the allocated area.
+ * Unlike {@link JRSwapFile}, reads and writes are done directly in the mapped memory without
+ * any locking, and the free blocks are kept in several independent lists (stripes), each one
+ * guarded by its own lock.
+ * A thread allocates blocks from the stripe it is assigned to and only looks at the other stripes
+ * when its own stripe is empty, so that concurrent fills sharing the same swap file do not
+ * contend on a single monitor.
+ * <p>
+ * When no free blocks are available, a new segment file of fixed size is created and mapped in memory.
+ * The segment files are deleted on {@link #dispose() dispose()}.
+ *
+ * @see MappedSwapFileVirtualizerStore
+ */
+public class JRMappedSwapFile
+{
+	private static final Log log = LogFactory.getLog(JRMappedSwapFile.class);
+
+	public static final String EXCEPTION_MESSAGE_KEY_SEGMENT_SIZE_TOO_LARGE = "util.mapped.swap.file.segment.size.too.large";
+	public static final String EXCEPTION_MESSAGE_KEY_DISPOSED = "util.mapped.swap.file.disposed";
+
+	private final File directory;
+	private final String filenamePrefix;
+	private final boolean deleteOnExit;
+	private final int blockSize;
+	private final int segmentBlockCount;
+	private final int segmentSize;
+	private final Stripe[] stripes;
+
+	private final Object segmentsLock = new Object();
+	private final List<File> segmentFiles;
+	private volatile ByteBuffer[] segments;
+	private volatile boolean disposed;
+
+	/**
+	 * Creates a mapped swap file.
+	 *
+	 * The segment file names are generated automatically.
+	 *
+	 * @param directory the directory where the segment files should be created
+	 * @param blockSize the size of the blocks allocated by the swap file
+	 * @param segmentBlockCount the number of blocks in a segment file
+	 * @param stripeCount the number of independent free block lists
+	 */
+	public JRMappedSwapFile(String directory, int blockSize, int segmentBlockCount, int stripeCount)
+	{
+		this(DefaultJasperReportsContext.getInstance(), directory, blockSize, segmentBlockCount, stripeCount);
+	}
+
+	/**
+	 * Creates a mapped swap file.
+	 *
+	 * The segment file names are generated automatically.
+	 *
+	 * @param jasperReportsContext the JasperReportsContext to read configuration from.
+	 * @param directory the directory where the segment files should be created
+	 * @param blockSize the size of the blocks allocated by the swap file
+	 * @param segmentBlockCount the number of blocks in a segment file
+	 * @param stripeCount the number of independent free block lists
+	 */
+	public JRMappedSwapFile(JasperReportsContext jasperReportsContext, String directory,
+			int blockSize, int segmentBlockCount, int stripeCount)
+	{
+		if ((long) blockSize * segmentBlockCount > Integer.MAX_VALUE)
+		{
+			throw
+				new JRRuntimeException(
+					EXCEPTION_MESSAGE_KEY_SEGMENT_SIZE_TOO_LARGE,
+					new Object[]{blockSize, segmentBlockCount});
+		}
+
+		this.directory = new File(directory);
+		this.filenamePrefix = "swap_" + System.identityHashCode(this) + "_" + System.currentTimeMillis() + "_";
+		this.deleteOnExit = JRPropertiesUtil.getInstance(jasperReportsContext).getBooleanProperty(
+				JRSwapFile.PROPERTY_DELETE_ON_EXIT);
+		this.blockSize = blockSize;
+		this.segmentBlockCount = segmentBlockCount;
+		this.segmentSize = blockSize * segmentBlockCount;
+
+		this.stripes = new Stripe[Math.max(1, stripeCount)];
+		for (int i = 0; i < stripes.length; i++)
+		{
+			stripes[i] = new Stripe(segmentBlockCount);
+		}
+
+		this.segmentFiles = new ArrayList<File>();
+		this.segments = new ByteBuffer[0];
+	}
+
+	@Override
+	public String toString()
+	{
+		return "JRMappedSwapFile " + new File(directory, filenamePrefix + "*").getAbsolutePath();
+	}
+
+	/**
+	 * Allocates an area in the swap file and writes data in it.
+	 *
+	 * @param data the data for which to allocate an area in the file
+	 * @return a handle to the allocated area
+	 * @throws IOException
+	 */
+	public JRSwapFile.SwapHandle write(byte[] data) throws IOException
+	{
+		int blockCount = (data.length - 1) / blockSize + 1;
+		long[] offsets = reserveFreeBlocks(blockCount);
+		int lastBlockSize = (data.length - 1) % blockSize + 1;
+		JRSwapFile.SwapHandle handle = new JRSwapFile.SwapHandle(offsets, lastBlockSize);
+		for (int i = 0; i < blockCount; ++i)
+		{
+			int dataSize = i < blockCount - 1 ? blockSize : lastBlockSize;
+			int dataOffset = i * blockSize;
+
+			ByteBuffer buffer = blockBuffer(offsets[i]);
+			buffer.put(data, dataOffset, dataSize);
+		}
+
+		return handle;
+	}
+
+	/**
+	 * Reads all the data from an allocated area.
+	 *
+	 * @param handle the allocated area handle
+	 * @param free whether to free the area after reading
+	 * @return the whole data saved in an allocated area
+	 * @throws IOException
+	 */
+	public byte[] read(JRSwapFile.SwapHandle handle, boolean free) throws IOException
+	{
+		long[] offsets = handle.getOffsets();
+		int totalLength = (offsets.length - 1) * blockSize + handle.getLastSize();
+		byte[] data = new byte[totalLength];
+
+		for (int i = 0; i < offsets.length; ++i)
+		{
+			int dataOffset = i * blockSize;
+			int dataLength = i < offsets.length - 1 ? blockSize : handle.getLastSize();
+
+			ByteBuffer buffer = blockBuffer(offsets[i]);
+			buffer.get(data, dataOffset, dataLength);
+		}
+
+		if (free)
+		{
+			freeBlocks(offsets);
+		}
+
+		return data;
+	}
+
+	/**
+	 * Frees an allocated area.
+	 *
+	 * @param handle the allocated area handle
+	 */
+	public void free(JRSwapFile.SwapHandle handle)
+	{
+		freeBlocks(handle.getOffsets());
+	}
+
+	protected ByteBuffer blockBuffer(long offset)
+	{
+		ByteBuffer[] currentSegments = segments;
+		int segmentIndex = (int) (offset / segmentSize);
+		if (disposed || segmentIndex >= currentSegments.length)
+		{
+			throw
+				new JRRuntimeException(
+					EXCEPTION_MESSAGE_KEY_DISPOSED,
+					new Object[]{toString()});
+		}
+
+		// the segment buffer is never repositioned, duplicates are safe to create concurrently
+		ByteBuffer buffer = currentSegments[segmentIndex].duplicate();
+		buffer.position((int) (offset % segmentSize));
+		return buffer;
+	}
+
+	protected int stripeIndex()
+	{
+		return (int) (Thread.currentThread().getId() % stripes.length);
+	}
+
+	protected long[] reserveFreeBlocks(int blockCount) throws IOException
+	{
+		long[] offsets = new long[blockCount];
+		int reserved = 0;
+		int homeIndex = stripeIndex();
+		while (true)
+		{
+			for (int i = 0; i < stripes.length && reserved < blockCount; i++)
+			{
+				Stripe stripe = stripes[(homeIndex + i) % stripes.length];
+				// waiting for our own stripe, but skipping busy foreign stripes
+				if (i == 0)
+				{
+					stripe.lock.lock();
+				}
+				else if (!stripe.lock.tryLock())
+				{
+					continue;
+				}
+
+				try
+				{
+					reserved = stripe.pop(offsets, reserved);
+				}
+				finally
+				{
+					stripe.lock.unlock();
+				}
+			}
+
+			if (reserved == blockCount)
+			{
+				return offsets;
+			}
+
+			addSegment(stripes[homeIndex]);
+		}
+	}
+
+	protected void freeBlocks(long[] offsets)
+	{
+		Stripe stripe = stripes[stripeIndex()];
+		stripe.lock.lock();
+		try
+		{
+			for (int i = offsets.length - 1; i >= 0; --i)
+			{
+				stripe.freeBlocks.addFirst(offsets[i]);
+			}
+		}
+		finally
+		{
+			stripe.lock.unlock();
+		}
+	}
+
+	protected void addSegment(Stripe stripe) throws IOException
+	{
+		long segmentOffset;
+		synchronized (segmentsLock)
+		{
+			if (disposed)
+			{
+				throw
+					new JRRuntimeException(
+						EXCEPTION_MESSAGE_KEY_DISPOSED,
+						new Object[]{toString()});
+			}
+
+			int segmentIndex = segments.length;
+			File segmentFile = new File(directory, filenamePrefix + segmentIndex);
+			if (log.isDebugEnabled())
+			{
+				log.debug("Creating swap segment " + segmentFile.getPath() + " with "
+						+ segmentBlockCount + " blocks x " + blockSize + " bytes");
+			}
+
+			if (deleteOnExit)
+			{
+				segmentFile.deleteOnExit();
+			}
+
+			ByteBuffer segment;
+			RandomAccessFile file = new RandomAccessFile(segmentFile, "rw");
+			try
+			{
+				file.setLength(segmentSize);
+				// the mapping stays valid after the file is closed
+				segment = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+			}
+			finally
+			{
+				file.close();
+			}
+
+			segmentFiles.add(segmentFile);
+
+			ByteBuffer[] newSegments = new ByteBuffer[segmentIndex + 1];
+			System.arraycopy(segments, 0, newSegments, 0, segmentIndex);
+			newSegments[segmentIndex] = segment;
+			segments = newSegments;
+
+			segmentOffset = (long) segmentIndex * segmentSize;
+		}
+
+		stripe.lock.lock();
+		try
+		{
+			for (int i = 0; i < segmentBlockCount; i++)
+			{
+				stripe.freeBlocks.addLast(segmentOffset + (long) i * blockSize);
+			}
+		}
+		finally
+		{
+			stripe.lock.unlock();
+		}
+	}
+
+	/**
+	 * Releases the mapped segments and deletes the segment files.
+	 */
+	public void dispose()
+	{
+		synchronized (segmentsLock)
+		{
+			if (disposed)
+			{
+				return;
+			}
+
+			disposed = true;
+			segments = new ByteBuffer[0];
+
+			for (File segmentFile : segmentFiles)
+			{
+				if (log.isDebugEnabled())
+				{
+					log.debug("Disposing swap segment " + segmentFile.getPath());
+				}
+
+				// on some platforms mapped files cannot be deleted until the mapping is garbage collected,
+				// deleteOnExit would take care of these
+				if (segmentFile.exists() && !segmentFile.delete())
+				{
+					log.warn("Not able to delete swap segment " + segmentFile.getPath());
+				}
+			}
+			segmentFiles.clear();
+		}
+	}
+
+	@Override
+	protected void finalize() throws Throwable //NOSONAR
+	{
+		dispose();
+		super.finalize();
+	}
+
+	protected static class Stripe
+	{
+		final ReentrantLock lock;
+		final JRSwapFile.LongQueue freeBlocks;
+
+		public Stripe(int minGrowCount)
+		{
+			lock = new ReentrantLock();
+			freeBlocks = new JRSwapFile.LongQueue(minGrowCount);
+		}
+
+		protected int pop(long[] offsets, int start)
+		{
+			int idx = start;
+			while (idx < offsets.length && freeBlocks.size() > 0)
+			{
+				offsets[idx++] = freeBlocks.popFirst();
+			}
+			return idx;
+		}
+	}
+}
@@ -42,20 +42,16 @@ import java.util.Map;
 import java.util.Set;
 import java.util.StringTokenizer;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.w3c.dom.Document;
-import org.w3c.dom.NamedNodeMap;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 import org.xml.sax.ErrorHandler;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 import org.xml.sax.SAXParseException;
+import org.xml.sax.XMLReader;
 
 import net.sf.jasperreports.engine.JRPrintHyperlink;
 import net.sf.jasperreports.engine.JRPrintHyperlinkParameter;
@@ -107,6 +103,7 @@ public class JRStyledTextParser implements ErrorHandler
 	 */
 	private static final String ROOT_START = "<st>";
 	private static final String ROOT_END = "</st>";
+	private static final String PROPERTY_LEXICAL_HANDLER = "http://xml.org/sax/properties/lexical-handler";
 	private static final String NODE_style = "style";
 	private static final String NODE_bold = "b";
 	private static final String NODE_italic = "i";
@@ -195,7 +192,12 @@ public class JRStyledTextParser implements ErrorHandler
 	/**
 	 *
 	 */
-	private DocumentBuilder documentBuilder;
+	private XMLReader xmlReader;
+	
+	/**
+	 *
+	 */
+	private StyledTextMarkupHandler markup;
 	
 	/**
 	 *
@@ -210,11 +212,15 @@ public class JRStyledTextParser implements ErrorHandler
 	{
 		try
 		{
-			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-			documentBuilder = factory.newDocumentBuilder();
-			documentBuilder.setErrorHandler(this);
+			markup = new StyledTextMarkupHandler();
+			
+			SAXParserFactory factory = SAXParserFactory.newInstance();
+			xmlReader = factory.newSAXParser().getXMLReader();
+			xmlReader.setContentHandler(markup);
+			xmlReader.setProperty(PROPERTY_LEXICAL_HANDLER, markup);
+			xmlReader.setErrorHandler(this);
 		}
-		catch (ParserConfigurationException e)
+		catch (ParserConfigurationException | SAXException e)
 		{
 			throw new JRRuntimeException(e);
 		}
@@ -226,28 +232,57 @@ public class JRStyledTextParser implements ErrorHandler
 	 */
 	public JRStyledText parse(Map<Attribute,Object> attributes, String text, Locale locale) throws SAXException
 	{
+		if (text != null && !hasMarkup(text))
+		{
+			// nothing to parse, the result would consist of the text itself
+			return new JRStyledText(locale, text, attributes);
+		}
+		
 		JRStyledText styledText = new JRStyledText(locale);
 		
-		Document document = null;
-
 		try
 		{
-			document = documentBuilder.parse(new InputSource(new StringReader(ROOT_START + text + ROOT_END)));
+			xmlReader.parse(new InputSource(new StringReader(ROOT_START + text + ROOT_END)));
+			
+			hyperlink = null;
+			
+			// the root element is the first node
+			parseStyle(styledText, 0);
 		}
 		catch (IOException e)
 		{
 			throw new JRRuntimeException(e);
 		}
-		
-		hyperlink = null;
-		
-		parseStyle(styledText, document.getDocumentElement());
+		finally
+		{
+			markup.reset();
+		}
 		
 		styledText.setGlobalAttributes(attributes);
 		
 		return styledText;
 	}
 
+	/**
+	 * Determines whether a text needs to go through the XML parser.
+	 * 
+	 * Texts without tags, entity references and carriage returns (which the XML parser would normalize)
+	 * are either parsed to the same text or rejected as invalid XML, and in both cases result
+	 * in a styled text object that consists of the text itself.
+	 */
+	private static boolean hasMarkup(String text)
+	{
+		for (int i = 0; i < text.length(); i++)
+		{
+			char c = text.charAt(i);
+			if (c == '<' || c == '&' || c == '\r')
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Creates a styled text object by either parsing a styled text String or
 	 * by wrapping an unstyled String.
@@ -470,106 +505,104 @@ public class JRStyledTextParser implements ErrorHandler
 	/**
 	 *
 	 */
-	private void parseStyle(JRStyledText styledText, Node parentNode) throws SAXException
+	private void parseStyle(JRStyledText styledText, int parentNode) throws SAXException
 	{
-		NodeList nodeList = parentNode.getChildNodes();
-		for(int i = 0; i < nodeList.getLength(); i++)
+		int parentEnd = markup.getSubtreeEnd(parentNode);
+		for (int node = parentNode + 1; node < parentEnd; node = markup.getSubtreeEnd(node))
 		{
-			Node node = nodeList.item(i);
-			if (node.getNodeType() == Node.TEXT_NODE)
+			int nodeType = markup.getNodeType(node);
+			if (nodeType == StyledTextMarkupHandler.NODE_TEXT)
 			{
-				styledText.append(node.getNodeValue());
+				styledText.append(markup.getValue(node));
 			}
 			else if (
-				node.getNodeType() == Node.ELEMENT_NODE
-				&& NODE_style.equals(node.getNodeName())
+				nodeType == StyledTextMarkupHandler.NODE_ELEMENT
+				&& NODE_style.equals(markup.getValue(node))
 				)
 			{
-				NamedNodeMap nodeAttrs = node.getAttributes();
-
 				Map<Attribute,Object> styleAttrs = new HashMap<Attribute,Object>();
 
-				if (nodeAttrs.getNamedItem(ATTRIBUTE_fontName) != null)
+				if (markup.getAttribute(node, ATTRIBUTE_fontName) != null)
 				{
 					styleAttrs.put(
 						TextAttribute.FAMILY,
-						nodeAttrs.getNamedItem(ATTRIBUTE_fontName).getNodeValue()
+						markup.getAttribute(node, ATTRIBUTE_fontName)
 						);
 				}
 
-				if (nodeAttrs.getNamedItem(ATTRIBUTE_isBold) != null)
+				if (markup.getAttribute(node, ATTRIBUTE_isBold) != null)
 				{
 					styleAttrs.put(
 						TextAttribute.WEIGHT,
-						Boolean.valueOf(nodeAttrs.getNamedItem(ATTRIBUTE_isBold).getNodeValue()).booleanValue()
+						Boolean.valueOf(markup.getAttribute(node, ATTRIBUTE_isBold)).booleanValue()
 						? TextAttribute.WEIGHT_BOLD : TextAttribute.WEIGHT_REGULAR
 						);
 				}
 
-				if (nodeAttrs.getNamedItem(ATTRIBUTE_isItalic) != null)
+				if (markup.getAttribute(node, ATTRIBUTE_isItalic) != null)
 				{
 					styleAttrs.put(
 						TextAttribute.POSTURE,
-						Boolean.valueOf(nodeAttrs.getNamedItem(ATTRIBUTE_isItalic).getNodeValue()).booleanValue()
+						Boolean.valueOf(markup.getAttribute(node, ATTRIBUTE_isItalic)).booleanValue()
 						? TextAttribute.POSTURE_OBLIQUE : TextAttribute.POSTURE_REGULAR
 						);
 				}
 
-				if (nodeAttrs.getNamedItem(ATTRIBUTE_isUnderline) != null)
+				if (markup.getAttribute(node, ATTRIBUTE_isUnderline) != null)
 				{
 					styleAttrs.put(
 						TextAttribute.UNDERLINE,
-						Boolean.valueOf(nodeAttrs.getNamedItem(ATTRIBUTE_isUnderline).getNodeValue()).booleanValue()
+						Boolean.valueOf(markup.getAttribute(node, ATTRIBUTE_isUnderline)).booleanValue()
 						? TextAttribute.UNDERLINE_ON : null
 						);
 				}
 
-				if (nodeAttrs.getNamedItem(ATTRIBUTE_isStrikeThrough) != null)
+				if (markup.getAttribute(node, ATTRIBUTE_isStrikeThrough) != null)
 				{
 					styleAttrs.put(
 						TextAttribute.STRIKETHROUGH,
-						Boolean.valueOf(nodeAttrs.getNamedItem(ATTRIBUTE_isStrikeThrough).getNodeValue()).booleanValue()
+						Boolean.valueOf(markup.getAttribute(node, ATTRIBUTE_isStrikeThrough)).booleanValue()
 						? TextAttribute.STRIKETHROUGH_ON : null
 						);
 				}
 
-				if (nodeAttrs.getNamedItem(ATTRIBUTE_size) != null)
+				if (markup.getAttribute(node, ATTRIBUTE_size) != null)
 				{
 					styleAttrs.put(
 						TextAttribute.SIZE,
-						new Float(nodeAttrs.getNamedItem(ATTRIBUTE_size).getNodeValue())
+						new Float(markup.getAttribute(node, ATTRIBUTE_size))
 						);
 				}
 
-				if (nodeAttrs.getNamedItem(ATTRIBUTE_pdfFontName) != null)
+				if (markup.getAttribute(node, ATTRIBUTE_pdfFontName) != null)
 				{
 					styleAttrs.put(
 						JRTextAttribute.PDF_FONT_NAME,
-						nodeAttrs.getNamedItem(ATTRIBUTE_pdfFontName).getNodeValue()
+						markup.getAttribute(node, ATTRIBUTE_pdfFontName)
 						);
 				}
 
-				if (nodeAttrs.getNamedItem(ATTRIBUTE_pdfEncoding) != null)
+				if (markup.getAttribute(node, ATTRIBUTE_pdfEncoding) != null)
 				{
 					styleAttrs.put(
 						JRTextAttribute.PDF_ENCODING,
-						nodeAttrs.getNamedItem(ATTRIBUTE_pdfEncoding).getNodeValue()
+						markup.getAttribute(node, ATTRIBUTE_pdfEncoding)
 						);
 				}
 
-				if (nodeAttrs.getNamedItem(ATTRIBUTE_isPdfEmbedded) != null)
+				if (markup.getAttribute(node, ATTRIBUTE_isPdfEmbedded) != null)
 				{
 					styleAttrs.put(
 						JRTextAttribute.IS_PDF_EMBEDDED,
-						Boolean.valueOf(nodeAttrs.getNamedItem(ATTRIBUTE_isPdfEmbedded).getNodeValue())
+						Boolean.valueOf(markup.getAttribute(node, ATTRIBUTE_isPdfEmbedded))
 						);
 				}
 
-				if (nodeAttrs.getNamedItem(ATTRIBUTE_forecolor) != null)
+				if (markup.getAttribute(node, ATTRIBUTE_forecolor) != null)
 				{
 					Color color = 
 						JRColorUtil.getColor(
-							nodeAttrs.getNamedItem(ATTRIBUTE_forecolor).getNodeValue(),
+							markup.getAttribute(node, ATTRIBUTE_forecolor),
 							Color.black
 							);
 					styleAttrs.put(
@@ -578,11 +611,11 @@ public class JRStyledTextParser implements ErrorHandler
 						);
 				}
 
-				if (nodeAttrs.getNamedItem(ATTRIBUTE_backcolor) != null)
+				if (markup.getAttribute(node, ATTRIBUTE_backcolor) != null)
 				{
 					Color color = 
 						JRColorUtil.getColor(
-							nodeAttrs.getNamedItem(ATTRIBUTE_backcolor).getNodeValue(),
+							markup.getAttribute(node, ATTRIBUTE_backcolor),
 							Color.black
 							);
 					styleAttrs.put(
@@ -597,7 +630,7 @@ public class JRStyledTextParser implements ErrorHandler
 
 				styledText.addRun(new JRStyledText.Run(styleAttrs, startIndex, styledText.length()));
 			}
-			else if (node.getNodeType() == Node.ELEMENT_NODE && NODE_bold.equalsIgnoreCase(node.getNodeName()))
+			else if (nodeType == StyledTextMarkupHandler.NODE_ELEMENT && NODE_bold.equalsIgnoreCase(markup.getValue(node)))
 			{
 				Map<Attribute,Object> styleAttrs = new HashMap<Attribute,Object>();
 				styleAttrs.put(TextAttribute.WEIGHT, TextAttribute.WEIGHT_BOLD);
@@ -608,7 +641,7 @@ public class JRStyledTextParser implements ErrorHandler
 
 				styledText.addRun(new JRStyledText.Run(styleAttrs, startIndex, styledText.length()));
 			}
-			else if (node.getNodeType() == Node.ELEMENT_NODE && NODE_italic.equalsIgnoreCase(node.getNodeName()))
+			else if (nodeType == StyledTextMarkupHandler.NODE_ELEMENT && NODE_italic.equalsIgnoreCase(markup.getValue(node)))
 			{
 				Map<Attribute,Object> styleAttrs = new HashMap<Attribute,Object>();
 				styleAttrs.put(TextAttribute.POSTURE, TextAttribute.POSTURE_OBLIQUE);
@@ -619,7 +652,7 @@ public class JRStyledTextParser implements ErrorHandler
 
 				styledText.addRun(new JRStyledText.Run(styleAttrs, startIndex, styledText.length()));
 			}
-			else if (node.getNodeType() == Node.ELEMENT_NODE && NODE_underline.equalsIgnoreCase(node.getNodeName()))
+			else if (nodeType == StyledTextMarkupHandler.NODE_ELEMENT && NODE_underline.equalsIgnoreCase(markup.getValue(node)))
 			{
 				Map<Attribute,Object> styleAttrs = new HashMap<Attribute,Object>();
 				styleAttrs.put(TextAttribute.UNDERLINE, TextAttribute.UNDERLINE_ON);
@@ -630,7 +663,7 @@ public class JRStyledTextParser implements ErrorHandler
 
 				styledText.addRun(new JRStyledText.Run(styleAttrs, startIndex, styledText.length()));
 			}
-			else if (node.getNodeType() == Node.ELEMENT_NODE && NODE_sup.equalsIgnoreCase(node.getNodeName()))
+			else if (nodeType == StyledTextMarkupHandler.NODE_ELEMENT && NODE_sup.equalsIgnoreCase(markup.getValue(node)))
 			{
 				Map<Attribute,Object> styleAttrs = new HashMap<Attribute,Object>();
 				styleAttrs.put(TextAttribute.SUPERSCRIPT, TextAttribute.SUPERSCRIPT_SUPER);
@@ -641,7 +674,7 @@ public class JRStyledTextParser implements ErrorHandler
 
 				styledText.addRun(new JRStyledText.Run(styleAttrs, startIndex, styledText.length()));
 			}
-			else if (node.getNodeType() == Node.ELEMENT_NODE && NODE_sub.equalsIgnoreCase(node.getNodeName()))
+			else if (nodeType == StyledTextMarkupHandler.NODE_ELEMENT && NODE_sub.equalsIgnoreCase(markup.getValue(node)))
 			{
 				Map<Attribute,Object> styleAttrs = new HashMap<Attribute,Object>();
 				styleAttrs.put(TextAttribute.SUPERSCRIPT, TextAttribute.SUPERSCRIPT_SUB);
@@ -652,25 +685,23 @@ public class JRStyledTextParser implements ErrorHandler
 
 				styledText.addRun(new JRStyledText.Run(styleAttrs, startIndex, styledText.length()));
 			}
-			else if (node.getNodeType() == Node.ELEMENT_NODE && NODE_font.equalsIgnoreCase(node.getNodeName()))
+			else if (nodeType == StyledTextMarkupHandler.NODE_ELEMENT && NODE_font.equalsIgnoreCase(markup.getValue(node)))
 			{
-				NamedNodeMap nodeAttrs = node.getAttributes();
-
 				Map<Attribute,Object> styleAttrs = new HashMap<Attribute,Object>();
 
-				if (nodeAttrs.getNamedItem(ATTRIBUTE_size) != null)
+				if (markup.getAttribute(node, ATTRIBUTE_size) != null)
 				{
 					styleAttrs.put(
 						TextAttribute.SIZE,
-						new Float(nodeAttrs.getNamedItem(ATTRIBUTE_size).getNodeValue())
+						new Float(markup.getAttribute(node, ATTRIBUTE_size))
 						);
 				}
 
-				if (nodeAttrs.getNamedItem(ATTRIBUTE_color) != null)
+				if (markup.getAttribute(node, ATTRIBUTE_color) != null)
 				{
 					Color color = 
 						JRColorUtil.getColor(
-							nodeAttrs.getNamedItem(ATTRIBUTE_color).getNodeValue(),
+							markup.getAttribute(node, ATTRIBUTE_color),
 							Color.black
 							);
 					styleAttrs.put(
@@ -679,9 +710,9 @@ public class JRStyledTextParser implements ErrorHandler
 						);
 				}
 
-				if (nodeAttrs.getNamedItem(ATTRIBUTE_fontFace) != null) 
+				if (markup.getAttribute(node, ATTRIBUTE_fontFace) != null) 
 				{
-					String fontFaces = nodeAttrs.getNamedItem(ATTRIBUTE_fontFace).getNodeValue();
+					String fontFaces = markup.getAttribute(node, ATTRIBUTE_fontFace);
 
 					StringTokenizer t = new StringTokenizer(fontFaces, ",");
 					while (t.hasMoreTokens()) 
@@ -702,7 +733,7 @@ public class JRStyledTextParser implements ErrorHandler
 				styledText.addRun(new JRStyledText.Run(styleAttrs, startIndex, styledText.length()));
 
 			}
-			else if (node.getNodeType() == Node.ELEMENT_NODE && NODE_br.equalsIgnoreCase(node.getNodeName()))
+			else if (nodeType == StyledTextMarkupHandler.NODE_ELEMENT && NODE_br.equalsIgnoreCase(markup.getValue(node)))
 			{
 				styledText.append("\n");
 
@@ -717,7 +748,7 @@ public class JRStyledTextParser implements ErrorHandler
 					resizeRuns(styledText.getRuns(), startIndex, 1);
 				}
 			}
-			else if (node.getNodeType() == Node.ELEMENT_NODE && NODE_li.equalsIgnoreCase(node.getNodeName()))
+			else if (nodeType == StyledTextMarkupHandler.NODE_ELEMENT && NODE_li.equalsIgnoreCase(markup.getValue(node)))
 			{
 				String tmpText = styledText.getText();
 				if(tmpText.length() > 0 && !tmpText.endsWith("\n"))
@@ -733,11 +764,11 @@ public class JRStyledTextParser implements ErrorHandler
 				
 				// if the text in the next node does not start with a '\n', or 
 				// if the next node is not a <li /> one, we have to append a new line
-				Node nextNode = node.getNextSibling();
-				String textContent = getFirstTextOccurence(nextNode);
-				if(nextNode != null && 
-						!((nextNode.getNodeType() == Node.ELEMENT_NODE &&
-								NODE_li.equalsIgnoreCase(nextNode.getNodeName()) ||
+				int nextNode = markup.getSubtreeEnd(node);
+				String textContent = nextNode < parentEnd ? markup.getFirstTextOccurence(nextNode) : null;
+				if(nextNode < parentEnd && 
+						!((markup.getNodeType(nextNode) == StyledTextMarkupHandler.NODE_ELEMENT &&
+								NODE_li.equalsIgnoreCase(markup.getValue(nextNode)) ||
 						(textContent != null && textContent.startsWith("\n")))
 						))
 				{
@@ -745,31 +776,29 @@ public class JRStyledTextParser implements ErrorHandler
 					resizeRuns(styledText.getRuns(), startIndex, 1);
 				}
 			}
-			else if (node.getNodeType() == Node.ELEMENT_NODE && NODE_a.equalsIgnoreCase(node.getNodeName()))
+			else if (nodeType == StyledTextMarkupHandler.NODE_ELEMENT && NODE_a.equalsIgnoreCase(markup.getValue(node)))
 			{
 				if (hyperlink == null)
 				{
-					NamedNodeMap nodeAttrs = node.getAttributes();
-
 					Map<Attribute,Object> styleAttrs = new HashMap<Attribute,Object>();
 
 					hyperlink = new JRBasePrintHyperlink();
 					hyperlink.setHyperlinkType(HyperlinkTypeEnum.REFERENCE);
 					styleAttrs.put(JRTextAttribute.HYPERLINK, hyperlink);
 					
-					if (nodeAttrs.getNamedItem(ATTRIBUTE_href) != null)
+					if (markup.getAttribute(node, ATTRIBUTE_href) != null)
 					{
-						hyperlink.setHyperlinkReference( nodeAttrs.getNamedItem(ATTRIBUTE_href).getNodeValue());
+						hyperlink.setHyperlinkReference( markup.getAttribute(node, ATTRIBUTE_href));
 					}
 
-					if (nodeAttrs.getNamedItem(ATTRIBUTE_type) != null)
+					if (markup.getAttribute(node, ATTRIBUTE_type) != null)
 					{
-						hyperlink.setLinkType(nodeAttrs.getNamedItem(ATTRIBUTE_type).getNodeValue());
+						hyperlink.setLinkType(markup.getAttribute(node, ATTRIBUTE_type));
 					}
 
-					if (nodeAttrs.getNamedItem(ATTRIBUTE_target) != null)
+					if (markup.getAttribute(node, ATTRIBUTE_target) != null)
 					{
-						hyperlink.setLinkTarget(nodeAttrs.getNamedItem(ATTRIBUTE_target).getNodeValue());
+						hyperlink.setLinkTarget(markup.getAttribute(node, ATTRIBUTE_target));
 					}
 
 					int startIndex = styledText.length();
@@ -785,7 +814,7 @@ public class JRStyledTextParser implements ErrorHandler
 					throw new SAXException("Hyperlink <a> tags cannot be nested.");
 				}
 			}
-			else if (node.getNodeType() == Node.ELEMENT_NODE && NODE_param.equalsIgnoreCase(node.getNodeName()))
+			else if (nodeType == StyledTextMarkupHandler.NODE_ELEMENT && NODE_param.equalsIgnoreCase(markup.getValue(node)))
 			{
 				if (hyperlink == null)
 				{
@@ -793,21 +822,19 @@ public class JRStyledTextParser implements ErrorHandler
 				}
 				else
 				{
-					NamedNodeMap nodeAttrs = node.getAttributes();
-
 					JRPrintHyperlinkParameter parameter = new JRPrintHyperlinkParameter();
 					
-					if (nodeAttrs.getNamedItem(ATTRIBUTE_name) != null)
+					if (markup.getAttribute(node, ATTRIBUTE_name) != null)
 					{
-						parameter.setName(nodeAttrs.getNamedItem(ATTRIBUTE_name).getNodeValue());
+						parameter.setName(markup.getAttribute(node, ATTRIBUTE_name));
 					}
 
-					if (nodeAttrs.getNamedItem(ATTRIBUTE_valueClass) != null)
+					if (markup.getAttribute(node, ATTRIBUTE_valueClass) != null)
 					{
-						parameter.setValueClass(nodeAttrs.getNamedItem(ATTRIBUTE_valueClass).getNodeValue());
+						parameter.setValueClass(markup.getAttribute(node, ATTRIBUTE_valueClass));
 					}
 
-					String strValue = node.getTextContent();
+					String strValue = markup.getTextContent(node);
 					if (strValue != null)
 					{
 						Object value = JRValueStringUtils.deserialize(parameter.getValueClass(), strValue);
@@ -817,9 +844,9 @@ public class JRStyledTextParser implements ErrorHandler
 					hyperlink.addHyperlinkParameter(parameter);
 				}
 			}
-			else if (node.getNodeType() == Node.ELEMENT_NODE)
+			else if (nodeType == StyledTextMarkupHandler.NODE_ELEMENT)
 			{
-				String nodeName = "<" + node.getNodeName() + ">";
+				String nodeName = "<" + markup.getValue(node) + ">";
 				throw new SAXException("Tag " + nodeName + " is not a valid styled text tag.");
 			}
 		}
@@ -989,31 +1016,6 @@ public class JRStyledTextParser implements ErrorHandler
 		return sb;
 	}
 	
-	/**
-	 * The method returns the first text occurrence in a given node element
-	 * @param node
-	 * @return String
-	 */
-	private String getFirstTextOccurence(Node node){
-		if(node != null)
-		{
-			if(node.getNodeValue() != null)
-			{
-				return node.getNodeValue();
-			}
-			NodeList nodeList = node.getChildNodes();
-			for (int i=0; i< nodeList.getLength(); i++)
-			{
-				String firstOccurence = getFirstTextOccurence(nodeList.item(i));
-				if(firstOccurence != null)
-				{
-					return firstOccurence;
-				}
-			}
-		}
-		return null;
-	}
-
 	@Override
 	public void error(SAXParseException e) {
 		if(log.isErrorEnabled())
@@ -0,0 +1,208 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import net.sf.jasperreports.engine.JRRuntimeException;
+import net.sf.jasperreports.engine.JRVirtualizable;
+import net.sf.jasperreports.engine.fill.VirtualizerStore;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Virtualizer store that keeps the serialized objects in a {@link JRMappedSwapFile}.
+ * <p>
+ * The store does not serialize concurrent calls, it can be safely shared by several report fills
+ * (for instance via a single {@link net.sf.jasperreports.engine.fill.JRMappedSwapFileVirtualizer}).
+ * 
+ * @see SwapFileVirtualizerStore
+ */
+public class MappedSwapFileVirtualizerStore implements VirtualizerStore
+{
+	private static final Log log = LogFactory.getLog(MappedSwapFileVirtualizerStore.class);
+	
+	private final JRMappedSwapFile swap;
+	private final boolean swapOwner;
+	private final ConcurrentMap<String,JRSwapFile.SwapHandle> handles;
+	private final StreamCompression compression;
+
+	public MappedSwapFileVirtualizerStore(JRMappedSwapFile swap, boolean swapOwner)
+	{
+		this(swap, swapOwner, null);
+	}
+
+	public MappedSwapFileVirtualizerStore(JRMappedSwapFile swap, boolean swapOwner, StreamCompression compression)
+	{
+		this.swap = swap;
+		this.swapOwner = swapOwner;
+		this.handles = new ConcurrentHashMap<String,JRSwapFile.SwapHandle>();
+		this.compression = compression;
+	}
+	
+	@Override
+	public String toString()
+	{
+		return "MappedSwapFileVirtualizerStore " + swap.toString(); 
+	}
+	
+	@Override
+	public boolean store(JRVirtualizable<?> o, VirtualizationSerializer serializer)
+	{
+		if (handles.containsKey(o.getUID()))
+		{
+			if (log.isTraceEnabled())
+			{
+				log.trace("object " + o.getUID() + " already stored");
+			}
+			return false;
+		}
+		
+		try
+		{
+			ByteArrayOutputStream bout = new ByteArrayOutputStream(3000);
+			OutputStream out = compression == null ? bout : compression.compressedOutput(bout);
+			serializer.writeData(o, out);
+			out.close();
+			
+			byte[] data = bout.toByteArray();
+			if (log.isTraceEnabled())
+			{
+				log.trace("writing " + data.length + " for object " + o.getUID() + " to " + swap);
+			}
+			
+			JRSwapFile.SwapHandle handle = swap.write(data);
+			JRSwapFile.SwapHandle existing = handles.putIfAbsent(o.getUID(), handle);
+			if (existing != null)
+			{
+				// stored concurrently by someone else
+				swap.free(handle);
+				return false;
+			}
+			return true;
+		}
+		catch (IOException e)
+		{
+			log.error("Error virtualizing object " + o.getUID() + " to " + swap, e);
+			throw 
+				new JRRuntimeException(
+					SwapFileVirtualizerStore.EXCEPTION_MESSAGE_KEY_VIRTUALIZING_ERROR,
+					(Object[])null,
+					e);
+		}
+	}
+	
+	@Override
+	public void retrieve(JRVirtualizable<?> o, boolean remove, VirtualizationSerializer serializer)
+	{
+		JRSwapFile.SwapHandle handle = remove ? handles.remove(o.getUID()) : handles.get(o.getUID());
+		if (handle == null)
+		{
+			log.error("No swap handle found for " + o.getUID() + " in " + this);
+			throw 
+				new JRRuntimeException(
+					SwapFileVirtualizerStore.EXCEPTION_MESSAGE_KEY_UNABLE_TO_READ_DATA,
+					(Object[])null);
+		}
+		
+		try
+		{
+			byte[] data = swap.read(handle, remove);
+			if (log.isTraceEnabled())
+			{
+				log.trace("read " + data.length + " for object " + o.getUID() + " from " + swap);
+			}
+			
+			ByteArrayInputStream rawInput = new ByteArrayInputStream(data);
+			InputStream input = compression == null ? rawInput : compression.uncompressedInput(rawInput);
+			serializer.readData(o, input);
+			input.close();
+		}
+		catch (IOException e)
+		{
+			log.error("Error reading object data " + o.getUID() + " from " + swap, e);
+			throw 
+				new JRRuntimeException(
+					SwapFileVirtualizerStore.EXCEPTION_MESSAGE_KEY_DEVIRTUALIZING_ERROR,
+					(Object[])null,
+					e);
+		}
+	}
+	
+	@Override
+	public void remove(String objectId)
+	{
+		JRSwapFile.SwapHandle handle = handles.remove(objectId);
+		if (handle == null)
+		{
+			if (log.isTraceEnabled())
+			{
+				log.trace("object " + objectId + " not found for removal");
+			}
+		}
+		else
+		{
+			if (log.isTraceEnabled())
+			{
+				log.trace("removing object " + objectId + " from " + swap);
+			}
+			
+			swap.free(handle);
+		}
+	}
+
+	/**
+	 * Disposes the swap file used if this store owns it.
+	 * @see #MappedSwapFileVirtualizerStore(JRMappedSwapFile, boolean)
+	 */
+	@Override
+	public void dispose()
+	{
+		if (swapOwner)
+		{
+			if (log.isDebugEnabled())
+			{
+				log.debug("disposing " + swap);
+			}
+			
+			swap.dispose();
+		}
+		else
+		{
+			// give the blocks back to the shared swap file
+			for (JRSwapFile.SwapHandle handle : handles.values())
+			{
+				swap.free(handle);
+			}
+		}
+		handles.clear();
+	}
+}
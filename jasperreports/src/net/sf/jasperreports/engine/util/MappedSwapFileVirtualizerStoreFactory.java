@@ -0,0 +1,116 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.util;
+
+import net.sf.jasperreports.engine.fill.JRVirtualizationContext;
+import net.sf.jasperreports.engine.fill.VirtualizerStore;
+import net.sf.jasperreports.engine.fill.VirtualizerStoreFactory;
+
+/**
+ * Factory of {@link MappedSwapFileVirtualizerStore} instances.
+ * <p>
+ * If a shared {@link JRMappedSwapFile} is set, all the created stores use it,
+ * otherwise each store gets its own swap file.
+ */
+public class MappedSwapFileVirtualizerStoreFactory implements VirtualizerStoreFactory
+{
+	private String directory = System.getProperty("java.io.tmpdir");//default value
+	private int blockSize = 4096;//default value
+	private int segmentBlockCount = 4096;//default value
+	private int stripeCount = Runtime.getRuntime().availableProcessors();//default value
+	private StreamCompression compression;
+	private JRMappedSwapFile sharedSwapFile;
+	
+	@Override
+	public VirtualizerStore createStore(JRVirtualizationContext virtualizationContext)
+	{
+		if (sharedSwapFile != null)
+		{
+			return new MappedSwapFileVirtualizerStore(sharedSwapFile, false, compression);
+		}
+		
+		JRMappedSwapFile swapFile = new JRMappedSwapFile(directory, blockSize, segmentBlockCount, stripeCount);
+		return new MappedSwapFileVirtualizerStore(swapFile, true, compression);
+	}
+
+	public String getDirectory()
+	{
+		return directory;
+	}
+
+	public void setDirectory(String directory)
+	{
+		this.directory = directory;
+	}
+
+	public int getBlockSize()
+	{
+		return blockSize;
+	}
+
+	public void setBlockSize(int blockSize)
+	{
+		this.blockSize = blockSize;
+	}
+
+	public int getSegmentBlockCount()
+	{
+		return segmentBlockCount;
+	}
+
+	public void setSegmentBlockCount(int segmentBlockCount)
+	{
+		this.segmentBlockCount = segmentBlockCount;
+	}
+
+	public int getStripeCount()
+	{
+		return stripeCount;
+	}
+
+	public void setStripeCount(int stripeCount)
+	{
+		this.stripeCount = stripeCount;
+	}
+
+	public StreamCompression getCompression()
+	{
+		return compression;
+	}
+
+	public void setCompression(StreamCompression compression)
+	{
+		this.compression = compression;
+	}
+
+	public JRMappedSwapFile getSharedSwapFile()
+	{
+		return sharedSwapFile;
+	}
+
+	public void setSharedSwapFile(JRMappedSwapFile sharedSwapFile)
+	{
+		this.sharedSwapFile = sharedSwapFile;
+	}
+}
@@ -0,0 +1,321 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import net.sf.jasperreports.engine.JRRuntimeException;
+import net.sf.jasperreports.engine.JRVirtualizable;
+import net.sf.jasperreports.engine.fill.JRVirtualizationContext;
+import net.sf.jasperreports.engine.fill.VirtualizerStore;
+import net.sf.jasperreports.engine.fill.VirtualizerStoreFactory;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Virtualizer store that keeps the serialized objects outside the Java heap, 
+ * in a {@link JRDirectMemoryArena}.
+ * <p>
+ * When the arena is full, objects are passed to a second store, usually a 
+ * {@link SwapFileVirtualizerStore swap file based store}.
+ * Page-ins of objects kept in the arena do not involve any disk access.
+ * When created with a spill store factory, the second store is only created when the first
+ * object is spilled, so that fills that fit in the arena do not create swap files.
+ */
+public class OffHeapVirtualizerStore implements VirtualizerStore
+{
+	private static final Log log = LogFactory.getLog(OffHeapVirtualizerStore.class);
+	
+	private final JRDirectMemoryArena arena;
+	private final boolean arenaOwner;
+	private final VirtualizerStoreFactory spillStoreFactory;
+	private final JRVirtualizationContext virtualizationContext;
+	private volatile VirtualizerStore spillStore;
+	private final ConcurrentMap<String,JRSwapFile.SwapHandle> handles;
+	private final Set<String> spilledIds;
+	private final StreamCompression compression;
+
+	/**
+	 * Creates an off-heap store.
+	 * 
+	 * @param arena the arena in which the serialized objects are kept
+	 * @param arenaOwner whether the store is the single user of the arena.
+	 * If <code>true</code>, the arena will be disposed with the store.
+	 * @param spillStore the store that receives the objects that do not fit in the arena
+	 */
+	public OffHeapVirtualizerStore(JRDirectMemoryArena arena, boolean arenaOwner, VirtualizerStore spillStore)
+	{
+		this(arena, arenaOwner, spillStore, null);
+	}
+
+	/**
+	 * Creates an off-heap store.
+	 * 
+	 * @param arena the arena in which the serialized objects are kept
+	 * @param arenaOwner whether the store is the single user of the arena.
+	 * If <code>true</code>, the arena will be disposed with the store.
+	 * @param spillStore the store that receives the objects that do not fit in the arena
+	 * @param compression stream compression to apply to the data kept in the arena
+	 */
+	public OffHeapVirtualizerStore(JRDirectMemoryArena arena, boolean arenaOwner, VirtualizerStore spillStore,
+			StreamCompression compression)
+	{
+		this(arena, arenaOwner, null, null, compression);
+		
+		this.spillStore = spillStore;
+	}
+
+	/**
+	 * Creates an off-heap store that creates its spill store when the arena first gets full.
+	 * 
+	 * @param arena the arena in which the serialized objects are kept
+	 * @param arenaOwner whether the store is the single user of the arena.
+	 * If <code>true</code>, the arena will be disposed with the store.
+	 * @param spillStoreFactory the factory of the store that receives the objects that do not fit in the arena
+	 * @param virtualizationContext the virtualization context for which the spill store is created
+	 * @param compression stream compression to apply to the data kept in the arena
+	 */
+	public OffHeapVirtualizerStore(JRDirectMemoryArena arena, boolean arenaOwner, 
+			VirtualizerStoreFactory spillStoreFactory, JRVirtualizationContext virtualizationContext,
+			StreamCompression compression)
+	{
+		this.arena = arena;
+		this.arenaOwner = arenaOwner;
+		this.spillStoreFactory = spillStoreFactory;
+		this.virtualizationContext = virtualizationContext;
+		this.handles = new ConcurrentHashMap<String,JRSwapFile.SwapHandle>();
+		this.spilledIds = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+		this.compression = compression;
+	}
+	
+	@Override
+	public String toString()
+	{
+		return "OffHeapVirtualizerStore " + arena + " spilling to " 
+				+ (spillStore == null ? spillStoreFactory : spillStore); 
+	}
+	
+	@Override
+	public boolean store(JRVirtualizable<?> o, VirtualizationSerializer serializer)
+	{
+		if (handles.containsKey(o.getUID()) || spilledIds.contains(o.getUID()))
+		{
+			if (log.isTraceEnabled())
+			{
+				log.trace("object " + o.getUID() + " already stored");
+			}
+			return false;
+		}
+		
+		if (arena.isFull())
+		{
+			return spill(o, serializer);
+		}
+		
+		try
+		{
+			ByteArrayOutputStream bout = new ByteArrayOutputStream(3000);
+			OutputStream out = compression == null ? bout : compression.compressedOutput(bout);
+			serializer.writeData(o, out);
+			out.close();
+			
+			byte[] data = bout.toByteArray();
+			JRSwapFile.SwapHandle handle = arena.write(data);
+			if (handle == null)
+			{
+				return spill(o, serializer);
+			}
+			
+			if (log.isTraceEnabled())
+			{
+				log.trace("wrote " + data.length + " for object " + o.getUID() + " to " + arena);
+			}
+			
+			JRSwapFile.SwapHandle existing = handles.putIfAbsent(o.getUID(), handle);
+			if (existing != null)
+			{
+				arena.free(handle);
+				return false;
+			}
+			return true;
+		}
+		catch (IOException e)
+		{
+			log.error("Error virtualizing object " + o.getUID() + " to " + arena, e);
+			throw 
+				new JRRuntimeException(
+					SwapFileVirtualizerStore.EXCEPTION_MESSAGE_KEY_VIRTUALIZING_ERROR,
+					(Object[])null,
+					e);
+		}
+	}
+
+	protected boolean spill(JRVirtualizable<?> o, VirtualizationSerializer serializer)
+	{
+		VirtualizerStore store = getSpillStore();
+		if (log.isTraceEnabled())
+		{
+			log.trace("arena full, spilling object " + o.getUID() + " to " + store);
+		}
+		
+		boolean stored = store.store(o, serializer);
+		// the object is in the spill store even if it was already there
+		spilledIds.add(o.getUID());
+		return stored;
+	}
+
+	protected VirtualizerStore getSpillStore()
+	{
+		VirtualizerStore store = spillStore;
+		if (store == null)
+		{
+			synchronized (this)
+			{
+				store = spillStore;
+				if (store == null)
+				{
+					if (log.isDebugEnabled())
+					{
+						log.debug("creating spill store for " + arena);
+					}
+					
+					store = spillStoreFactory.createStore(virtualizationContext);
+					spillStore = store;
+				}
+			}
+		}
+		return store;
+	}
+	
+	@Override
+	public void retrieve(JRVirtualizable<?> o, boolean remove, VirtualizationSerializer serializer)
+	{
+		JRSwapFile.SwapHandle handle = remove ? handles.remove(o.getUID()) : handles.get(o.getUID());
+		if (handle == null)
+		{
+			// not in the arena
+			VirtualizerStore store = spillStore;
+			if (store == null)
+			{
+				log.error("Object " + o.getUID() + " not found in " + this);
+				throw 
+					new JRRuntimeException(
+						SwapFileVirtualizerStore.EXCEPTION_MESSAGE_KEY_UNABLE_TO_READ_DATA,
+						(Object[])null);
+			}
+			
+			store.retrieve(o, remove, serializer);
+			if (remove)
+			{
+				spilledIds.remove(o.getUID());
+			}
+			return;
+		}
+		
+		try
+		{
+			byte[] data = arena.read(handle, remove);
+			if (log.isTraceEnabled())
+			{
+				log.trace("read " + data.length + " for object " + o.getUID() + " from " + arena);
+			}
+			
+			ByteArrayInputStream rawInput = new ByteArrayInputStream(data);
+			InputStream input = compression == null ? rawInput : compression.uncompressedInput(rawInput);
+			serializer.readData(o, input);
+			input.close();
+		}
+		catch (IOException e)
+		{
+			log.error("Error reading object data " + o.getUID() + " from " + arena, e);
+			throw 
+				new JRRuntimeException(
+					SwapFileVirtualizerStore.EXCEPTION_MESSAGE_KEY_DEVIRTUALIZING_ERROR,
+					(Object[])null,
+					e);
+		}
+	}
+	
+	@Override
+	public void remove(String objectId)
+	{
+		JRSwapFile.SwapHandle handle = handles.remove(objectId);
+		if (handle == null)
+		{
+			VirtualizerStore store = spillStore;
+			if (store != null)
+			{
+				store.remove(objectId);
+			}
+			spilledIds.remove(objectId);
+		}
+		else
+		{
+			if (log.isTraceEnabled())
+			{
+				log.trace("removing object " + objectId + " from " + arena);
+			}
+			
+			arena.free(handle);
+		}
+	}
+
+	/**
+	 * Disposes the arena if this store owns it, and the spill store if it was created.
+	 * @see #OffHeapVirtualizerStore(JRDirectMemoryArena, boolean, VirtualizerStore)
+	 */
+	@Override
+	public void dispose()
+	{
+		if (arenaOwner)
+		{
+			arena.dispose();
+		}
+		else
+		{
+			// give the blocks back to the shared arena
+			for (JRSwapFile.SwapHandle handle : handles.values())
+			{
+				arena.free(handle);
+			}
+		}
+		handles.clear();
+		spilledIds.clear();
+		
+		VirtualizerStore store = spillStore;
+		if (store != null)
+		{
+			store.dispose();
+		}
+	}
+}
@@ -0,0 +1,127 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.util;
+
+import net.sf.jasperreports.engine.fill.JRVirtualizationContext;
+import net.sf.jasperreports.engine.fill.VirtualizerStore;
+import net.sf.jasperreports.engine.fill.VirtualizerStoreFactory;
+
+/**
+ * Factory of {@link OffHeapVirtualizerStore} instances.
+ * <p>
+ * All the created stores share a single {@link JRDirectMemoryArena}, so that
+ * the total off-heap memory used is bounded regardless of the number of report fills.
+ * Objects that do not fit in the arena are sent to stores created by the spill factory,
+ * which defaults to a {@link SwapFileVirtualizerStoreFactory}.
+ */
+public class OffHeapVirtualizerStoreFactory implements VirtualizerStoreFactory
+{
+	private long arenaSize = 64L * 1024 * 1024;//default value
+	private int blockSize = 4096;//default value
+	private int chunkBlockCount = 256;//default value
+	private StreamCompression compression;
+	private VirtualizerStoreFactory spillStoreFactory = new SwapFileVirtualizerStoreFactory();//default value
+	
+	private JRDirectMemoryArena arena;
+	
+	@Override
+	public VirtualizerStore createStore(JRVirtualizationContext virtualizationContext)
+	{
+		// the spill store is created when the arena gets full
+		return new OffHeapVirtualizerStore(getArena(), false, spillStoreFactory, virtualizationContext, compression);
+	}
+
+	protected synchronized JRDirectMemoryArena getArena()
+	{
+		if (arena == null)
+		{
+			arena = new JRDirectMemoryArena(arenaSize, blockSize, chunkBlockCount);
+		}
+		return arena;
+	}
+
+	/**
+	 * Releases the shared arena.
+	 * <p>
+	 * Should be called after all the stores created by this factory have been disposed.
+	 */
+	public synchronized void dispose()
+	{
+		if (arena != null)
+		{
+			arena.dispose();
+			arena = null;
+		}
+	}
+
+	public long getArenaSize()
+	{
+		return arenaSize;
+	}
+
+	public void setArenaSize(long arenaSize)
+	{
+		this.arenaSize = arenaSize;
+	}
+
+	public int getBlockSize()
+	{
+		return blockSize;
+	}
+
+	public void setBlockSize(int blockSize)
+	{
+		this.blockSize = blockSize;
+	}
+
+	public int getChunkBlockCount()
+	{
+		return chunkBlockCount;
+	}
+
+	public void setChunkBlockCount(int chunkBlockCount)
+	{
+		this.chunkBlockCount = chunkBlockCount;
+	}
+
+	public StreamCompression getCompression()
+	{
+		return compression;
+	}
+
+	public void setCompression(StreamCompression compression)
+	{
+		this.compression = compression;
+	}
+
+	public VirtualizerStoreFactory getSpillStoreFactory()
+	{
+		return spillStoreFactory;
+	}
+
+	public void setSpillStoreFactory(VirtualizerStoreFactory spillStoreFactory)
+	{
+		this.spillStoreFactory = spillStoreFactory;
+	}
+}
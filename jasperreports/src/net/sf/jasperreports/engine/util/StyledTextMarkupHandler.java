@@ -0,0 +1,302 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.util;
+
+import java.util.Arrays;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.ext.LexicalHandler;
+import org.xml.sax.helpers.DefaultHandler;
+
+
+/**
+ * SAX handler that collects styled text markup into a compact, reusable node table.
+ * <p>
+ * The nodes are stored in document order in a set of parallel arrays, mirroring the node
+ * types that a non coalescing DOM parser would have produced: adjacent character chunks
+ * are merged into a single text node, while CDATA sections, comments and processing
+ * instructions are kept as separate nodes.
+ * Element children are iterated by jumping from a node to the end of its subtree.
+ * The arrays are kept between parse calls so that parsing a styled text value
+ * does not allocate any tree objects.
+ * 
+ * @see JRStyledTextParser
+ */
+class StyledTextMarkupHandler extends DefaultHandler implements LexicalHandler
+{
+	static final int NODE_ELEMENT = 1;
+	static final int NODE_TEXT = 2;
+	static final int NODE_CDATA = 3;
+	static final int NODE_COMMENT = 4;
+	static final int NODE_PROCESSING_INSTRUCTION = 5;
+	
+	private static final int INITIAL_NODE_CAPACITY = 32;
+	private static final int INITIAL_ATTRIBUTE_CAPACITY = 32;
+	
+	private int nodeCount;
+	private int[] nodeTypes = new int[INITIAL_NODE_CAPACITY];
+	private int[] subtreeEnds = new int[INITIAL_NODE_CAPACITY];
+	private String[] values = new String[INITIAL_NODE_CAPACITY];
+	private int[] attributeStarts = new int[INITIAL_NODE_CAPACITY];
+	private int[] attributeEnds = new int[INITIAL_NODE_CAPACITY];
+	
+	private int attributeCount;
+	private String[] attributes = new String[INITIAL_ATTRIBUTE_CAPACITY];
+	
+	private int depth;
+	private int[] openElements = new int[INITIAL_NODE_CAPACITY];
+	
+	private final StringBuilder text = new StringBuilder();
+	private boolean inCDATA;
+	
+	/**
+	 * Clears the collected nodes, to be called before each parse.
+	 */
+	void reset()
+	{
+		Arrays.fill(values, 0, nodeCount, null);
+		Arrays.fill(attributes, 0, attributeCount, null);
+		nodeCount = 0;
+		attributeCount = 0;
+		depth = 0;
+		text.setLength(0);
+		inCDATA = false;
+	}
+	
+	int getNodeType(int node)
+	{
+		return nodeTypes[node];
+	}
+	
+	/**
+	 * Returns the element name or the text value of a node.
+	 */
+	String getValue(int node)
+	{
+		return values[node];
+	}
+	
+	/**
+	 * Returns the index following the last descendant of a node.
+	 */
+	int getSubtreeEnd(int node)
+	{
+		return subtreeEnds[node];
+	}
+	
+	String getAttribute(int node, String name)
+	{
+		for (int i = attributeStarts[node]; i < attributeEnds[node]; i += 2)
+		{
+			if (name.equals(attributes[i]))
+			{
+				return attributes[i + 1];
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * Returns the value of the first non element node found in the subtree of a node,
+	 * in document order.
+	 */
+	String getFirstTextOccurence(int node)
+	{
+		int end = subtreeEnds[node];
+		for (int i = node; i < end; i++)
+		{
+			if (nodeTypes[i] != NODE_ELEMENT)
+			{
+				return values[i];
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * Returns the concatenated text and CDATA values in the subtree of a node,
+	 * the equivalent of the DOM text content.
+	 */
+	String getTextContent(int node)
+	{
+		if (nodeTypes[node] != NODE_ELEMENT)
+		{
+			return values[node];
+		}
+		
+		int end = subtreeEnds[node];
+		String content = null;
+		StringBuilder sb = null;
+		for (int i = node + 1; i < end; i++)
+		{
+			if (nodeTypes[i] == NODE_TEXT || nodeTypes[i] == NODE_CDATA)
+			{
+				if (content == null)
+				{
+					content = values[i];
+				}
+				else
+				{
+					if (sb == null)
+					{
+						sb = new StringBuilder(content);
+					}
+					sb.append(values[i]);
+				}
+			}
+		}
+		return sb != null ? sb.toString() : (content == null ? "" : content);
+	}
+	
+	@Override
+	public void startElement(String uri, String localName, String qName, Attributes attrs) throws SAXException
+	{
+		flushText();
+		
+		int node = addNode(NODE_ELEMENT, qName);
+		
+		int attrLength = attrs.getLength();
+		ensureAttributeCapacity(attributeCount + 2 * attrLength);
+		attributeStarts[node] = attributeCount;
+		for (int i = 0; i < attrLength; i++)
+		{
+			attributes[attributeCount++] = attrs.getQName(i);
+			attributes[attributeCount++] = attrs.getValue(i);
+		}
+		attributeEnds[node] = attributeCount;
+		
+		if (depth == openElements.length)
+		{
+			openElements = Arrays.copyOf(openElements, 2 * depth);
+		}
+		openElements[depth++] = node;
+	}
+
+	@Override
+	public void endElement(String uri, String localName, String qName) throws SAXException
+	{
+		flushText();
+		
+		int node = openElements[--depth];
+		subtreeEnds[node] = nodeCount;
+	}
+
+	@Override
+	public void characters(char[] ch, int start, int length) throws SAXException
+	{
+		text.append(ch, start, length);
+	}
+
+	@Override
+	public void processingInstruction(String target, String data) throws SAXException
+	{
+		flushText();
+		addNode(NODE_PROCESSING_INSTRUCTION, data);
+	}
+
+	@Override
+	public void startCDATA() throws SAXException
+	{
+		flushText();
+		inCDATA = true;
+	}
+
+	@Override
+	public void endCDATA() throws SAXException
+	{
+		addNode(NODE_CDATA, text.toString());
+		text.setLength(0);
+		inCDATA = false;
+	}
+
+	@Override
+	public void comment(char[] ch, int start, int length) throws SAXException
+	{
+		flushText();
+		addNode(NODE_COMMENT, new String(ch, start, length));
+	}
+
+	@Override
+	public void startDTD(String name, String publicId, String systemId) throws SAXException
+	{
+		// NOP
+	}
+
+	@Override
+	public void endDTD() throws SAXException
+	{
+		// NOP
+	}
+
+	@Override
+	public void startEntity(String name) throws SAXException
+	{
+		// NOP
+	}
+
+	@Override
+	public void endEntity(String name) throws SAXException
+	{
+		// NOP
+	}
+	
+	private void flushText()
+	{
+		if (!inCDATA && text.length() > 0)
+		{
+			addNode(NODE_TEXT, text.toString());
+			text.setLength(0);
+		}
+	}
+	
+	private int addNode(int type, String value)
+	{
+		if (nodeCount == nodeTypes.length)
+		{
+			int capacity = 2 * nodeCount;
+			nodeTypes = Arrays.copyOf(nodeTypes, capacity);
+			subtreeEnds = Arrays.copyOf(subtreeEnds, capacity);
+			values = Arrays.copyOf(values, capacity);
+			attributeStarts = Arrays.copyOf(attributeStarts, capacity);
+			attributeEnds = Arrays.copyOf(attributeEnds, capacity);
+		}
+		
+		int node = nodeCount++;
+		nodeTypes[node] = type;
+		values[node] = value;
+		subtreeEnds[node] = nodeCount;
+		attributeStarts[node] = 0;
+		attributeEnds[node] = 0;
+		return node;
+	}
+	
+	private void ensureAttributeCapacity(int capacity)
+	{
+		if (capacity > attributes.length)
+		{
+			attributes = Arrays.copyOf(attributes, Math.max(capacity, 2 * attributes.length));
+		}
+	}
+}
@@ -23,6 +23,7 @@
  */
 package net.sf.jasperreports.engine.virtualization;
 
+import java.awt.Color;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.sql.Time;
@@ -34,6 +35,15 @@ import java.util.UUID;
 
 import net.sf.jasperreports.engine.JRPrintHyperlinkParameter;
 import net.sf.jasperreports.engine.JRPrintHyperlinkParameters;
+import net.sf.jasperreports.engine.JRPropertiesMap;
+import net.sf.jasperreports.engine.base.JRBaseGenericPrintElement;
+import net.sf.jasperreports.engine.base.JRBasePrintElement;
+import net.sf.jasperreports.engine.base.JRBasePrintEllipse;
+import net.sf.jasperreports.engine.base.JRBasePrintFrame;
+import net.sf.jasperreports.engine.base.JRBasePrintImage;
+import net.sf.jasperreports.engine.base.JRBasePrintLine;
+import net.sf.jasperreports.engine.base.JRBasePrintRectangle;
+import net.sf.jasperreports.engine.base.JRBasePrintText;
 import net.sf.jasperreports.engine.base.VirtualElementsData;
 import net.sf.jasperreports.engine.fill.JREvaluationTime;
 import net.sf.jasperreports.engine.fill.JRRecordedValues;
@@ -86,6 +96,7 @@ public class DefaultSerializerRegistry implements SerializerRegistry
 		addSerializer(java.sql.Date.class, new SqlDateSerializer());
 		addSerializer(Time.class, new TimeSerializer());
 		addSerializer(Timestamp.class, new TimestampSerializer());
+		addSerializer(Color.class, new ColorSerializer());
 		
 		addSerializableType(VirtualElementsData.class, SerializationConstants.OBJECT_TYPE_ELEMENTS_DATA);
 		addSerializableType(JRTemplatePrintElement.class, SerializationConstants.OBJECT_TYPE_TEMPLATE_ELEMENT);
@@ -103,6 +114,16 @@ public class DefaultSerializerRegistry implements SerializerRegistry
 		
 		addSerializableType(JRPrintHyperlinkParameters.class, SerializationConstants.OBJECT_TYPE_HYPERLINK_PARAMETERS);
 		addSerializableType(JRPrintHyperlinkParameter.class, SerializationConstants.OBJECT_TYPE_HYPERLINK_PARAMETER);
+		addSerializableType(JRPropertiesMap.class, SerializationConstants.OBJECT_TYPE_PROPERTIES_MAP);
+		
+		addSerializableType(JRBasePrintElement.class, SerializationConstants.OBJECT_TYPE_BASE_ELEMENT);
+		addSerializableType(JRBasePrintFrame.class, SerializationConstants.OBJECT_TYPE_BASE_FRAME);
+		addSerializableType(JRBasePrintText.class, SerializationConstants.OBJECT_TYPE_BASE_TEXT);
+		addSerializableType(JRBasePrintImage.class, SerializationConstants.OBJECT_TYPE_BASE_IMAGE);
+		addSerializableType(JRBasePrintLine.class, SerializationConstants.OBJECT_TYPE_BASE_LINE);
+		addSerializableType(JRBasePrintRectangle.class, SerializationConstants.OBJECT_TYPE_BASE_RECTANGLE);
+		addSerializableType(JRBasePrintEllipse.class, SerializationConstants.OBJECT_TYPE_BASE_ELLIPSE);
+		addSerializableType(JRBaseGenericPrintElement.class, SerializationConstants.OBJECT_TYPE_BASE_GENERIC);
 
 		addSerializer(JREvaluationTime.class, new EvaluationTimeSerializer());
 		addSerializer(JRRecordedValues.class, new RecordedValuesSerializer());
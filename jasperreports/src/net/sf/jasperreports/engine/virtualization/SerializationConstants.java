@@ -55,6 +55,17 @@ public interface SerializationConstants
 	int OBJECT_TYPE_TIMESTAMP = 0x1D;
 	int OBJECT_TYPE_TIME = 0x1E;
 	
+	int OBJECT_TYPE_PROPERTIES_MAP = 0x20;
+	int OBJECT_TYPE_COLOR = 0x21;
+	int OBJECT_TYPE_BASE_ELEMENT = 0x22;
+	int OBJECT_TYPE_BASE_FRAME = 0x23;
+	int OBJECT_TYPE_BASE_TEXT = 0x24;
+	int OBJECT_TYPE_BASE_IMAGE = 0x25;
+	int OBJECT_TYPE_BASE_LINE = 0x26;
+	int OBJECT_TYPE_BASE_RECTANGLE = 0x27;
+	int OBJECT_TYPE_BASE_ELLIPSE = 0x28;
+	int OBJECT_TYPE_BASE_GENERIC = 0x29;
+	
 	int OBJECT_TYPE_ELEMENTS_DATA = 0x30;
 	int OBJECT_TYPE_TEMPLATE_ELEMENT = 0x31;
 	int OBJECT_TYPE_TEMPLATE_FRAME = 0x32;
@@ -23,8 +23,13 @@
  */
 package net.sf.jasperreports.export;
 
+import net.sf.jasperreports.annotations.properties.Property;
+import net.sf.jasperreports.annotations.properties.PropertyScope;
+import net.sf.jasperreports.engine.JRPropertiesUtil;
 import net.sf.jasperreports.engine.export.JRCsvExporter;
 import net.sf.jasperreports.engine.export.JRCsvMetadataExporter;
+import net.sf.jasperreports.export.annotations.ExporterProperty;
+import net.sf.jasperreports.properties.PropertyConstants;
 
 
 /**
@@ -37,4 +42,32 @@ import net.sf.jasperreports.engine.export.JRCsvMetadataExporter;
  */
 public interface CsvReportConfiguration extends ReportExportConfiguration
 {
+	/**
+	 * Property whose value is used as default for the {@link #isFlatLayout()} export configuration setting.
+	 * The default is <code>false</code>.
+	 * 
+	 * @see JRPropertiesUtil
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_EXPORT,
+			defaultValue = PropertyConstants.BOOLEAN_FALSE,
+			scopes = {PropertyScope.CONTEXT, PropertyScope.REPORT},
+			sinceVersion = PropertyConstants.VERSION_6_4_2,
+			valueType = Boolean.class
+			)
+	public static final String PROPERTY_FLAT_LAYOUT = JRPropertiesUtil.PROPERTY_PREFIX + "export.csv.flat.layout";
+
+	/**
+	 * Specifies whether the {@link JRCsvExporter} should write the rows of a page by sorting its text elements 
+	 * by their position, instead of arranging the page elements in a grid layout.
+	 * The output is the same as the one produced via the grid layout, pages having elements that start
+	 * at the same position or that have no width or height are still exported using the grid layout.
+	 * This setting is not used by the {@link JRCsvMetadataExporter}.
+	 * @see #PROPERTY_FLAT_LAYOUT
+	 */
+	@ExporterProperty(
+		value=PROPERTY_FLAT_LAYOUT, 
+		booleanDefault=false
+		)
+	public Boolean isFlatLayout();
 }
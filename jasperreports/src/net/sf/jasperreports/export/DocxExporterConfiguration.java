@@ -90,6 +90,18 @@ public interface DocxExporterConfiguration extends ExporterConfiguration
 			)
 	public static final String PROPERTY_METADATA_APPLICATION = JRPropertiesUtil.PROPERTY_PREFIX + "export.docx.metadata.application";
 
+	/**
+	 * Property whose value is used as default for the {@link #getLayoutThreads()} export configuration setting.
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_EXPORT,
+			defaultValue = "0",
+			scopes = {PropertyScope.CONTEXT, PropertyScope.REPORT},
+			sinceVersion = PropertyConstants.VERSION_6_4_2,
+			valueType = Integer.class
+			)
+	public static final String PROPERTY_LAYOUT_THREADS = JRPropertiesUtil.PROPERTY_PREFIX + "export.docx.layout.threads";
+
 	/**
 	 * The Title of the DOCX document.
 	 */
@@ -119,4 +131,21 @@ public interface DocxExporterConfiguration extends ExporterConfiguration
 	 */
 	@ExporterProperty(PROPERTY_METADATA_APPLICATION)
 	public String getMetadataApplication();
+
+	/**
+	 * Specifies the maximum number of threads, taken from a pool shared by all exports, that create
+	 * the grid layouts of the next pages while the current page is being written.
+	 * <p>
+	 * The DOCX document is written sequentially, in page order.
+	 * Laying out pages ahead is only done for documents that are not virtualized and
+	 * when no exporter filter is used.
+	 * A value of 0 (the default) disables laying out pages ahead.
+	 * </p>
+	 * @see #PROPERTY_LAYOUT_THREADS
+	 */
+	@ExporterProperty(
+		value=PROPERTY_LAYOUT_THREADS, 
+		intDefault=0
+		)
+	public Integer getLayoutThreads();
 }
@@ -60,6 +60,19 @@ public interface HtmlExporterConfiguration extends ExporterConfiguration
 	public static final String PROPERTY_FLUSH_OUTPUT = JRPropertiesUtil.PROPERTY_PREFIX + "export.html.flush.output";
 
 
+	/**
+	 * Property that provides the default value for the {@link #getFlushRowInterval()} export configuration setting.
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_EXPORT,
+			defaultValue = "0",
+			scopes = {PropertyScope.CONTEXT, PropertyScope.REPORT},
+			sinceVersion = PropertyConstants.VERSION_6_4_2,
+			valueType = Integer.class
+			)
+	public static final String PROPERTY_FLUSH_ROW_INTERVAL = JRPropertiesUtil.PROPERTY_PREFIX + "export.html.flush.row.interval";
+
+
 	/**
 	 * Property that provides the default value for the {@link #getHtmlHeader()} export configuration setting.
 	 */
@@ -148,4 +161,22 @@ public interface HtmlExporterConfiguration extends ExporterConfiguration
 		booleanDefault=true
 		)
 	public Boolean isFlushOutput();
+	
+	
+	/**
+	 * Specifies the number of page table rows after which the HTML exporter flushes the output writer.
+	 * <p>
+	 * Flushing the writer while a page is exported allows the HTML of large pages, such as the single page
+	 * of a report filled with pagination ignored, to be sent to the browser in blocks while the rest of
+	 * the page is being written.
+	 * If the exporter output implements {@link ChunkedHtmlExporterOutput}, it is notified after each flush.
+	 * A value of 0 (the default) disables flushing during page export.
+	 * </p>
+	 * @see #PROPERTY_FLUSH_ROW_INTERVAL
+	 */
+	@ExporterProperty(
+		value=PROPERTY_FLUSH_ROW_INTERVAL, 
+		intDefault=0
+		)
+	public Integer getFlushRowInterval();
 }
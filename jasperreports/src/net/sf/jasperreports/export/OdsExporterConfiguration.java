@@ -23,7 +23,12 @@
  */
 package net.sf.jasperreports.export;
 
+import net.sf.jasperreports.annotations.properties.Property;
+import net.sf.jasperreports.annotations.properties.PropertyScope;
+import net.sf.jasperreports.engine.JRPropertiesUtil;
 import net.sf.jasperreports.engine.export.oasis.JROdsExporter;
+import net.sf.jasperreports.export.annotations.ExporterProperty;
+import net.sf.jasperreports.properties.PropertyConstants;
 
 
 /**
@@ -35,4 +40,32 @@ import net.sf.jasperreports.engine.export.oasis.JROdsExporter;
  */
 public interface OdsExporterConfiguration extends XlsExporterConfiguration
 {
+	/**
+	 * Property whose value is used as default for the {@link #getLayoutThreads()} export configuration setting.
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_EXPORT,
+			defaultValue = "0",
+			scopes = {PropertyScope.CONTEXT, PropertyScope.REPORT},
+			sinceVersion = PropertyConstants.VERSION_6_4_2,
+			valueType = Integer.class
+			)
+	public static final String PROPERTY_LAYOUT_THREADS = JRPropertiesUtil.PROPERTY_PREFIX + "export.ods.layout.threads";
+
+	/**
+	 * Specifies the maximum number of threads, taken from a pool shared by all exports, that create
+	 * the grid layouts of the next pages while the current page is being written.
+	 * <p>
+	 * The ODS document is written sequentially, in page order.
+	 * Laying out pages ahead is only done for documents that are not virtualized and
+	 * when no exporter filter is used, and only for reports exported with one page per sheet.
+	 * A value of 0 (the default) disables laying out pages ahead.
+	 * </p>
+	 * @see #PROPERTY_LAYOUT_THREADS
+	 */
+	@ExporterProperty(
+		value=PROPERTY_LAYOUT_THREADS, 
+		intDefault=0
+		)
+	public Integer getLayoutThreads();
 }
@@ -324,6 +324,18 @@ public interface PdfExporterConfiguration extends ExporterConfiguration
 			)
 	public static final String PROPERTY_DISPLAY_METADATA_TITLE = JRPropertiesUtil.PROPERTY_PREFIX + "export.pdf.display.metadata.title";
 
+	/**
+	 * Property whose value is used as default for the {@link #getImagePrefetchThreads()} export configuration setting.
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_EXPORT,
+			defaultValue = "0",
+			scopes = {PropertyScope.CONTEXT, PropertyScope.REPORT},
+			sinceVersion = PropertyConstants.VERSION_6_4_2,
+			valueType = Integer.class
+			)
+	public static final String PROPERTY_IMAGE_PREFETCH_THREADS = JRPropertiesUtil.PROPERTY_PREFIX + "export.pdf.image.prefetch.threads";
+
 	/**
 	 * Property that determines whether justified text alignment can modify letter spacing in words.
 	 * 
@@ -606,4 +618,23 @@ public interface PdfExporterConfiguration extends ExporterConfiguration
 		booleanDefault=false
 		)
 	public Boolean isDisplayMetadataTitle();
+	
+	/**
+	 * Specifies the number of worker threads that decode the images of the next pages 
+	 * while the current page is being written.
+	 * <p>
+	 * The PDF document is written sequentially, but the images needed by the next pages
+	 * are decoded concurrently so that the writer does not wait for them.
+	 * The workers are taken from a thread pool shared by all exports, which is sized after the
+	 * number of available processors, so this setting limits the number of pool threads an export
+	 * uses at a time.
+	 * A value of 0 (the default) disables image prefetching.
+	 * </p>
+	 * @see #PROPERTY_IMAGE_PREFETCH_THREADS
+	 */
+	@ExporterProperty(
+		value=PROPERTY_IMAGE_PREFETCH_THREADS, 
+		intDefault=0
+		)
+	public Integer getImagePrefetchThreads();
 }
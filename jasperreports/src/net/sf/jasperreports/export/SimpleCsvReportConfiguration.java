@@ -29,4 +29,26 @@ package net.sf.jasperreports.export;
  */
 public class SimpleCsvReportConfiguration extends SimpleReportExportConfiguration implements CsvReportConfiguration
 {
+	private Boolean flatLayout;
+
+	/**
+	 * 
+	 */
+	public SimpleCsvReportConfiguration()
+	{
+	}
+
+	@Override
+	public Boolean isFlatLayout()
+	{
+		return flatLayout;
+	}
+
+	/**
+	 * 
+	 */
+	public void setFlatLayout(Boolean flatLayout)
+	{
+		this.flatLayout = flatLayout;
+	}
 }
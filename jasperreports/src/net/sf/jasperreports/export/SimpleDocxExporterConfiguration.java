@@ -34,6 +34,7 @@ public class SimpleDocxExporterConfiguration extends SimpleExporterConfiguration
 	private String metadataSubject;
 	private String metadataKeywords;
 	private String metadataApplication;
+	private Integer layoutThreads;
 	
 	@Override
 	public String getMetadataTitle()
@@ -104,4 +105,18 @@ public class SimpleDocxExporterConfiguration extends SimpleExporterConfiguration
 	{
 		this.metadataApplication = metadataApplication;
 	}
+	
+	@Override
+	public Integer getLayoutThreads()
+	{
+		return layoutThreads;
+	}
+	
+	/**
+	 * 
+	 */
+	public void setLayoutThreads(Integer layoutThreads)
+	{
+		this.layoutThreads = layoutThreads;
+	}
 }
@@ -34,6 +34,7 @@ public class SimpleHtmlExporterConfiguration extends SimpleExporterConfiguration
 	private String betweenPagesHtml;
 	private String htmlFooter;
 	private Boolean flushOutput;
+	private Integer flushRowInterval;
 
 	
 	/**
@@ -98,4 +99,18 @@ public class SimpleHtmlExporterConfiguration extends SimpleExporterConfiguration
 	{
 		this.flushOutput = flushOutput;
 	}
+	
+	@Override
+	public Integer getFlushRowInterval()
+	{
+		return flushRowInterval;
+	}
+	
+	/**
+	 * 
+	 */
+	public void setFlushRowInterval(Integer flushRowInterval)
+	{
+		this.flushRowInterval = flushRowInterval;
+	}
 }
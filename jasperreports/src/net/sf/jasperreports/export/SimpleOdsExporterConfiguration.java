@@ -29,4 +29,19 @@ package net.sf.jasperreports.export;
  */
 public class SimpleOdsExporterConfiguration extends AbstractXlsExporterConfiguration implements OdsExporterConfiguration
 {
+	private Integer layoutThreads;
+	
+	@Override
+	public Integer getLayoutThreads()
+	{
+		return layoutThreads;
+	}
+	
+	/**
+	 * 
+	 */
+	public void setLayoutThreads(Integer layoutThreads)
+	{
+		this.layoutThreads = layoutThreads;
+	}
 }
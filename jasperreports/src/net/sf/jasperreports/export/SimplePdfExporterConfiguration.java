@@ -55,6 +55,7 @@ public class SimplePdfExporterConfiguration extends SimpleExporterConfiguration
 	private String metadataKeywords;
 	private String metadataCreator;
 	private Boolean displayMetadataTitle;
+	private Integer imagePrefetchThreads;
 
 	
 	/**
@@ -369,4 +370,18 @@ public class SimplePdfExporterConfiguration extends SimpleExporterConfiguration
 	public void setDisplayMetadataTitle(Boolean displayMetadataTitle) {
 		this.displayMetadataTitle = displayMetadataTitle;
 	}
+
+	@Override
+	public Integer getImagePrefetchThreads()
+	{
+		return imagePrefetchThreads;
+	}
+
+	/**
+	 * 
+	 */
+	public void setImagePrefetchThreads(Integer imagePrefetchThreads)
+	{
+		this.imagePrefetchThreads = imagePrefetchThreads;
+	}
 }
@@ -30,6 +30,7 @@ package net.sf.jasperreports.export;
 public class SimpleXlsxExporterConfiguration extends SimpleXlsExporterConfiguration implements XlsxExporterConfiguration
 {
 	private String macroTemplate;
+	private Boolean streaming;
 	
 	/**
 	 * 
@@ -51,4 +52,18 @@ public class SimpleXlsxExporterConfiguration extends SimpleXlsExporterConfigurat
 	{
 		this.macroTemplate = macroTemplate;
 	}
+
+	@Override
+	public Boolean isStreaming()
+	{
+		return streaming;
+	}
+
+	/**
+	 * 
+	 */
+	public void setStreaming(Boolean streaming)
+	{
+		this.streaming = streaming;
+	}
 }
@@ -54,6 +54,20 @@ public interface XlsxExporterConfiguration extends XlsExporterConfiguration
 			)
 	public static final String PROPERTY_MACRO_TEMPLATE = JRPropertiesUtil.PROPERTY_PREFIX + "export.xlsx.macro.template";
 
+	/**
+	 * Property used to provide a default value for the {@link #isStreaming()} export configuration flag.
+	 * 
+	 * @see JRPropertiesUtil
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_EXPORT,
+			defaultValue = PropertyConstants.BOOLEAN_FALSE,
+			scopes = {PropertyScope.CONTEXT, PropertyScope.REPORT},
+			sinceVersion = PropertyConstants.VERSION_6_4_2,
+			valueType = Boolean.class
+			)
+	public static final String PROPERTY_STREAMING = JRPropertiesUtil.PROPERTY_PREFIX + "export.xlsx.streaming";
+
 	/**
 	 * Specifies the location of an existing workbook template containing a macro object. 
 	 * The macro object will be copied into the generated document if the template location is valid. 
@@ -64,4 +78,18 @@ public interface XlsxExporterConfiguration extends XlsExporterConfiguration
 	@ExporterProperty(PROPERTY_MACRO_TEMPLATE)
 	public String getMacroTemplate();
 
+	/**
+	 * Specifies whether the workbook should be written to the output as the sheets are completed.
+	 * In streaming mode, the content of each sheet is written directly to the output document, 
+	 * and the workbook, styles and other document wide parts are written at the end.
+	 * This reduces the size of the temporary buffers and the time until the first bytes are sent to 
+	 * the output, at the cost of a different order of the parts in the document archive.
+	 * @see #PROPERTY_STREAMING
+	 */
+	@ExporterProperty(
+		value=PROPERTY_STREAMING, 
+		booleanDefault=false
+		)
+	public Boolean isStreaming();
+
 }
@@ -0,0 +1,302 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.repo;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import net.sf.jasperreports.annotations.properties.Property;
+import net.sf.jasperreports.annotations.properties.PropertyScope;
+import net.sf.jasperreports.engine.JRPropertiesUtil;
+import net.sf.jasperreports.engine.JRRuntimeException;
+import net.sf.jasperreports.engine.JasperReportsContext;
+import net.sf.jasperreports.engine.util.Pair;
+import net.sf.jasperreports.properties.PropertyConstants;
+
+
+/**
+ * Process wide cache of objects loaded from repository locations, such as subreports
+ * and style templates, shared by all report fills.
+ * <p>
+ * Entries are keyed by the object type and the repository location, and are validated
+ * using a digest of the location contents, so that a changed resource is loaded again.
+ * The number of entries is bounded by {@link #PROPERTY_MAX_ENTRIES}; when the limit
+ * is exceeded the least recently used entries are evicted.
+ * </p>
+ * <p>
+ * Cached objects are shared between concurrent fills and must not be modified.
+ * </p>
+ */
+public final class RepositoryResourceCache
+{
+	
+	private static final Log log = LogFactory.getLog(RepositoryResourceCache.class);
+	
+	public static final String EXCEPTION_MESSAGE_KEY_DIGEST_ALGORITHM_NOT_AVAILABLE = "repo.resource.cache.digest.algorithm.not.available";
+	
+	/**
+	 * Property that specifies the maximum number of objects kept in the shared repository
+	 * resource cache.
+	 * <p>
+	 * The default value is 0, which means that the cache is not used.
+	 * </p>
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_REPOSITORY,
+			defaultValue = "0",
+			scopes = {PropertyScope.CONTEXT},
+			sinceVersion = PropertyConstants.VERSION_6_4_2,
+			valueType = Integer.class
+			)
+	public static final String PROPERTY_MAX_ENTRIES = JRPropertiesUtil.PROPERTY_PREFIX + "repository.resource.cache.max.entries";
+	
+	private static final String DIGEST_ALGORITHM = "SHA-1";
+	
+	private static final RepositoryResourceCache INSTANCE = new RepositoryResourceCache();
+	
+	/**
+	 * Returns the process wide cache instance.
+	 */
+	public static RepositoryResourceCache getInstance()
+	{
+		return INSTANCE;
+	}
+	
+	private final LinkedHashMap<Pair<Class<?>, String>, CacheEntry> entries;
+	private final AtomicLong hitCount = new AtomicLong();
+	private final AtomicLong missCount = new AtomicLong();
+	private final AtomicLong evictionCount = new AtomicLong();
+	
+	private RepositoryResourceCache()
+	{
+		entries = new LinkedHashMap<Pair<Class<?>, String>, CacheEntry>(16, 0.75f, true);
+	}
+	
+	/**
+	 * Returns the maximum number of entries configured in a context.
+	 * 
+	 * @param jasperReportsContext the context
+	 * @return the configured maximum number of entries, 0 if the cache is not to be used
+	 * @see #PROPERTY_MAX_ENTRIES
+	 */
+	public static int getMaxEntries(JasperReportsContext jasperReportsContext)
+	{
+		String value = JRPropertiesUtil.getInstance(jasperReportsContext).getProperty(PROPERTY_MAX_ENTRIES);
+		return value == null ? 0 : JRPropertiesUtil.asInteger(value);
+	}
+	
+	/**
+	 * Determines whether the cache is to be used in a context.
+	 * 
+	 * @param jasperReportsContext the context
+	 * @return whether a positive maximum number of entries has been configured
+	 */
+	public static boolean isEnabled(JasperReportsContext jasperReportsContext)
+	{
+		return getMaxEntries(jasperReportsContext) > 0;
+	}
+	
+	/**
+	 * Looks up a cached object.
+	 * 
+	 * @param type the object type
+	 * @param location the repository location from which the object was loaded
+	 * @param digest the digest of the current location contents
+	 * @return the cached object, or <code>null</code> if there is no object cached for
+	 * the location or if it was loaded from different contents
+	 */
+	public <T> T get(Class<T> type, String location, byte[] digest)
+	{
+		Pair<Class<?>, String> key = new Pair<Class<?>, String>(type, location);
+		CacheEntry entry;
+		synchronized (entries)
+		{
+			entry = entries.get(key);
+			if (entry != null && !Arrays.equals(entry.digest, digest))
+			{
+				if (log.isDebugEnabled())
+				{
+					log.debug("contents of " + location + " changed, discarding cached " + type.getName());
+				}
+				
+				entries.remove(key);
+				entry = null;
+			}
+		}
+		
+		if (entry == null)
+		{
+			missCount.incrementAndGet();
+			return null;
+		}
+		
+		hitCount.incrementAndGet();
+		return type.cast(entry.value);
+	}
+	
+	/**
+	 * Adds an object to the cache.
+	 * 
+	 * @param jasperReportsContext the context used to read the maximum number of entries
+	 * @param type the object type
+	 * @param location the repository location from which the object was loaded
+	 * @param digest the digest of the location contents
+	 * @param value the object
+	 */
+	public <T> void put(JasperReportsContext jasperReportsContext, Class<T> type, String location, byte[] digest, T value)
+	{
+		int maxEntries = getMaxEntries(jasperReportsContext);
+		if (maxEntries <= 0)
+		{
+			return;
+		}
+		
+		Pair<Class<?>, String> key = new Pair<Class<?>, String>(type, location);
+		synchronized (entries)
+		{
+			entries.put(key, new CacheEntry(digest, value));
+			
+			int evicted = 0;
+			for (Iterator<Map.Entry<Pair<Class<?>, String>, CacheEntry>> it = entries.entrySet().iterator(); 
+					entries.size() > maxEntries && it.hasNext();)
+			{
+				Map.Entry<Pair<Class<?>, String>, CacheEntry> eldest = it.next();
+				if (log.isDebugEnabled())
+				{
+					log.debug("evicting cached " + eldest.getKey().first().getName() + " from " + eldest.getKey().second());
+				}
+				
+				it.remove();
+				++evicted;
+			}
+			
+			if (evicted > 0)
+			{
+				evictionCount.addAndGet(evicted);
+			}
+		}
+	}
+	
+	/**
+	 * Removes all the objects from the cache.
+	 */
+	public void clear()
+	{
+		synchronized (entries)
+		{
+			entries.clear();
+		}
+	}
+	
+	/**
+	 * Returns the number of objects currently cached.
+	 */
+	public int size()
+	{
+		synchronized (entries)
+		{
+			return entries.size();
+		}
+	}
+	
+	/**
+	 * Returns the number of lookups that found a cached object.
+	 */
+	public long getHitCount()
+	{
+		return hitCount.get();
+	}
+	
+	/**
+	 * Returns the number of lookups that did not find a cached object.
+	 */
+	public long getMissCount()
+	{
+		return missCount.get();
+	}
+	
+	/**
+	 * Returns the number of objects evicted because the cache was full.
+	 */
+	public long getEvictionCount()
+	{
+		return evictionCount.get();
+	}
+	
+	/**
+	 * Computes the digest of resource data.
+	 * 
+	 * @param data the resource data
+	 * @return the data digest
+	 */
+	public static byte[] digest(byte[] data)
+	{
+		return createDigest().digest(data);
+	}
+	
+	protected static MessageDigest createDigest()
+	{
+		try
+		{
+			return MessageDigest.getInstance(DIGEST_ALGORITHM);
+		}
+		catch (NoSuchAlgorithmException e)
+		{
+			throw 
+				new JRRuntimeException(
+					EXCEPTION_MESSAGE_KEY_DIGEST_ALGORITHM_NOT_AVAILABLE,
+					new Object[]{DIGEST_ALGORITHM},
+					e);
+		}
+	}
+	
+	@Override
+	public String toString()
+	{
+		return "RepositoryResourceCache{size: " + size()
+				+ ", hits: " + hitCount.get()
+				+ ", misses: " + missCount.get()
+				+ ", evictions: " + evictionCount.get() + "}";
+	}
+	
+	private static class CacheEntry
+	{
+		private final byte[] digest;
+		private final Object value;
+		
+		public CacheEntry(byte[] digest, Object value)
+		{
+			this.digest = digest;
+			this.value = value;
+		}
+	}
+}
@@ -26,6 +26,7 @@ package net.sf.jasperreports.repo;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.security.MessageDigest;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -109,16 +110,32 @@ public final class RepositoryUtil
 
 		if (jasperReport == null)
 		{
-			ReportResource resource = getResourceFromLocation(location, ReportResource.class);
-			if (resource == null)
+			RepositoryResourceCache sharedCache = RepositoryResourceCache.getInstance();
+			byte[] digest = RepositoryResourceCache.isEnabled(jasperReportsContext) 
+					? getContentDigest(location) : null;
+			if (digest != null)
 			{
-				throw 
-					new JRException(
-						EXCEPTION_MESSAGE_KEY_REPORT_NOT_FOUND,
-						new Object[]{location});
+				jasperReport = sharedCache.get(JasperReport.class, location, digest);
 			}
+			
+			if (jasperReport == null)
+			{
+				ReportResource resource = getResourceFromLocation(location, ReportResource.class);
+				if (resource == null)
+				{
+					throw 
+						new JRException(
+							EXCEPTION_MESSAGE_KEY_REPORT_NOT_FOUND,
+							new Object[]{location});
+				}
 
-			jasperReport = resource.getReport();
+				jasperReport = resource.getReport();
+				
+				if (digest != null)
+				{
+					sharedCache.put(jasperReportsContext, JasperReport.class, location, digest, jasperReport);
+				}
+			}
 
 			if (cache != null)
 			{
@@ -198,6 +215,54 @@ public final class RepositoryUtil
 	}
 	
 	
+	/**
+	 * Computes the digest of the data found at a location.
+	 * 
+	 * @param location the resource location
+	 * @return the data digest, or <code>null</code> if the location cannot be read as a stream
+	 * @see RepositoryResourceCache
+	 */
+	public byte[] getContentDigest(String location) throws JRException
+	{
+		InputStream is = findInputStream(location);
+		if (is == null)
+		{
+			return null;
+		}
+		
+		MessageDigest digest = RepositoryResourceCache.createDigest();
+		try
+		{
+			byte[] bytes = new byte[10000];
+			int ln = 0;
+			while ((ln = is.read(bytes)) > 0)
+			{
+				digest.update(bytes, 0, ln);
+			}
+		}
+		catch (IOException e)
+		{
+			throw 
+				new JRException(
+					EXCEPTION_MESSAGE_KEY_BYTE_DATA_LOADING_ERROR,
+					new Object[]{location},
+					e);
+		}
+		finally
+		{
+			try
+			{
+				is.close();
+			}
+			catch(IOException e)
+			{
+			}
+		}
+		
+		return digest.digest();
+	}
+	
+	
 	/**
 	 *
 	 */
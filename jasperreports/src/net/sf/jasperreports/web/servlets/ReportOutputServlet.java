@@ -34,6 +34,9 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
 import net.sf.jasperreports.engine.JRConstants;
 import net.sf.jasperreports.engine.JRException;
 import net.sf.jasperreports.engine.JRRuntimeException;
@@ -60,6 +63,8 @@ public class ReportOutputServlet extends AbstractServlet
 {
 	private static final long serialVersionUID = JRConstants.SERIAL_VERSION_UID;
 	
+	private static final Log log = LogFactory.getLog(ReportOutputServlet.class);
+	
 	private static final String TEMPLATE_HEADER= "net/sf/jasperreports/web/servlets/resources/templates/HeaderTemplate.vm";
 	private static final String TEMPLATE_BETWEEN_PAGES= "net/sf/jasperreports/web/servlets/resources/templates/BetweenPagesTemplate.vm";
 	private static final String TEMPLATE_FOOTER= "net/sf/jasperreports/web/servlets/resources/templates/FooterTemplate.vm";
@@ -92,6 +97,12 @@ public class ReportOutputServlet extends AbstractServlet
 				}
 				catch (JRException e) 
 				{
+					if (response.isCommitted())
+					{
+						committedResponseError(e);
+						return;
+					}
+					
 					response.setContentType(JSON_CONTENT_TYPE);//FIXMEJIVE probably can't change contentType at this point, because getWriter() was already called once
 					response.setStatus(404);
 					response.getWriter().println("{\"msg\": \"JasperReports encountered an error!\"}");
@@ -99,6 +110,12 @@ public class ReportOutputServlet extends AbstractServlet
 				}
 				catch (Exception e)
 				{
+					if (response.isCommitted())
+					{
+						committedResponseError(e);
+						return;
+					}
+					
 					response.setContentType(JSON_CONTENT_TYPE);//FIXMEJIVE probably can't change contentType at this point, because getWriter() was already called once
 					response.setStatus(404);
 					out.println("{\"msg\": \"JasperReports encountered an error on report rendering!\"");
@@ -136,6 +153,19 @@ public class ReportOutputServlet extends AbstractServlet
 	}
 
 
+	/**
+	 * Called when the report rendering fails after part of the report HTML has been sent,
+	 * which happens when the HTML output is flushed at row intervals.
+	 * The error status and message can no longer be sent at that point.
+	 * 
+	 * @see net.sf.jasperreports.export.HtmlExporterConfiguration#getFlushRowInterval()
+	 */
+	protected void committedResponseError(Exception e)
+	{
+		log.error("Error rendering report after the response was committed", e);
+	}
+
+
 	/**
 	 * 
 	 */
@@ -0,0 +1,135 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.components.table;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.UUID;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import net.sf.jasperreports.components.table.fill.FillColumn;
+import net.sf.jasperreports.components.table.fill.TableReport;
+import net.sf.jasperreports.components.table.fill.TableReportCache;
+import net.sf.jasperreports.components.table.fill.TableReportCache.CachedTableReport;
+import net.sf.jasperreports.components.table.fill.TableReportCache.Key;
+import net.sf.jasperreports.engine.DefaultJasperReportsContext;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperCompileManager;
+import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.JasperReportsContext;
+import net.sf.jasperreports.engine.SimpleJasperReportsContext;
+import net.sf.jasperreports.engine.design.JasperDesign;
+import net.sf.jasperreports.engine.util.LocalJasperReportsContext;
+
+/**
+ * Tests for {@link TableReportCache}.
+ */
+public class TableReportCacheTest
+{
+	
+	@BeforeMethod
+	public void clearCache()
+	{
+		TableReportCache.getInstance().clear();
+	}
+	
+	@Test
+	public void keys()
+	{
+		JasperReportsContext context = DefaultJasperReportsContext.getInstance();
+		UUID uuid = UUID.randomUUID();
+		TimeZone gmt = TimeZone.getTimeZone("GMT");
+		List<FillColumn> columns = Arrays.asList(column(10), column(20));
+		
+		Key key = new Key(uuid, columns, context, gmt, null);
+		assert key.equals(new Key(uuid, columns, context, TimeZone.getTimeZone("GMT"), null));
+		assert key.hashCode() == new Key(uuid, columns, context, gmt, null).hashCode();
+		
+		assert !key.equals(new Key(UUID.randomUUID(), columns, context, gmt, null));
+		assert !key.equals(new Key(uuid, columns.subList(0, 1), context, gmt, null));
+		assert !key.equals(new Key(uuid, columns, new SimpleJasperReportsContext(), gmt, null));
+		assert !key.equals(new Key(uuid, columns, context, TimeZone.getTimeZone("GMT+1"), null));
+		assert !key.equals(new Key(uuid, columns, context, gmt, gmt));
+	}
+	
+	@Test
+	public void localContexts()
+	{
+		JasperReportsContext context = DefaultJasperReportsContext.getInstance();
+		UUID uuid = UUID.randomUUID();
+		List<FillColumn> columns = Arrays.asList(column(10));
+		Key key = new Key(uuid, columns, context, null, null);
+		
+		// contexts created per fill for class loaders and file resolvers
+		LocalJasperReportsContext localContext = new LocalJasperReportsContext(context);
+		localContext.setClassLoader(getClass().getClassLoader());
+		assert key.equals(new Key(uuid, columns, localContext, null, null));
+		assert key.hashCode() == new Key(uuid, columns, localContext, null, null).hashCode();
+		assert key.equals(new Key(uuid, columns, new LocalJasperReportsContext(localContext), null, null));
+		
+		LocalJasperReportsContext propertiesContext = new LocalJasperReportsContext(context);
+		propertiesContext.setProperty(TableReport.PROPERTY_FLOATING_HEADER, "false");
+		assert !key.equals(new Key(uuid, columns, propertiesContext, null, null));
+	}
+	
+	@Test
+	public void reports() throws JRException
+	{
+		TableReportCache cache = TableReportCache.getInstance();
+		JasperReport report = compileReport("report");
+		JasperReport otherReport = compileReport("other");
+		Key key = new Key(UUID.randomUUID(), Arrays.asList(column(10)), 
+				DefaultJasperReportsContext.getInstance(), null, null);
+		
+		assert cache.get(report, key) == null;
+		
+		CachedTableReport tableReport = new CachedTableReport(null, null);
+		assert cache.put(report, key, tableReport) == tableReport;
+		assert cache.get(report, key) == tableReport;
+		assert cache.get(otherReport, key) == null;
+		
+		assert cache.put(report, key, new CachedTableReport(null, null)) == tableReport;
+		assert cache.get(report, key) == tableReport;
+		
+		cache.clear();
+		assert cache.get(report, key) == null;
+	}
+	
+	protected FillColumn column(int width)
+	{
+		StandardColumn column = new StandardColumn();
+		column.setWidth(width);
+		return new FillColumn(column, null);
+	}
+	
+	protected JasperReport compileReport(String name) throws JRException
+	{
+		JasperDesign design = new JasperDesign();
+		design.setName(name);
+		return JasperCompileManager.compileReport(design);
+	}
+}
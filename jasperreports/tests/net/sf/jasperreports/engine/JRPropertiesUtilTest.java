@@ -0,0 +1,327 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine;
+
+import java.util.List;
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+import net.sf.jasperreports.engine.design.JRDesignDataset;
+import net.sf.jasperreports.engine.util.LocalJasperReportsContext;
+
+/**
+ * Tests for the resolved property cache used by {@link JRPropertiesUtil}.
+ */
+public class JRPropertiesUtilTest
+{
+
+	private static final String KEY = "net.sf.jasperreports.test.properties.util.key";
+
+	@Test
+	public void contextChanges()
+	{
+		SimpleJasperReportsContext parent = new SimpleJasperReportsContext();
+		SimpleJasperReportsContext context = new SimpleJasperReportsContext(parent);
+		context.setPropertiesCacheEnabled(true);
+		JRPropertiesUtil util = JRPropertiesUtil.getInstance(context);
+		assert ResolvedPropertiesCache.forContext(context) != null;
+
+		assert util.getProperty(KEY) == null;
+		assert util.getIntegerProperty(KEY, 5) == 5;
+		assert !util.getBooleanProperty(KEY);
+
+		parent.setProperty(KEY, "12");
+		assert "12".equals(util.getProperty(KEY));
+		assert util.getIntegerProperty(KEY) == 12;
+		assert util.getIntegerProperty(KEY, 5) == 12;
+
+		context.setProperty(KEY, " true ");
+		assert util.getBooleanProperty(KEY);
+		assert util.getBooleanProperty(KEY, false);
+
+		context.removeProperty(KEY);
+		assert util.getIntegerProperty(KEY) == 12;
+
+		parent.removeProperty(KEY);
+		assert util.getProperty(KEY) == null;
+		assert util.getBooleanProperty(KEY, true);
+
+		SimpleJasperReportsContext otherParent = new SimpleJasperReportsContext();
+		otherParent.setProperty(KEY, "7");
+		context.setParent(otherParent);
+		assert util.getIntegerProperty(KEY) == 7;
+	}
+
+	@Test
+	public void contextVersions()
+	{
+		SimpleJasperReportsContext parent = new SimpleJasperReportsContext();
+		parent.setProperty(KEY, "1");
+		SimpleJasperReportsContext context = new SimpleJasperReportsContext(parent);
+		context.setPropertiesCacheEnabled(true);
+		ResolvedPropertiesCache cache = ResolvedPropertiesCache.forContext(context);
+		ResolvedPropertiesCache.ResolvedProperty property = cache.get(KEY);
+		assert "1".equals(property.getValue());
+
+		// changes in unrelated contexts do not discard the cached values
+		SimpleJasperReportsContext unrelated = new SimpleJasperReportsContext(parent);
+		unrelated.setProperty(KEY, "2");
+		assert cache.get(KEY) == property;
+
+		parent.setProperty(KEY, "3");
+		assert "3".equals(cache.get(KEY).getValue());
+	}
+
+	@Test
+	public void disabledCache()
+	{
+		SimpleJasperReportsContext context = new SimpleJasperReportsContext();
+		assert !context.isPropertiesCacheEnabled();
+		assert ResolvedPropertiesCache.forContext(context) == null;
+
+		// changes made directly to the properties map are seen when the cache is not enabled
+		context.setProperty(KEY, "1");
+		JRPropertiesUtil util = JRPropertiesUtil.getInstance(context);
+		assert util.getIntegerProperty(KEY) == 1;
+		context.getPropertiesMap().put(KEY, "2");
+		assert util.getIntegerProperty(KEY) == 2;
+
+		context.setPropertiesCacheEnabled(true);
+		assert util.getIntegerProperty(KEY) == 2;
+	}
+
+	@Test
+	public void holderProperties()
+	{
+		SimpleJasperReportsContext context = new SimpleJasperReportsContext();
+		context.setPropertiesCacheEnabled(true);
+		context.setProperty(KEY, "3");
+		JRPropertiesUtil util = JRPropertiesUtil.getInstance(context);
+
+		JRDesignDataset dataset = new JRDesignDataset(true);
+		assert util.getIntegerProperty(dataset, KEY, 0) == 3;
+		assert util.getIntegerProperty(dataset.getPropertiesMap(), KEY, 0) == 3;
+
+		dataset.getPropertiesMap().setProperty(KEY, "4");
+		assert util.getIntegerProperty(dataset, KEY, 0) == 4;
+		assert util.getIntegerProperty(dataset.getPropertiesMap(), KEY, 0) == 4;
+		assert "4".equals(util.getProperty(dataset, KEY));
+	}
+
+	@Test
+	public void holderChain()
+	{
+		SimpleJasperReportsContext context = new SimpleJasperReportsContext();
+		context.setPropertiesCacheEnabled(true);
+		context.setProperty(KEY, "1");
+		JRPropertiesUtil util = JRPropertiesUtil.getInstance(context);
+
+		PropertiesHolder report = new PropertiesHolder(null);
+		PropertiesHolder band = new PropertiesHolder(report);
+		PropertiesHolder element = new PropertiesHolder(band);
+		element.getPropertiesMap().setProperty("other", "x");
+		assert util.getIntegerProperty(element, KEY, 0) == 1;
+
+		report.getPropertiesMap().setProperty(KEY, "2");
+		assert util.getIntegerProperty(element, KEY, 0) == 2;
+		ResolvedPropertiesCache.ResolvedProperty property = ResolvedPropertiesCache.getHolderProperty(element, KEY);
+		assert ResolvedPropertiesCache.getHolderProperty(element, KEY) == property;
+
+		band.getPropertiesMap().setProperty(KEY, "3");
+		assert util.getIntegerProperty(element, KEY) == 3;
+
+		JRPropertiesMap base = new JRPropertiesMap();
+		base.setProperty(KEY, "4");
+		element.getPropertiesMap().setBaseProperties(base);
+		assert util.getIntegerProperty(element, KEY, 0) == 4;
+		base.setProperty(KEY, "5");
+		assert util.getIntegerProperty(element, KEY, 0) == 5;
+
+		element.getPropertiesMap().setProperty(KEY, "true");
+		assert util.getBooleanProperty(element, KEY, false);
+		assert util.getBooleanProperty(KEY, false, element, report);
+		assert "2".equals(util.getProperty(KEY, report, element));
+
+		element.getPropertiesMap().removeProperty(KEY);
+		base.removeProperty(KEY);
+		band.getPropertiesMap().removeProperty(KEY);
+		assert util.getIntegerProperty(element, KEY, 0) == 2;
+
+		PropertiesHolder otherReport = new PropertiesHolder(null);
+		otherReport.getPropertiesMap().setProperty(KEY, "6");
+		band.parent = otherReport;
+		assert util.getIntegerProperty(element, KEY, 0) == 6;
+
+		band.parent = null;
+		assert util.getIntegerProperty(element, KEY, 0) == 1;
+	}
+
+	@Test
+	public void inheritedCacheFlag()
+	{
+		SimpleJasperReportsContext parent = new SimpleJasperReportsContext();
+		JasperReportsContext local = new LocalJasperReportsContext(parent);
+		assert ResolvedPropertiesCache.forContext(local) == null;
+
+		parent.setPropertiesCacheEnabled(true);
+		assert ((SimpleJasperReportsContext) local).isPropertiesCacheEnabled();
+		assert ResolvedPropertiesCache.forContext(local) != null;
+
+		JRPropertiesUtil util = JRPropertiesUtil.getInstance(local);
+		parent.setProperty(KEY, "1");
+		assert util.getIntegerProperty(KEY) == 1;
+		parent.setProperty(KEY, "2");
+		assert util.getIntegerProperty(KEY) == 2;
+
+		((SimpleJasperReportsContext) local).setPropertiesCacheEnabled(false);
+		assert ResolvedPropertiesCache.forContext(local) == null;
+		assert parent.isPropertiesCacheEnabled();
+	}
+
+	@Test
+	public void invalidValues()
+	{
+		SimpleJasperReportsContext context = new SimpleJasperReportsContext();
+		context.setPropertiesCacheEnabled(true);
+		JRPropertiesUtil util = JRPropertiesUtil.getInstance(context);
+
+		expectNumberFormatException(util, KEY);
+		context.setProperty(KEY, "x");
+		expectNumberFormatException(util, KEY);
+		assert !util.getBooleanProperty(KEY, true);
+	}
+
+	@Test
+	public void uncachedContext()
+	{
+		SimpleJasperReportsContext context = new SimpleJasperReportsContext(new DelegatingContext(new SimpleJasperReportsContext()));
+		context.setPropertiesCacheEnabled(true);
+		assert ResolvedPropertiesCache.forContext(context) == null;
+
+		JRPropertiesUtil util = JRPropertiesUtil.getInstance(context);
+		context.setProperty(KEY, "true");
+		assert util.getBooleanProperty(KEY);
+	}
+
+	protected static void expectNumberFormatException(JRPropertiesUtil util, String key)
+	{
+		try
+		{
+			util.getIntegerProperty(key);
+			assert false;
+		}
+		catch (NumberFormatException e)
+		{
+			// expected
+		}
+	}
+
+	protected static class PropertiesHolder implements JRPropertiesHolder
+	{
+		private final JRPropertiesMap propertiesMap = new JRPropertiesMap();
+		protected JRPropertiesHolder parent;
+
+		public PropertiesHolder(JRPropertiesHolder parent)
+		{
+			this.parent = parent;
+		}
+
+		@Override
+		public boolean hasProperties()
+		{
+			return propertiesMap.hasProperties();
+		}
+
+		@Override
+		public JRPropertiesMap getPropertiesMap()
+		{
+			return propertiesMap;
+		}
+
+		@Override
+		public JRPropertiesHolder getParentProperties()
+		{
+			return parent;
+		}
+	}
+
+	protected static class DelegatingContext implements JasperReportsContext
+	{
+		private final JasperReportsContext delegate;
+
+		public DelegatingContext(JasperReportsContext delegate)
+		{
+			this.delegate = delegate;
+		}
+
+		@Override
+		public Object getValue(String key)
+		{
+			return delegate.getValue(key);
+		}
+
+		@Override
+		public Object getOwnValue(String key)
+		{
+			return delegate.getOwnValue(key);
+		}
+
+		@Override
+		public void setValue(String key, Object value)
+		{
+			delegate.setValue(key, value);
+		}
+
+		@Override
+		public <T> List<T> getExtensions(Class<T> extensionType)
+		{
+			return delegate.getExtensions(extensionType);
+		}
+
+		@Override
+		public String getProperty(String key)
+		{
+			return delegate.getProperty(key);
+		}
+
+		@Override
+		public void setProperty(String key, String value)
+		{
+			delegate.setProperty(key, value);
+		}
+
+		@Override
+		public void removeProperty(String key)
+		{
+			delegate.removeProperty(key);
+		}
+
+		@Override
+		public Map<String, String> getProperties()
+		{
+			return delegate.getProperties();
+		}
+	}
+}
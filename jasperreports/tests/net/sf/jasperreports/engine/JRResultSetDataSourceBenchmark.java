@@ -0,0 +1,220 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+
+import net.sf.jasperreports.engine.design.JRDesignField;
+
+/**
+ * Read throughput benchmark for {@link JRResultSetDataSource}.
+ * <p>
+ * Reads all the fields of a generated result set with 20 columns of numeric, text and decimal types,
+ * and compares the time with reading the same columns directly through {@link ResultSet#getObject(int)}.
+ * The result set values are computed from the row and column indexes, so memory use does not
+ * depend on the number of rows.
+ * </p>
+ * <p>
+ * Not part of the test suite, run the {@link #main(String[])} method with the number of rows
+ * as argument, 1,000,000 by default.
+ * </p>
+ */
+public class JRResultSetDataSourceBenchmark
+{
+	
+	private static final int COLUMN_COUNT = 20;
+	private static final int[] COLUMN_TYPES = {Types.INTEGER, Types.BIGINT, Types.DOUBLE, Types.VARCHAR, Types.DECIMAL};
+	private static final Class<?>[] FIELD_CLASSES = {Integer.class, Long.class, Double.class, String.class, BigDecimal.class};
+	
+	public static void main(String[] args) throws JRException, SQLException
+	{
+		int rowCount = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+		
+		JRField[] fields = new JRField[COLUMN_COUNT];
+		for (int i = 0; i < COLUMN_COUNT; i++)
+		{
+			JRDesignField field = new JRDesignField();
+			field.setName("C" + i);
+			field.setValueClass(FIELD_CLASSES[i % FIELD_CLASSES.length]);
+			fields[i] = field;
+		}
+		
+		for (int run = 0; run < 5; run++)
+		{
+			long start = System.nanoTime();
+			long dataSourceCount = readDataSource(new GeneratedResultSet(rowCount).proxy(), fields);
+			long dataSourceTime = System.nanoTime() - start;
+			
+			start = System.nanoTime();
+			long resultSetCount = readResultSet(new GeneratedResultSet(rowCount).proxy());
+			long resultSetTime = System.nanoTime() - start;
+			
+			System.out.println("run " + run + ": data source " + dataSourceTime / 1000000 
+					+ " ms, result set " + resultSetTime / 1000000 + " ms, " 
+					+ (dataSourceCount + resultSetCount) / 2 + " values");
+		}
+	}
+	
+	protected static long readDataSource(ResultSet resultSet, JRField[] fields) throws JRException
+	{
+		JRResultSetDataSource dataSource = new JRResultSetDataSource(resultSet);
+		long count = 0;
+		while (dataSource.next())
+		{
+			for (JRField field : fields)
+			{
+				if (dataSource.getFieldValue(field) != null)
+				{
+					++count;
+				}
+			}
+		}
+		return count;
+	}
+	
+	protected static long readResultSet(ResultSet resultSet) throws SQLException
+	{
+		long count = 0;
+		while (resultSet.next())
+		{
+			for (int i = 1; i <= COLUMN_COUNT; i++)
+			{
+				if (resultSet.getObject(i) != null)
+				{
+					++count;
+				}
+			}
+		}
+		return count;
+	}
+	
+	protected static class GeneratedResultSet implements InvocationHandler
+	{
+		private final int rowCount;
+		private int row = -1;
+		private boolean wasNull;
+		
+		public GeneratedResultSet(int rowCount)
+		{
+			this.rowCount = rowCount;
+		}
+		
+		public ResultSet proxy()
+		{
+			return (ResultSet) Proxy.newProxyInstance(JRResultSetDataSourceBenchmark.class.getClassLoader(), 
+					new Class<?>[]{ResultSet.class}, this);
+		}
+		
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+		{
+			String name = method.getName();
+			if (name.equals("next"))
+			{
+				return ++row < rowCount;
+			}
+			if (name.equals("wasNull"))
+			{
+				return wasNull;
+			}
+			if (name.equals("getMetaData"))
+			{
+				return Proxy.newProxyInstance(JRResultSetDataSourceBenchmark.class.getClassLoader(), 
+						new Class<?>[]{ResultSetMetaData.class}, new GeneratedMetadata());
+			}
+			if (name.startsWith("get") && args != null && args.length == 1 && args[0] instanceof Integer)
+			{
+				int column = (Integer) args[0] - 1;
+				// every 10th value of a column is null
+				wasNull = (row + column) % 10 == 0;
+				return value(column, method.getReturnType());
+			}
+			throw new UnsupportedOperationException(name);
+		}
+		
+		protected Object value(int column, Class<?> type)
+		{
+			long value = (long) row * COLUMN_COUNT + column;
+			if (type == int.class)
+			{
+				return wasNull ? 0 : (int) value;
+			}
+			if (type == long.class)
+			{
+				return wasNull ? 0L : value;
+			}
+			if (type == double.class)
+			{
+				return wasNull ? 0d : value / 4d;
+			}
+			if (wasNull)
+			{
+				return null;
+			}
+			
+			switch (COLUMN_TYPES[column % COLUMN_TYPES.length])
+			{
+				case Types.INTEGER:
+					return Integer.valueOf((int) value);
+				case Types.BIGINT:
+					return Long.valueOf(value);
+				case Types.DOUBLE:
+					return Double.valueOf(value / 4d);
+				case Types.DECIMAL:
+					return BigDecimal.valueOf(value, 2);
+				default:
+					return String.valueOf(value);
+			}
+		}
+	}
+	
+	protected static class GeneratedMetadata implements InvocationHandler
+	{
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+		{
+			String name = method.getName();
+			if (name.equals("getColumnCount"))
+			{
+				return COLUMN_COUNT;
+			}
+			if (name.equals("getColumnName") || name.equals("getColumnLabel"))
+			{
+				return "C" + ((Integer) args[0] - 1);
+			}
+			if (name.equals("getColumnType"))
+			{
+				return COLUMN_TYPES[((Integer) args[0] - 1) % COLUMN_TYPES.length];
+			}
+			throw new UnsupportedOperationException(name);
+		}
+	}
+}
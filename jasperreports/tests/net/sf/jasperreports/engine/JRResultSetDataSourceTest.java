@@ -0,0 +1,180 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Types;
+
+import org.testng.annotations.Test;
+
+import net.sf.jasperreports.engine.design.JRDesignField;
+
+/**
+ * Tests for {@link JRResultSetDataSource}.
+ */
+public class JRResultSetDataSourceTest
+{
+	
+	private static final String[] COLUMNS = {"ID", "AMOUNT", "NAME", "PRICE"};
+	private static final int[] COLUMN_TYPES = {Types.INTEGER, Types.BIGINT, Types.VARCHAR, Types.DECIMAL};
+	
+	@Test
+	public void fieldValues() throws JRException
+	{
+		StubResultSet stub = new StubResultSet(new Object[][]{
+				{1, 100L, "first", new BigDecimal("1.5")},
+				{null, null, null, null},
+				{3, 300L, "third", new BigDecimal("3.5")},
+		});
+		JRResultSetDataSource dataSource = new JRResultSetDataSource(stub.proxy());
+		
+		JRField id = field("ID", Integer.class);
+		JRField amount = field("AMOUNT", Long.class);
+		JRField name = field("NAME", String.class);
+		JRField price = field("PRICE", BigDecimal.class);
+		JRField indexed = field("COLUMN_2", Double.class);
+		
+		assert dataSource.next();
+		assert Integer.valueOf(1).equals(dataSource.getFieldValue(id));
+		assert Long.valueOf(100L).equals(dataSource.getFieldValue(amount));
+		assert "first".equals(dataSource.getFieldValue(name));
+		assert new BigDecimal("1.5").equals(dataSource.getFieldValue(price));
+		assert Double.valueOf(100d).equals(dataSource.getFieldValue(indexed));
+		int metadataCalls = stub.metadataCalls;
+		
+		assert dataSource.next();
+		assert dataSource.getFieldValue(id) == null;
+		assert dataSource.getFieldValue(amount) == null;
+		assert dataSource.getFieldValue(name) == null;
+		assert dataSource.getFieldValue(price) == null;
+		assert dataSource.getFieldValue(indexed) == null;
+		
+		assert dataSource.next();
+		assert "third".equals(dataSource.getFieldValue(name));
+		assert Long.valueOf(300L).equals(dataSource.getFieldValue(amount));
+		assert new BigDecimal("3.5").equals(dataSource.getFieldValue(price));
+		
+		assert !dataSource.next();
+		// column types and indexes are resolved once
+		assert stub.metadataCalls == metadataCalls;
+	}
+	
+	protected JRField field(String name, Class<?> valueClass)
+	{
+		JRDesignField field = new JRDesignField();
+		field.setName(name);
+		field.setValueClass(valueClass);
+		return field;
+	}
+	
+	protected static class StubResultSet implements InvocationHandler
+	{
+		private final Object[][] rows;
+		private int row = -1;
+		private boolean wasNull;
+		private int metadataCalls;
+		
+		public StubResultSet(Object[][] rows)
+		{
+			this.rows = rows;
+		}
+		
+		public ResultSet proxy()
+		{
+			return (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(), 
+					new Class<?>[]{ResultSet.class}, this);
+		}
+		
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+		{
+			String name = method.getName();
+			if (name.equals("next"))
+			{
+				return ++row < rows.length;
+			}
+			if (name.equals("wasNull"))
+			{
+				return wasNull;
+			}
+			if (name.equals("getMetaData"))
+			{
+				++metadataCalls;
+				return Proxy.newProxyInstance(getClass().getClassLoader(), 
+						new Class<?>[]{ResultSetMetaData.class}, new MetadataHandler());
+			}
+			if (name.startsWith("get") && args != null && args.length == 1 && args[0] instanceof Integer)
+			{
+				Object value = rows[row][(Integer) args[0] - 1];
+				wasNull = value == null;
+				return convert(value, method.getReturnType());
+			}
+			throw new UnsupportedOperationException(name);
+		}
+		
+		protected Object convert(Object value, Class<?> type)
+		{
+			if (type == int.class)
+			{
+				return value == null ? 0 : ((Number) value).intValue();
+			}
+			if (type == long.class)
+			{
+				return value == null ? 0L : ((Number) value).longValue();
+			}
+			if (type == double.class)
+			{
+				return value == null ? 0d : ((Number) value).doubleValue();
+			}
+			return value;
+		}
+	}
+	
+	protected static class MetadataHandler implements InvocationHandler
+	{
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+		{
+			String name = method.getName();
+			if (name.equals("getColumnCount"))
+			{
+				return COLUMNS.length;
+			}
+			if (name.equals("getColumnName") || name.equals("getColumnLabel"))
+			{
+				return COLUMNS[(Integer) args[0] - 1];
+			}
+			if (name.equals("getColumnType"))
+			{
+				return COLUMN_TYPES[(Integer) args[0] - 1];
+			}
+			throw new UnsupportedOperationException(name);
+		}
+	}
+}
@@ -0,0 +1,195 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.design;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import net.sf.jasperreports.engine.JRDataset;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRPrintText;
+import net.sf.jasperreports.engine.JREmptyDataSource;
+import net.sf.jasperreports.engine.JasperCompileManager;
+import net.sf.jasperreports.engine.JasperFillManager;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.SimpleJasperReportsContext;
+import net.sf.jasperreports.engine.util.JRLoader;
+import net.sf.jasperreports.engine.xml.JRXmlWriter;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Tests for {@link JRJdtCompiler#PROPERTY_PARALLEL_UNITS} and {@link BatchCompiler}.
+ */
+public class BatchCompilerTest
+{
+	
+	@Test
+	public void parallelUnits() throws JRException
+	{
+		SimpleJasperReportsContext context = new SimpleJasperReportsContext();
+		context.setProperty(JRJdtCompiler.PROPERTY_PARALLEL_UNITS, "true");
+		
+		JasperReport report = JasperCompileManager.getInstance(context).compile(createDesign("report", 4, "\"text\""));
+		assertEquals(fill(report), "text");
+		for (JRDataset dataset : report.getDatasets())
+		{
+			assertNotNull(JasperCompileManager.getInstance(context).getEvaluator(report, dataset));
+		}
+	}
+	
+	@Test
+	public void parallelUnitsErrors() throws JRException
+	{
+		JasperDesign design = createDesign("report", 3, "\"text\"");
+		for (JRDataset dataset : design.getDatasets())
+		{
+			((JRDesignVariable) dataset.getVariables()[dataset.getVariables().length - 1]).setExpression(
+					new JRDesignExpression("undefined" + dataset.getName()));
+		}
+		
+		String sequentialErrors = compileErrors(design, false);
+		String parallelErrors = compileErrors(design, true);
+		assertTrue(parallelErrors.contains("undefinedds0"));
+		assertTrue(parallelErrors.contains("undefinedds2"));
+		assertEquals(parallelErrors, sequentialErrors);
+	}
+	
+	@Test
+	public void compileDirectory() throws JRException, IOException
+	{
+		File sourceDir = Files.createTempDirectory("jrbatchsrc").toFile();
+		File destDir = Files.createTempDirectory("jrbatchdest").toFile();
+		try
+		{
+			File subDir = new File(sourceDir, "sub");
+			subDir.mkdir();
+			JRXmlWriter.writeReport(createDesign("first", 1, "\"first\""), new File(sourceDir, "first.jrxml").getPath(), "UTF-8");
+			JRXmlWriter.writeReport(createDesign("second", 2, "\"second\""), new File(subDir, "second.jrxml").getPath(), "UTF-8");
+			JRXmlWriter.writeReport(createDesign("broken", 0, "undefined"), new File(subDir, "broken.jrxml").getPath(), "UTF-8");
+			
+			SimpleJasperReportsContext context = new SimpleJasperReportsContext();
+			context.setProperty(BatchCompiler.PROPERTY_THREADS, "2");
+			List<BatchCompiler.ReportResult> results = JasperCompileManager.getInstance(context).compileDirectory(sourceDir, destDir);
+			assertEquals(results.size(), 3);
+			
+			assertEquals(results.get(0).getSourceFile().getName(), "first.jrxml");
+			assertTrue(results.get(0).isSuccessful());
+			assertEquals(results.get(0).getDestinationFile(), new File(destDir, "first.jasper"));
+			assertEquals(fill((JasperReport) JRLoader.loadObject(results.get(0).getDestinationFile())), "first");
+			
+			assertEquals(results.get(1).getSourceFile().getName(), "broken.jrxml");
+			assertFalse(results.get(1).isSuccessful());
+			assertFalse(results.get(1).getDestinationFile().exists());
+			
+			assertEquals(results.get(2).getSourceFile().getName(), "second.jrxml");
+			assertTrue(results.get(2).isSuccessful());
+			assertEquals(results.get(2).getDestinationFile(), new File(new File(destDir, "sub"), "second.jasper"));
+			assertEquals(fill((JasperReport) JRLoader.loadObject(results.get(2).getDestinationFile())), "second");
+		}
+		finally
+		{
+			delete(sourceDir);
+			delete(destDir);
+		}
+	}
+	
+	protected static void delete(File file)
+	{
+		File[] children = file.listFiles();
+		if (children != null)
+		{
+			for (File child : children)
+			{
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+	
+	protected static String compileErrors(JasperDesign design, boolean parallel)
+	{
+		SimpleJasperReportsContext context = new SimpleJasperReportsContext();
+		context.setProperty(JRJdtCompiler.PROPERTY_PARALLEL_UNITS, String.valueOf(parallel));
+		try
+		{
+			JasperCompileManager.getInstance(context).compile(design);
+			fail("compile errors expected");
+			return null;
+		}
+		catch (JRException e)
+		{
+			return e.getMessage();
+		}
+	}
+	
+	protected static String fill(JasperReport report) throws JRException
+	{
+		JasperPrint print = JasperFillManager.getInstance(new SimpleJasperReportsContext()).fill(
+				report, new HashMap<String, Object>(), new JREmptyDataSource());
+		return ((JRPrintText) print.getPages().get(0).getElements().get(0)).getFullText();
+	}
+	
+	protected static JasperDesign createDesign(String name, int datasetCount, String textExpression) throws JRException
+	{
+		JasperDesign design = new JasperDesign();
+		design.setName(name);
+		
+		for (int i = 0; i < datasetCount; i++)
+		{
+			JRDesignDataset dataset = new JRDesignDataset(false);
+			dataset.setName("ds" + i);
+			for (int j = 0; j < 50; j++)
+			{
+				JRDesignVariable variable = new JRDesignVariable();
+				variable.setName("v" + j);
+				variable.setValueClass(Integer.class);
+				variable.setExpression(new JRDesignExpression("Integer.valueOf(" + i + " * " + j + ")"));
+				dataset.addVariable(variable);
+			}
+			design.addDataset(dataset);
+		}
+		
+		JRDesignTextField textField = new JRDesignTextField();
+		textField.setWidth(100);
+		textField.setHeight(20);
+		textField.setExpression(new JRDesignExpression(textExpression));
+		
+		JRDesignBand detail = new JRDesignBand();
+		detail.setHeight(20);
+		detail.addElement(textField);
+		((JRDesignSection) design.getDetailSection()).addBand(detail);
+		return design;
+	}
+}
@@ -0,0 +1,163 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.design;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRPrintText;
+import net.sf.jasperreports.engine.JasperCompileManager;
+import net.sf.jasperreports.engine.JasperFillManager;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.SimpleJasperReportsContext;
+import net.sf.jasperreports.engine.data.JRMapCollectionDataSource;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+
+/**
+ * Tests for {@link CompileDataCache}.
+ */
+public class CompileDataCacheTest
+{
+	
+	private File cacheDirectory;
+	private SimpleJasperReportsContext context;
+	
+	@BeforeMethod
+	public void createCacheDirectory() throws IOException
+	{
+		cacheDirectory = Files.createTempDirectory("jrcompilecache").toFile();
+		context = new SimpleJasperReportsContext();
+		context.setProperty(CompileDataCache.PROPERTY_CACHE_DIRECTORY, cacheDirectory.getAbsolutePath());
+	}
+	
+	@AfterMethod
+	public void deleteCacheDirectory()
+	{
+		File[] files = cacheDirectory.listFiles();
+		if (files != null)
+		{
+			for (File file : files)
+			{
+				file.delete();
+			}
+		}
+		cacheDirectory.delete();
+	}
+	
+	@Test
+	public void reuseCompileData() throws JRException
+	{
+		JasperReport report1 = compile(createDesign("$F{n} * 2"));
+		assertEquals(entryFiles().length, 1);
+		
+		JasperReport report2 = compile(createDesign("$F{n} * 2"));
+		assertEquals(entryFiles().length, 1);
+		assertEquals(report2.getCompileNameSuffix(), report1.getCompileNameSuffix());
+		assertEquals(fill(report2), "6");
+		
+		JasperReport report3 = compile(createDesign("$F{n} * 3"));
+		assertEquals(entryFiles().length, 2);
+		assertNotEquals(report3.getCompileNameSuffix(), report1.getCompileNameSuffix());
+		assertEquals(fill(report3), "9");
+	}
+	
+	@Test
+	public void invalidEntry() throws JRException, IOException
+	{
+		JasperReport report1 = compile(createDesign("$F{n} + 1"));
+		File[] entries = entryFiles();
+		assertEquals(entries.length, 1);
+		
+		try (FileOutputStream out = new FileOutputStream(entries[0]))
+		{
+			out.write(new byte[]{1, 2, 3});
+		}
+		
+		JasperReport report2 = compile(createDesign("$F{n} + 1"));
+		assertNotEquals(report2.getCompileNameSuffix(), report1.getCompileNameSuffix());
+		assertEquals(fill(report2), "4");
+		
+		// the entry was rewritten
+		JasperReport report3 = compile(createDesign("$F{n} + 1"));
+		assertEquals(report3.getCompileNameSuffix(), report2.getCompileNameSuffix());
+	}
+	
+	protected File[] entryFiles()
+	{
+		return cacheDirectory.listFiles();
+	}
+	
+	protected JasperReport compile(JasperDesign design) throws JRException
+	{
+		return JasperCompileManager.getInstance(context).compile(design);
+	}
+	
+	protected String fill(JasperReport report) throws JRException
+	{
+		List<Map<String, ?>> rows = new ArrayList<Map<String, ?>>();
+		Map<String, Object> row = new HashMap<String, Object>();
+		row.put("n", 3);
+		rows.add(row);
+		
+		JasperPrint print = JasperFillManager.getInstance(new SimpleJasperReportsContext()).fill(
+				report, new HashMap<String, Object>(), new JRMapCollectionDataSource(rows));
+		return ((JRPrintText) print.getPages().get(0).getElements().get(0)).getFullText();
+	}
+	
+	protected JasperDesign createDesign(String expression) throws JRException
+	{
+		JasperDesign design = new JasperDesign();
+		design.setName("cached");
+		
+		JRDesignField field = new JRDesignField();
+		field.setName("n");
+		field.setValueClass(Integer.class);
+		design.addField(field);
+		
+		JRDesignTextField textField = new JRDesignTextField();
+		textField.setWidth(100);
+		textField.setHeight(20);
+		textField.setExpression(new JRDesignExpression(expression));
+		
+		JRDesignBand detail = new JRDesignBand();
+		detail.setHeight(20);
+		detail.addElement(textField);
+		((JRDesignSection) design.getDetailSection()).addBand(detail);
+		return design;
+	}
+}
@@ -0,0 +1,62 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.design;
+
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperReport;
+
+/**
+ * Fill benchmark for a report with 2000 variable expressions, compiled with and without
+ * {@link JRClassGenerator#PROPERTY_EXPRESSION_METHODS}.
+ * <p>
+ * Not part of the test suite, run the {@link #main(String[])} method with the number of records
+ * as argument, 20000 by default.
+ * </p>
+ * 
+ * @see ExpressionMethodsTest
+ */
+public class ExpressionMethodsBenchmark
+{
+	
+	public static void main(String[] args) throws JRException
+	{
+		int rowCount = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+		JasperDesign design = ExpressionMethodsTest.createDesign(2000, 0);
+		JasperReport switchReport = ExpressionMethodsTest.compile(design, false);
+		JasperReport methodsReport = ExpressionMethodsTest.compile(design, true);
+		for (int run = 0; run < 3; run++)
+		{
+			long start = System.nanoTime();
+			ExpressionMethodsTest.fill(switchReport, rowCount);
+			long switchTime = System.nanoTime() - start;
+			
+			start = System.nanoTime();
+			ExpressionMethodsTest.fill(methodsReport, rowCount);
+			long methodsTime = System.nanoTime() - start;
+			
+			System.out.println("run " + run + ": switch " + switchTime / 1000000 
+					+ " ms, expression methods " + methodsTime / 1000000 + " ms");
+		}
+	}
+}
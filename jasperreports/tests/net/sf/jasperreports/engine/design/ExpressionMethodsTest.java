@@ -0,0 +1,165 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.design;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRPrintElement;
+import net.sf.jasperreports.engine.JRPrintPage;
+import net.sf.jasperreports.engine.JRPrintText;
+import net.sf.jasperreports.engine.JasperCompileManager;
+import net.sf.jasperreports.engine.JasperFillManager;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.JasperReportsContext;
+import net.sf.jasperreports.engine.SimpleJasperReportsContext;
+import net.sf.jasperreports.engine.data.JRMapCollectionDataSource;
+import net.sf.jasperreports.engine.type.CalculationEnum;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Compares reports compiled with and without {@link JRClassGenerator#PROPERTY_EXPRESSION_METHODS}.
+ */
+public class ExpressionMethodsTest
+{
+	
+	private static final int COLUMNS = 20;
+	
+	@Test
+	public void sameOutput() throws JRException
+	{
+		// 1000 variable expressions and 1000 text field expressions
+		JasperDesign design = createDesign(1000, 1000);
+		List<String> switchTexts = texts(fill(compile(design, false), 20));
+		List<String> methodTexts = texts(fill(compile(design, true), 20));
+		assertEquals(switchTexts.size(), 20 * 1000);
+		assertEquals(methodTexts, switchTexts);
+	}
+	
+	@Test
+	public void sparseExpressions() throws JRException
+	{
+		JasperDesign design = createDesign(70, 3);
+		assertEquals(texts(fill(compile(design, true), 5)), texts(fill(compile(design, false), 5)));
+	}
+	
+	protected static JasperReport compile(JasperDesign design, boolean expressionMethods) throws JRException
+	{
+		SimpleJasperReportsContext context = new SimpleJasperReportsContext();
+		context.setProperty(JRClassGenerator.PROPERTY_EXPRESSION_METHODS, String.valueOf(expressionMethods));
+		return JasperCompileManager.getInstance(context).compile(design);
+	}
+	
+	protected static JasperPrint fill(JasperReport report, int rowCount) throws JRException
+	{
+		List<Map<String, ?>> rows = new ArrayList<Map<String, ?>>(rowCount);
+		for (int i = 0; i < rowCount; i++)
+		{
+			Map<String, Object> row = new HashMap<String, Object>();
+			row.put("n", i);
+			rows.add(row);
+		}
+		
+		Map<String, Object> parameters = new HashMap<String, Object>();
+		parameters.put("factor", 3L);
+		JasperReportsContext context = new SimpleJasperReportsContext();
+		return JasperFillManager.getInstance(context).fill(report, parameters, new JRMapCollectionDataSource(rows));
+	}
+	
+	protected static List<String> texts(JasperPrint print)
+	{
+		List<String> texts = new ArrayList<String>();
+		for (JRPrintPage page : print.getPages())
+		{
+			for (JRPrintElement element : page.getElements())
+			{
+				texts.add(((JRPrintText) element).getFullText());
+			}
+		}
+		return texts;
+	}
+	
+	protected static JasperDesign createDesign(int variableCount, int textFieldCount) throws JRException
+	{
+		JasperDesign design = new JasperDesign();
+		design.setName("expressions");
+		design.setColumnWidth(COLUMNS * 20);
+		design.setPageWidth(COLUMNS * 20);
+		design.setLeftMargin(0);
+		design.setRightMargin(0);
+		design.setTopMargin(0);
+		design.setBottomMargin(0);
+		
+		JRDesignParameter parameter = new JRDesignParameter();
+		parameter.setName("factor");
+		parameter.setValueClass(Long.class);
+		design.addParameter(parameter);
+		
+		JRDesignField field = new JRDesignField();
+		field.setName("n");
+		field.setValueClass(Integer.class);
+		design.addField(field);
+		
+		for (int i = 0; i < variableCount; i++)
+		{
+			JRDesignVariable variable = new JRDesignVariable();
+			variable.setName("v" + i);
+			variable.setValueClass(Long.class);
+			variable.setCalculation(i % 2 == 0 ? CalculationEnum.SUM : CalculationEnum.NOTHING);
+			variable.setExpression(new JRDesignExpression(
+					"$F{n} % 3 == 0 ? $F{n} * $P{factor} + " + i + "L"
+					+ " : Math.max($F{n} + " + i + "L, ($F{n} - " + i + "L) * ($P{factor} - 1) / 2)"));
+			design.addVariable(variable);
+		}
+		
+		int rows = (textFieldCount + COLUMNS - 1) / COLUMNS;
+		if (rows > 0)
+		{
+			JRDesignBand detail = new JRDesignBand();
+			detail.setHeight(rows * 10);
+			for (int i = 0; i < textFieldCount; i++)
+			{
+				JRDesignTextField textField = new JRDesignTextField();
+				textField.setX((i % COLUMNS) * 20);
+				textField.setY((i / COLUMNS) * 10);
+				textField.setWidth(20);
+				textField.setHeight(10);
+				textField.setExpression(new JRDesignExpression(
+						"String.valueOf($V{v" + (i % variableCount) + "} - " + i + ")"));
+				detail.addElement(textField);
+			}
+			((JRDesignSection) design.getDetailSection()).addBand(detail);
+		}
+		design.setPageHeight(Math.max(rows, 1) * 10);
+		
+		return design;
+	}
+}
@@ -0,0 +1,184 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.export;
+
+import org.testng.annotations.Test;
+
+import net.sf.jasperreports.engine.DefaultJasperReportsContext;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.base.JRBasePrintFrame;
+import net.sf.jasperreports.engine.base.JRBasePrintPage;
+import net.sf.jasperreports.engine.base.JRBasePrintText;
+import net.sf.jasperreports.export.SimpleCsvReportConfiguration;
+import net.sf.jasperreports.export.SimpleExporterInput;
+import net.sf.jasperreports.export.SimpleWriterExporterOutput;
+
+/**
+ * Tests for {@link CsvFlatPageLayout} and the flat layout mode of {@link JRCsvExporter}.
+ */
+public class CsvFlatPageLayoutTest
+{
+	
+	@Test
+	public void tabularPages() throws JRException
+	{
+		JasperPrint print = createPrint();
+		for (int pageIndex = 0; pageIndex < 3; pageIndex++)
+		{
+			JRBasePrintPage page = new JRBasePrintPage();
+			page.addElement(text(print, 0, 0, 100, "Name"));
+			page.addElement(text(print, 100, 0, 100, "Description"));
+			page.addElement(text(print, 300, 0, 100, "Amount"));
+			for (int row = 0; row < 20; row++)
+			{
+				int y = 20 + row * 20;
+				JRBasePrintFrame frame = new JRBasePrintFrame(print.getDefaultStyleProvider());
+				frame.setX(0);
+				frame.setY(y);
+				frame.setWidth(400);
+				frame.setHeight(20);
+				// the frame starts at the same position as its first element
+				frame.addElement(text(print, 0, 0, 100, "name " + row));
+				if (row % 3 != 0)
+				{
+					frame.addElement(text(print, 100, 0, 100, "a \"quoted\", value\nwith " + row));
+				}
+				page.addElement(frame);
+				page.addElement(text(print, 300, y, 100, String.valueOf(row * pageIndex)));
+			}
+			// a column used only on the last row
+			page.addElement(text(print, 200, 500, 50, ""));
+			print.addPage(page);
+		}
+		
+		String grid = export(print, false);
+		assert grid.startsWith("Name,Description,,Amount\nname 0,,,0\nname 1,\"a \"\"quoted\"\", value\nwith 1\",,0\n");
+		assert export(print, true).equals(grid);
+	}
+	
+	@Test
+	public void gridFallback() throws JRException
+	{
+		JasperPrint print = createPrint();
+		
+		JRBasePrintPage overlapping = new JRBasePrintPage();
+		overlapping.addElement(text(print, 0, 0, 100, "first"));
+		overlapping.addElement(text(print, 0, 0, 50, "second"));
+		overlapping.addElement(text(print, 100, 0, 100, "third"));
+		print.addPage(overlapping);
+		
+		JRBasePrintPage frameOverlap = new JRBasePrintPage();
+		JRBasePrintFrame frame = new JRBasePrintFrame(print.getDefaultStyleProvider());
+		frame.setX(0);
+		frame.setY(0);
+		frame.setWidth(200);
+		frame.setHeight(40);
+		frame.addElement(text(print, 0, 20, 100, "in frame"));
+		frameOverlap.addElement(frame);
+		frameOverlap.addElement(text(print, 0, 0, 100, "over frame"));
+		print.addPage(frameOverlap);
+		
+		JRBasePrintPage insideFrame = new JRBasePrintPage();
+		// listed before the frame, starting inside the frame area
+		insideFrame.addElement(text(print, 50, 100, 100, "inside frame"));
+		JRBasePrintFrame otherFrame = new JRBasePrintFrame(print.getDefaultStyleProvider());
+		otherFrame.setX(0);
+		otherFrame.setY(100);
+		otherFrame.setWidth(200);
+		otherFrame.setHeight(40);
+		otherFrame.addElement(text(print, 0, 0, 100, "frame first"));
+		otherFrame.addElement(text(print, 100, 20, 100, "frame second"));
+		insideFrame.addElement(otherFrame);
+		print.addPage(insideFrame);
+		
+		JRBasePrintPage empty = new JRBasePrintPage();
+		empty.addElement(text(print, 0, 0, 0, "no width"));
+		empty.addElement(text(print, 50, 0, 100, "text"));
+		print.addPage(empty);
+		
+		CsvFlatPageLayout layout = new CsvFlatPageLayout(new JRCsvExporterNature(DefaultJasperReportsContext.getInstance(), null));
+		assert !layout.layout(overlapping.getElements(), 0, 0);
+		assert !layout.layout(frameOverlap.getElements(), 0, 0);
+		assert !layout.layout(insideFrame.getElements(), 0, 0);
+		assert !layout.layout(empty.getElements(), 0, 0);
+		
+		assert export(print, true).equals(export(print, false));
+	}
+	
+	@Test
+	public void negativePositions() throws JRException
+	{
+		JasperPrint print = createPrint();
+		JRBasePrintPage page = new JRBasePrintPage();
+		page.addElement(text(print, 10, -20, 50, "b"));
+		page.addElement(text(print, -30, -20, 40, "a"));
+		page.addElement(text(print, 60, 10, 50, "c"));
+		print.addPage(page);
+		
+		CsvFlatPageLayout layout = new CsvFlatPageLayout(new JRCsvExporterNature(DefaultJasperReportsContext.getInstance(), null));
+		assert layout.layout(page.getElements(), 5, 5);
+		assert layout.getElementCount() == 3;
+		assert layout.getColumnCount() == 3;
+		assert layout.getElementY(0) == -15 && layout.getElementColumn(0) == 0;
+		assert layout.getElementY(1) == -15 && layout.getElementColumn(1) == 1;
+		assert layout.getElementY(2) == 15 && layout.getElementColumn(2) == 2;
+		
+		assert export(print, true).equals(export(print, false));
+	}
+	
+	protected static JasperPrint createPrint()
+	{
+		JasperPrint print = new JasperPrint();
+		print.setName("csv");
+		print.setPageWidth(595);
+		print.setPageHeight(842);
+		return print;
+	}
+	
+	protected static JRBasePrintText text(JasperPrint print, int x, int y, int width, String value)
+	{
+		JRBasePrintText text = new JRBasePrintText(print.getDefaultStyleProvider());
+		text.setX(x);
+		text.setY(y);
+		text.setWidth(width);
+		text.setHeight(20);
+		text.setText(value);
+		return text;
+	}
+	
+	protected static String export(JasperPrint print, boolean flatLayout) throws JRException
+	{
+		SimpleCsvReportConfiguration configuration = new SimpleCsvReportConfiguration();
+		configuration.setFlatLayout(flatLayout);
+		
+		StringBuilder output = new StringBuilder();
+		JRCsvExporter exporter = new JRCsvExporter();
+		exporter.setExporterInput(new SimpleExporterInput(print));
+		exporter.setExporterOutput(new SimpleWriterExporterOutput(output));
+		exporter.setConfiguration(configuration);
+		exporter.exportReport();
+		return output.toString();
+	}
+}
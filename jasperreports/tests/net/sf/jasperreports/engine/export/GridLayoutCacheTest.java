@@ -0,0 +1,105 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.export;
+
+import org.testng.annotations.Test;
+
+import net.sf.jasperreports.engine.DefaultJasperReportsContext;
+import net.sf.jasperreports.engine.base.JRBasePrintPage;
+import net.sf.jasperreports.engine.base.JRBasePrintText;
+
+/**
+ * Tests for {@link GridLayoutCache}.
+ */
+public class GridLayoutCacheTest
+{
+	
+	@Test
+	public void sharedCells()
+	{
+		ExporterNature nature = new JRCsvExporterNature(DefaultJasperReportsContext.getInstance(), null);
+		GridLayoutCache cache = new GridLayoutCache();
+		
+		JRBasePrintPage page1 = page("a");
+		JRBasePrintPage page2 = page("b");
+		JRGridLayout layout1 = new JRGridLayout(nature, page1.getElements(), 300, 200, 0, 0, null, cache);
+		JRGridLayout layout2 = new JRGridLayout(nature, page2.getElements(), 300, 200, 0, 0, null, cache);
+		JRGridLayout uncached = new JRGridLayout(nature, page2.getElements(), 300, 200, 0, 0, null);
+		
+		Grid grid1 = layout1.getGrid();
+		Grid grid2 = layout2.getGrid();
+		Grid grid3 = uncached.getGrid();
+		assert grid2.getRowCount() == grid3.getRowCount();
+		assert grid2.getColumnCount() == grid3.getColumnCount();
+		for (int row = 0; row < grid2.getRowCount(); row++)
+		{
+			for (int col = 0; col < grid2.getColumnCount(); col++)
+			{
+				JRExporterGridCell cell1 = grid1.get(row, col);
+				JRExporterGridCell cell2 = grid2.get(row, col);
+				JRExporterGridCell cell3 = grid3.get(row, col);
+				assert cell2.getType() == cell3.getType();
+				assert cell2.getSize().equals(cell3.getSize());
+				if (cell2.getType() == JRExporterGridCell.TYPE_EMPTY_CELL)
+				{
+					// empty cells are shared by the pages
+					assert cell1 == cell2;
+				}
+				else
+				{
+					assert cell1.getElement() == page1.getElements().get(((ElementGridCell) cell1).getElementIndex());
+					assert cell2.getElement() == page2.getElements().get(((ElementGridCell) cell2).getElementIndex());
+					assert cell2.getSize() == cell1.getSize();
+				}
+			}
+		}
+		
+		cache.clear();
+		JRGridLayout layout4 = new JRGridLayout(nature, page1.getElements(), 300, 200, 0, 0, null, cache);
+		assert layout4.getGrid().get(0, 2) != grid1.get(0, 2);
+		assert layout4.getGrid().get(0, 2).getSize().equals(grid1.get(0, 2).getSize());
+	}
+	
+	protected static JRBasePrintPage page(String prefix)
+	{
+		JRBasePrintPage page = new JRBasePrintPage();
+		for (int row = 0; row < 5; row++)
+		{
+			page.addElement(text(0, row * 20, 100, prefix + row));
+			page.addElement(text(100, row * 20, 50, prefix + row));
+		}
+		return page;
+	}
+	
+	protected static JRBasePrintText text(int x, int y, int width, String value)
+	{
+		JRBasePrintText text = new JRBasePrintText(null);
+		text.setX(x);
+		text.setY(y);
+		text.setWidth(width);
+		text.setHeight(20);
+		text.setText(value);
+		return text;
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.export;
+
+import org.testng.annotations.Test;
+
+import net.sf.jasperreports.engine.DefaultJasperReportsContext;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.base.JRBasePrintPage;
+
+/**
+ * Tests for {@link GridLayoutPrefetcher}.
+ */
+public class GridLayoutPrefetcherTest
+{
+
+	@Test
+	public void sameLayouts()
+	{
+		ExporterNature nature = new JRCsvExporterNature(DefaultJasperReportsContext.getInstance(), null);
+		JasperPrint jasperPrint = new JasperPrint();
+		jasperPrint.setPageWidth(300);
+		jasperPrint.setPageHeight(200);
+		int pageCount = 20;
+		for (int i = 0; i < pageCount; i++)
+		{
+			JRBasePrintPage page = GridLayoutCacheTest.page("p" + i);
+			if (i % 3 == 0)
+			{
+				page.addElement(GridLayoutCacheTest.text(150, 100, 40, "x" + i));
+			}
+			jasperPrint.addPage(page);
+		}
+
+		GridLayoutPrefetcher prefetcher = new GridLayoutPrefetcher(2, 4);
+		try
+		{
+			for (int i = 0; i < pageCount; i++)
+			{
+				prefetcher.pageStarted(nature, jasperPrint, i, pageCount - 1, 0, 0);
+				JRGridLayout layout = prefetcher.getLayout(i);
+				assert layout != null;
+
+				JRGridLayout expected = new JRGridLayout(nature, jasperPrint.getPages().get(i).getElements(),
+						300, 200, 0, 0, null);
+				Grid grid = layout.getGrid();
+				Grid expectedGrid = expected.getGrid();
+				assert grid.getRowCount() == expectedGrid.getRowCount();
+				assert grid.getColumnCount() == expectedGrid.getColumnCount();
+				for (int row = 0; row < grid.getRowCount(); row++)
+				{
+					for (int col = 0; col < grid.getColumnCount(); col++)
+					{
+						JRExporterGridCell cell = grid.get(row, col);
+						JRExporterGridCell expectedCell = expectedGrid.get(row, col);
+						assert cell.getType() == expectedCell.getType();
+						assert cell.getSize().equals(expectedCell.getSize());
+						assert cell.getElement() == expectedCell.getElement();
+					}
+				}
+			}
+			assert prefetcher.getHitCount() == pageCount;
+
+			// pages not scheduled are laid out by the caller
+			assert prefetcher.getLayout(0) == null;
+		}
+		finally
+		{
+			prefetcher.dispose();
+		}
+	}
+}
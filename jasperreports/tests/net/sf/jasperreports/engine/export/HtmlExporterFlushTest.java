@@ -0,0 +1,136 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.export;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.base.JRBasePrintPage;
+import net.sf.jasperreports.engine.base.JRBasePrintText;
+import net.sf.jasperreports.export.ChunkedHtmlExporterOutput;
+import net.sf.jasperreports.export.SimpleExporterInput;
+import net.sf.jasperreports.export.SimpleHtmlExporterConfiguration;
+import net.sf.jasperreports.export.SimpleHtmlExporterOutput;
+
+/**
+ * Tests for {@link HtmlExporter} flushing the page rows in blocks.
+ * 
+ * @see net.sf.jasperreports.export.HtmlExporterConfiguration#getFlushRowInterval()
+ */
+public class HtmlExporterFlushTest
+{
+	
+	private static final int ROWS = 10;
+	
+	@Test
+	public void flushedBlocks() throws JRException
+	{
+		JasperPrint print = createPrint();
+		assert flushedRows(print, 4).equals(Arrays.asList("0:4", "0:8"));
+		assert flushedRows(print, 0).isEmpty();
+	}
+	
+	@Test
+	public void layeredCells() throws JRException
+	{
+		JasperPrint print = createPrint();
+		// overlapping elements, exported as nested tables in a layered cell of the first row
+		JRBasePrintPage page = (JRBasePrintPage) print.getPages().get(0);
+		page.addElement(text(print, 0, 0, "overlap"));
+		
+		List<String> expected = new ArrayList<String>();
+		for (int row = 1; row <= ROWS; row++)
+		{
+			expected.add("0:" + row);
+		}
+		assert flushedRows(print, 1).equals(expected);
+	}
+	
+	protected static JasperPrint createPrint()
+	{
+		JasperPrint print = new JasperPrint();
+		print.setName("html");
+		print.setPageWidth(100);
+		print.setPageHeight(ROWS * 20);
+		
+		JRBasePrintPage page = new JRBasePrintPage();
+		for (int row = 0; row < ROWS; row++)
+		{
+			page.addElement(text(print, 0, row * 20, "row " + row));
+		}
+		print.addPage(page);
+		return print;
+	}
+	
+	protected static JRBasePrintText text(JasperPrint print, int x, int y, String value)
+	{
+		JRBasePrintText text = new JRBasePrintText(print.getDefaultStyleProvider());
+		text.setX(x);
+		text.setY(y);
+		text.setWidth(100);
+		text.setHeight(20);
+		text.setText(value);
+		return text;
+	}
+	
+	protected static List<String> flushedRows(JasperPrint print, int flushRowInterval) throws JRException
+	{
+		SimpleHtmlExporterConfiguration configuration = new SimpleHtmlExporterConfiguration();
+		configuration.setFlushRowInterval(flushRowInterval);
+		
+		StringWriter writer = new StringWriter();
+		RecordingOutput output = new RecordingOutput(writer);
+		HtmlExporter exporter = new HtmlExporter();
+		exporter.setExporterInput(new SimpleExporterInput(print));
+		exporter.setExporterOutput(output);
+		exporter.setConfiguration(configuration);
+		exporter.exportReport();
+		
+		assert writer.toString().contains("row " + (ROWS - 1));
+		return output.blocks;
+	}
+	
+	protected static class RecordingOutput extends SimpleHtmlExporterOutput implements ChunkedHtmlExporterOutput
+	{
+		private final List<String> blocks = new ArrayList<String>();
+		
+		public RecordingOutput(StringWriter writer)
+		{
+			super(writer);
+		}
+
+		@Override
+		public void blockFlushed(int pageIndex, int rowCount) throws IOException
+		{
+			blocks.add(pageIndex + ":" + rowCount);
+		}
+	}
+}
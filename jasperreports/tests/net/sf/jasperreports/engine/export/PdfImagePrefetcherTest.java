@@ -0,0 +1,115 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.export;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+import org.testng.annotations.Test;
+
+import com.lowagie.text.Image;
+
+import net.sf.jasperreports.engine.DefaultJasperReportsContext;
+import net.sf.jasperreports.engine.JRPrintPage;
+import net.sf.jasperreports.engine.base.JRBasePrintFrame;
+import net.sf.jasperreports.engine.base.JRBasePrintImage;
+import net.sf.jasperreports.engine.base.JRBasePrintPage;
+import net.sf.jasperreports.engine.type.ScaleImageEnum;
+import net.sf.jasperreports.renderers.SimpleDataRenderer;
+
+/**
+ * Tests for {@link PdfImagePrefetcher}.
+ */
+public class PdfImagePrefetcherTest
+{
+	
+	@Test
+	public void prefetch() throws IOException
+	{
+		SimpleDataRenderer png = SimpleDataRenderer.getInstance(pngData());
+		SimpleDataRenderer clipped = SimpleDataRenderer.getInstance(pngData());
+		SimpleDataRenderer unknown = SimpleDataRenderer.getInstance("<svg/>".getBytes(StandardCharsets.UTF_8));
+		SimpleDataRenderer farPage = SimpleDataRenderer.getInstance(pngData());
+		
+		List<JRPrintPage> pages = new ArrayList<JRPrintPage>();
+		JRBasePrintPage page = new JRBasePrintPage();
+		page.addElement(image(unknown, ScaleImageEnum.RETAIN_SHAPE));
+		pages.add(page);
+		
+		page = new JRBasePrintPage();
+		JRBasePrintFrame frame = new JRBasePrintFrame(null);
+		frame.addElement(image(png, ScaleImageEnum.FILL_FRAME));
+		page.addElement(frame);
+		page.addElement(image(clipped, ScaleImageEnum.CLIP));
+		pages.add(page);
+		
+		page = new JRBasePrintPage();
+		page.addElement(image(farPage, ScaleImageEnum.RETAIN_SHAPE));
+		pages.add(page);
+		
+		PdfImagePrefetcher prefetcher = new PdfImagePrefetcher(DefaultJasperReportsContext.getInstance(), 2, 1);
+		try
+		{
+			prefetcher.pageStarted(pages, 0, 2);
+			assert prefetcher.getImage(unknown.getId()) == null;
+			assert prefetcher.getImage(clipped.getId()) == null;
+			assert prefetcher.getImage(farPage.getId()) == null;
+			
+			prefetcher.pageStarted(pages, 1, 2);
+			Image image = prefetcher.getImage(png.getId());
+			assert image != null;
+			assert image.getPlainWidth() == 4 && image.getPlainHeight() == 3;
+			assert prefetcher.getImage(png.getId()) == null;
+			
+			prefetcher.pageStarted(pages, 2, 2);
+			assert prefetcher.getImage(farPage.getId()) != null;
+			assert prefetcher.getHitCount() == 2;
+		}
+		finally
+		{
+			prefetcher.dispose();
+		}
+	}
+	
+	protected JRBasePrintImage image(SimpleDataRenderer renderer, ScaleImageEnum scaleImage)
+	{
+		JRBasePrintImage image = new JRBasePrintImage(null);
+		image.setRenderer(renderer);
+		image.setScaleImage(scaleImage);
+		return image;
+	}
+	
+	protected byte[] pngData() throws IOException
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ImageIO.write(new BufferedImage(4, 3, BufferedImage.TYPE_INT_RGB), "png", out);
+		return out.toByteArray();
+	}
+}
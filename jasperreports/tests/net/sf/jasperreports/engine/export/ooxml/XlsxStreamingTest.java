@@ -0,0 +1,148 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.export.ooxml;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.testng.annotations.Test;
+
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRParameter;
+import net.sf.jasperreports.engine.JasperCompileManager;
+import net.sf.jasperreports.engine.JasperFillManager;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.design.JasperDesign;
+import net.sf.jasperreports.engine.util.JRLoader;
+import net.sf.jasperreports.engine.xml.JRXmlLoader;
+import net.sf.jasperreports.export.SimpleExporterInput;
+import net.sf.jasperreports.export.SimpleOutputStreamExporterOutput;
+import net.sf.jasperreports.export.SimpleXlsxExporterConfiguration;
+import net.sf.jasperreports.export.SimpleXlsxReportConfiguration;
+
+/**
+ * Tests for the XLSX exporter streaming mode.
+ */
+public class XlsxStreamingTest
+{
+	
+	@Test
+	public void streamingExport() throws JRException, IOException
+	{
+		JasperPrint print = fillReport("net/sf/jasperreports/groups/keeptogether/repo/KeepTogetherReport.1.jrxml");
+		assert print.getPages().size() > 1;
+		
+		Map<String, byte[]> bufferedEntries = readEntries(export(print, false));
+		Map<String, byte[]> streamedEntries = readEntries(export(print, true));
+		assert bufferedEntries.containsKey("xl/worksheets/sheet2.xml");
+		assert bufferedEntries.keySet().equals(streamedEntries.keySet());
+		// sheets are written before the document wide parts
+		assert streamedEntries.keySet().iterator().next().equals("xl/worksheets/sheet1.xml");
+		
+		for (Map.Entry<String, byte[]> entry : bufferedEntries.entrySet())
+		{
+			if (!entry.getKey().equals("docProps/core.xml"))//contains the creation date
+			{
+				assert Arrays.equals(entry.getValue(), streamedEntries.get(entry.getKey())) : entry.getKey();
+			}
+		}
+	}
+	
+	protected JasperPrint fillReport(String jrxmlFileName) throws JRException, IOException
+	{
+		InputStream jrxmlInput = JRLoader.getResourceInputStream(jrxmlFileName);
+		JasperDesign design;
+		try
+		{
+			design = JRXmlLoader.load(jrxmlInput);
+		}
+		finally
+		{
+			jrxmlInput.close();
+		}
+		
+		JasperReport report = JasperCompileManager.compileReport(design);
+		
+		Map<String, Object> params = new HashMap<String, Object>();
+		params.put(JRParameter.REPORT_LOCALE, Locale.US);
+		params.put(JRParameter.REPORT_TIME_ZONE, TimeZone.getTimeZone("GMT"));
+		return JasperFillManager.fillReport(report, params);
+	}
+	
+	protected byte[] export(JasperPrint print, boolean streaming) throws JRException
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		
+		SimpleXlsxReportConfiguration reportConfiguration = new SimpleXlsxReportConfiguration();
+		reportConfiguration.setOnePagePerSheet(true);
+		SimpleXlsxExporterConfiguration exporterConfiguration = new SimpleXlsxExporterConfiguration();
+		exporterConfiguration.setStreaming(streaming);
+		
+		JRXlsxExporter exporter = new JRXlsxExporter();
+		exporter.setExporterInput(new SimpleExporterInput(print));
+		exporter.setExporterOutput(new SimpleOutputStreamExporterOutput(out));
+		exporter.setConfiguration(reportConfiguration);
+		exporter.setConfiguration(exporterConfiguration);
+		exporter.exportReport();
+		
+		return out.toByteArray();
+	}
+	
+	protected Map<String, byte[]> readEntries(byte[] data) throws IOException
+	{
+		Map<String, byte[]> entries = new LinkedHashMap<String, byte[]>();
+		ZipInputStream zipInput = new ZipInputStream(new ByteArrayInputStream(data));
+		try
+		{
+			byte[] buffer = new byte[4096];
+			ZipEntry entry;
+			while ((entry = zipInput.getNextEntry()) != null)
+			{
+				ByteArrayOutputStream entryData = new ByteArrayOutputStream();
+				int read;
+				while ((read = zipInput.read(buffer)) > 0)
+				{
+					entryData.write(buffer, 0, read);
+				}
+				assert entries.put(entry.getName(), entryData.toByteArray()) == null : entry.getName();
+			}
+		}
+		finally
+		{
+			zipInput.close();
+		}
+		return entries;
+	}
+}
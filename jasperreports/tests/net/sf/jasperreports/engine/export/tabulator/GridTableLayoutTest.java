@@ -0,0 +1,142 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.export.tabulator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import net.sf.jasperreports.engine.JRPrintElement;
+import net.sf.jasperreports.engine.base.JRBasePrintFrame;
+import net.sf.jasperreports.engine.base.JRBasePrintText;
+import net.sf.jasperreports.engine.export.PrintElementIndex;
+
+/**
+ * Tests for {@link GridTableLayout}.
+ */
+public class GridTableLayoutTest
+{
+
+	@Test
+	public void sameAsGenericLayout()
+	{
+		List<JRPrintElement> elements = new ArrayList<JRPrintElement>();
+		for (int row = 0; row < 4; row++)
+		{
+			elements.add(element(0, row * 20, 100, 20));
+			elements.add(element(100, row * 20, 50, 20));
+			elements.add(element(170, row * 20 + 5, 30, 10));
+		}
+		elements.add(element(0, 80, 200, 40));
+
+		JRBasePrintFrame frame = new JRBasePrintFrame(null);
+		frame.setX(10);
+		frame.setY(130);
+		frame.setWidth(150);
+		frame.setHeight(50);
+		frame.addElement(element(0, 0, 60, 20));
+		frame.addElement(element(60, 0, 90, 20));
+		frame.addElement(element(30, 20, 60, 30));
+		// does not fit in the frame
+		frame.addElement(element(140, 40, 20, 20));
+		elements.add(frame);
+
+		Tabulator tabulator = new Tabulator(null, elements);
+		Table gridTable = new Table(tabulator);
+		assert new GridTableLayout(tabulator).layout(elements, gridTable);
+
+		Table genericTable = new Table(tabulator);
+		tabulator.layoutElements(elements, genericTable, null, null, 0, 0, null);
+
+		assert describe(gridTable).equals(describe(genericTable));
+	}
+
+	@Test
+	public void overlap()
+	{
+		List<JRPrintElement> elements = new ArrayList<JRPrintElement>();
+		elements.add(element(0, 0, 100, 20));
+		elements.add(element(50, 10, 100, 20));
+
+		Tabulator tabulator = new Tabulator(null, elements);
+		assert !new GridTableLayout(tabulator).layout(elements, new Table(tabulator));
+
+		tabulator.tabulate();
+		Table genericTable = new Table(tabulator);
+		tabulator.layoutElements(elements, genericTable, null, null, 0, 0, null);
+		String layout = describe(tabulator.getTable());
+		assert layout.equals(describe(genericTable));
+		assert layout.contains("L");
+	}
+
+	protected static JRPrintElement element(int x, int y, int width, int height)
+	{
+		JRBasePrintText text = new JRBasePrintText(null);
+		text.setX(x);
+		text.setY(y);
+		text.setWidth(width);
+		text.setHeight(height);
+		return text;
+	}
+
+	protected static String describe(Table table)
+	{
+		StringBuilder description = new StringBuilder();
+		for (Column column : table.getColumns().getEntries())
+		{
+			description.append(column.getStartCoord()).append(' ');
+		}
+		description.append('\n');
+		for (Row row : table.getRows().getEntries())
+		{
+			description.append(row.getStartCoord()).append(':');
+			for (Column column : table.getColumns().getEntries())
+			{
+				description.append(' ').append(describe(row.getCell(column)));
+			}
+			description.append('\n');
+		}
+		return description.toString();
+	}
+
+	protected static String describe(Cell cell)
+	{
+		if (cell == null)
+		{
+			return "-";
+		}
+		if (cell instanceof SplitCell)
+		{
+			return "S(" + describe(((SplitCell) cell).getSourceCell()) + ")";
+		}
+		if (cell instanceof LayeredCell)
+		{
+			return "L";
+		}
+		BaseElementCell elementCell = (BaseElementCell) cell;
+		return (cell instanceof FrameCell ? "F" : "E")
+				+ PrintElementIndex.asAddress(elementCell.getParentIndex(), elementCell.getElementIndex());
+	}
+}
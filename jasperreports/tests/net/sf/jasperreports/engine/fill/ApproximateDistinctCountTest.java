@@ -0,0 +1,243 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.fill;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRPrintElement;
+import net.sf.jasperreports.engine.JRPrintFrame;
+import net.sf.jasperreports.engine.JRPrintText;
+import net.sf.jasperreports.engine.JRRuntimeException;
+import net.sf.jasperreports.engine.JasperCompileManager;
+import net.sf.jasperreports.engine.JasperFillManager;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.data.JRMapCollectionDataSource;
+import net.sf.jasperreports.engine.type.CalculationEnum;
+import net.sf.jasperreports.engine.util.HyperLogLog;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for {@link HyperLogLog} and {@link JRApproximateDistinctCountIncrementerFactory}.
+ */
+public class ApproximateDistinctCountTest
+{
+	
+	@Test
+	public void smallCardinalities()
+	{
+		HyperLogLog sketch = new HyperLogLog(HyperLogLog.DEFAULT_PRECISION);
+		assertEquals(sketch.estimate(), 0);
+		
+		for (int i = 0; i < 100; i++)
+		{
+			sketch.add("value" + i);
+			sketch.add("value" + i);
+			sketch.add(null);
+		}
+		assertEquals(sketch.estimate(), 100);
+	}
+	
+	@Test
+	public void largeCardinalities()
+	{
+		for (int precision : new int[]{10, 14})
+		{
+			HyperLogLog sketch = new HyperLogLog(precision);
+			int count = 500000;
+			for (int i = 0; i < count; i++)
+			{
+				sketch.add((long) i);
+				sketch.add((long) (i / 2));
+			}
+			
+			// 4 standard errors
+			double tolerance = 4 * 1.04 / Math.sqrt(1 << precision);
+			assertError(sketch.estimate(), count, tolerance);
+		}
+	}
+	
+	@Test
+	public void valueTypes()
+	{
+		HyperLogLog sketch = new HyperLogLog(12);
+		long time = System.currentTimeMillis();
+		for (int i = 0; i < 1000; i++)
+		{
+			sketch.add(new Date(time + i));
+			sketch.add(new BigDecimal(i).movePointLeft(2));
+			sketch.add(Integer.toHexString(i));
+		}
+		assertError(sketch.estimate(), 3000, 0.1);
+	}
+	
+	@Test
+	public void estimateWith()
+	{
+		HyperLogLog sketch = new HyperLogLog(HyperLogLog.DEFAULT_PRECISION);
+		for (int i = 0; i < 50000; i++)
+		{
+			long hash = HyperLogLog.hash("v" + i);
+			long expected = sketch.estimateWith(hash);
+			sketch.addHash(hash);
+			assertEquals(sketch.estimate(), expected);
+		}
+	}
+	
+	@Test
+	public void merge()
+	{
+		HyperLogLog sketch1 = new HyperLogLog(HyperLogLog.DEFAULT_PRECISION);
+		HyperLogLog sketch2 = new HyperLogLog(HyperLogLog.DEFAULT_PRECISION);
+		HyperLogLog union = new HyperLogLog(HyperLogLog.DEFAULT_PRECISION);
+		for (int i = 0; i < 100000; i++)
+		{
+			sketch1.add(i);
+			sketch2.add(i + 50000);
+			union.add(i);
+			union.add(i + 50000);
+		}
+		
+		HyperLogLog merged = new HyperLogLog(sketch1);
+		merged.merge(sketch2);
+		assertEquals(merged.estimate(), union.estimate());
+		assertError(merged.estimate(), 150000, 0.04);
+	}
+	
+	@Test(expectedExceptions = JRRuntimeException.class)
+	public void invalidPrecision()
+	{
+		new HyperLogLog(HyperLogLog.MAX_PRECISION + 1);
+	}
+	
+	@Test
+	public void holder()
+	{
+		ApproximateDistinctCountHolder holder = new ApproximateDistinctCountHolder(HyperLogLog.DEFAULT_PRECISION);
+		assertEquals(holder.getCount(), 0);
+		
+		for (int i = 0; i < 20; i++)
+		{
+			// each value is counted before being added to the sketch
+			holder = new ApproximateDistinctCountHolder(holder, "value" + (i % 10));
+			assertEquals(holder.getCount(), Math.min(i + 1, 10));
+			holder.addLastValue();
+			assertEquals(holder.getCount(), Math.min(i + 1, 10));
+		}
+		
+		holder.init();
+		assertEquals(holder.getCount(), 0);
+	}
+	
+	@Test
+	public void factoryIncrementers()
+	{
+		JRApproximateDistinctCountIncrementerFactory factory = new JRApproximateDistinctCountIncrementerFactory();
+		assertEquals(factory.getPrecision(), HyperLogLog.DEFAULT_PRECISION);
+		assertTrue(factory.getExtendedIncrementer(
+				CalculationEnum.NOTHING) instanceof JRApproximateDistinctCountIncrementer);
+		assertTrue(factory.getExtendedIncrementer(
+				CalculationEnum.DISTINCT_COUNT) instanceof JRValueClassIncrementer);
+	}
+	
+	@Test
+	public void crosstabMeasure() throws JRException
+	{
+		JasperReport report;
+		InputStream jrxml = getClass().getResourceAsStream("ApproximateDistinctCountCrosstab.jrxml");
+		try
+		{
+			report = JasperCompileManager.compileReport(jrxml);
+		}
+		finally
+		{
+			close(jrxml);
+		}
+		
+		String[] regions = {"A", "A", "A", "A", "B", "B"};
+		int[] customers = {1, 2, 2, 3, 3, 4};
+		List<Map<String, ?>> rows = new ArrayList<Map<String, ?>>();
+		for (int i = 0; i < regions.length; i++)
+		{
+			Map<String, Object> row = new HashMap<String, Object>();
+			row.put("region", regions[i]);
+			row.put("customer", customers[i]);
+			rows.add(row);
+		}
+		
+		// the Integer measure is read as such by the cell expressions
+		JasperPrint print = JasperFillManager.fillReport(report, new HashMap<String, Object>(), 
+				new JRMapCollectionDataSource(rows));
+		List<String> texts = new ArrayList<String>();
+		collectTexts(print.getPages().get(0).getElements(), texts);
+		assertTrue(texts.contains("count 3"), texts.toString());
+		assertTrue(texts.contains("count 2"), texts.toString());
+		assertTrue(texts.contains("total 4"), texts.toString());
+	}
+	
+	protected void collectTexts(List<JRPrintElement> elements, List<String> texts)
+	{
+		for (JRPrintElement element : elements)
+		{
+			if (element instanceof JRPrintFrame)
+			{
+				collectTexts(((JRPrintFrame) element).getElements(), texts);
+			}
+			else if (element instanceof JRPrintText)
+			{
+				texts.add(((JRPrintText) element).getFullText());
+			}
+		}
+	}
+	
+	protected void close(InputStream stream)
+	{
+		try
+		{
+			stream.close();
+		}
+		catch (IOException e)
+		{
+			// ignore
+		}
+	}
+	
+	protected void assertError(long estimate, long count, double tolerance)
+	{
+		double error = Math.abs(estimate - count) / (double) count;
+		assertTrue(error <= tolerance, "estimate " + estimate + " for " + count + ", error " + error);
+	}
+}
@@ -0,0 +1,82 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.fill;
+
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import net.sf.jasperreports.engine.JRPrintElement;
+import net.sf.jasperreports.engine.JRPrintText;
+
+/**
+ * Tests for {@link ColumnarPrintPage}.
+ */
+public class ColumnarPrintPageTest
+{
+
+	@Test
+	public void sameInstances()
+	{
+		JRTemplateText template = new JRTemplateText(null, null);
+		ColumnarPrintPage page = new ColumnarPrintPage();
+		for (int i = 0; i < 10; i++)
+		{
+			JRTemplatePrintText text = new JRTemplatePrintText(template, i);
+			text.setY(i * 20);
+			text.setHeight(20);
+			text.setWidth(100);
+			text.setText("text " + i);
+			page.addElement(text);
+		}
+		page.compact();
+		assert page.isCompacted();
+		
+		List<JRPrintElement> elements = page.getElements();
+		JRPrintElement element = elements.get(3);
+		assert element.getY() == 60;
+		assert ((JRPrintText) element).getFullText().equals("text 3");
+		assert elements.get(3) == element;
+		for (JRPrintElement e : elements)
+		{
+			assert e == elements.get(e.getY() / 20);
+		}
+		
+		// written back elements replace the cached instances
+		JRTemplatePrintText replacement = new JRTemplatePrintText(template, 3);
+		replacement.setY(70);
+		replacement.setText("replaced");
+		assert elements.set(3, replacement) == element;
+		assert elements.get(3) == replacement;
+		assert page.isCompacted();
+		
+		// expanding the page keeps the instances
+		JRPrintElement first = elements.get(0);
+		page.addElement(new JRTemplatePrintText(template, 10));
+		assert !page.isCompacted();
+		assert elements.get(0) == first;
+		assert elements.get(3) == replacement;
+		assert elements.size() == 11;
+	}
+}
@@ -0,0 +1,88 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.fill;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import org.testng.annotations.Test;
+
+import net.sf.jasperreports.engine.design.JRDesignSortField;
+import net.sf.jasperreports.engine.fill.SortedDataSource.SortRecord;
+import net.sf.jasperreports.engine.type.SortOrderEnum;
+
+/**
+ * Tests for {@link ParallelRecordSorter}.
+ */
+public class ParallelRecordSorterTest
+{
+	
+	private static final String[] NAMES = {"apple", "Apple", "éclair", "eclair", "Eclair", "zebra", "Ärger", "arger"};
+	
+	@Test
+	public void smallSort()
+	{
+		assertSameOrder(100);
+	}
+	
+	@Test
+	public void parallelSort()
+	{
+		assertSameOrder(5 * ParallelRecordSorter.SEQUENTIAL_SORT_SIZE + 17);
+	}
+	
+	protected void assertSameOrder(int recordCount)
+	{
+		DatasetSortInfo sortInfo = new DatasetSortInfo();
+		sortInfo.addRecordField("name");
+		sortInfo.addRecordField("amount");
+		
+		JRDesignSortField nameSort = new JRDesignSortField();
+		nameSort.setName("name");
+		sortInfo.addSortField(nameSort, 0, true);
+		
+		JRDesignSortField amountSort = new JRDesignSortField();
+		amountSort.setName("amount");
+		amountSort.setOrder(SortOrderEnum.DESCENDING);
+		sortInfo.addSortField(amountSort, 1, false);
+		
+		Random random = new Random(recordCount);
+		List<SortRecord> records = new ArrayList<SortRecord>(recordCount);
+		for (int i = 0; i < recordCount; i++)
+		{
+			// plenty of duplicate keys to check that the sort is stable
+			int nameIndex = random.nextInt(NAMES.length + 1);
+			String name = nameIndex == NAMES.length ? null : NAMES[nameIndex];
+			Integer amount = random.nextInt(20) == 0 ? null : random.nextInt(10);
+			records.add(new SortRecord(new Object[]{name, amount}, i));
+		}
+		
+		int[] expected = DatasetSortUtil.sortIndexes(sortInfo, Locale.FRENCH, records, false);
+		int[] sorted = DatasetSortUtil.sortIndexes(sortInfo, Locale.FRENCH, records, true);
+		assert Arrays.equals(expected, sorted);
+	}
+}
@@ -0,0 +1,245 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.fill;
+
+import java.util.Random;
+
+import org.testng.annotations.Test;
+
+import net.sf.jasperreports.engine.JRExpression;
+import net.sf.jasperreports.engine.design.JRDesignVariable;
+import net.sf.jasperreports.engine.type.CalculationEnum;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+
+/**
+ * Checks that {@link JRPrimitiveIncrementer primitive incrementers} produce the same values
+ * as the default boxed incrementers.
+ */
+public class PrimitiveIncrementerTest
+{
+	
+	private static final Class<?>[] VALUE_CLASSES = {Long.class, Integer.class, Short.class, Byte.class, 
+		Double.class, Float.class, Number.class};
+	
+	@Test
+	public void unsupportedVariables()
+	{
+		assertNull(createVariable(java.math.BigDecimal.class, CalculationEnum.SUM).getPrimitiveIncrementer());
+		assertNull(createVariable(Long.class, CalculationEnum.HIGHEST).getPrimitiveIncrementer());
+		
+		JRDesignVariable custom = new JRDesignVariable();
+		custom.setName("custom");
+		custom.setValueClass(Long.class);
+		custom.setCalculation(CalculationEnum.SUM);
+		custom.setIncrementerFactoryClassName(JRApproximateDistinctCountIncrementerFactory.class.getName());
+		assertNull(createVariable(custom).getPrimitiveIncrementer());
+		
+		// no helpers
+		assertNull(createVariable(Long.class, CalculationEnum.AVERAGE).getPrimitiveIncrementer());
+	}
+	
+	@Test
+	public void sameValues()
+	{
+		for (Class<?> valueClass : VALUE_CLASSES)
+		{
+			for (long seed = 0; seed < 5; seed++)
+			{
+				assertSameValues(valueClass, new Random(seed));
+			}
+		}
+	}
+	
+	protected void assertSameValues(Class<?> valueClass, Random random)
+	{
+		JRFillVariable[] primitive = createAverageVariables(valueClass);
+		JRFillVariable[] boxed = createAverageVariables(valueClass);
+		for (JRFillVariable variable : primitive)
+		{
+			assertNotNull(variable.getPrimitiveIncrementer(), variable.getName());
+		}
+		
+		for (int row = 0; row < 200; row++)
+		{
+			Number expressionValue = random.nextInt(5) == 0 ? null : randomValue(valueClass, random);
+			
+			for (int i = 0; i < primitive.length; i++)
+			{
+				primitive[i].setOldValues();
+				boxed[i].setPreviousOldValue(boxed[i].getOldValue());
+				boxed[i].setOldValue(boxed[i].getValue());
+			}
+			
+			increment(primitive, boxed, expressionValue, JRExpression.EVALUATION_ESTIMATED);
+			
+			if (random.nextInt(20) == 0)
+			{
+				for (int i = 0; i < primitive.length; i++)
+				{
+					primitive[i].setValue(null);
+					primitive[i].setInitialized(true);
+					primitive[i].setIncrementedValue(null);
+					boxed[i].setValue(null);
+					boxed[i].setInitialized(true);
+					boxed[i].setIncrementedValue(null);
+				}
+			}
+			
+			increment(primitive, boxed, expressionValue, JRExpression.EVALUATION_DEFAULT);
+			
+			for (int i = 0; i < primitive.length; i++)
+			{
+				primitive[i].setInitialized(false);
+				boxed[i].setInitialized(false);
+				primitive[i].updateIncrementedValue();
+				boxed[i].setIncrementedValue(boxed[i].getValue());
+				
+				String message = valueClass.getName() + " " + boxed[i].getName() + " at row " + row;
+				assertEquals(primitive[i].getValue(), boxed[i].getValue(), message);
+				assertEquals(primitive[i].getEstimatedValue(), boxed[i].getEstimatedValue(), message);
+				assertEquals(primitive[i].getOldValue(), boxed[i].getOldValue(), message);
+				assertEquals(primitive[i].getPreviousOldValue(), boxed[i].getPreviousOldValue(), message);
+				assertEquals(primitive[i].getIncrementedValue(), boxed[i].getIncrementedValue(), message);
+			}
+			
+			if (random.nextInt(50) == 0)
+			{
+				for (int i = 0; i < primitive.length; i++)
+				{
+					primitive[i].revertToOldValues();
+					boxed[i].setValue(boxed[i].getOldValue());
+					boxed[i].setOldValue(boxed[i].getPreviousOldValue());
+					assertEquals(primitive[i].getValue(), boxed[i].getValue());
+					assertEquals(primitive[i].getOldValue(), boxed[i].getOldValue());
+				}
+			}
+		}
+	}
+
+	protected void increment(JRFillVariable[] primitive, JRFillVariable[] boxed, 
+			Number expressionValue, byte evaluation)
+	{
+		for (int i = 0; i < primitive.length; i++)
+		{
+			String primitiveError = null;
+			try
+			{
+				primitive[i].getPrimitiveIncrementer().increment(primitive[i], expressionValue, evaluation);
+			}
+			catch (ArithmeticException e)
+			{
+				primitiveError = e.getMessage();
+			}
+			
+			String boxedError = null;
+			try
+			{
+				AbstractValueProvider valueProvider = evaluation == JRExpression.EVALUATION_ESTIMATED
+						? AbstractValueProvider.getEstimatedValueProvider() : AbstractValueProvider.getCurrentValueProvider();
+				Object value = boxed[i].getIncrementer().increment(boxed[i], expressionValue, valueProvider);
+				if (evaluation == JRExpression.EVALUATION_ESTIMATED)
+				{
+					boxed[i].setEstimatedValue(value);
+				}
+				else
+				{
+					boxed[i].setValue(value);
+				}
+			}
+			catch (ArithmeticException e)
+			{
+				boxedError = e.getMessage();
+			}
+			catch (Exception e)
+			{
+				throw new RuntimeException(e);
+			}
+			
+			// integral averages divide by zero when the narrow counts overflow
+			assertEquals(primitiveError, boxedError);
+			if (boxedError != null)
+			{
+				return;
+			}
+		}
+	}
+	
+	protected Number randomValue(Class<?> valueClass, Random random)
+	{
+		int value = random.nextInt(2000) - 500;
+		Number number;
+		if (Long.class.equals(valueClass))
+		{
+			number = (long) value * Integer.MAX_VALUE;
+		}
+		else if (Integer.class.equals(valueClass))
+		{
+			number = value * 5000000;
+		}
+		else if (Short.class.equals(valueClass))
+		{
+			number = (short) value;
+		}
+		else if (Byte.class.equals(valueClass))
+		{
+			number = (byte) value;
+		}
+		else if (Float.class.equals(valueClass))
+		{
+			number = value / 7f;
+		}
+		else
+		{
+			number = value / 7d;
+		}
+		return number;
+	}
+
+	protected JRFillVariable[] createAverageVariables(Class<?> valueClass)
+	{
+		JRFillVariable count = createVariable(valueClass, CalculationEnum.COUNT);
+		JRFillVariable sum = createVariable(valueClass, CalculationEnum.SUM);
+		JRFillVariable average = createVariable(valueClass, CalculationEnum.AVERAGE);
+		average.setHelperVariable(count, JRCalculable.HELPER_COUNT);
+		average.setHelperVariable(sum, JRCalculable.HELPER_SUM);
+		return new JRFillVariable[]{count, sum, average};
+	}
+	
+	protected JRFillVariable createVariable(Class<?> valueClass, CalculationEnum calculation)
+	{
+		JRDesignVariable variable = new JRDesignVariable();
+		variable.setName(calculation.getName());
+		variable.setValueClass(valueClass);
+		variable.setCalculation(calculation);
+		return createVariable(variable);
+	}
+	
+	protected JRFillVariable createVariable(JRDesignVariable variable)
+	{
+		return new JRFillVariable(variable, new JRFillObjectFactory((JRBaseFiller) null, null));
+	}
+}
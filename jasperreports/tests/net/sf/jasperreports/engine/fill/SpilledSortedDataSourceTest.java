@@ -0,0 +1,313 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.fill;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRPrintElement;
+import net.sf.jasperreports.engine.JRPrintPage;
+import net.sf.jasperreports.engine.JRPrintText;
+import net.sf.jasperreports.engine.JRRuntimeException;
+import net.sf.jasperreports.engine.JasperCompileManager;
+import net.sf.jasperreports.engine.JasperFillManager;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.data.JRMapCollectionDataSource;
+import net.sf.jasperreports.engine.design.JRDesignBand;
+import net.sf.jasperreports.engine.design.JRDesignExpression;
+import net.sf.jasperreports.engine.design.JRDesignField;
+import net.sf.jasperreports.engine.design.JRDesignSection;
+import net.sf.jasperreports.engine.design.JRDesignSortField;
+import net.sf.jasperreports.engine.design.JRDesignTextField;
+import net.sf.jasperreports.engine.design.JasperDesign;
+import net.sf.jasperreports.engine.fill.SortedDataSource.SortRecord;
+import net.sf.jasperreports.engine.fill.SpilledSortedDataSource.SortRun;
+import net.sf.jasperreports.engine.type.SortOrderEnum;
+
+/**
+ * Tests for {@link SpilledSortedDataSource}.
+ */
+public class SpilledSortedDataSourceTest
+{
+	
+	private static final int RECORD_COUNT = 100;
+	private static final int RUN_SIZE = 7;
+	
+	@Test
+	public void mergedOrder()
+	{
+		DatasetSortInfo sortInfo = sortInfo();
+		SortedDataSource expected = new SortedDataSource(sortInfo, records(0, RECORD_COUNT), 
+				DatasetSortUtil.sortIndexes(sortInfo, Locale.US, records(0, RECORD_COUNT), false));
+		SortRunWriter runWriter = runWriter(sortInfo);
+		List<SortRun> runs = new ArrayList<SortRun>(runWriter.getRuns());
+		assert runs.size() == (RECORD_COUNT - 1) / RUN_SIZE + 1;
+		SpilledSortedDataSource spilled = spilledDataSource(sortInfo, runWriter);
+		try
+		{
+			assertSameOrder(expected, spilled);
+			
+			expected.moveFirst();
+			spilled.moveFirst();
+			assertSameOrder(expected, spilled);
+		}
+		finally
+		{
+			spilled.dispose();
+		}
+		
+		for (SortRun run : runs)
+		{
+			assert !run.file.exists();
+		}
+		
+		try
+		{
+			spilled.moveFirst();
+			spilled.next();
+			assert false;
+		}
+		catch (JRRuntimeException e)
+		{
+			// expected
+		}
+	}
+	
+	@Test
+	public void filteredRecords()
+	{
+		DatasetSortInfo sortInfo = sortInfo();
+		SortedDataSource expected = new SortedDataSource(sortInfo, records(0, RECORD_COUNT), 
+				DatasetSortUtil.sortIndexes(sortInfo, Locale.US, records(0, RECORD_COUNT), false));
+		SpilledSortedDataSource spilled = spilledDataSource(sortInfo, runWriter(sortInfo));
+		try
+		{
+			int filteredCount = 0;
+			while (expected.next())
+			{
+				assert spilled.next();
+				if (expected.getRecordIndex() % 3 == 0)
+				{
+					expected.setRecordFilteredIndex(filteredCount);
+					spilled.setRecordFilteredIndex(filteredCount);
+					++filteredCount;
+				}
+			}
+			
+			Iterator<SortRecord> spilledIt = spilled.originalOrderIterator();
+			for (Iterator<SortRecord> it = expected.originalOrderIterator(); it.hasNext();)
+			{
+				SortRecord expectedRecord = it.next();
+				SortRecord spilledRecord = spilledIt.next();
+				assert expectedRecord.isFiltered() == spilledRecord.isFiltered();
+				assert expectedRecord.getRecordIndex() == spilledRecord.getRecordIndex();
+				assert expectedRecord.fieldValue(0).equals(spilledRecord.fieldValue(0));
+			}
+			assert !spilledIt.hasNext();
+		}
+		finally
+		{
+			spilled.dispose();
+		}
+	}
+	
+	@Test
+	public void spillThreshold() throws JRException, IOException
+	{
+		File directory = File.createTempFile("jr_sort_test", "");
+		assert directory.delete() && directory.mkdir();
+		try
+		{
+			JasperReport report = JasperCompileManager.compileReport(sortedDesign(directory, 10));
+			
+			// as many records as the threshold are sorted in memory
+			assert fillSorted(report, 10, directory) == 0;
+			
+			// one more record writes a run before the data source is exhausted
+			assert fillSorted(report, 11, directory) == 1;
+			assert fillSorted(report, 25, directory) == 2;
+			
+			assert directory.list().length == 0;
+		}
+		finally
+		{
+			for (File file : directory.listFiles())
+			{
+				file.delete();
+			}
+			directory.delete();
+		}
+	}
+	
+	protected JasperDesign sortedDesign(File directory, int spillThreshold) throws JRException
+	{
+		JasperDesign design = new JasperDesign();
+		design.setName("sorted");
+		design.setProperty(DatasetSortUtil.PROPERTY_SPILL_THRESHOLD, String.valueOf(spillThreshold));
+		design.setProperty(DatasetSortUtil.PROPERTY_SPILL_DIRECTORY, directory.getAbsolutePath());
+		
+		JRDesignField field = field("n");
+		field.setValueClass(Integer.class);
+		design.addField(field);
+		
+		JRDesignSortField sortField = new JRDesignSortField();
+		sortField.setName("n");
+		sortField.setOrder(SortOrderEnum.DESCENDING);
+		design.addSortField(sortField);
+		
+		JRDesignTextField textField = new JRDesignTextField();
+		textField.setWidth(100);
+		textField.setHeight(10);
+		textField.setExpression(new JRDesignExpression("String.valueOf($F{n})"));
+		JRDesignBand detail = new JRDesignBand();
+		detail.setHeight(10);
+		detail.addElement(textField);
+		((JRDesignSection) design.getDetailSection()).addBand(detail);
+		return design;
+	}
+	
+	/**
+	 * Fills a sorted report and returns the number of run files that existed when the
+	 * report data source was exhausted.
+	 */
+	protected int fillSorted(JasperReport report, int recordCount, final File directory) throws JRException
+	{
+		List<Map<String, ?>> rows = new ArrayList<Map<String, ?>>();
+		for (int i = 0; i < recordCount; i++)
+		{
+			Map<String, Object> row = new HashMap<String, Object>();
+			row.put("n", i);
+			rows.add(row);
+		}
+		
+		final int[] runCount = new int[1];
+		JRMapCollectionDataSource dataSource = new JRMapCollectionDataSource(rows)
+		{
+			@Override
+			public boolean next()
+			{
+				boolean next = super.next();
+				if (!next)
+				{
+					runCount[0] = directory.list().length;
+				}
+				return next;
+			}
+		};
+		JasperPrint print = JasperFillManager.fillReport(report, new HashMap<String, Object>(), dataSource);
+		
+		int expected = recordCount;
+		for (JRPrintPage page : print.getPages())
+		{
+			for (JRPrintElement element : page.getElements())
+			{
+				assert ((JRPrintText) element).getFullText().equals(String.valueOf(--expected));
+			}
+		}
+		assert expected == 0;
+		return runCount[0];
+	}
+	
+	protected void assertSameOrder(SortedDataSource expected, SortedDataSource spilled)
+	{
+		JRDesignField nameField = field("name");
+		JRDesignField amountField = field("amount");
+		int count = 0;
+		while (expected.next())
+		{
+			assert spilled.next();
+			assert expected.getRecordIndex() == spilled.getRecordIndex();
+			assert expected.getFieldValue(nameField).equals(spilled.getFieldValue(nameField));
+			assert expected.getFieldValue(amountField).equals(spilled.getFieldValue(amountField));
+			++count;
+		}
+		assert !spilled.next();
+		assert count == RECORD_COUNT;
+	}
+	
+	protected SortRunWriter runWriter(DatasetSortInfo sortInfo)
+	{
+		SortRunWriter runWriter = new SortRunWriter(null);
+		for (int start = 0; start < RECORD_COUNT; start += RUN_SIZE)
+		{
+			List<SortRecord> run = records(start, Math.min(start + RUN_SIZE, RECORD_COUNT));
+			runWriter.writeRun(run, DatasetSortUtil.sortIndexes(sortInfo, Locale.US, run, false));
+		}
+		return runWriter;
+	}
+	
+	protected SpilledSortedDataSource spilledDataSource(DatasetSortInfo sortInfo, SortRunWriter runWriter)
+	{
+		return new SpilledSortedDataSource(sortInfo, new DataSourceComparator(sortInfo, Locale.US, null), runWriter);
+	}
+	
+	protected DatasetSortInfo sortInfo()
+	{
+		DatasetSortInfo sortInfo = new DatasetSortInfo();
+		sortInfo.addRecordField("name");
+		sortInfo.addRecordField("category");
+		sortInfo.addRecordField("amount");
+		
+		JRDesignSortField categorySort = new JRDesignSortField();
+		categorySort.setName("category");
+		sortInfo.addSortField(categorySort, 1, true);
+		
+		JRDesignSortField amountSort = new JRDesignSortField();
+		amountSort.setName("amount");
+		amountSort.setOrder(SortOrderEnum.DESCENDING);
+		sortInfo.addSortField(amountSort, 2, false);
+		return sortInfo;
+	}
+	
+	protected List<SortRecord> records(int start, int end)
+	{
+		List<SortRecord> records = new ArrayList<SortRecord>();
+		for (int i = start; i < end; i++)
+		{
+			// plenty of duplicate keys to check that the merge is stable
+			String category = i % 11 == 0 ? null : "category " + (i * 7 % 5);
+			BigDecimal amount = BigDecimal.valueOf(i * 13 % 4, 1);
+			records.add(new SortRecord(new Object[]{"record " + i, category, amount}, i));
+		}
+		return records;
+	}
+	
+	protected JRDesignField field(String name)
+	{
+		JRDesignField field = new JRDesignField();
+		field.setName(name);
+		return field;
+	}
+}
@@ -0,0 +1,113 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.fill;
+
+import java.text.AttributedCharacterIterator.Attribute;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+import net.sf.jasperreports.engine.JasperReportsContext;
+import net.sf.jasperreports.engine.SimpleJasperReportsContext;
+import net.sf.jasperreports.engine.design.JRDesignTextField;
+import net.sf.jasperreports.engine.fonts.FontUtil;
+import net.sf.jasperreports.engine.util.JRStyledText;
+
+/**
+ * Tests for {@link TextMeasurementCache}.
+ */
+public class TextMeasurementCacheTest
+{
+	
+	private static final String TEXT = "The quick brown fox jumps over the lazy dog";
+	
+	@Test
+	public void disabled()
+	{
+		assert TextMeasurementCache.getInstance(new SimpleJasperReportsContext()) == null;
+	}
+	
+	@Test
+	public void measurements()
+	{
+		SimpleJasperReportsContext context = new SimpleJasperReportsContext();
+		context.setProperty(TextMeasurementCache.PROPERTY_MAX_ENTRIES, "10");
+		TextMeasurementCache cache = TextMeasurementCache.getInstance(context);
+		assert cache != null && cache == TextMeasurementCache.getInstance(context);
+		
+		JRDesignTextField textField = textField(80, 10);
+		JRMeasuredText expected = new TextMeasurer(new SimpleJasperReportsContext(), textField)
+				.measure(styledText(context, textField, TEXT), 0, 200, false);
+		assert expected.getTextOffset() == TEXT.length();
+		
+		JRMeasuredText measured = new TextMeasurer(context, textField).measure(styledText(context, textField, TEXT), 0, 200, false);
+		assertSame(expected, measured);
+		assert cache.size() == 1 && cache.getHitCount() == 0;
+		
+		// another element with the same settings
+		measured = new TextMeasurer(context, textField(80, 10)).measure(styledText(context, textField, TEXT), 0, 100, false);
+		assertSame(expected, measured);
+		assert cache.getHitCount() == 1;
+		
+		// not enough height for the cached measurement
+		measured = new TextMeasurer(context, textField).measure(styledText(context, textField, TEXT), 0, 0, false);
+		assert measured.getTextOffset() < TEXT.length();
+		assert cache.getHitCount() == 1 && cache.size() == 1;
+		
+		// different width
+		measured = new TextMeasurer(context, textField(100, 10)).measure(styledText(context, textField, TEXT), 0, 200, false);
+		assert cache.getHitCount() == 1 && cache.size() == 2;
+		assert cache.getHitRatio() > 0 && cache.getHitRatio() < 1;
+		
+		cache.clear();
+		assert cache.size() == 0;
+	}
+	
+	protected void assertSame(JRMeasuredText expected, JRMeasuredText measured)
+	{
+		assert measured.getTextOffset() == expected.getTextOffset();
+		assert measured.getTextHeight() == expected.getTextHeight();
+		assert measured.getTextWidth() == expected.getTextWidth();
+		assert measured.getLeadingOffset() == expected.getLeadingOffset();
+		assert Arrays.equals(measured.getLineBreakOffsets(), expected.getLineBreakOffsets());
+	}
+	
+	protected JRDesignTextField textField(int width, int height)
+	{
+		JRDesignTextField textField = new JRDesignTextField();
+		textField.setWidth(width);
+		textField.setHeight(height);
+		return textField;
+	}
+	
+	protected JRStyledText styledText(JasperReportsContext context, JRDesignTextField textField, String text)
+	{
+		Map<Attribute, Object> attributes = new HashMap<Attribute, Object>();
+		FontUtil.getInstance(context).getAttributesWithoutAwtFont(attributes, textField);
+		return new JRStyledText(Locale.US, text, attributes);
+	}
+}
@@ -0,0 +1,272 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.util;
+
+import java.awt.font.TextAttribute;
+import java.text.AttributedCharacterIterator.Attribute;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import net.sf.jasperreports.engine.JRPrintHyperlink;
+import net.sf.jasperreports.engine.JRPrintHyperlinkParameter;
+
+/**
+ * Regression tests for {@link JRStyledTextParser}.
+ * 
+ * The expected values describe the styled text objects produced by the DOM based parser
+ * that was used before the streaming parser.
+ */
+public class JRStyledTextParserTest
+{
+	
+	@DataProvider
+	public Object[][] corpus()
+	{
+		return new Object[][] {
+			{"",
+				"|0,0[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"plain text",
+				"plain text|0,10[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"  leading and trailing  ",
+				"  leading and trailing  |0,24[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"line\nbreaks\n\n",
+				"line\nbreaks\n\n|0,13[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"windows\r\nline\rends",
+				"windows\nline\nends|0,17[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"greater > than",
+				"greater > than|0,14[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"bad ]]> sequence",
+				"bad ]]> sequence|0,16[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"control \u0001 char",
+				"control \u0001 char|0,14[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"unicode \u00E9\u4E2D\uD83D\uDE00",
+				"unicode \u00E9\u4E2D\uD83D\uDE00|0,12[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"amp &amp; lt &lt; gt &gt; quot &quot; apos &apos;",
+				"amp & lt < gt > quot \" apos '|0,29[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"char refs &#65;&#x42;&#x1F600;",
+				"char refs AB\uD83D\uDE00|0,14[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"undefined &nbsp; entity",
+				"undefined &nbsp; entity|0,23[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"dangling & ampersand",
+				"dangling & ampersand|0,20[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"unclosed <b>bold",
+				"unclosed <b>bold|0,16[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"mismatched <b><i>x</b></i>",
+				"mismatched <b><i>x</b></i>|0,26[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"unknown <span>tag</span>",
+				"unknown <span>tag</span>|0,24[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"<Style isBold=\"true\">x</Style>",
+				"<Style isBold=\"true\">x</Style>|0,30[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"<b>bold</b> <i>italic</i> <u>under</u> <sup>sup</sup> <sub>sub</sub>",
+				"bold italic under sup sub|0,4[TextAttribute(weight)=2.0]|5,11[TextAttribute(posture)=0.2]|12,17[TextAttribute(underline)=0]|18,21[TextAttribute(superscript)=1]|22,25[TextAttribute(superscript)=-1]|0,25[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"<B>upper</B><I>case</I><U>tags</U><SUP>a</SUP><SUB>b</SUB>",
+				"uppercasetagsab|0,5[TextAttribute(weight)=2.0]|5,9[TextAttribute(posture)=0.2]|9,13[TextAttribute(underline)=0]|13,14[TextAttribute(superscript)=1]|14,15[TextAttribute(superscript)=-1]|0,15[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"<b><i><u>nested</u></i> tail</b>",
+				"nested tail|0,6[TextAttribute(underline)=0]|0,6[TextAttribute(posture)=0.2]|0,11[TextAttribute(weight)=2.0]|0,11[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"<b></b><i/>empty",
+				"empty|0,0[TextAttribute(weight)=2.0]|0,0[TextAttribute(posture)=0.2]|0,5[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"<style fontName=\"Serif\" size=\"12.5\" isBold=\"false\" isItalic=\"true\" isUnderline=\"true\" isStrikeThrough=\"false\" forecolor=\"#FF0000\" backcolor=\"blue\" pdfFontName=\"Helvetica\" pdfEncoding=\"Cp1252\" isPdfEmbedded=\"true\">styled</style>",
+				"styled|0,6[JRTextAttribute(IS_PDF_EMBEDDED)=true, JRTextAttribute(PDF_ENCODING)=Cp1252, JRTextAttribute(PDF_FONT_NAME)=Helvetica, TextAttribute(background)=java.awt.Color[r=0,g=0,b=255], TextAttribute(family)=Serif, TextAttribute(foreground)=java.awt.Color[r=255,g=0,b=0], TextAttribute(posture)=0.2, TextAttribute(size)=12.5, TextAttribute(strikethrough)=null, TextAttribute(underline)=0, TextAttribute(weight)=1.0]|0,6[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"<style isUnderline=\"false\" isStrikeThrough=\"true\" forecolor=\"bogus\">x</style>",
+				"x|0,1[TextAttribute(foreground)=java.awt.Color[r=0,g=0,b=0], TextAttribute(strikethrough)=true, TextAttribute(underline)=null]|0,1[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"<style size=\"abc\">bad size</style>",
+				"!java.lang.NumberFormatException"},
+			{"<style><style isBold=\"true\">a<style isItalic=\"true\">b</style>c</style>d</style>",
+				"abcd|1,2[TextAttribute(posture)=0.2]|0,3[TextAttribute(weight)=2.0]|0,4[]|0,4[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"<font size=\"14\" color=\"#00FF00\" face=\"NoSuchFont, SansSerif\">font</font>",
+				"font|0,4[TextAttribute(family)=SansSerif, TextAttribute(foreground)=java.awt.Color[r=0,g=255,b=0], TextAttribute(size)=14.0]|0,4[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"<font face=\"NoSuchFont\">no face</font>",
+				"no face|0,7[]|0,7[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"a<br/>b",
+				"a\nb|2,2[]|0,3[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"a<BR/>b<br></br>c",
+				"a\nb\nc|2,2[]|4,4[]|0,5[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"<br/>",
+				"\n|1,1[]|0,1[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"a<br>inside</br>b",
+				"a\ninside\nb|2,9[]|0,10[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"<b>x<br/>y</b>",
+				"x\ny|2,2[]|0,3[TextAttribute(weight)=2.0]|0,3[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"<li>one</li><li>two</li>",
+				" \u2022 one\n \u2022 two|3,6[]|10,13[]|0,13[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"text<li>one</li>tail",
+				"text\n \u2022 one\ntail|8,12[]|0,16[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"text\n<li>one</li>\ntail",
+				"text\n \u2022 one\ntail|8,11[]|0,16[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"<li>one</li><b>bold</b>",
+				" \u2022 one\nbold|3,7[]|7,11[TextAttribute(weight)=2.0]|0,11[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"<li>one</li><b>\nbold</b>",
+				" \u2022 one\nbold|3,6[]|6,11[TextAttribute(weight)=2.0]|0,11[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"<li>one</li><b><i></i></b>after",
+				" \u2022 one\nafter|3,7[]|7,7[TextAttribute(posture)=0.2]|7,7[TextAttribute(weight)=2.0]|0,12[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"<li>one</li><br/>",
+				" \u2022 one\n\n|3,7[]|8,8[]|0,8[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"<li>one</li><br>\nx</br>",
+				" \u2022 one\n\nx\n|3,6[]|7,10[]|0,10[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"<li>one</li><!--\ncomment-->x",
+				" \u2022 onex|3,6[]|0,7[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"<li>one</li><!--comment-->x",
+				" \u2022 one\nx|3,7[]|0,8[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"<li>one</li><![CDATA[\ncdata]]>x",
+				" \u2022 onex|3,6[]|0,7[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"<li>one</li><?pi data?>x",
+				" \u2022 one\nx|3,7[]|0,8[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"<li></li><li></li>",
+				" \u2022 \n \u2022 |3,3[]|7,7[]|0,7[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"<li><b>bold</b> item</li>",
+				" \u2022 bold item|3,7[TextAttribute(weight)=2.0]|3,12[]|0,12[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"<LI>upper</LI>x",
+				" \u2022 upper\nx|3,9[]|0,10[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"<b><li>in bold</li></b>after",
+				" \u2022 in boldafter|3,10[]|0,10[TextAttribute(weight)=2.0]|0,15[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"<li>nested<li>inner</li></li>x",
+				" \u2022 nested\n \u2022 inner\nx|13,18[]|3,19[]|0,20[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"<![CDATA[cdata <b>content</b>]]> after",
+				" after|0,6[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"before<!-- comment -->after",
+				"beforeafter|0,11[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"before<?target data?>after",
+				"beforeafter|0,11[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"&amp;<b>&lt;</b>&amp;",
+				"&<&|1,2[TextAttribute(weight)=2.0]|0,3[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"<a href=\"http://example.com\">link</a>",
+				"link|0,4[JRTextAttribute(HYPERLINK)=link(Reference,http://example.com,null)]|0,4[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"<a href=\"http://example.com\" type=\"Reference\" target=\"Blank\">link<param name=\"p1\">v1</param><param name=\"p2\" valueClass=\"java.lang.Integer\">42</param></a>",
+				"link|0,4[JRTextAttribute(HYPERLINK)=link(Reference,http://example.com,Blank,p1:java.lang.String:v1,p2:java.lang.Integer:42)]|0,4[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"<a><b>bold link</b></a> after",
+				"bold link after|0,9[TextAttribute(weight)=2.0]|0,9[JRTextAttribute(HYPERLINK)=link(Reference,null,null)]|0,15[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"<a href=\"x\">one</a><a href=\"y\">two</a>",
+				"onetwo|0,3[JRTextAttribute(HYPERLINK)=link(Reference,x,null)]|3,6[JRTextAttribute(HYPERLINK)=link(Reference,y,null)]|0,6[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"<a href=\"x\"><a href=\"y\">nested</a></a>",
+				"<a href=\"x\"><a href=\"y\">nested</a></a>|0,38[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"<param name=\"p\">v</param>",
+				"<param name=\"p\">v</param>|0,25[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"<a href=\"x\"><param name=\"p\"><b>inner</b><![CDATA[cd]]><!--c--></param>t</a>",
+				"t|0,1[JRTextAttribute(HYPERLINK)=link(Reference,x,null,p:java.lang.String:innercd)]|0,1[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"<a href=\"x\"><param name=\"p\"/></a>",
+				"|0,0[JRTextAttribute(HYPERLINK)=link(Reference,x,null,p:java.lang.String:)]|0,0[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"<b>unknown <span>inside</span></b>",
+				"<b>unknown <span>inside</span></b>|0,34[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"x<b attr=\"1\" isBold=\"false\">y</b>z",
+				"xyz|1,2[TextAttribute(weight)=2.0]|0,3[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"},
+			{"<style isBold=\"true\">a\r\nb</style>",
+				"a\nb|0,3[TextAttribute(weight)=2.0]|0,3[TextAttribute(family)=DejaVu Sans, TextAttribute(size)=10.0]"}
+		};
+	}
+	
+	@Test(dataProvider = "corpus")
+	public void styledText(String markup, String expected)
+	{
+		String description = parse(JRStyledTextParser.getInstance(), markup);
+		assert expected.equals(description) : "for " + markup + " got " + description;
+	}
+	
+	@Test(dataProvider = "corpus")
+	public void repeatedParse(String markup, String expected)
+	{
+		// the parser instance is reused, make sure no state leaks between calls
+		JRStyledTextParser parser = JRStyledTextParser.getInstance();
+		parse(parser, "<a href=\"x\"><li>" + markup);
+		parse(parser, "<li>x</li>" + markup);
+		String description = parse(parser, markup);
+		assert expected.equals(description) : "for " + markup + " got " + description;
+	}
+	
+	protected static String parse(JRStyledTextParser parser, String markup)
+	{
+		JRStyledText styledText;
+		try
+		{
+			styledText = parser.getStyledText(globalAttributes(), markup, true, Locale.US);
+		}
+		catch (RuntimeException e)
+		{
+			return "!" + e.getClass().getName();
+		}
+		return describe(styledText);
+	}
+	
+	protected static Map<Attribute,Object> globalAttributes()
+	{
+		Map<Attribute,Object> attributes = new HashMap<Attribute,Object>();
+		attributes.put(TextAttribute.FAMILY, "DejaVu Sans");
+		attributes.put(TextAttribute.SIZE, 10f);
+		return attributes;
+	}
+	
+	protected static String describe(JRStyledText styledText)
+	{
+		StringBuilder sb = new StringBuilder();
+		sb.append(styledText.getText());
+		for (JRStyledText.Run run : styledText.getRuns())
+		{
+			sb.append('|').append(run.startIndex).append(',').append(run.endIndex);
+			List<String> attributes = new ArrayList<String>();
+			for (Map.Entry<Attribute,Object> entry : run.attributes.entrySet())
+			{
+				attributes.add(describeAttribute(entry.getKey()) + "=" + describeValue(entry.getValue()));
+			}
+			Collections.sort(attributes);
+			sb.append(attributes);
+		}
+		return sb.toString();
+	}
+	
+	protected static String describeAttribute(Attribute attribute)
+	{
+		String name = attribute.toString();
+		return name.substring(name.lastIndexOf('.') + 1);
+	}
+	
+	protected static String describeValue(Object value)
+	{
+		if (value instanceof JRPrintHyperlink)
+		{
+			JRPrintHyperlink hyperlink = (JRPrintHyperlink) value;
+			StringBuilder sb = new StringBuilder();
+			sb.append("link(").append(hyperlink.getLinkType())
+				.append(',').append(hyperlink.getHyperlinkReference())
+				.append(',').append(hyperlink.getLinkTarget());
+			if (hyperlink.getHyperlinkParameters() != null)
+			{
+				for (JRPrintHyperlinkParameter parameter : hyperlink.getHyperlinkParameters().getParameters())
+				{
+					sb.append(',').append(parameter.getName())
+						.append(':').append(parameter.getValueClass())
+						.append(':').append(parameter.getValue());
+				}
+			}
+			return sb.append(')').toString();
+		}
+		return String.valueOf(value);
+	}
+	
+}
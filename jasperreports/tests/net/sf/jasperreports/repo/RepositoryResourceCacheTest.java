@@ -0,0 +1,154 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.repo;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperCompileManager;
+import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.SimpleJasperReportsContext;
+import net.sf.jasperreports.engine.design.JasperDesign;
+import net.sf.jasperreports.engine.util.JRSaver;
+
+/**
+ * Tests for {@link RepositoryResourceCache}.
+ */
+public class RepositoryResourceCacheTest
+{
+	
+	private File repositoryDir;
+	private SimpleJasperReportsContext jasperReportsContext;
+	
+	@BeforeClass
+	public void createRepository() throws IOException
+	{
+		repositoryDir = File.createTempFile("repo", ".dir");
+		repositoryDir.delete();
+		repositoryDir.mkdir();
+		
+		jasperReportsContext = new SimpleJasperReportsContext();
+		jasperReportsContext.setExtensions(RepositoryService.class, Collections.singletonList(
+				new FileRepositoryService(jasperReportsContext, repositoryDir.getAbsolutePath(), false)));
+		jasperReportsContext.setExtensions(PersistenceServiceFactory.class, 
+				Collections.singletonList(FileRepositoryPersistenceServiceFactory.getInstance()));
+		jasperReportsContext.setProperty(RepositoryResourceCache.PROPERTY_MAX_ENTRIES, "2");
+	}
+	
+	@AfterClass
+	public void deleteRepository()
+	{
+		for (File file : repositoryDir.listFiles())
+		{
+			file.delete();
+		}
+		repositoryDir.delete();
+	}
+	
+	@BeforeMethod
+	public void clearCache()
+	{
+		RepositoryResourceCache.getInstance().clear();
+	}
+	
+	@Test
+	public void digestValidation()
+	{
+		RepositoryResourceCache cache = RepositoryResourceCache.getInstance();
+		byte[] digest = RepositoryResourceCache.digest(new byte[]{1, 2, 3});
+		long misses = cache.getMissCount();
+		long hits = cache.getHitCount();
+		
+		assert cache.get(String.class, "a", digest) == null;
+		cache.put(jasperReportsContext, String.class, "a", digest, "value");
+		assert "value".equals(cache.get(String.class, "a", RepositoryResourceCache.digest(new byte[]{1, 2, 3})));
+		assert cache.get(Integer.class, "a", digest) == null;
+		assert cache.get(String.class, "a", RepositoryResourceCache.digest(new byte[]{1, 2, 4})) == null;
+		assert cache.get(String.class, "a", digest) == null;
+		
+		assert cache.getHitCount() - hits == 1;
+		assert cache.getMissCount() - misses == 4;
+	}
+	
+	@Test
+	public void eviction()
+	{
+		RepositoryResourceCache cache = RepositoryResourceCache.getInstance();
+		byte[] digest = RepositoryResourceCache.digest(new byte[0]);
+		long evictions = cache.getEvictionCount();
+		
+		cache.put(jasperReportsContext, String.class, "a", digest, "a");
+		cache.put(jasperReportsContext, String.class, "b", digest, "b");
+		assert cache.get(String.class, "a", digest) != null;
+		cache.put(jasperReportsContext, String.class, "c", digest, "c");
+		
+		assert cache.size() == 2;
+		assert cache.getEvictionCount() - evictions == 1;
+		assert cache.get(String.class, "a", digest) != null;
+		assert cache.get(String.class, "b", digest) == null;
+		assert cache.get(String.class, "c", digest) != null;
+	}
+	
+	@Test
+	public void disabled()
+	{
+		RepositoryResourceCache cache = RepositoryResourceCache.getInstance();
+		SimpleJasperReportsContext context = new SimpleJasperReportsContext();
+		assert !RepositoryResourceCache.isEnabled(context);
+		
+		cache.put(context, String.class, "a", RepositoryResourceCache.digest(new byte[0]), "a");
+		assert cache.size() == 0;
+	}
+	
+	@Test
+	public void reports() throws JRException
+	{
+		saveReport("report.jasper", "first");
+		
+		RepositoryUtil repositoryUtil = RepositoryUtil.getInstance(jasperReportsContext);
+		JasperReport report = repositoryUtil.getReport(null, "report.jasper");
+		assert "first".equals(report.getName());
+		assert repositoryUtil.getReport(null, "report.jasper") == report;
+		
+		saveReport("report.jasper", "second");
+		JasperReport changedReport = repositoryUtil.getReport(null, "report.jasper");
+		assert "second".equals(changedReport.getName());
+		assert repositoryUtil.getReport(null, "report.jasper") == changedReport;
+	}
+	
+	protected void saveReport(String location, String name) throws JRException
+	{
+		JasperDesign design = new JasperDesign();
+		design.setName(name);
+		JasperReport report = JasperCompileManager.getInstance(jasperReportsContext).compile(design);
+		JRSaver.saveObject(report, new File(repositoryDir, location));
+	}
+}
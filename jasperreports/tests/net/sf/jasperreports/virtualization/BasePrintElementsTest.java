@@ -0,0 +1,216 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.virtualization;
+
+import java.awt.Color;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.UUID;
+
+import net.sf.jasperreports.engine.JRGenericElementType;
+import net.sf.jasperreports.engine.JRPrintElement;
+import net.sf.jasperreports.engine.JRPropertiesMap;
+import net.sf.jasperreports.engine.TabStop;
+import net.sf.jasperreports.engine.base.JRBaseGenericPrintElement;
+import net.sf.jasperreports.engine.base.JRBasePrintElement;
+import net.sf.jasperreports.engine.base.JRBasePrintEllipse;
+import net.sf.jasperreports.engine.base.JRBasePrintFrame;
+import net.sf.jasperreports.engine.base.JRBasePrintImage;
+import net.sf.jasperreports.engine.base.JRBasePrintLine;
+import net.sf.jasperreports.engine.base.JRBasePrintRectangle;
+import net.sf.jasperreports.engine.base.JRBasePrintText;
+import net.sf.jasperreports.engine.base.JRBaseStyle;
+import net.sf.jasperreports.engine.fill.JRVirtualizationContext;
+import net.sf.jasperreports.engine.type.FillEnum;
+import net.sf.jasperreports.engine.type.HorizontalTextAlignEnum;
+import net.sf.jasperreports.engine.type.LineDirectionEnum;
+import net.sf.jasperreports.engine.type.LineSpacingEnum;
+import net.sf.jasperreports.engine.type.LineStyleEnum;
+import net.sf.jasperreports.engine.type.ModeEnum;
+import net.sf.jasperreports.engine.type.ScaleImageEnum;
+import net.sf.jasperreports.engine.type.TabStopAlignEnum;
+import net.sf.jasperreports.engine.util.VirtualizationSerializer;
+import net.sf.jasperreports.engine.virtualization.VirtualizationOutput;
+import net.sf.jasperreports.engine.xml.JRXmlConstants;
+
+import org.testng.annotations.Test;
+
+public class BasePrintElementsTest extends BaseElementsTests
+{
+
+	@Test
+	public void text()
+	{
+		JRBasePrintText text = textElement();
+		JRBasePrintText read = compareBaseSerialized(text);
+		assert read.getParagraph().getOwnTabStops().length == 1;
+		assert read.getLineBox().getTopPen().getOwnLineColor().equals(Color.RED);
+	}
+
+	@Test
+	public void image()
+	{
+		JRBasePrintImage image = new JRBasePrintImage(null);
+		setElement(image);
+		image.setScaleImage(ScaleImageEnum.RETAIN_SHAPE);
+		image.getLineBox().setPadding(3);
+		image.setAnchorName("anchor");
+		image.setBookmarkLevel(1);
+		compareBaseSerialized(image);
+	}
+
+	@Test
+	public void frame()
+	{
+		JRBasePrintFrame frame = new JRBasePrintFrame(null);
+		setElement(frame);
+		frame.getLineBox().getPen().setLineWidth(2f);
+		
+		JRBasePrintLine line = new JRBasePrintLine(null);
+		setElement(line);
+		line.setDirection(LineDirectionEnum.BOTTOM_UP);
+		line.getLinePen().setLineStyle(LineStyleEnum.DASHED);
+		frame.addElement(line);
+		
+		JRBasePrintRectangle rectangle = new JRBasePrintRectangle(null);
+		setElement(rectangle);
+		rectangle.setRadius(4);
+		rectangle.setFill(FillEnum.SOLID);
+		frame.addElement(rectangle);
+		
+		JRBasePrintEllipse ellipse = new JRBasePrintEllipse(null);
+		setElement(ellipse);
+		frame.addElement(ellipse);
+		
+		frame.addElement(textElement());
+		
+		JRBasePrintFrame read = compareBaseSerialized(frame);
+		assert read.getElements().size() == 4;
+	}
+
+	@Test
+	public void generic()
+	{
+		JRBaseGenericPrintElement element = new JRBaseGenericPrintElement(null);
+		setElement(element);
+		element.setGenericType(new JRGenericElementType(JRXmlConstants.JASPERREPORTS_NAMESPACE, "test"));
+		element.setParameterValue("a", 13);
+		element.setParameterValue("b", "y");
+		compareBaseSerialized(element);
+	}
+
+	@Test
+	public void properties()
+	{
+		JRPropertiesMap base = new JRPropertiesMap();
+		base.setProperty("p1", "v1");
+		
+		JRPropertiesMap properties = new JRPropertiesMap();
+		properties.setBaseProperties(base);
+		properties.setProperty("p2", "v2");
+		properties.setProperty("p3", null);
+		
+		JRPropertiesMap read = passThroughSerialization(properties);
+		assert read.getBaseProperties() != null;
+		assert "v1".equals(read.getProperty("p1"));
+		assert "v2".equals(read.getProperty("p2"));
+		assert read.containsProperty("p3");
+		assert read.getOwnPropertyNames().length == 2;
+	}
+
+	@Test
+	public void sharedStyle() throws IOException
+	{
+		JRVirtualizationContext virtualizationContext = createVirtualizationContext();
+		JRBaseStyle style = new JRBaseStyle("shared");
+		
+		JRBasePrintFrame frame = new JRBasePrintFrame(null);
+		setElement(frame);
+		for (int i = 0; i < 20; i++)
+		{
+			JRBasePrintText text = textElement();
+			text.setStyle(style);
+			frame.addElement(text);
+		}
+		
+		JRBasePrintFrame read = passThroughSerialization(virtualizationContext, frame);
+		for (JRPrintElement element : read.getElements())
+		{
+			assert element.getStyle() == style;
+		}
+		
+		ByteArrayOutputStream compactOut = new ByteArrayOutputStream();
+		VirtualizationOutput out = new VirtualizationOutput(compactOut, 
+				new VirtualizationSerializer(), createVirtualizationContext());
+		out.writeJRObject(frame);
+		out.close();
+		
+		ByteArrayOutputStream javaOut = new ByteArrayOutputStream();
+		ObjectOutputStream objectOut = new ObjectOutputStream(javaOut);
+		objectOut.writeObject(frame);
+		objectOut.close();
+		
+		assert compactOut.size() < javaOut.size();
+	}
+
+	protected <T extends JRBasePrintElement> T compareBaseSerialized(T element)
+	{
+		T read = passThroughSerialization(element);
+		assert read != element;
+		compareXml(element, read);
+		return read;
+	}
+
+	protected JRBasePrintText textElement()
+	{
+		JRBasePrintText text = new JRBasePrintText(null);
+		setElement(text);
+		text.setText("text");
+		text.setValue(12);
+		text.setHorizontalTextAlign(HorizontalTextAlignEnum.CENTER);
+		text.setLineSpacingFactor(1.2f);
+		text.setLineBreakOffsets(new short[]{2});
+		text.setBold(Boolean.TRUE);
+		text.setFontSize(9f);
+		text.getLineBox().getTopPen().setLineColor(Color.RED);
+		text.getParagraph().setLineSpacing(LineSpacingEnum.DOUBLE);
+		text.getParagraph().addTabStop(new TabStop(40, TabStopAlignEnum.RIGHT));
+		text.setHyperlinkReference("http://localhost");
+		return text;
+	}
+
+	protected void setElement(JRBasePrintElement element)
+	{
+		element.setUUID(UUID.randomUUID());
+		element.setX(10);
+		element.setY(20);
+		element.setWidth(50);
+		element.setHeight(30);
+		element.setMode(ModeEnum.OPAQUE);
+		element.setForecolor(Color.BLUE);
+		element.getPropertiesMap().setProperty("prop", "value");
+	}
+
+}
@@ -0,0 +1,116 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.virtualization;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import net.sf.jasperreports.engine.util.JRMappedSwapFile;
+import net.sf.jasperreports.engine.util.JRSwapFile;
+
+import org.testng.annotations.Test;
+
+public class MappedSwapFileTest
+{
+	@Test
+	public void readWrite() throws Exception
+	{
+		JRMappedSwapFile swap = new JRMappedSwapFile(System.getProperty("java.io.tmpdir"), 64, 8, 2);
+		try
+		{
+			Random random = new Random(1);
+			List<byte[]> values = new ArrayList<byte[]>();
+			List<JRSwapFile.SwapHandle> handles = new ArrayList<JRSwapFile.SwapHandle>();
+			for (int i = 0; i < 50; i++)
+			{
+				// spans several blocks and segments
+				byte[] data = new byte[1 + random.nextInt(1000)];
+				random.nextBytes(data);
+				values.add(data);
+				handles.add(swap.write(data));
+			}
+			
+			for (int i = 0; i < values.size(); i++)
+			{
+				byte[] read = swap.read(handles.get(i), i % 2 == 0);
+				assert Arrays.equals(read, values.get(i));
+			}
+		}
+		finally
+		{
+			swap.dispose();
+		}
+	}
+	
+	@Test
+	public void concurrentReadWrite() throws Exception
+	{
+		final JRMappedSwapFile swap = new JRMappedSwapFile(System.getProperty("java.io.tmpdir"), 128, 16, 4);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try
+		{
+			List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+			for (int t = 0; t < 8; t++)
+			{
+				final int seed = t;
+				results.add(executor.submit(new Callable<Boolean>()
+				{
+					@Override
+					public Boolean call() throws Exception
+					{
+						Random random = new Random(seed);
+						for (int i = 0; i < 200; i++)
+						{
+							byte[] data = new byte[1 + random.nextInt(600)];
+							random.nextBytes(data);
+							JRSwapFile.SwapHandle handle = swap.write(data);
+							byte[] read = swap.read(handle, true);
+							if (!Arrays.equals(read, data))
+							{
+								return false;
+							}
+						}
+						return true;
+					}
+				}));
+			}
+			
+			for (Future<Boolean> result : results)
+			{
+				assert result.get();
+			}
+		}
+		finally
+		{
+			executor.shutdown();
+			swap.dispose();
+		}
+	}
+}
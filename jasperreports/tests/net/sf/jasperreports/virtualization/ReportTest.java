@@ -23,11 +23,15 @@
  */
 package net.sf.jasperreports.virtualization;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 import java.security.DigestOutputStream;
 import java.security.MessageDigest;
@@ -47,16 +51,24 @@ import net.sf.jasperreports.data.DataAdapterParameterContributorFactory;
 import net.sf.jasperreports.data.DataFileServiceFactory;
 import net.sf.jasperreports.engine.JRException;
 import net.sf.jasperreports.engine.JRParameter;
+import net.sf.jasperreports.engine.JRPrintPage;
 import net.sf.jasperreports.engine.JasperCompileManager;
 import net.sf.jasperreports.engine.JasperFillManager;
 import net.sf.jasperreports.engine.JasperPrint;
 import net.sf.jasperreports.engine.JasperReport;
 import net.sf.jasperreports.engine.ParameterContributorFactory;
 import net.sf.jasperreports.engine.SimpleJasperReportsContext;
+import net.sf.jasperreports.engine.base.JRBasePrintPage;
 import net.sf.jasperreports.engine.design.JasperDesign;
 import net.sf.jasperreports.engine.export.JRXmlExporter;
+import net.sf.jasperreports.engine.fill.ColumnarPrintPage;
+import net.sf.jasperreports.engine.fill.JRAbstractLRUVirtualizer;
 import net.sf.jasperreports.engine.fill.JRGzipVirtualizer;
+import net.sf.jasperreports.engine.fill.JRVirtualizationContext;
+import net.sf.jasperreports.engine.fill.StoreFactoryVirtualizer;
+import net.sf.jasperreports.engine.fill.VirtualizationReadAhead;
 import net.sf.jasperreports.engine.util.JRLoader;
+import net.sf.jasperreports.engine.util.OffHeapVirtualizerStoreFactory;
 import net.sf.jasperreports.engine.xml.JRXmlLoader;
 import net.sf.jasperreports.export.SimpleExporterInput;
 import net.sf.jasperreports.export.SimpleXmlExporterOutput;
@@ -70,6 +82,7 @@ public class ReportTest
 	private static final Log log = LogFactory.getLog(ReportTest.class);
 	
 	private JasperReport report;
+	private SimpleJasperReportsContext jasperReportsContext;
 	private JasperFillManager fillManager;
 	private String referenceJRPXMLDigest;
 
@@ -89,7 +102,7 @@ public class ReportTest
 		
 		report = JasperCompileManager.compileReport(design);
 		
-		SimpleJasperReportsContext jasperReportsContext = new SimpleJasperReportsContext();
+		jasperReportsContext = new SimpleJasperReportsContext();
 		// for some reason data adapter extensions are not registered by default
 		jasperReportsContext.setExtensions(ParameterContributorFactory.class, 
 				Collections.singletonList(DataAdapterParameterContributorFactory.getInstance()));
@@ -126,11 +139,99 @@ public class ReportTest
 	@Test
 	public void virtualizedReport() throws JRException, NoSuchAlgorithmException, IOException
 	{
+		JRGzipVirtualizer virtualizer = new JRGzipVirtualizer(3);
+		virtualizedReport(virtualizer);
+	}
+	
+	@Test
+	public void offHeapVirtualizedReport() throws JRException, NoSuchAlgorithmException, IOException
+	{
+		OffHeapVirtualizerStoreFactory storeFactory = new OffHeapVirtualizerStoreFactory();
+		// small arena so that some pages are spilled to the swap file
+		storeFactory.setArenaSize(8 * 4096);
+		storeFactory.setBlockSize(4096);
+		storeFactory.setChunkBlockCount(4);
+		
+		StoreFactoryVirtualizer virtualizer = new StoreFactoryVirtualizer(3, storeFactory);
+		try
+		{
+			virtualizedReport(virtualizer);
+		}
+		finally
+		{
+			virtualizer.cleanup();
+			storeFactory.dispose();
+		}
+	}
+
+	@Test
+	public void readAheadVirtualizedReport() throws JRException, NoSuchAlgorithmException, IOException
+	{
+		JRGzipVirtualizer virtualizer = new JRGzipVirtualizer(3);
 		HashMap<String, Object> params = new HashMap<String, Object>();
 		params.put(JRParameter.REPORT_LOCALE, Locale.US);
 		params.put(JRParameter.REPORT_TIME_ZONE, TimeZone.getTimeZone("GMT"));
+		params.put(JRParameter.REPORT_VIRTUALIZER, virtualizer);
 		
-		JRGzipVirtualizer virtualizer = new JRGzipVirtualizer(3);
+		JasperPrint print = fillManager.fill(report, params);
+		virtualizer.setReadOnly(true);
+		assert !print.getPages().isEmpty();
+		
+		JRVirtualizationContext virtualizationContext = JRVirtualizationContext.getRegistered(print);
+		virtualizationContext.setReadAheadPages(2);
+		VirtualizationReadAhead readAhead = virtualizationContext.getReadAhead();
+		assert readAhead != null;
+		
+		String digestString = xmlDigest(print);
+		log.debug("Read-ahead virtualized report got " + digestString + ", " + readAhead);
+		assert digestString.equals(referenceJRPXMLDigest);
+		
+		virtualizer.cleanup();
+	}
+
+	@Test
+	public void columnarReport() throws JRException, NoSuchAlgorithmException, IOException, ClassNotFoundException
+	{
+		SimpleJasperReportsContext columnarContext = new SimpleJasperReportsContext(jasperReportsContext);
+		columnarContext.setProperty(ColumnarPrintPage.PROPERTY_COLUMNAR_PRINT_PAGES, "true");
+		
+		HashMap<String, Object> params = new HashMap<String, Object>();
+		params.put(JRParameter.REPORT_LOCALE, Locale.US);
+		params.put(JRParameter.REPORT_TIME_ZONE, TimeZone.getTimeZone("GMT"));
+		JasperPrint print = JasperFillManager.getInstance(columnarContext).fill(report, params);
+		assert !print.getPages().isEmpty();
+		int compactedCount = 0;
+		for (JRPrintPage page : print.getPages())
+		{
+			assert page instanceof ColumnarPrintPage;
+			if (((ColumnarPrintPage) page).isCompacted())
+			{
+				++compactedCount;
+			}
+		}
+		assert compactedCount > 0;
+		
+		String digestString = xmlDigest(print);
+		log.debug("Columnar report got " + digestString);
+		assert digestString.equals(referenceJRPXMLDigest);
+		
+		ByteArrayOutputStream bytesOut = new ByteArrayOutputStream();
+		ObjectOutputStream objectOut = new ObjectOutputStream(bytesOut);
+		objectOut.writeObject(print);
+		objectOut.close();
+		
+		ObjectInputStream objectIn = new ObjectInputStream(new ByteArrayInputStream(bytesOut.toByteArray()));
+		JasperPrint deserializedPrint = (JasperPrint) objectIn.readObject();
+		assert deserializedPrint.getPages().get(0) instanceof JRBasePrintPage;
+		assert xmlDigest(deserializedPrint).equals(referenceJRPXMLDigest);
+	}
+
+	protected void virtualizedReport(JRAbstractLRUVirtualizer virtualizer) 
+			throws JRException, NoSuchAlgorithmException, IOException
+	{
+		HashMap<String, Object> params = new HashMap<String, Object>();
+		params.put(JRParameter.REPORT_LOCALE, Locale.US);
+		params.put(JRParameter.REPORT_TIME_ZONE, TimeZone.getTimeZone("GMT"));
 		params.put(JRParameter.REPORT_VIRTUALIZER, virtualizer);
 		
 		JasperPrint print = fillManager.fill(report, params);